@@ -4,7 +4,9 @@ package com.algoarena.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
-// import java.util.List;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @Configuration
 @ConfigurationProperties(prefix = "app")
@@ -13,17 +15,112 @@ public class AppConfig {
     private Piston piston = new Piston();
     private FileUpload file = new FileUpload();
     private Cors cors = new Cors();
+    private SubmitQueue submitQueue = new SubmitQueue();
+    private ExecutionStream executionStream = new ExecutionStream();
+    private BatchRun batchRun = new BatchRun();
+    private PistonGuard pistonGuard = new PistonGuard();
+    private SubmitCache submitCache = new SubmitCache();
+    private SubmitShard submitShard = new SubmitShard();
+    private LocalJava localJava = new LocalJava();
+    private Execution execution = new Execution();
+    private LocalExecution localExecution = new LocalExecution();
+    private JavaWorkerPool javaWorkerPool = new JavaWorkerPool();
+    private ExecutionTrace executionTrace = new ExecutionTrace();
+    private ExecutionContextCache executionContextCache = new ExecutionContextCache();
+    private ApproachWriteBehind approachWriteBehind = new ApproachWriteBehind();
+    private ApproachStorage approachStorage = new ApproachStorage();
+    private ComplexityAnalysis complexityAnalysis = new ComplexityAnalysis();
     
     // Nested Classes
     public static class Piston {
         private String apiUrl;
+        private List<String> apiUrls = new ArrayList<>(); // several Piston boxes; falls back to apiUrl when empty
         private int timeout;
+        private int connectTimeout = 5000;
+        private int maxConnections = 50;
+        private int pendingAcquireTimeout = 10000;
+        private int maxIdleTime = 60000;
+        private boolean keepAlive = true;
+        private int maxResponseSize = 10 * 1024 * 1024;
+        private long runtimeRefreshInterval = 300000;
+        private double runtimeRefreshJitter = 0.2;
+        private int nodeFailureThreshold = 3;
+        private long nodeEjectDuration = 30000;
         
         // Getters and Setters
         public String getApiUrl() { return apiUrl; }
         public void setApiUrl(String apiUrl) { this.apiUrl = apiUrl; }
+        public List<String> getApiUrls() { return apiUrls; }
+        public void setApiUrls(List<String> apiUrls) { this.apiUrls = apiUrls; }
         public int getTimeout() { return timeout; }
         public void setTimeout(int timeout) { this.timeout = timeout; }
+        public int getConnectTimeout() { return connectTimeout; }
+        public void setConnectTimeout(int connectTimeout) { this.connectTimeout = connectTimeout; }
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+        public int getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+        public void setPendingAcquireTimeout(int pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+        public int getMaxIdleTime() { return maxIdleTime; }
+        public void setMaxIdleTime(int maxIdleTime) { this.maxIdleTime = maxIdleTime; }
+        public boolean isKeepAlive() { return keepAlive; }
+        public void setKeepAlive(boolean keepAlive) { this.keepAlive = keepAlive; }
+        public int getMaxResponseSize() { return maxResponseSize; }
+        public void setMaxResponseSize(int maxResponseSize) { this.maxResponseSize = maxResponseSize; }
+        public long getRuntimeRefreshInterval() { return runtimeRefreshInterval; }
+        public void setRuntimeRefreshInterval(long runtimeRefreshInterval) { this.runtimeRefreshInterval = runtimeRefreshInterval; }
+        public double getRuntimeRefreshJitter() { return runtimeRefreshJitter; }
+        public void setRuntimeRefreshJitter(double runtimeRefreshJitter) { this.runtimeRefreshJitter = runtimeRefreshJitter; }
+        public int getNodeFailureThreshold() { return nodeFailureThreshold; }
+        public void setNodeFailureThreshold(int nodeFailureThreshold) { this.nodeFailureThreshold = nodeFailureThreshold; }
+        public long getNodeEjectDuration() { return nodeEjectDuration; }
+        public void setNodeEjectDuration(long nodeEjectDuration) { this.nodeEjectDuration = nodeEjectDuration; }
+
+        // Effective endpoint list: api-urls if configured, otherwise the single api-url
+        public List<String> getEndpoints() {
+            List<String> endpoints = new ArrayList<>();
+            if (apiUrls != null) {
+                for (String url : apiUrls) {
+                    if (url != null && !url.isBlank()) {
+                        endpoints.add(url.trim());
+                    }
+                }
+            }
+            if (endpoints.isEmpty() && apiUrl != null) {
+                endpoints.add(apiUrl);
+            }
+            return Collections.unmodifiableList(endpoints);
+        }
+    }
+    
+    public static class SubmitQueue {
+        private int workers = 4;
+        private int capacity = 200;
+        private long resultTtl = 600000;
+        private long sseTimeout = 120000;
+
+        // Getters and Setters
+        public int getWorkers() { return workers; }
+        public void setWorkers(int workers) { this.workers = workers; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public long getResultTtl() { return resultTtl; }
+        public void setResultTtl(long resultTtl) { this.resultTtl = resultTtl; }
+        public long getSseTimeout() { return sseTimeout; }
+        public void setSseTimeout(long sseTimeout) { this.sseTimeout = sseTimeout; }
+    }
+
+    public static class ExecutionStream {
+        private int workers = 8;
+        private int capacity = 100;
+        private long sseTimeout = 120000;
+
+        // Getters and Setters
+        public int getWorkers() { return workers; }
+        public void setWorkers(int workers) { this.workers = workers; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public long getSseTimeout() { return sseTimeout; }
+        public void setSseTimeout(long sseTimeout) { this.sseTimeout = sseTimeout; }
     }
     
     public static class FileUpload {
@@ -88,6 +185,298 @@ public class AppConfig {
         public void setAllowCredentials(boolean allowCredentials) { this.allowCredentials = allowCredentials; }
     }
     
+    public static class BatchRun {
+        private int parallelism = 4;
+        private int bundleSize = 8;
+        private int itemRunTimeout = 500;
+        private int pistonMaxRunTimeout = 3000; // Piston's run_timeout limit (PISTON_RUN_TIMEOUT); caps bundle size
+        private int maxItems = 500;
+
+        // Getters and Setters
+        public int getParallelism() { return parallelism; }
+        public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+        public int getBundleSize() { return bundleSize; }
+        public void setBundleSize(int bundleSize) { this.bundleSize = bundleSize; }
+        public int getItemRunTimeout() { return itemRunTimeout; }
+        public void setItemRunTimeout(int itemRunTimeout) { this.itemRunTimeout = itemRunTimeout; }
+        public int getPistonMaxRunTimeout() { return pistonMaxRunTimeout; }
+        public void setPistonMaxRunTimeout(int pistonMaxRunTimeout) { this.pistonMaxRunTimeout = pistonMaxRunTimeout; }
+        public int getMaxItems() { return maxItems; }
+        public void setMaxItems(int maxItems) { this.maxItems = maxItems; }
+    }
+    
+    public static class PistonGuard {
+        private boolean enabled = true;
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 50;
+        private long latencyThreshold = 10000;
+        private double backoffRatio = 0.9;
+        private int failureThreshold = 5;
+        private long openDuration = 10000;
+        private int halfOpenProbes = 2;
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getInitialLimit() { return initialLimit; }
+        public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+        public int getMinLimit() { return minLimit; }
+        public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+        public int getMaxLimit() { return maxLimit; }
+        public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+        public long getLatencyThreshold() { return latencyThreshold; }
+        public void setLatencyThreshold(long latencyThreshold) { this.latencyThreshold = latencyThreshold; }
+        public double getBackoffRatio() { return backoffRatio; }
+        public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+        public int getFailureThreshold() { return failureThreshold; }
+        public void setFailureThreshold(int failureThreshold) { this.failureThreshold = failureThreshold; }
+        public long getOpenDuration() { return openDuration; }
+        public void setOpenDuration(long openDuration) { this.openDuration = openDuration; }
+        public int getHalfOpenProbes() { return halfOpenProbes; }
+        public void setHalfOpenProbes(int halfOpenProbes) { this.halfOpenProbes = halfOpenProbes; }
+    }
+    
+    public static class SubmitCache {
+        private boolean enabled = true;
+        private int maxEntries = 5000;
+        private long ttl = 1800000;
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+        public long getTtl() { return ttl; }
+        public void setTtl(long ttl) { this.ttl = ttl; }
+    }
+
+    public static class SubmitShard {
+        private boolean enabled = true;
+        private long targetShardMillis = 4000;  // aim for each shard's test cases to take about this long
+        private int maxShards = 4;
+        private int minCasesPerShard = 20;
+        private long defaultCaseMillis = 20;    // per-case estimate before a question has any history
+        private double ewmaAlpha = 0.3;
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getTargetShardMillis() { return targetShardMillis; }
+        public void setTargetShardMillis(long targetShardMillis) { this.targetShardMillis = targetShardMillis; }
+        public int getMaxShards() { return maxShards; }
+        public void setMaxShards(int maxShards) { this.maxShards = maxShards; }
+        public int getMinCasesPerShard() { return minCasesPerShard; }
+        public void setMinCasesPerShard(int minCasesPerShard) { this.minCasesPerShard = minCasesPerShard; }
+        public long getDefaultCaseMillis() { return defaultCaseMillis; }
+        public void setDefaultCaseMillis(long defaultCaseMillis) { this.defaultCaseMillis = defaultCaseMillis; }
+        public double getEwmaAlpha() { return ewmaAlpha; }
+        public void setEwmaAlpha(double ewmaAlpha) { this.ewmaAlpha = ewmaAlpha; }
+    }
+
+    public static class LocalJava {
+        private boolean enabled = false;
+        private int harnessCacheSize = 200;
+        private int compileThreads = 2;        // in-process javac runs, shared with the Java worker pool
+        private int compileQueueSize = 16;     // compiles waiting for a thread; beyond this callers get busy
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getHarnessCacheSize() { return harnessCacheSize; }
+        public void setHarnessCacheSize(int harnessCacheSize) { this.harnessCacheSize = harnessCacheSize; }
+        public int getCompileThreads() { return compileThreads; }
+        public void setCompileThreads(int compileThreads) { this.compileThreads = compileThreads; }
+        public int getCompileQueueSize() { return compileQueueSize; }
+        public void setCompileQueueSize(int compileQueueSize) { this.compileQueueSize = compileQueueSize; }
+    }
+
+    public static class Execution {
+        private String backend = "piston";     // piston | local
+
+        // Getters and Setters
+        public String getBackend() { return backend; }
+        public void setBackend(String backend) { this.backend = backend; }
+    }
+
+    public static class LocalExecution {
+        private String workDir = "";           // empty = java.io.tmpdir; point at a tmpfs mount in production
+        private String javaCommand = "java";
+        private String pythonCommand = "python3";
+        private String nodeCommand = "node";
+        private String cppCompiler = "g++";
+        private int maxConcurrent = 4;
+        private int maxHeapMb = 256;           // JVM heap (rlimit on address space does not suit the JVM)
+        private int maxMemoryMb = 512;         // address space limit for native/interpreted programs
+        private int cpuSeconds = 10;
+        private int maxFileKb = 10240;
+        private long compileTimeout = 15000;
+        private long runTimeout = 10000;
+        private int maxOutputChars = 1000000;
+        private String isolation = "nsjail";   // nsjail | none (none = no namespaces, server uid; development only)
+        private String nsjailCommand = "nsjail";
+        private int jailUid = 65534;           // user and group programs run as inside the jail
+        private int jailGid = 65534;
+        private int maxProcesses = 64;         // cgroup pids.max per program (threads count)
+        private int maxJvmMemoryMb = 1024;     // cgroup memory for JVMs and compilers: heap plus metaspace, code cache, stacks
+        private boolean cgroupV2 = true;
+        private List<String> readonlyMounts = new ArrayList<>(List.of("/usr", "/bin", "/lib", "/lib64", "/etc/ld.so.cache"));
+
+        // Getters and Setters
+        public String getWorkDir() { return workDir; }
+        public void setWorkDir(String workDir) { this.workDir = workDir; }
+        public String getJavaCommand() { return javaCommand; }
+        public void setJavaCommand(String javaCommand) { this.javaCommand = javaCommand; }
+        public String getPythonCommand() { return pythonCommand; }
+        public void setPythonCommand(String pythonCommand) { this.pythonCommand = pythonCommand; }
+        public String getNodeCommand() { return nodeCommand; }
+        public void setNodeCommand(String nodeCommand) { this.nodeCommand = nodeCommand; }
+        public String getCppCompiler() { return cppCompiler; }
+        public void setCppCompiler(String cppCompiler) { this.cppCompiler = cppCompiler; }
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+        public int getMaxHeapMb() { return maxHeapMb; }
+        public void setMaxHeapMb(int maxHeapMb) { this.maxHeapMb = maxHeapMb; }
+        public int getMaxMemoryMb() { return maxMemoryMb; }
+        public void setMaxMemoryMb(int maxMemoryMb) { this.maxMemoryMb = maxMemoryMb; }
+        public int getCpuSeconds() { return cpuSeconds; }
+        public void setCpuSeconds(int cpuSeconds) { this.cpuSeconds = cpuSeconds; }
+        public int getMaxFileKb() { return maxFileKb; }
+        public void setMaxFileKb(int maxFileKb) { this.maxFileKb = maxFileKb; }
+        public long getCompileTimeout() { return compileTimeout; }
+        public void setCompileTimeout(long compileTimeout) { this.compileTimeout = compileTimeout; }
+        public long getRunTimeout() { return runTimeout; }
+        public void setRunTimeout(long runTimeout) { this.runTimeout = runTimeout; }
+        public int getMaxOutputChars() { return maxOutputChars; }
+        public void setMaxOutputChars(int maxOutputChars) { this.maxOutputChars = maxOutputChars; }
+        public String getIsolation() { return isolation; }
+        public void setIsolation(String isolation) { this.isolation = isolation; }
+        public String getNsjailCommand() { return nsjailCommand; }
+        public void setNsjailCommand(String nsjailCommand) { this.nsjailCommand = nsjailCommand; }
+        public int getJailUid() { return jailUid; }
+        public void setJailUid(int jailUid) { this.jailUid = jailUid; }
+        public int getJailGid() { return jailGid; }
+        public void setJailGid(int jailGid) { this.jailGid = jailGid; }
+        public int getMaxProcesses() { return maxProcesses; }
+        public void setMaxProcesses(int maxProcesses) { this.maxProcesses = maxProcesses; }
+        public int getMaxJvmMemoryMb() { return maxJvmMemoryMb; }
+        public void setMaxJvmMemoryMb(int maxJvmMemoryMb) { this.maxJvmMemoryMb = maxJvmMemoryMb; }
+        public boolean isCgroupV2() { return cgroupV2; }
+        public void setCgroupV2(boolean cgroupV2) { this.cgroupV2 = cgroupV2; }
+        public List<String> getReadonlyMounts() { return readonlyMounts; }
+        public void setReadonlyMounts(List<String> readonlyMounts) { this.readonlyMounts = readonlyMounts; }
+    }
+
+    public static class JavaWorkerPool {
+        private boolean enabled = false;
+        private int size = 2;
+        private int maxRunsPerWorker = 100;
+        private int maxHeapUsedPercent = 60;   // heap still in use after a run and a GC => recycle the worker
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getSize() { return size; }
+        public void setSize(int size) { this.size = size; }
+        public int getMaxRunsPerWorker() { return maxRunsPerWorker; }
+        public void setMaxRunsPerWorker(int maxRunsPerWorker) { this.maxRunsPerWorker = maxRunsPerWorker; }
+        public int getMaxHeapUsedPercent() { return maxHeapUsedPercent; }
+        public void setMaxHeapUsedPercent(int maxHeapUsedPercent) { this.maxHeapUsedPercent = maxHeapUsedPercent; }
+    }
+
+    public static class ExecutionTrace {
+        private double sampleRate = 0.0;      // fraction of run/submit requests traced without the admin header
+        private int capacity = 50;            // traces kept in the ring buffer
+        private int maxTextChars = 20000;     // per captured value (generated code, stdout, ...)
+
+        // Getters and Setters
+        public double getSampleRate() { return sampleRate; }
+        public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public int getMaxTextChars() { return maxTextChars; }
+        public void setMaxTextChars(int maxTextChars) { this.maxTextChars = maxTextChars; }
+    }
+
+    public static class ExecutionContextCache {
+        private boolean enabled = true;
+        private int maxEntries = 2000;
+        private long ttl = 600000;            // bounds staleness for edits made on another instance
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+        public long getTtl() { return ttl; }
+        public void setTtl(long ttl) { this.ttl = ttl; }
+    }
+
+    // Queue and spool are per instance: read-your-writes only holds on the instance that took the submit,
+    // others see it after flushInterval. Each instance needs its own spoolFile.
+    public static class ApproachWriteBehind {
+        private boolean enabled = true;
+        private long flushInterval = 500;
+        private int maxBatchSize = 500;
+        private int maxPending = 20000;        // beyond this (long Mongo outage) new approaches are refused
+        private long retryInitialDelay = 1000;
+        private long retryMaxDelay = 60000;
+        private String spoolFile = "";         // empty = java.io.tmpdir/algoarena-approach-spool.json; per instance
+
+        // Getters and Setters
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public long getFlushInterval() { return flushInterval; }
+        public void setFlushInterval(long flushInterval) { this.flushInterval = flushInterval; }
+        public int getMaxBatchSize() { return maxBatchSize; }
+        public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+        public int getMaxPending() { return maxPending; }
+        public void setMaxPending(int maxPending) { this.maxPending = maxPending; }
+        public long getRetryInitialDelay() { return retryInitialDelay; }
+        public void setRetryInitialDelay(long retryInitialDelay) { this.retryInitialDelay = retryInitialDelay; }
+        public long getRetryMaxDelay() { return retryMaxDelay; }
+        public void setRetryMaxDelay(long retryMaxDelay) { this.retryMaxDelay = retryMaxDelay; }
+        public String getSpoolFile() { return spoolFile; }
+        public void setSpoolFile(String spoolFile) { this.spoolFile = spoolFile; }
+    }
+
+    public static class ApproachStorage {
+        private String mode = "dual-write";    // legacy | dual-write | dual-write-read-new | per-question
+
+        // Getters and Setters
+        public String getMode() { return mode; }
+        public void setMode(String mode) { this.mode = mode; }
+    }
+
+    public static class ComplexityAnalysis {
+        private int workers = 2;               // concurrent Gemini calls
+        private int capacity = 100;            // distinct analyses waiting for a worker
+        private int maxAttempts = 5;           // per analysis, counting 429 retries
+        private long retryInitialDelay = 2000; // pause after a 429, doubled per retry
+        private long retryMaxDelay = 60000;
+        private long resultTtl = 600000;
+        private long sseTimeout = 120000;
+        private long syncTimeout = 90000;      // PUT analyze-complexity waits this long for its job
+
+        // Getters and Setters
+        public int getWorkers() { return workers; }
+        public void setWorkers(int workers) { this.workers = workers; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public int getMaxAttempts() { return maxAttempts; }
+        public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+        public long getRetryInitialDelay() { return retryInitialDelay; }
+        public void setRetryInitialDelay(long retryInitialDelay) { this.retryInitialDelay = retryInitialDelay; }
+        public long getRetryMaxDelay() { return retryMaxDelay; }
+        public void setRetryMaxDelay(long retryMaxDelay) { this.retryMaxDelay = retryMaxDelay; }
+        public long getResultTtl() { return resultTtl; }
+        public void setResultTtl(long resultTtl) { this.resultTtl = resultTtl; }
+        public long getSseTimeout() { return sseTimeout; }
+        public void setSseTimeout(long sseTimeout) { this.sseTimeout = sseTimeout; }
+        public long getSyncTimeout() { return syncTimeout; }
+        public void setSyncTimeout(long syncTimeout) { this.syncTimeout = syncTimeout; }
+    }
+    
     // Main Getters and Setters
     public Piston getPiston() { return piston; }
     public void setPiston(Piston piston) { this.piston = piston; }
@@ -95,6 +484,36 @@ public class AppConfig {
     public void setFile(FileUpload file) { this.file = file; }
     public Cors getCors() { return cors; }
     public void setCors(Cors cors) { this.cors = cors; }
+    public SubmitQueue getSubmitQueue() { return submitQueue; }
+    public void setSubmitQueue(SubmitQueue submitQueue) { this.submitQueue = submitQueue; }
+    public ExecutionStream getExecutionStream() { return executionStream; }
+    public void setExecutionStream(ExecutionStream executionStream) { this.executionStream = executionStream; }
+    public BatchRun getBatchRun() { return batchRun; }
+    public void setBatchRun(BatchRun batchRun) { this.batchRun = batchRun; }
+    public PistonGuard getPistonGuard() { return pistonGuard; }
+    public void setPistonGuard(PistonGuard pistonGuard) { this.pistonGuard = pistonGuard; }
+    public SubmitCache getSubmitCache() { return submitCache; }
+    public void setSubmitCache(SubmitCache submitCache) { this.submitCache = submitCache; }
+    public SubmitShard getSubmitShard() { return submitShard; }
+    public void setSubmitShard(SubmitShard submitShard) { this.submitShard = submitShard; }
+    public LocalJava getLocalJava() { return localJava; }
+    public void setLocalJava(LocalJava localJava) { this.localJava = localJava; }
+    public Execution getExecution() { return execution; }
+    public void setExecution(Execution execution) { this.execution = execution; }
+    public LocalExecution getLocalExecution() { return localExecution; }
+    public void setLocalExecution(LocalExecution localExecution) { this.localExecution = localExecution; }
+    public JavaWorkerPool getJavaWorkerPool() { return javaWorkerPool; }
+    public void setJavaWorkerPool(JavaWorkerPool javaWorkerPool) { this.javaWorkerPool = javaWorkerPool; }
+    public ExecutionTrace getExecutionTrace() { return executionTrace; }
+    public void setExecutionTrace(ExecutionTrace executionTrace) { this.executionTrace = executionTrace; }
+    public ExecutionContextCache getExecutionContextCache() { return executionContextCache; }
+    public void setExecutionContextCache(ExecutionContextCache executionContextCache) { this.executionContextCache = executionContextCache; }
+    public ApproachWriteBehind getApproachWriteBehind() { return approachWriteBehind; }
+    public void setApproachWriteBehind(ApproachWriteBehind approachWriteBehind) { this.approachWriteBehind = approachWriteBehind; }
+    public ApproachStorage getApproachStorage() { return approachStorage; }
+    public void setApproachStorage(ApproachStorage approachStorage) { this.approachStorage = approachStorage; }
+    public ComplexityAnalysis getComplexityAnalysis() { return complexityAnalysis; }
+    public void setComplexityAnalysis(ComplexityAnalysis complexityAnalysis) { this.complexityAnalysis = complexityAnalysis; }
 }
 
   
\ No newline at end of file
@@ -0,0 +1,43 @@
+// src/main/java/com/algoarena/config/PistonClientConfig.java
+package com.algoarena.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class PistonClientConfig {
+
+    /**
+     * Pooled, keep-alive WebClient used for every call to Piston.
+     * Connections are reused across requests instead of opening a fresh socket per execution.
+     */
+    @Bean
+    public WebClient pistonWebClient(WebClient.Builder builder, AppConfig appConfig) {
+        AppConfig.Piston piston = appConfig.getPiston();
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("piston")
+                .maxConnections(piston.getMaxConnections())
+                .pendingAcquireTimeout(Duration.ofMillis(piston.getPendingAcquireTimeout()))
+                .maxIdleTime(Duration.ofMillis(piston.getMaxIdleTime()))
+                .evictInBackground(Duration.ofSeconds(30))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, piston.getConnectTimeout())
+                .option(ChannelOption.SO_KEEPALIVE, piston.isKeepAlive())
+                .keepAlive(piston.isKeepAlive())
+                .responseTimeout(Duration.ofMillis(piston.getTimeout()));
+
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(piston.getMaxResponseSize()))
+                .build();
+    }
+}
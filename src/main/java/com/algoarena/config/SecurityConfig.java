@@ -69,10 +69,14 @@ public class SecurityConfig {
                                 "/status",
                                 "/ping",
                                 "/healthz",
-                                "/actuator/**",
+                                "/actuator/health/**",
+                                "/actuator/info",
                                 "/error")
                         .permitAll()
 
+                        // METRICS - ADMIN ONLY (meters describe internal execution infrastructure)
+                        .requestMatchers("/actuator/**").hasAnyRole("ADMIN", "SUPERADMIN")
+
                         // ============================================
                         // COURSE ENDPOINTS - SPECIFIC BEFORE WILDCARD
                         // ============================================
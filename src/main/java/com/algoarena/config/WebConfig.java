@@ -1,6 +1,7 @@
 // src/main/java/com/algoarena/config/WebConfig.java
 package com.algoarena.config;
 
+import com.algoarena.interceptor.ExecutionTraceInterceptor;
 import com.algoarena.interceptor.RateLimitInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +14,9 @@ public class WebConfig implements WebMvcConfigurer {
     @Autowired
     private RateLimitInterceptor rateLimitInterceptor;
 
+    @Autowired
+    private ExecutionTraceInterceptor executionTraceInterceptor;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(rateLimitInterceptor)
@@ -25,5 +29,8 @@ public class WebConfig implements WebMvcConfigurer {
                         "/user/me/**",      
                         "/auth/me",         
                         "/auth/refresh");
+
+        registry.addInterceptor(executionTraceInterceptor)
+                .addPathPatterns("/question-compiler/**");
     }
 }
\ No newline at end of file
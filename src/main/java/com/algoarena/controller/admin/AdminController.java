@@ -2,18 +2,21 @@
 package com.algoarena.controller.admin;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.algoarena.dto.admin.AdminOverviewDTO;
 import com.algoarena.dto.admin.UserDTO;
 import com.algoarena.dto.dsa.AdminQuestionSummaryDTO;
 import com.algoarena.dto.dsa.AdminSolutionSummaryDTO;
+import com.algoarena.model.QuestionApproaches;
 import com.algoarena.model.User;
 import com.algoarena.model.UserApproaches;
 import com.algoarena.model.UserRole;
 
 import com.algoarena.service.admin.AdminOverviewService;
 import com.algoarena.service.admin.UserService;
+import com.algoarena.service.dsa.ApproachStore;
 import com.algoarena.service.dsa.QuestionService;
 import com.algoarena.service.dsa.SolutionService;
 
@@ -21,9 +24,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -47,7 +47,7 @@ public class AdminController {
     private UserService userService;
 
     @Autowired
-    private MongoTemplate mongoTemplate;
+    private ApproachStore approachStore;
 
     @GetMapping("/overview")
     public ResponseEntity<AdminOverviewDTO> getAdminOverview() {
@@ -182,50 +182,50 @@ public class AdminController {
     }
 
     /**
-     * Get UserApproaches document size - UPDATED FOR MAP-OF-MAPS
+     * Get approach document size of a user, from the layout being read (one user_approaches document, or one
+     * question_approaches document per question; the 16 MB limit is checked against the largest)
      * GET /api/admin/users/{userId}/approaches/size
      */
     @GetMapping("/users/{userId}/approaches/size")
     public ResponseEntity<Map<String, Object>> getUserApproachesSize(@PathVariable String userId) {
         try {
-            // Get the UserApproaches entity
-            Query query = new Query(Criteria.where("userId").is(userId));
-            UserApproaches userApproaches = mongoTemplate.findOne(query, UserApproaches.class);
+            List<QuestionApproaches> questions = approachStore.findForUser(userId);
 
-            if (userApproaches == null) {
+            if (questions.isEmpty()) {
                 Map<String, Object> errorResponse = new HashMap<>();
                 errorResponse.put("success", false);
                 errorResponse.put("error", "User approaches not found");
                 return ResponseEntity.status(404).body(errorResponse);
             }
 
-            // ✅ Calculate REAL size by getting all content (UPDATED FOR MAP-OF-MAPS)
+            // ✅ Calculate REAL size by getting all content
             int totalContentSize = 0;
+            int totalApproaches = 0;
             int questionsWithApproaches = 0;
+            int largestDocumentSize = 0;
 
             Map<String, Integer> sizePerQuestion = new HashMap<>();
 
-            // ✅ UPDATED: Iterate through Map<String, Map<String, ApproachData>>
-            for (Map.Entry<String, Map<String, UserApproaches.ApproachData>> entry : userApproaches.getApproaches()
-                    .entrySet()) {
-                String questionId = entry.getKey();
-                Map<String, UserApproaches.ApproachData> approachesMap = entry.getValue();
-
+            for (QuestionApproaches question : questions) {
                 int questionSize = 0;
-                for (UserApproaches.ApproachData approach : approachesMap.values()) {
+                for (UserApproaches.ApproachData approach : question.getApproaches().values()) {
                     questionSize += approach.getContentSize();
                 }
 
-                sizePerQuestion.put(questionId, questionSize);
+                sizePerQuestion.put(question.getQuestionId(), questionSize);
                 totalContentSize += questionSize;
+                totalApproaches += question.getApproaches().size();
                 questionsWithApproaches++;
+
+                // Estimate document overhead (metadata, field names, etc.)
+                // Rough estimate: ~50-100 bytes per approach + base document overhead
+                largestDocumentSize = Math.max(largestDocumentSize,
+                        500 + question.getApproaches().size() * 80 + questionSize);
             }
 
-            // Estimate document overhead (metadata, field names, etc.)
-            // Rough estimate: ~50-100 bytes per approach + base document overhead
-            int totalApproaches = userApproaches.getTotalApproaches();
-            int estimatedOverhead = 500 + (totalApproaches * 80); // Base + per-approach overhead
-            int estimatedTotalSize = totalContentSize + estimatedOverhead;
+            int estimatedTotalSize = approachStore.readsPerQuestion()
+                    ? largestDocumentSize
+                    : totalContentSize + 500 + (totalApproaches * 80); // Base + per-approach overhead
 
             double contentSizeKB = totalContentSize / 1024.0;
             double estimatedSizeKB = estimatedTotalSize / 1024.0;
@@ -235,6 +235,8 @@ public class AdminController {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("userId", userId);
+            response.put("storageMode", approachStore.getMode());
+            response.put("documentCount", approachStore.readsPerQuestion() ? questions.size() : 1);
             response.put("totalApproaches", totalApproaches);
             response.put("questionsWithApproaches", questionsWithApproaches);
 
@@ -0,0 +1,60 @@
+// src/main/java/com/algoarena/controller/admin/ApproachStorageMigrationController.java
+package com.algoarena.controller.admin;
+
+import com.algoarena.service.migration.ApproachStorageMigrationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/migrations/approach-storage")
+@PreAuthorize("hasRole('SUPERADMIN')")
+public class ApproachStorageMigrationController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApproachStorageMigrationController.class);
+
+    @Autowired
+    private ApproachStorageMigrationService migrationService;
+
+    /**
+     * ✅ Copy user_approaches into question_approaches (needs app.approach-storage.mode=dual-write)
+     * POST /api/admin/migrations/approach-storage/migrate
+     */
+    @PostMapping("/migrate")
+    public ResponseEntity<Map<String, Object>> migrate() {
+        logger.info("Migration: approach storage copy requested");
+
+        Map<String, Object> result = migrationService.migrate();
+
+        if ((boolean) result.get("success")) {
+            return ResponseEntity.ok(result);
+        } else {
+            return ResponseEntity.status(500).body(result);
+        }
+    }
+
+    /**
+     * ✅ Compare both layouts before switching reads to question_approaches
+     * GET /api/admin/migrations/approach-storage/verify
+     */
+    @GetMapping("/verify")
+    public ResponseEntity<Map<String, Object>> verifyMigration() {
+        Map<String, Object> result = migrationService.verifyMigration();
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * ✅ Get migration statistics
+     * GET /api/admin/migrations/approach-storage/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getMigrationStats() {
+        Map<String, Object> stats = migrationService.getMigrationStats();
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -0,0 +1,50 @@
+// src/main/java/com/algoarena/controller/admin/BatchRunController.java
+package com.algoarena.controller.admin;
+
+import com.algoarena.dto.compiler.runmode.BatchRunRequest;
+import com.algoarena.service.compiler.runmode.BatchRunService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@RestController
+@RequestMapping("/admin/compiler")
+@PreAuthorize("hasRole('ADMIN') or hasRole('SUPERADMIN')")
+public class BatchRunController {
+
+    @Autowired
+    private BatchRunService batchRunService;
+
+    /**
+     * Run many (question, language, code) tuples in one call, e.g. to re-validate templates
+     * after a migration. Returns one aggregated report.
+     */
+    @PostMapping("/batch-run")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> batchRun(@Valid @RequestBody BatchRunRequest request) {
+        return batchRunService.executeBatch(request)
+                .thenApply(report -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("data", report);
+
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("error", "Batch run failed");
+                    response.put("message", cause.getMessage());
+
+                    return ResponseEntity.status(500).body(response);
+                });
+    }
+}
@@ -0,0 +1,73 @@
+// src/main/java/com/algoarena/controller/admin/ExecutionTraceController.java
+package com.algoarena.controller.admin;
+
+import com.algoarena.service.compiler.ExecutionTrace;
+import com.algoarena.service.compiler.ExecutionTraceService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recent execution traces (requests sent with X-Execution-Trace: true by an admin, or sampled)
+ */
+@RestController
+@RequestMapping("/admin/execution-traces")
+@PreAuthorize("hasRole('ADMIN') or hasRole('SUPERADMIN')")
+public class ExecutionTraceController {
+
+    @Autowired
+    private ExecutionTraceService executionTraceService;
+
+    /**
+     * Newest first, summaries only
+     * GET /api/admin/execution-traces
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listTraces() {
+        List<Map<String, Object>> traces = executionTraceService.list();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", traces);
+        response.put("count", traces.size());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Full trace: generated code, execution request/response and parser decisions
+     * GET /api/admin/execution-traces/{traceId}
+     */
+    @GetMapping("/{traceId}")
+    public ResponseEntity<Map<String, Object>> getTrace(@PathVariable String traceId) {
+        ExecutionTrace trace = executionTraceService.get(traceId);
+
+        Map<String, Object> response = new HashMap<>();
+        if (trace == null) {
+            response.put("success", false);
+            response.put("error", "Trace not found");
+            response.put("message", "No trace with id " + traceId + " (it may have been evicted)");
+            return ResponseEntity.status(404).body(response);
+        }
+        response.put("success", true);
+        response.put("data", trace);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * DELETE /api/admin/execution-traces
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> clearTraces() {
+        int cleared = executionTraceService.clear();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Cleared " + cleared + " traces");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -2,7 +2,9 @@
 package com.algoarena.controller.compiler;
 
 import com.algoarena.dto.compiler.ExecutionRequest;
-import com.algoarena.dto.compiler.ExecutionResponse;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.algoarena.service.compiler.ExecutionBackend;
+import com.algoarena.service.compiler.PistonRuntimeCatalog;
 import com.algoarena.service.compiler.PistonService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +15,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/compiler")
@@ -22,30 +26,48 @@ public class CompilerController {
     @Autowired
     private PistonService pistonService;
 
+    @Autowired
+    private ExecutionBackend executionBackend;
+
+    @Autowired
+    private PistonRuntimeCatalog runtimeCatalog;
+
+    /**
+     * Runs asynchronously - the servlet thread is released while the execution backend runs the code
+     */
     @PostMapping("/execute")
-    public ResponseEntity<Map<String, Object>> executeCode(@Valid @RequestBody ExecutionRequest request) {
-        try {
-            ExecutionResponse result = pistonService.executeCode(request);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", result);
-            
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("error", "Code execution failed");
-            response.put("message", e.getMessage());
-            
-            return ResponseEntity.status(500).body(response);
-        }
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> executeCode(@Valid @RequestBody ExecutionRequest request) {
+        return executionBackend.execute(request).toFuture()
+                .thenApply(result -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("data", result);
+
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof ExecutionServiceBusyException busy) {
+                        // Handled by GlobalExceptionHandler (503)
+                        throw busy;
+                    }
+
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", false);
+                    response.put("error", "Code execution failed");
+                    response.put("message", cause.getMessage());
+
+                    return ResponseEntity.status(500).body(response);
+                });
     }
 
+    /**
+     * Served from the in-memory runtime catalog (refreshed in the background)
+     */
     @GetMapping("/runtimes")
     public ResponseEntity<Map<String, Object>> getRuntimes() {
         try {
-            List<Map<String, Object>> runtimes = pistonService.getRuntimes();
+            List<Map<String, Object>> runtimes = runtimeCatalog.getRuntimes();
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -3,17 +3,23 @@ package com.algoarena.controller.compiler;
 
 import com.algoarena.dto.compiler.runmode.RunCodeRequest;
 import com.algoarena.dto.compiler.runmode.RunCodeResponse;
+import com.algoarena.dto.compiler.submitmode.SubmissionJobDTO;
 import com.algoarena.dto.compiler.submitmode.SubmitCodeRequest;
 import com.algoarena.dto.compiler.submitmode.SubmitCodeResponse;
+import com.algoarena.exception.ExecutionServiceBusyException;
 import com.algoarena.model.User;
+import com.algoarena.service.compiler.ExecutionStreamService;
 import com.algoarena.service.compiler.runmode.RunModeService;
+import com.algoarena.service.compiler.submitmode.SubmissionQueueService;
 import com.algoarena.service.compiler.submitmode.SubmitModeService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/question-compiler")
@@ -26,6 +32,12 @@ public class QuestionCompilerController {
     @Autowired
     private SubmitModeService submitModeService;
 
+    @Autowired
+    private SubmissionQueueService submissionQueueService;
+
+    @Autowired
+    private ExecutionStreamService executionStreamService;
+
     /**
      * Run code with user-provided test cases (1-5 custom)
      * POST /api/question-compiler/{questionId}/run
@@ -33,22 +45,44 @@ public class QuestionCompilerController {
     @PostMapping("/{questionId}/run")
     public ResponseEntity<RunCodeResponse> runCode(
             @PathVariable String questionId,
-            @Valid @RequestBody RunCodeRequest request) {
+            @Valid @RequestBody RunCodeRequest request,
+            Authentication authentication) {
         
         try {
-            RunCodeResponse response = runModeService.executeRunMode(questionId, request);
+            User currentUser = (User) authentication.getPrincipal();
+            RunCodeResponse response = runModeService.executeRunMode(questionId, request, currentUser);
             return ResponseEntity.ok(response);
             
         } catch (IllegalArgumentException e) {
             RunCodeResponse errorResponse = new RunCodeResponse(false, "WRONG_ANSWER", e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
             
+        } catch (ExecutionServiceBusyException e) {
+            // Piston is saturated - let GlobalExceptionHandler answer 503
+            throw e;
+
         } catch (Exception e) {
             RunCodeResponse errorResponse = new RunCodeResponse(false, "WRONG_ANSWER", "Execution failed: " + e.getMessage());
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
 
+    /**
+     * Run code with live progress over Server-Sent Events
+     * POST /api/question-compiler/{questionId}/run/stream
+     * Events: phase (queued/compiling/executing/parsing), testcase (one per result), result or error
+     * (also sent, alone, when the stream pool is full)
+     */
+    @PostMapping(value = "/{questionId}/run/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter runCodeStream(
+            @PathVariable String questionId,
+            @Valid @RequestBody RunCodeRequest request,
+            Authentication authentication) {
+
+        User currentUser = (User) authentication.getPrincipal();
+        return executionStreamService.streamRun(questionId, request, currentUser);
+    }
+
     /**
      * Submit code with all testcases from DB + create approach
      * POST /api/question-compiler/{questionId}/submit
@@ -68,9 +102,79 @@ public class QuestionCompilerController {
             SubmitCodeResponse errorResponse = new SubmitCodeResponse(false, "WRONG_ANSWER", e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
             
+        } catch (ExecutionServiceBusyException e) {
+            // Piston is saturated - let GlobalExceptionHandler answer 503
+            throw e;
+
         } catch (Exception e) {
             SubmitCodeResponse errorResponse = new SubmitCodeResponse(false, "WRONG_ANSWER", "Execution failed: " + e.getMessage());
             return ResponseEntity.status(500).body(errorResponse);
         }
     }
+
+    /**
+     * Submit code with live progress over Server-Sent Events
+     * POST /api/question-compiler/{questionId}/submit/stream
+     * Events: phase (queued/compiling/executing/parsing), testcase (id, status and executionTime as each shard
+     * is parsed), result or error (also sent, alone, when the stream pool is full)
+     */
+    @PostMapping(value = "/{questionId}/submit/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter submitCodeStream(
+            @PathVariable String questionId,
+            @Valid @RequestBody SubmitCodeRequest request,
+            Authentication authentication) {
+
+        User currentUser = (User) authentication.getPrincipal();
+        return executionStreamService.streamSubmit(questionId, request, currentUser);
+    }
+
+    /**
+     * Enqueue a submission and return a job ID immediately (202 Accepted)
+     * POST /api/question-compiler/{questionId}/submit/async
+     * Poll GET /api/question-compiler/submissions/{jobId} or stream /events for the result
+     */
+    @PostMapping("/{questionId}/submit/async")
+    public ResponseEntity<SubmissionJobDTO> submitCodeAsync(
+            @PathVariable String questionId,
+            @Valid @RequestBody SubmitCodeRequest request,
+            Authentication authentication) {
+
+        User currentUser = (User) authentication.getPrincipal();
+        SubmissionJobDTO job = submissionQueueService.enqueue(questionId, request, currentUser);
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Poll an async submission
+     * GET /api/question-compiler/submissions/{jobId}
+     */
+    @GetMapping("/submissions/{jobId}")
+    public ResponseEntity<SubmissionJobDTO> getSubmissionJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+
+        User currentUser = (User) authentication.getPrincipal();
+        SubmissionJobDTO job = submissionQueueService.getJob(jobId, currentUser.getId());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Server-Sent Events stream of an async submission's status; closes once the job finishes
+     * GET /api/question-compiler/submissions/{jobId}/events
+     */
+    @GetMapping(value = "/submissions/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSubmissionJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+
+        User currentUser = (User) authentication.getPrincipal();
+        SseEmitter emitter = submissionQueueService.subscribe(jobId, currentUser.getId());
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
 }
\ No newline at end of file
@@ -1,17 +1,22 @@
 // src/main/java/com/algoarena/controller/dsa/ApproachController.java
 package com.algoarena.controller.dsa;
 
+import com.algoarena.dto.complexity.ComplexityJobDTO;
 import com.algoarena.dto.dsa.ApproachDetailDTO;
 import com.algoarena.dto.dsa.ApproachMetadataDTO;
 import com.algoarena.dto.dsa.ApproachUpdateDTO;
+import com.algoarena.exception.ExecutionServiceBusyException;
 import com.algoarena.model.User;
+import com.algoarena.service.complexity.ComplexityAnalysisJobService;
 import com.algoarena.service.dsa.ApproachService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -24,6 +29,9 @@ public class ApproachController {
     @Autowired
     private ApproachService approachService;
 
+    @Autowired
+    private ComplexityAnalysisJobService complexityAnalysisJobService;
+
     @GetMapping("/question/{questionId}") // all user approaches metadata only for this question
     public ResponseEntity<List<ApproachMetadataDTO>> getMyApproachesForQuestion(
             @PathVariable String questionId,
@@ -160,6 +168,73 @@ public class ApproachController {
         }
     }
 
+    /**
+     * Start complexity analysis as a job and return it immediately (202 Accepted)
+     * POST /api/approaches/question/{questionId}/{approachId}/analyze-complexity/async
+     * Poll GET /api/approaches/complexity-jobs/{jobId} or stream /events for the result
+     */
+    @PostMapping("/question/{questionId}/{approachId}/analyze-complexity/async")
+    public ResponseEntity<Map<String, Object>> analyzeComplexityAsync(
+            @PathVariable String questionId,
+            @PathVariable String approachId,
+            Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+
+        try {
+            ComplexityJobDTO job = approachService.startComplexityAnalysis(
+                    currentUser.getId(),
+                    questionId,
+                    approachId);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "data", job);
+
+            return ResponseEntity.accepted().body(response);
+        } catch (ExecutionServiceBusyException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            Map<String, Object> response = Map.of(
+                    "success", false,
+                    "error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * Poll a complexity analysis job
+     * GET /api/approaches/complexity-jobs/{jobId}
+     */
+    @GetMapping("/complexity-jobs/{jobId}")
+    public ResponseEntity<ComplexityJobDTO> getComplexityJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+
+        ComplexityJobDTO job = complexityAnalysisJobService.getJob(jobId, currentUser.getId());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Server-Sent Events stream of a complexity analysis job; closes once the job finishes
+     * GET /api/approaches/complexity-jobs/{jobId}/events
+     */
+    @GetMapping(value = "/complexity-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamComplexityJob(
+            @PathVariable String jobId,
+            Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+
+        SseEmitter emitter = complexityAnalysisJobService.subscribe(jobId, currentUser.getId());
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @DeleteMapping("/question/{questionId}/{approachId}")
     public ResponseEntity<Map<String, Object>> deleteApproach(
             @PathVariable String questionId,
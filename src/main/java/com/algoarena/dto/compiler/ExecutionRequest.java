@@ -1,6 +1,7 @@
 // src/main/java/com/algoarena/dto/compiler/ExecutionRequest.java
 package com.algoarena.dto.compiler;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.util.List;
@@ -20,6 +21,8 @@ public class ExecutionRequest {
     private String stdin; // Input for the program
     private List<String> args; // Command line arguments
     private List<FileContent> files; // Additional files
+    @JsonIgnore
+    private Integer runTimeout; // Piston run_timeout in ms (null = server default); set internally, never from a request body
 
     // Inner class for file content
     public static class FileContent {
@@ -98,4 +101,12 @@ public class ExecutionRequest {
     public void setFiles(List<FileContent> files) {
         this.files = files;
     }
+
+    public Integer getRunTimeout() {
+        return runTimeout;
+    }
+
+    public void setRunTimeout(Integer runTimeout) {
+        this.runTimeout = runTimeout;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+// src/main/java/com/algoarena/dto/compiler/runmode/BatchRunRequest.java
+package com.algoarena.dto.compiler.runmode;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class BatchRunRequest {
+
+    @NotEmpty(message = "At least one item required")
+    @Valid
+    private List<Item> items;
+
+    // One (question, language, code) tuple to run
+    public static class Item {
+
+        @NotBlank(message = "Question ID is required")
+        private String questionId;
+
+        @NotBlank(message = "Language is required")
+        private String language; // "java", "cpp", "python", "javascript"
+
+        @NotBlank(message = "Code is required")
+        @Size(max = 50000, message = "Code must not exceed 50,000 characters")
+        private String code;
+
+        private List<RunTestCaseInput> testCases; // optional - defaults to the question's stored testcases
+
+        // Constructors
+        public Item() {}
+
+        public Item(String questionId, String language, String code) {
+            this.questionId = questionId;
+            this.language = language;
+            this.code = code;
+        }
+
+        // Getters and Setters
+        public String getQuestionId() { return questionId; }
+        public void setQuestionId(String questionId) { this.questionId = questionId; }
+        public String getLanguage() { return language; }
+        public void setLanguage(String language) { this.language = language; }
+        public String getCode() { return code; }
+        public void setCode(String code) { this.code = code; }
+        public List<RunTestCaseInput> getTestCases() { return testCases; }
+        public void setTestCases(List<RunTestCaseInput> testCases) { this.testCases = testCases; }
+    }
+
+    // Constructors
+    public BatchRunRequest() {}
+
+    public BatchRunRequest(List<Item> items) {
+        this.items = items;
+    }
+
+    // Getters and Setters
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,69 @@
+// src/main/java/com/algoarena/dto/compiler/runmode/BatchRunResponse.java
+package com.algoarena.dto.compiler.runmode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchRunResponse {
+
+    private int totalItems;
+    private int accepted;
+    private int rejected; // ran, but verdict is not ACCEPTED
+    private int errors;   // could not run (missing question/template, Piston failure)
+    private int pistonCalls;
+    private int bundledItems; // items that ran inside a multi-file bundle
+    private long durationMs;
+    private List<ItemResult> results = new ArrayList<>();
+
+    public static class ItemResult {
+        private int index; // position in the request
+        private String questionId;
+        private String language;
+        private String verdict; // run verdict, or "ERROR"
+        private String error;
+        private boolean bundled;
+        private RunCodeResponse result;
+
+        public ItemResult() {}
+
+        public ItemResult(int index, String questionId, String language) {
+            this.index = index;
+            this.questionId = questionId;
+            this.language = language;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+        public String getQuestionId() { return questionId; }
+        public void setQuestionId(String questionId) { this.questionId = questionId; }
+        public String getLanguage() { return language; }
+        public void setLanguage(String language) { this.language = language; }
+        public String getVerdict() { return verdict; }
+        public void setVerdict(String verdict) { this.verdict = verdict; }
+        public String getError() { return error; }
+        public void setError(String error) { this.error = error; }
+        public boolean isBundled() { return bundled; }
+        public void setBundled(boolean bundled) { this.bundled = bundled; }
+        public RunCodeResponse getResult() { return result; }
+        public void setResult(RunCodeResponse result) { this.result = result; }
+    }
+
+    public BatchRunResponse() {}
+
+    public int getTotalItems() { return totalItems; }
+    public void setTotalItems(int totalItems) { this.totalItems = totalItems; }
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+    public int getErrors() { return errors; }
+    public void setErrors(int errors) { this.errors = errors; }
+    public int getPistonCalls() { return pistonCalls; }
+    public void setPistonCalls(int pistonCalls) { this.pistonCalls = pistonCalls; }
+    public int getBundledItems() { return bundledItems; }
+    public void setBundledItems(int bundledItems) { this.bundledItems = bundledItems; }
+    public long getDurationMs() { return durationMs; }
+    public void setDurationMs(long durationMs) { this.durationMs = durationMs; }
+    public List<ItemResult> getResults() { return results; }
+    public void setResults(List<ItemResult> results) { this.results = results; }
+}
@@ -0,0 +1,52 @@
+// src/main/java/com/algoarena/dto/compiler/submitmode/SubmissionJobDTO.java
+package com.algoarena.dto.compiler.submitmode;
+
+import java.time.LocalDateTime;
+
+public class SubmissionJobDTO {
+
+    private String jobId;
+    private String questionId;
+    private String status; // "QUEUED", "RUNNING", "COMPLETED", "FAILED"
+    private SubmitCodeResponse result; // null until COMPLETED
+    private String error; // only for FAILED
+    private LocalDateTime queuedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    public SubmissionJobDTO() {}
+
+    public SubmissionJobDTO(String jobId, String questionId, String status) {
+        this.jobId = jobId;
+        this.questionId = questionId;
+        this.status = status;
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getQuestionId() { return questionId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public SubmitCodeResponse getResult() { return result; }
+    public void setResult(SubmitCodeResponse result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public void setQueuedAt(LocalDateTime queuedAt) { this.queuedAt = queuedAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public boolean isFinished() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+}
@@ -4,7 +4,7 @@ package com.algoarena.dto.compiler.submitmode;
 public class SubmitTestCaseResult {
     
     private int id;
-    private String status; // "PASS", "FAIL", "TLE"
+    private String status; // "PASS", "FAIL", "TLE", "SKIPPED"
     private String expectedOutput;
     private String userOutput;
     private String error;
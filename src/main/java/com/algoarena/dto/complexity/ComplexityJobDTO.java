@@ -0,0 +1,57 @@
+// src/main/java/com/algoarena/dto/complexity/ComplexityJobDTO.java
+package com.algoarena.dto.complexity;
+
+import java.time.LocalDateTime;
+
+public class ComplexityJobDTO {
+
+    private String jobId;
+    private String questionId;
+    private String approachId;
+    private String status; // "QUEUED", "COMPLETED", "FAILED"
+    private boolean cached; // answered without calling Gemini (shared cache or the approach's saved analysis)
+    private ComplexityAnalysisResponse result; // null until COMPLETED
+    private String error; // only for FAILED
+    private LocalDateTime queuedAt;
+    private LocalDateTime completedAt;
+
+    public ComplexityJobDTO() {}
+
+    public ComplexityJobDTO(String jobId, String questionId, String approachId, String status) {
+        this.jobId = jobId;
+        this.questionId = questionId;
+        this.approachId = approachId;
+        this.status = status;
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+
+    public String getQuestionId() { return questionId; }
+    public void setQuestionId(String questionId) { this.questionId = questionId; }
+
+    public String getApproachId() { return approachId; }
+    public void setApproachId(String approachId) { this.approachId = approachId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public boolean isCached() { return cached; }
+    public void setCached(boolean cached) { this.cached = cached; }
+
+    public ComplexityAnalysisResponse getResult() { return result; }
+    public void setResult(ComplexityAnalysisResponse result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getQueuedAt() { return queuedAt; }
+    public void setQueuedAt(LocalDateTime queuedAt) { this.queuedAt = queuedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public boolean isFinished() {
+        return "COMPLETED".equals(status) || "FAILED".equals(status);
+    }
+}
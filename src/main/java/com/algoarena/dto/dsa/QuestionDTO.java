@@ -39,6 +39,7 @@ public class QuestionDTO {
     private Map<String, String> userStarterCode;
     private Map<String, String> submitTemplate;       
     private Map<String, String> runTemplate;
+    private Boolean submitFullRun;
 
     // ✅ NEW FIELDS
     private String topicTag;      // Optional
@@ -110,6 +111,7 @@ public class QuestionDTO {
         this.userStarterCode = question.getUserStarterCode();
         this.submitTemplate = question.getSubmitTemplate();
         this.runTemplate = question.getRunTemplate();
+        this.submitFullRun = question.getSubmitFullRun();
 
         // ✅ NEW FIELDS
         this.topicTag = question.getTopicTag();
@@ -225,6 +227,14 @@ public class QuestionDTO {
         this.hints = hints;
     }
 
+    public Boolean getSubmitFullRun() {
+        return submitFullRun;
+    }
+
+    public void setSubmitFullRun(Boolean submitFullRun) {
+        this.submitFullRun = submitFullRun;
+    }
+
     public List<TestcaseDTO> getTestcases() {
         return testcases;
     }
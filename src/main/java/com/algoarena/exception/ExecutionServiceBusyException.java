@@ -0,0 +1,12 @@
+// File: src/main/java/com/algoarena/exception/ExecutionServiceBusyException.java
+package com.algoarena.exception;
+
+public class ExecutionServiceBusyException extends RuntimeException {
+    public ExecutionServiceBusyException() {
+        super("Code execution service is busy. Please try again in a few seconds.");
+    }
+
+    public ExecutionServiceBusyException(String message) {
+        super(message);
+    }
+}
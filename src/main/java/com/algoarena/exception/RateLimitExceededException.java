@@ -5,4 +5,8 @@ public class RateLimitExceededException extends RuntimeException {
     public RateLimitExceededException() {
         super("Too many requests. Please try again in a minute.");
     }
+
+    public RateLimitExceededException(String message) {
+        super(message);
+    }
 }
\ No newline at end of file
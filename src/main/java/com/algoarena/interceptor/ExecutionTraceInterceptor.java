@@ -0,0 +1,44 @@
+// src/main/java/com/algoarena/interceptor/ExecutionTraceInterceptor.java
+package com.algoarena.interceptor;
+
+import com.algoarena.model.User;
+import com.algoarena.service.compiler.ExecutionTraceService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Turns on execution tracing for the current request when an admin sends X-Execution-Trace: true.
+ * The header is ignored for everyone else.
+ */
+@Component
+public class ExecutionTraceInterceptor implements AsyncHandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"true".equalsIgnoreCase(request.getHeader(ExecutionTraceService.HEADER))) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user && user.isAdmin()) {
+            ExecutionTraceService.markRequested();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        ExecutionTraceService.clearRequested();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ExecutionTraceService.clearRequested();
+    }
+}
@@ -0,0 +1,89 @@
+// src/main/java/com/algoarena/model/ComplexityAnalysisCache.java
+package com.algoarena.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Complexity analysis shared by every approach with the same code: _id is the SHA-256 of the language
+ * plus the normalized code, so a well-known solution is sent to Gemini once, not once per user.
+ */
+@Document(collection = "complexity_analysis_cache")
+public class ComplexityAnalysisCache {
+
+    @Id
+    private String id;
+
+    private String language;
+
+    private String timeComplexity;
+    private String spaceComplexity;
+    private String complexityDescription;
+
+    private LocalDateTime createdAt;
+
+    public ComplexityAnalysisCache() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public ComplexityAnalysisCache(String id, String language, String timeComplexity, String spaceComplexity,
+            String complexityDescription) {
+        this();
+        this.id = id;
+        this.language = language;
+        this.timeComplexity = timeComplexity;
+        this.spaceComplexity = spaceComplexity;
+        this.complexityDescription = complexityDescription;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public String getTimeComplexity() {
+        return timeComplexity;
+    }
+
+    public void setTimeComplexity(String timeComplexity) {
+        this.timeComplexity = timeComplexity;
+    }
+
+    public String getSpaceComplexity() {
+        return spaceComplexity;
+    }
+
+    public void setSpaceComplexity(String spaceComplexity) {
+        this.spaceComplexity = spaceComplexity;
+    }
+
+    public String getComplexityDescription() {
+        return complexityDescription;
+    }
+
+    public void setComplexityDescription(String complexityDescription) {
+        this.complexityDescription = complexityDescription;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -35,6 +35,7 @@ public class Question {
     private Map<String, String> userStarterCode;
     private Map<String, String> submitTemplate;   
     private Map<String, String> runTemplate;
+    private Boolean submitFullRun; // true: submit runs every testcase even after a failure
 
     // ✅ NEW FIELDS
     private String topicTag;      // Optional
@@ -169,6 +170,14 @@ public class Question {
         this.updatedAt = LocalDateTime.now();
     }
 
+    public Boolean getSubmitFullRun() {
+        return submitFullRun;
+    }
+
+    public void setSubmitFullRun(Boolean submitFullRun) {
+        this.submitFullRun = submitFullRun;
+    }
+
     // ✅ NEW GETTERS/SETTERS
     public String getTopicTag() {
         return topicTag;
@@ -0,0 +1,152 @@
+// src/main/java/com/algoarena/model/QuestionApproaches.java
+package com.algoarena.model;
+
+import com.algoarena.model.UserApproaches.ApproachData;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One user's approaches for one question (replaces the per-user UserApproaches map-of-maps).
+ * The 20 KB per-question limit keeps each document small, and every approach read touches only the
+ * question it is about. _id is "userId_questionId" so writes can upsert without a lookup.
+ */
+@Document(collection = "question_approaches")
+@CompoundIndex(name = "user_question_idx", def = "{'userId': 1, 'questionId': 1}", unique = true)
+public class QuestionApproaches {
+
+    @Id
+    private String id;
+
+    private String userId;
+    private String userName;
+
+    @Indexed
+    private String questionId;
+
+    // approachId -> approach
+    private Map<String, ApproachData> approaches = new LinkedHashMap<>();
+
+    // Maintained with $inc on every write (quota guard); null on documents written before the counters
+    private Integer usedBytes;
+    private Integer storedCount;
+
+    private LocalDateTime lastUpdated;
+
+    public QuestionApproaches() {
+        this.lastUpdated = LocalDateTime.now();
+    }
+
+    public QuestionApproaches(String userId, String userName, String questionId) {
+        this();
+        this.id = idFor(userId, questionId);
+        this.userId = userId;
+        this.userName = userName;
+        this.questionId = questionId;
+    }
+
+    public static String idFor(String userId, String questionId) {
+        return userId + "_" + questionId;
+    }
+
+    // Helper methods
+    public int getTotalSize() {
+        return approaches.values().stream()
+                .mapToInt(ApproachData::getContentSize)
+                .sum();
+    }
+
+    public ApproachData findApproachById(String approachId) {
+        return approaches.get(approachId);
+    }
+
+    public List<ApproachData> getApproachList() {
+        return new ArrayList<>(approaches.values());
+    }
+
+    public int getApproachCount() {
+        return approaches.size();
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public String getQuestionId() {
+        return questionId;
+    }
+
+    public void setQuestionId(String questionId) {
+        this.questionId = questionId;
+    }
+
+    public Map<String, ApproachData> getApproaches() {
+        return approaches;
+    }
+
+    public void setApproaches(Map<String, ApproachData> approaches) {
+        this.approaches = approaches;
+    }
+
+    public Integer getUsedBytes() {
+        return usedBytes;
+    }
+
+    public void setUsedBytes(Integer usedBytes) {
+        this.usedBytes = usedBytes;
+    }
+
+    public Integer getStoredCount() {
+        return storedCount;
+    }
+
+    public void setStoredCount(Integer storedCount) {
+        this.storedCount = storedCount;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    @Override
+    public String toString() {
+        return "QuestionApproaches{" +
+                "id='" + id + '\'' +
+                ", userId='" + userId + '\'' +
+                ", questionId='" + questionId + '\'' +
+                ", approaches=" + approaches.size() +
+                '}';
+    }
+}
@@ -29,6 +29,15 @@ public class UserApproaches {
     // Structure: questionId -> (approachId -> ApproachData)
     private Map<String, Map<String, ApproachData>> approaches = new HashMap<>();
 
+    // questionId -> counters maintained with $inc on every write (quota guard); a question is missing
+    // until its first write after the counters were introduced
+    private Map<String, QuestionUsage> usage = new HashMap<>();
+
+    // Questions that have (or had) approaches here, indexed so a question's documents are found without
+    // a scan; may keep a question whose last approach was deleted one by one, never misses one.
+    // Null on a document written before the field existed (ApproachStore.ensureIndexes backfills it).
+    private List<String> questionIds;
+
     private int totalApproaches = 0;
     private LocalDateTime lastUpdated;
 
@@ -309,6 +318,30 @@ public class UserApproaches {
         }
     }
 
+    public static class QuestionUsage {
+        private int usedBytes;
+        private int storedCount;
+
+        public QuestionUsage() {
+        }
+
+        public int getUsedBytes() {
+            return usedBytes;
+        }
+
+        public void setUsedBytes(int usedBytes) {
+            this.usedBytes = usedBytes;
+        }
+
+        public int getStoredCount() {
+            return storedCount;
+        }
+
+        public void setStoredCount(int storedCount) {
+            this.storedCount = storedCount;
+        }
+    }
+
     // ✅ UPDATED: Helper methods for Map-of-Maps structure
     public int getTotalSizeForQuestion(String questionId) {
         Map<String, ApproachData> questionApproaches = approaches.get(questionId);
@@ -386,6 +419,22 @@ public class UserApproaches {
         this.approaches = approaches;
     }
 
+    public Map<String, QuestionUsage> getUsage() {
+        return usage;
+    }
+
+    public void setUsage(Map<String, QuestionUsage> usage) {
+        this.usage = usage;
+    }
+
+    public List<String> getQuestionIds() {
+        return questionIds;
+    }
+
+    public void setQuestionIds(List<String> questionIds) {
+        this.questionIds = questionIds;
+    }
+
     public int getTotalApproaches() {
         return totalApproaches;
     }
@@ -0,0 +1,20 @@
+// src/main/java/com/algoarena/repository/QuestionApproachesRepository.java
+package com.algoarena.repository;
+
+import com.algoarena.model.QuestionApproaches;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for QuestionApproaches
+ * One document per (userId, questionId); _id = userId + "_" + questionId
+ */
+@Repository
+public interface QuestionApproachesRepository extends MongoRepository<QuestionApproaches, String> {
+
+    List<QuestionApproaches> findByUserId(String userId);
+
+    long countByQuestionId(String questionId);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -46,6 +47,8 @@ public interface SolutionRepository extends MongoRepository<Solution, String> {
 
     void deleteByQuestionId(String questionId);
 
+    void deleteByQuestionIdIn(Collection<String> questionIds);
+
     // Simplified summary query
     @Query(value = "{ 'questionId': ?0 }", 
            fields = "{ 'content': 1, 'createdByName': 1, 'createdAt': 1, 'driveLink': 1, 'youtubeLink': 1 }")
@@ -33,7 +33,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             "/oauth2/",
             "/login",
             "/error",
-            "/actuator/",
+            "/actuator/health",
+            "/actuator/info",
 
             // KEEP-ALIVE STATUS ENDPOINTS (CRITICAL FOR RENDER)
             "/status",      
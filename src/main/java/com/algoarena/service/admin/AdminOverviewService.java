@@ -4,14 +4,13 @@ package com.algoarena.service.admin;
 import com.algoarena.dto.admin.AdminOverviewDTO;
 import com.algoarena.dto.admin.LoggedInUserDTO;
 import com.algoarena.model.User;
-import com.algoarena.model.UserApproaches;
 import com.algoarena.repository.*;
+import com.algoarena.service.dsa.ApproachStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
-import com.algoarena.repository.UserApproachesRepository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -37,7 +36,7 @@ public class AdminOverviewService {
     private SolutionRepository solutionRepository;
 
     @Autowired
-    private UserApproachesRepository userApproachesRepository;
+    private ApproachStore approachStore;
 
     @Autowired
     private MongoTemplate mongoTemplate;
@@ -109,10 +108,8 @@ public class AdminOverviewService {
      * Get total user approach count
      */
     private long getUserApproachCount() {
-        // Count total approaches across all users
-        return userApproachesRepository.findAll().stream()
-                .mapToLong(UserApproaches::getTotalApproaches)
-                .sum();
+        // Count total approaches across all users (whichever layout approaches are read from)
+        return approachStore.countApproaches();
     }
 
     /**
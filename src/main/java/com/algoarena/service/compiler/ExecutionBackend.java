@@ -0,0 +1,35 @@
+// src/main/java/com/algoarena/service/compiler/ExecutionBackend.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Where generated programs run. Selected with app.execution.backend:
+ * "piston" (default, PistonExecutionBackend) or "local" (LocalExecutionBackend).
+ * Responses always have Piston's shape so the run/submit parsers do not care which one is used.
+ */
+public interface ExecutionBackend {
+
+    String getName();
+
+    /**
+     * Execute without blocking the caller, using the backend's default timeout
+     */
+    Mono<ExecutionResponse> execute(ExecutionRequest request);
+
+    /**
+     * Execute without blocking the caller, with a per-call timeout
+     */
+    Mono<ExecutionResponse> execute(ExecutionRequest request, Duration timeout);
+
+    /**
+     * Blocking convenience for callers that are not reactive
+     */
+    default ExecutionResponse executeBlocking(ExecutionRequest request) {
+        return execute(request).block();
+    }
+}
@@ -0,0 +1,118 @@
+// src/main/java/com/algoarena/service/compiler/ExecutionMetrics.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.dto.compiler.ExecutionResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for run and submit mode (exported on /actuator/prometheus).
+ * - execution.stage: time per stage (question_fetch, template, execute, parse), tagged mode + language
+ * - execution.request: whole request, tagged mode + language + verdict
+ * - execution.reported.cpu / .wall / .memory: what the sandbox reported for each program run
+ * All timers publish histograms, so latency percentiles can be aggregated across instances.
+ */
+@Component
+public class ExecutionMetrics {
+
+    public static final String RUN = "run";
+    public static final String SUBMIT = "submit";
+
+    public static final String QUESTION_FETCH = "question_fetch";
+    public static final String TEMPLATE = "template";
+    public static final String EXECUTE = "execute";
+    public static final String PARSE = "parse";
+
+    // Anything else is tagged "other" so user input cannot blow up tag cardinality
+    private static final Set<String> LANGUAGES = Set.of("java", "cpp", "python", "javascript");
+
+    private final MeterRegistry meterRegistry;
+
+    public ExecutionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordStage(String mode, String stage, String language, long startNanos) {
+        recordStageNanos(mode, stage, language, System.nanoTime() - startNanos);
+    }
+
+    public void recordStageNanos(String mode, String stage, String language, long nanos) {
+        Timer.builder("execution.stage")
+                .description("Time spent per run/submit stage")
+                .tag("mode", mode)
+                .tag("stage", stage)
+                .tag("language", languageTag(language))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordRequest(String mode, String language, String verdict, long startNanos) {
+        Timer.builder("execution.request")
+                .description("End-to-end run/submit request time")
+                .tag("mode", mode)
+                .tag("language", languageTag(language))
+                .tag("verdict", verdict != null ? verdict : "UNKNOWN")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * CPU time, wall time and memory reported by the sandbox for one program run (missing fields are skipped)
+     */
+    public void recordReported(String mode, String language, String verdict, ExecutionResponse response) {
+        if (response == null || response.getRun() == null) {
+            return;
+        }
+        ExecutionResponse.RunResult run = response.getRun();
+        String languageTag = languageTag(language);
+        String verdictTag = verdict != null ? verdict : "UNKNOWN";
+
+        if (run.getCpuTime() != null) {
+            reportedTimer("execution.reported.cpu", "CPU time reported by the sandbox", mode, languageTag, verdictTag)
+                    .record(run.getCpuTime(), TimeUnit.MILLISECONDS);
+        }
+        if (run.getWallTime() != null) {
+            reportedTimer("execution.reported.wall", "Wall time reported by the sandbox", mode, languageTag, verdictTag)
+                    .record(run.getWallTime(), TimeUnit.MILLISECONDS);
+        }
+        if (run.getMemory() != null) {
+            DistributionSummary.builder("execution.reported.memory")
+                    .description("Peak memory reported by the sandbox")
+                    .baseUnit("bytes")
+                    .tag("mode", mode)
+                    .tag("language", languageTag)
+                    .tag("verdict", verdictTag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(run.getMemory());
+        }
+    }
+
+    private Timer reportedTimer(String name, String description, String mode, String language, String verdict) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("mode", mode)
+                .tag("language", language)
+                .tag("verdict", verdict)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String languageTag(String language) {
+        if (language == null) {
+            return "other";
+        }
+        String lower = language.toLowerCase();
+        if ("c++".equals(lower)) {
+            return "cpp";
+        }
+        return LANGUAGES.contains(lower) ? lower : "other";
+    }
+}
@@ -0,0 +1,20 @@
+// src/main/java/com/algoarena/service/compiler/ExecutionProgressListener.java
+package com.algoarena.service.compiler;
+
+/**
+ * Callback for run/submit progress (used by the SSE stream endpoints).
+ * Phases are "queued", "compiling", "executing" and "parsing"; test cases are reported as soon as they
+ * are parsed: the full RunTestCaseResult in run mode, only {id, status, executionTime} in submit mode
+ * (hidden test data never leaves through the stream).
+ */
+public interface ExecutionProgressListener {
+
+    ExecutionProgressListener NONE = new ExecutionProgressListener() {
+    };
+
+    default void onPhase(String phase) {
+    }
+
+    default void onTestCase(Object result) {
+    }
+}
@@ -0,0 +1,163 @@
+// src/main/java/com/algoarena/service/compiler/ExecutionStreamService.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.runmode.RunCodeRequest;
+import com.algoarena.dto.compiler.submitmode.SubmitCodeRequest;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.algoarena.model.User;
+import com.algoarena.service.compiler.runmode.RunModeService;
+import com.algoarena.service.compiler.submitmode.SubmitModeService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events variant of run and submit.
+ * The execution runs on a bounded worker pool and pushes "phase" events (queued, compiling, executing,
+ * parsing), one "testcase" event per parsed result and a final "result" (or "error") event, then closes.
+ * Submit streams only carry each test case's id, status and execution time; expected/actual output of the
+ * first failure is in the final "result", exactly as the non-streaming submit returns it.
+ */
+@Service
+public class ExecutionStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionStreamService.class);
+
+    private final RunModeService runModeService;
+    private final SubmitModeService submitModeService;
+    private final AppConfig.ExecutionStream config;
+    private final ThreadPoolExecutor executor;
+
+    public ExecutionStreamService(RunModeService runModeService, SubmitModeService submitModeService,
+            AppConfig appConfig) {
+        this.runModeService = runModeService;
+        this.submitModeService = submitModeService;
+        this.config = appConfig.getExecutionStream();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                config.getWorkers(),
+                config.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "execution-stream-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public SseEmitter streamRun(String questionId, RunCodeRequest request, User user) {
+        return stream(listener -> () -> runModeService.executeRunMode(questionId, request, user, listener));
+    }
+
+    public SseEmitter streamSubmit(String questionId, SubmitCodeRequest request, User user) {
+        return stream(listener -> () -> submitModeService.executeSubmitMode(questionId, request, user, listener));
+    }
+
+    /**
+     * When the worker pool is full the stream carries a single "error" event (Service busy) and closes
+     */
+    private SseEmitter stream(Function<ExecutionProgressListener, Supplier<Object>> execution) {
+        SseEmitter emitter = new SseEmitter(config.getSseTimeout());
+        EmitterListener listener = new EmitterListener(emitter);
+        emitter.onTimeout(listener::close);
+        emitter.onError(e -> listener.close());
+
+        Supplier<Object> task = execution.apply(listener);
+        boolean traceRequested = ExecutionTraceService.isRequested();
+        // "queued" goes out before the task can send "compiling"; sends before the response is committed
+        // are buffered by the emitter
+        listener.onPhase("queued");
+        try {
+            executor.execute(() -> {
+                try {
+                    Object response = ExecutionTraceService.withRequested(traceRequested, task);
+                    listener.send("result", response);
+                } catch (Exception e) {
+                    logger.error("Streamed execution failed: {}", e.getMessage());
+                    listener.send("error", errorEvent(e));
+                }
+                listener.complete();
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Execution stream pool full ({} queued), rejecting stream", executor.getQueue().size());
+            listener.send("error", errorEvent(new ExecutionServiceBusyException()));
+            listener.complete();
+        }
+
+        return emitter;
+    }
+
+    private static Map<String, Object> errorEvent(Exception e) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("success", false);
+        error.put("error", e instanceof ExecutionServiceBusyException ? "Service busy" : "Execution failed");
+        error.put("message", e.getMessage());
+        return error;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class EmitterListener implements ExecutionProgressListener {
+        private final SseEmitter emitter;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private EmitterListener(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onPhase(String phase) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("phase", phase);
+            send("phase", event);
+        }
+
+        @Override
+        public void onTestCase(Object result) {
+            send("testcase", result);
+        }
+
+        private void send(String name, Object data) {
+            if (closed.get()) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away - keep executing, just stop sending
+                close();
+            }
+        }
+
+        private void complete() {
+            if (closed.compareAndSet(false, true)) {
+                emitter.complete();
+            }
+        }
+
+        private void close() {
+            closed.set(true);
+        }
+    }
+}
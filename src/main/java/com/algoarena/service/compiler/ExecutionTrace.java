@@ -0,0 +1,82 @@
+// src/main/java/com/algoarena/service/compiler/ExecutionTrace.java
+package com.algoarena.service.compiler;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Structured record of one traced run/submit: generated code, what was sent to the execution backend,
+ * what came back and how the parser classified each test case. Built by ExecutionTraceService only for
+ * traced requests; untraced requests carry a null trace and do no tracing work.
+ */
+public class ExecutionTrace {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String mode;
+    private final String questionId;
+    private final String language;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final int maxTextChars;
+    private final List<Entry> entries = new ArrayList<>();
+    private volatile String verdict;
+    private volatile Long durationMillis;
+
+    ExecutionTrace(String mode, String questionId, String language, int maxTextChars) {
+        this.mode = mode;
+        this.questionId = questionId;
+        this.language = language;
+        this.maxTextChars = maxTextChars;
+    }
+
+    /**
+     * Append a step; text longer than app.execution-trace.max-text-chars is cut
+     */
+    public void add(String stage, String text) {
+        String captured = text == null || text.length() <= maxTextChars
+                ? text
+                : text.substring(0, maxTextChars) + "... [" + (text.length() - maxTextChars) + " more chars]";
+        Entry entry = new Entry(stage, (System.nanoTime() - startNanos) / 1_000_000, captured);
+        // Shards of one submit may report from different threads
+        synchronized (entries) {
+            entries.add(entry);
+        }
+    }
+
+    void finish(String verdict) {
+        this.verdict = verdict;
+        this.durationMillis = (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public String getId() { return id; }
+    public String getMode() { return mode; }
+    public String getQuestionId() { return questionId; }
+    public String getLanguage() { return language; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public String getVerdict() { return verdict; }
+    public Long getDurationMillis() { return durationMillis; }
+
+    public List<Entry> getEntries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    public static class Entry {
+        private final String stage;
+        private final long atMillis;
+        private final String text;
+
+        Entry(String stage, long atMillis, String text) {
+            this.stage = stage;
+            this.atMillis = atMillis;
+            this.text = text;
+        }
+
+        public String getStage() { return stage; }
+        public long getAtMillis() { return atMillis; }
+        public String getText() { return text; }
+    }
+}
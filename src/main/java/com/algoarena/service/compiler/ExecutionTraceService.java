@@ -0,0 +1,190 @@
+// src/main/java/com/algoarena/service/compiler/ExecutionTraceService.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in execution tracing for run/submit.
+ * A request is traced when an admin sends X-Execution-Trace: true (see ExecutionTraceInterceptor) or when it
+ * falls into app.execution-trace.sample-rate. Finished traces go to a bounded in-memory ring buffer that
+ * admins read through /admin/execution-traces.
+ */
+@Service
+public class ExecutionTraceService {
+
+    public static final String HEADER = "X-Execution-Trace";
+
+    // Set on the request thread by ExecutionTraceInterceptor, carried over to worker threads with withRequested
+    private static final ThreadLocal<Boolean> requested = new ThreadLocal<>();
+
+    private final AppConfig.ExecutionTrace config;
+    private final Deque<ExecutionTrace> traces = new ArrayDeque<>();
+
+    public ExecutionTraceService(AppConfig appConfig) {
+        this.config = appConfig.getExecutionTrace();
+    }
+
+    public static void markRequested() {
+        requested.set(Boolean.TRUE);
+    }
+
+    public static void clearRequested() {
+        requested.remove();
+    }
+
+    public static boolean isRequested() {
+        return Boolean.TRUE.equals(requested.get());
+    }
+
+    /**
+     * Run task on the current (worker) thread with the tracing flag of the thread that accepted the request
+     */
+    public static <T> T withRequested(boolean traceRequested, Supplier<T> task) {
+        if (!traceRequested) {
+            return task.get();
+        }
+        markRequested();
+        try {
+            return task.get();
+        } finally {
+            clearRequested();
+        }
+    }
+
+    /**
+     * A new trace when this request is traced, otherwise null
+     */
+    public ExecutionTrace start(String mode, String questionId, String language) {
+        boolean sampled = config.getSampleRate() > 0
+                && ThreadLocalRandom.current().nextDouble() < config.getSampleRate();
+        if (!sampled && !isRequested()) {
+            return null;
+        }
+        return new ExecutionTrace(mode, questionId, language, config.getMaxTextChars());
+    }
+
+    public void finish(ExecutionTrace trace, String verdict) {
+        if (trace == null) {
+            return;
+        }
+        trace.finish(verdict);
+        synchronized (traces) {
+            traces.addFirst(trace);
+            while (traces.size() > config.getCapacity()) {
+                traces.removeLast();
+            }
+        }
+    }
+
+    /**
+     * Newest first, without the captured entries
+     */
+    public List<Map<String, Object>> list() {
+        List<ExecutionTrace> snapshot;
+        synchronized (traces) {
+            snapshot = new ArrayList<>(traces);
+        }
+        List<Map<String, Object>> summaries = new ArrayList<>(snapshot.size());
+        for (ExecutionTrace trace : snapshot) {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("id", trace.getId());
+            summary.put("mode", trace.getMode());
+            summary.put("questionId", trace.getQuestionId());
+            summary.put("language", trace.getLanguage());
+            summary.put("startedAt", trace.getStartedAt());
+            summary.put("verdict", trace.getVerdict());
+            summary.put("durationMillis", trace.getDurationMillis());
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    public ExecutionTrace get(String id) {
+        synchronized (traces) {
+            for (ExecutionTrace trace : traces) {
+                if (trace.getId().equals(id)) {
+                    return trace;
+                }
+            }
+        }
+        return null;
+    }
+
+    public int clear() {
+        synchronized (traces) {
+            int count = traces.size();
+            traces.clear();
+            return count;
+        }
+    }
+
+    /**
+     * The execution request as the backend receives it (code is captured separately)
+     */
+    public static String describe(ExecutionRequest request) {
+        StringBuilder text = new StringBuilder()
+                .append("language=").append(request.getLanguage())
+                .append(" version=").append(request.getVersion())
+                .append(" runTimeout=").append(request.getRunTimeout())
+                .append(" codeChars=").append(request.getCode() != null ? request.getCode().length() : 0);
+        List<ExecutionRequest.FileContent> files = request.getFiles() != null
+                ? request.getFiles()
+                : Collections.emptyList();
+        for (ExecutionRequest.FileContent file : files) {
+            text.append("\nfile ").append(file.getName()).append(" (")
+                    .append(file.getContent() != null ? file.getContent().length() : 0).append(" chars)");
+        }
+        return text.toString();
+    }
+
+    public static String describe(ExecutionResponse response) {
+        StringBuilder text = new StringBuilder()
+                .append("language=").append(response.getLanguage())
+                .append(" version=").append(response.getVersion());
+        if (response.getCompile() != null) {
+            text.append("\ncompile code=").append(response.getCompile().getCode())
+                    .append("\ncompile stderr:\n").append(response.getCompile().getStderr());
+        }
+        ExecutionResponse.RunResult run = response.getRun();
+        if (run != null) {
+            text.append("\nrun code=").append(run.getCode())
+                    .append(" signal=").append(run.getSignal())
+                    .append(" cpuTime=").append(run.getCpuTime())
+                    .append(" wallTime=").append(run.getWallTime())
+                    .append(" memory=").append(run.getMemory())
+                    .append("\nstderr:\n").append(run.getStderr())
+                    .append("\nstdout:\n").append(run.getStdout());
+        }
+        return text.toString();
+    }
+
+    /**
+     * One parser decision, e.g. "#3 FAIL expected=[1, 2] user=[2, 1]"
+     */
+    public static String describeResult(int id, String status, String expected, String user, String error) {
+        StringBuilder text = new StringBuilder().append('#').append(id).append(' ').append(status);
+        if (expected != null) {
+            text.append(" expected=").append(expected);
+        }
+        if (user != null) {
+            text.append(" user=").append(user);
+        }
+        if (error != null) {
+            text.append(" error=").append(error);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,126 @@
+// src/main/java/com/algoarena/service/compiler/OutputLineScanner.java
+package com.algoarena.service.compiler;
+
+/**
+ * Single-pass, index-based line reader over Piston stdout.
+ * Lines are exposed as trimmed [start, end) ranges of the original text, so user output that is never
+ * looked at (debug prints between test cases) costs no allocation. Only values that end up in a
+ * result are copied out, and those copies are capped.
+ */
+public final class OutputLineScanner {
+
+    private final CharSequence text;
+    private final int length;
+    private int next;
+    private int start;
+    private int end;
+
+    public OutputLineScanner(CharSequence text) {
+        this.text = text;
+        this.length = text.length();
+    }
+
+    /**
+     * Advance to the next line; false at the end of the text
+     */
+    public boolean nextLine() {
+        if (next >= length) {
+            return false;
+        }
+
+        int lineStart = next;
+        int lineEnd = lineStart;
+        while (lineEnd < length && text.charAt(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        next = lineEnd + 1;
+
+        // Same trimming as String.trim(): drop chars <= ' ' (this also removes '\r')
+        while (lineStart < lineEnd && text.charAt(lineStart) <= ' ') {
+            lineStart++;
+        }
+        while (lineEnd > lineStart && text.charAt(lineEnd - 1) <= ' ') {
+            lineEnd--;
+        }
+        start = lineStart;
+        end = lineEnd;
+        return true;
+    }
+
+    public boolean lineEquals(String token) {
+        return end - start == token.length() && startsWith(token);
+    }
+
+    public boolean startsWith(String prefix) {
+        if (end - start < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(start + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Start of the value after prefix (leading whitespace skipped); call only when startsWith(prefix)
+     */
+    public int valueStart(String prefix) {
+        int valueStart = start + prefix.length();
+        while (valueStart < end && text.charAt(valueStart) <= ' ') {
+            valueStart++;
+        }
+        return valueStart;
+    }
+
+    /**
+     * End of the current (trimmed) line
+     */
+    public int valueEnd() {
+        return end;
+    }
+
+    /**
+     * Copy [from, to) out of the text, cutting it at maxChars with a "..." marker
+     */
+    public String capture(int from, int to, int maxChars) {
+        if (to - from > maxChars) {
+            return text.subSequence(from, from + maxChars) + "...";
+        }
+        return text.subSequence(from, to).toString();
+    }
+
+    /**
+     * Compare two ranges of the text without copying them
+     */
+    public boolean regionsEqual(int aFrom, int aTo, int bFrom, int bTo) {
+        if (aTo - aFrom != bTo - bFrom) {
+            return false;
+        }
+        for (int i = 0; i < aTo - aFrom; i++) {
+            if (text.charAt(aFrom + i) != text.charAt(bFrom + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Non-negative decimal in [from, to), or -1 if the range is not a plain number
+     */
+    public long parseLong(int from, int to) {
+        if (from >= to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
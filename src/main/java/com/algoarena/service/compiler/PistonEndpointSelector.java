@@ -0,0 +1,198 @@
+// src/main/java/com/algoarena/service/compiler/PistonEndpointSelector.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Picks a Piston node per request when several are configured (app.piston.api-urls).
+ * Selection is power-of-two-choices on outstanding requests; nodes that fail repeatedly
+ * (timeouts, connection errors, 5xx) are ejected for a while based on passive tracking.
+ * Each node publishes a latency histogram tagged with its position in the configured list
+ * (URLs stay out of the exported metrics; the mapping is logged at startup and shown in getStatus()).
+ */
+@Component
+public class PistonEndpointSelector {
+
+    private static final Logger logger = LoggerFactory.getLogger(PistonEndpointSelector.class);
+
+    private final List<Node> nodes;
+    private final AppConfig.Piston config;
+
+    public PistonEndpointSelector(AppConfig appConfig, MeterRegistry meterRegistry) {
+        this.config = appConfig.getPiston();
+
+        List<Node> configured = new ArrayList<>();
+        List<String> urls = config.getEndpoints();
+        for (int i = 0; i < urls.size(); i++) {
+            configured.add(new Node(i, urls.get(i), meterRegistry));
+        }
+        this.nodes = Collections.unmodifiableList(configured);
+
+        if (nodes.isEmpty()) {
+            throw new IllegalStateException("No Piston endpoint configured (app.piston.api-url / app.piston.api-urls)");
+        }
+        logger.info("Piston endpoints (metrics tag each by its position): {}", config.getEndpoints());
+    }
+
+    /**
+     * Choose a node and mark one request outstanding on it; complete the returned lease exactly once
+     */
+    public Lease acquire() {
+        Node node = choose();
+        node.outstanding.incrementAndGet();
+        return new Lease(node);
+    }
+
+    public List<Map<String, Object>> getStatus() {
+        long now = System.nanoTime();
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (Node node : nodes) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("node", node.index);
+            entry.put("url", node.url);
+            entry.put("outstanding", node.outstanding.get());
+            entry.put("healthy", node.isAvailable(now));
+            entry.put("consecutiveFailures", node.consecutiveFailures.get());
+            entry.put("meanLatencyMs", node.latency.mean(TimeUnit.MILLISECONDS));
+            status.add(entry);
+        }
+        return status;
+    }
+
+    private Node choose() {
+        if (nodes.size() == 1) {
+            return nodes.get(0);
+        }
+
+        long now = System.nanoTime();
+        List<Node> candidates = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            if (node.isAvailable(now)) {
+                candidates.add(node);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Everything is ejected - fail open rather than refusing all traffic
+            candidates = nodes;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        // Power of two choices: sample two distinct nodes, take the less loaded one
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        Node a = candidates.get(first);
+        Node b = candidates.get(second);
+        return a.outstanding.get() <= b.outstanding.get() ? a : b;
+    }
+
+    private void onSuccess(Node node, long latencyNanos) {
+        node.latency.record(Duration.ofNanos(latencyNanos));
+        if (node.consecutiveFailures.getAndSet(0) >= config.getNodeFailureThreshold()) {
+            logger.info("Piston node {} is back in rotation", node.url);
+        }
+    }
+
+    private void onFailure(Node node, long latencyNanos) {
+        node.latency.record(Duration.ofNanos(latencyNanos));
+        int failures = node.consecutiveFailures.incrementAndGet();
+        if (failures >= config.getNodeFailureThreshold() && nodes.size() > 1) {
+            node.ejectedUntilNanos = System.nanoTime() + config.getNodeEjectDuration() * 1_000_000L;
+            if (failures == config.getNodeFailureThreshold()) {
+                logger.warn("Piston node {} ejected for {} ms after {} consecutive failures",
+                        node.url, config.getNodeEjectDuration(), failures);
+            }
+        }
+    }
+
+    /**
+     * One request routed to a node. Report its outcome with success(), failure(e) or release().
+     */
+    public final class Lease {
+        private final Node node;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Lease(Node node) {
+            this.node = node;
+        }
+
+        public String getUrl() {
+            return node.url;
+        }
+
+        public void success() {
+            if (done.compareAndSet(false, true)) {
+                node.outstanding.decrementAndGet();
+                onSuccess(node, System.nanoTime() - startNanos);
+            }
+        }
+
+        public void failure(Throwable e) {
+            if (done.compareAndSet(false, true)) {
+                node.outstanding.decrementAndGet();
+                if (PistonExecutionGuard.isOverloadSignal(e)) {
+                    onFailure(node, System.nanoTime() - startNanos);
+                } else {
+                    onSuccess(node, System.nanoTime() - startNanos);
+                }
+            }
+        }
+
+        public void release() {
+            if (done.compareAndSet(false, true)) {
+                node.outstanding.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class Node {
+        private final int index;
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long ejectedUntilNanos;
+        private final Timer latency;
+
+        private Node(int index, String url, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.url = url;
+            this.ejectedUntilNanos = System.nanoTime();
+            this.latency = Timer.builder("piston.node.latency")
+                    .tag("node", String.valueOf(index))
+                    .description("Latency of Piston calls per node")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Gauge.builder("piston.node.outstanding", outstanding, AtomicInteger::get)
+                    .tag("node", String.valueOf(index))
+                    .description("Requests currently outstanding per Piston node")
+                    .register(meterRegistry);
+        }
+
+        private boolean isAvailable(long now) {
+            return now - ejectedUntilNanos >= 0;
+        }
+    }
+}
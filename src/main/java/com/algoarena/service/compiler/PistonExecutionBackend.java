@@ -0,0 +1,37 @@
+// src/main/java/com/algoarena/service/compiler/PistonExecutionBackend.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Default backend: runs programs on the Piston API (admission control and node selection included)
+ */
+@Component
+@ConditionalOnProperty(name = "app.execution.backend", havingValue = "piston", matchIfMissing = true)
+public class PistonExecutionBackend implements ExecutionBackend {
+
+    @Autowired
+    private PistonService pistonService;
+
+    @Override
+    public String getName() {
+        return "piston";
+    }
+
+    @Override
+    public Mono<ExecutionResponse> execute(ExecutionRequest request) {
+        return pistonService.executeCodeAsync(request);
+    }
+
+    @Override
+    public Mono<ExecutionResponse> execute(ExecutionRequest request, Duration timeout) {
+        return pistonService.executeCodeAsync(request, timeout);
+    }
+}
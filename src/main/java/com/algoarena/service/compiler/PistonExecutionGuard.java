@@ -0,0 +1,256 @@
+// src/main/java/com/algoarena/service/compiler/PistonExecutionGuard.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for outbound Piston executions.
+ * An AIMD concurrency limit adapts to Piston's latency, and a circuit breaker stops sending work
+ * after repeated timeouts/5xx, letting a few probe calls through once the open period has passed.
+ * Rejected calls fail fast with ExecutionServiceBusyException (503) instead of tying up request threads.
+ */
+@Component
+public class PistonExecutionGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(PistonExecutionGuard.class);
+
+    public enum CircuitState {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final AppConfig.PistonGuard config;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejectedByLimit;
+    private final Counter rejectedByCircuit;
+
+    // All state below is guarded by "this"
+    private double limit;
+    private int inFlight;
+    private CircuitState state = CircuitState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private int probesInFlight;
+    private int probeSuccesses;
+    private long lastDecreaseNanos;
+    private boolean decreasedOnce;
+
+    public PistonExecutionGuard(AppConfig appConfig, MeterRegistry meterRegistry) {
+        this.config = appConfig.getPistonGuard();
+        this.meterRegistry = meterRegistry;
+        this.limit = Math.max(config.getMinLimit(), Math.min(config.getInitialLimit(), config.getMaxLimit()));
+
+        this.rejectedByLimit = Counter.builder("piston.limiter.rejected")
+                .tag("reason", "limit")
+                .description("Executions rejected by the concurrency limiter or open circuit")
+                .register(meterRegistry);
+        this.rejectedByCircuit = Counter.builder("piston.limiter.rejected")
+                .tag("reason", "circuit_open")
+                .description("Executions rejected by the concurrency limiter or open circuit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gauges read this guard, so they are registered once it is fully constructed
+     */
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("piston.limiter.limit", this, PistonExecutionGuard::getLimit)
+                .description("Current adaptive concurrency limit for Piston executions")
+                .register(meterRegistry);
+        Gauge.builder("piston.limiter.inflight", this, PistonExecutionGuard::getInFlight)
+                .description("Piston executions currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("piston.circuit.state", this, guard -> guard.getState().ordinal())
+                .description("Piston circuit breaker state (0 = closed, 1 = open, 2 = half-open)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve a slot for one execution, or throw ExecutionServiceBusyException.
+     * The returned permit must be completed exactly once (extra calls are ignored).
+     */
+    public synchronized Permit acquire() {
+        if (!config.isEnabled()) {
+            return new Permit(false, false);
+        }
+
+        if (state == CircuitState.OPEN) {
+            if (System.nanoTime() - openedAtNanos < config.getOpenDuration() * 1_000_000L) {
+                rejectedByCircuit.increment();
+                throw new ExecutionServiceBusyException(
+                        "Code execution service is temporarily unavailable. Please try again shortly.");
+            }
+            state = CircuitState.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+            logger.info("Piston circuit half-open, allowing {} probe executions", config.getHalfOpenProbes());
+        }
+
+        boolean probe = false;
+        if (state == CircuitState.HALF_OPEN) {
+            if (probesInFlight >= config.getHalfOpenProbes()) {
+                rejectedByCircuit.increment();
+                throw new ExecutionServiceBusyException(
+                        "Code execution service is temporarily unavailable. Please try again shortly.");
+            }
+            probe = true;
+            probesInFlight++;
+        } else if (inFlight >= (int) limit) {
+            rejectedByLimit.increment();
+            throw new ExecutionServiceBusyException();
+        }
+
+        inFlight++;
+        return new Permit(true, probe);
+    }
+
+    public synchronized double getLimit() {
+        return limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public synchronized CircuitState getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", config.isEnabled());
+        status.put("limit", (int) limit);
+        status.put("inFlight", inFlight);
+        status.put("circuitState", state.name());
+        status.put("consecutiveFailures", consecutiveFailures);
+        return status;
+    }
+
+    /**
+     * Timeouts, connection failures, 5xx and 429 mean Piston is struggling.
+     * Other errors (4xx for a bad request, parse errors) say nothing about capacity.
+     */
+    static boolean isOverloadSignal(Throwable e) {
+        if (e instanceof TimeoutException || e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            int status = responseException.getStatusCode().value();
+            return status >= 500 || status == 429;
+        }
+        return false;
+    }
+
+    private synchronized void onSuccess(boolean probe, long latencyNanos) {
+        inFlight--;
+        consecutiveFailures = 0;
+
+        if (latencyNanos > config.getLatencyThreshold() * 1_000_000L) {
+            decreaseLimit();
+        } else {
+            // Additive increase: roughly +1 per "limit" successful calls
+            limit = Math.min(config.getMaxLimit(), limit + 1.0 / limit);
+        }
+
+        if (probe) {
+            probesInFlight--;
+            if (state == CircuitState.HALF_OPEN && ++probeSuccesses >= config.getHalfOpenProbes()) {
+                state = CircuitState.CLOSED;
+                logger.info("Piston circuit closed after {} successful probes", probeSuccesses);
+            }
+        }
+    }
+
+    private synchronized void onFailure(boolean probe) {
+        inFlight--;
+        if (probe) {
+            probesInFlight--;
+        }
+
+        decreaseLimit();
+        consecutiveFailures++;
+
+        if (state == CircuitState.HALF_OPEN
+                || (state == CircuitState.CLOSED && consecutiveFailures >= config.getFailureThreshold())) {
+            state = CircuitState.OPEN;
+            openedAtNanos = System.nanoTime();
+            logger.warn("Piston circuit opened after {} consecutive failures, limit now {}",
+                    consecutiveFailures, (int) limit);
+        }
+    }
+
+    private synchronized void onIgnored(boolean probe) {
+        inFlight--;
+        if (probe) {
+            probesInFlight--;
+        }
+    }
+
+    /**
+     * Multiplicative decrease, at most once per latency window: a burst of concurrent timeouts is one
+     * congestion event, not one per call, so it must not multiply the limit down to minLimit
+     */
+    private void decreaseLimit() {
+        long now = System.nanoTime();
+        if (decreasedOnce && now - lastDecreaseNanos < config.getLatencyThreshold() * 1_000_000L) {
+            return;
+        }
+        decreasedOnce = true;
+        lastDecreaseNanos = now;
+        limit = Math.max(config.getMinLimit(), limit * config.getBackoffRatio());
+    }
+
+    /**
+     * One admitted execution. Report its outcome with success(), failure(e) or ignore().
+     */
+    public final class Permit {
+        private final boolean tracked;
+        private final boolean probe;
+        private final long startNanos = System.nanoTime();
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Permit(boolean tracked, boolean probe) {
+            this.tracked = tracked;
+            this.probe = probe;
+        }
+
+        public void success() {
+            if (tracked && done.compareAndSet(false, true)) {
+                onSuccess(probe, System.nanoTime() - startNanos);
+            }
+        }
+
+        public void failure(Throwable e) {
+            if (tracked && done.compareAndSet(false, true)) {
+                if (isOverloadSignal(e)) {
+                    onFailure(probe);
+                } else {
+                    onSuccess(probe, System.nanoTime() - startNanos);
+                }
+            }
+        }
+
+        public void ignore() {
+            if (tracked && done.compareAndSet(false, true)) {
+                onIgnored(probe);
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+// src/main/java/com/algoarena/service/compiler/PistonRuntimeCatalog.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory copy of Piston's /runtimes list.
+ * Loaded once the application is ready and refreshed in the background on a jittered schedule;
+ * a failed refresh keeps serving the last good copy. Lookups never touch the network or wait for a fetch:
+ * the fetch is non-blocking (the scheduler thread only starts it), and before the first load lookups
+ * start one in the background and return nothing, so callers serve their fallbacks.
+ */
+@Component
+public class PistonRuntimeCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PistonRuntimeCatalog.class);
+
+    // Retry sooner while we have never loaded a catalog
+    private static final long INITIAL_RETRY_MS = 15000;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private WebClient pistonWebClient;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private PistonEndpointSelector endpointSelector;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile Snapshot snapshot;
+    private volatile String lastError;
+    private volatile Instant lastAttemptAt;
+    private volatile ScheduledFuture<?> nextRefresh;
+    private volatile boolean stopped;
+
+    // Fetch in progress, shared by everyone asking for a refresh meanwhile
+    private final AtomicReference<CompletableFuture<Boolean>> inFlight = new AtomicReference<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        nextRefresh = taskScheduler.schedule(this::refreshAndReschedule, Instant.now());
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        ScheduledFuture<?> future = nextRefresh;
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Start fetching /runtimes (or join the fetch already running) and swap in the new index when it arrives.
+     * Completes with false (keeping the old copy) on failure; never completes exceptionally.
+     */
+    public CompletableFuture<Boolean> refresh() {
+        CompletableFuture<Boolean> started = new CompletableFuture<>();
+        CompletableFuture<Boolean> running = inFlight.compareAndExchange(null, started);
+        if (running != null) {
+            return running;
+        }
+
+        lastAttemptAt = Instant.now();
+        long startNanos = System.nanoTime();
+
+        fetchRuntimes().whenComplete((runtimes, e) -> {
+            boolean loaded = false;
+            try {
+                if (e == null) {
+                    long fetchMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+                    snapshot = new Snapshot(runtimes, Instant.now(), fetchMillis);
+                    lastError = null;
+                    loaded = true;
+                    logger.info("Piston runtime catalog loaded: {} runtimes in {} ms", runtimes.size(), fetchMillis);
+                } else {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    lastError = cause.getMessage();
+                    logger.warn("Piston runtime catalog refresh failed ({}), serving {}", cause.getMessage(),
+                            snapshot != null ? "copy from " + snapshot.loadedAt : "no catalog");
+                }
+            } finally {
+                inFlight.set(null);
+                started.complete(loaded);
+            }
+        });
+        return started;
+    }
+
+    /**
+     * Full runtime list; throws while no catalog has been loaded yet
+     */
+    public List<Map<String, Object>> getRuntimes() {
+        Snapshot current = snapshotOrLoad();
+        if (current == null) {
+            throw new RuntimeException("Failed to get runtimes: "
+                    + (lastError != null ? lastError : "runtime catalog is still loading"));
+        }
+        return current.runtimes;
+    }
+
+    /**
+     * Distinct language names, sorted. Empty if the catalog has never loaded.
+     */
+    public List<String> getSupportedLanguages() {
+        Snapshot current = snapshotOrLoad();
+        return current != null ? current.languages : Collections.emptyList();
+    }
+
+    /**
+     * Runtime entry for a language name or alias (e.g. "c++", "js"), or null
+     */
+    public Map<String, Object> findRuntime(String language) {
+        Snapshot current = snapshotOrLoad();
+        if (current == null || language == null) {
+            return null;
+        }
+        return current.byLanguage.get(language.toLowerCase());
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * Healthy when the most recent refresh succeeded
+     */
+    public boolean isHealthy() {
+        return snapshot != null && lastError == null;
+    }
+
+    public Instant getLoadedAt() {
+        Snapshot current = snapshot;
+        return current != null ? current.loadedAt : null;
+    }
+
+    public long getLastFetchMillis() {
+        Snapshot current = snapshot;
+        return current != null ? current.fetchMillis : -1;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public Instant getLastAttemptAt() {
+        return lastAttemptAt;
+    }
+
+    private Snapshot snapshotOrLoad() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // Not loaded yet (startup or Piston down) - start a load in the background, but not on every request;
+            // this request is served without a catalog
+            Instant lastAttempt = lastAttemptAt;
+            if (lastAttempt == null || lastAttempt.plusMillis(INITIAL_RETRY_MS).isBefore(Instant.now())) {
+                refresh();
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Runs on the shared scheduler: only starts the fetch; the next run is scheduled once it completes
+     */
+    private void refreshAndReschedule() {
+        refresh().whenComplete((loaded, e) -> {
+            if (!stopped) {
+                nextRefresh = taskScheduler.schedule(this::refreshAndReschedule, Instant.now().plusMillis(nextDelayMillis()));
+            }
+        });
+    }
+
+    private long nextDelayMillis() {
+        AppConfig.Piston piston = appConfig.getPiston();
+        long interval = snapshot == null
+                ? Math.min(INITIAL_RETRY_MS, piston.getRuntimeRefreshInterval())
+                : piston.getRuntimeRefreshInterval();
+
+        // Spread refreshes of multiple instances so they do not hit Piston at the same moment
+        double jitter = Math.max(0, Math.min(piston.getRuntimeRefreshJitter(), 1.0));
+        double factor = jitter == 0 ? 1.0 : 1.0 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Math.max(1000, (long) (interval * factor));
+    }
+
+    private CompletableFuture<List<Map<String, Object>>> fetchRuntimes() {
+        PistonEndpointSelector.Lease lease;
+        try {
+            lease = endpointSelector.acquire();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return pistonWebClient.get()
+                .uri(lease.getUrl() + "/runtimes")
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofMillis(appConfig.getPiston().getTimeout()))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Empty /runtimes response")))
+                .doOnSuccess(body -> lease.success())
+                .doOnError(e -> lease.failure(e))
+                .map(this::parseRuntimes)
+                .toFuture();
+    }
+
+    private List<Map<String, Object>> parseRuntimes(String body) {
+        try {
+            return objectMapper.readValue(body, new TypeReference<List<Map<String, Object>>>() {
+            });
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid /runtimes response: " + e.getMessage(), e);
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<Map<String, Object>> runtimes;
+        private final Map<String, Map<String, Object>> byLanguage;
+        private final List<String> languages;
+        private final Instant loadedAt;
+        private final long fetchMillis;
+
+        private Snapshot(List<Map<String, Object>> runtimes, Instant loadedAt, long fetchMillis) {
+            this.runtimes = Collections.unmodifiableList(new ArrayList<>(runtimes));
+            this.loadedAt = loadedAt;
+            this.fetchMillis = fetchMillis;
+
+            Map<String, Map<String, Object>> index = new HashMap<>();
+            TreeSet<String> names = new TreeSet<>();
+
+            // Language names first (first entry wins, as the old list scans did), then aliases
+            for (Map<String, Object> runtime : runtimes) {
+                Object language = runtime.get("language");
+                if (language instanceof String) {
+                    names.add((String) language);
+                    index.putIfAbsent(((String) language).toLowerCase(), runtime);
+                }
+            }
+
+            for (Map<String, Object> runtime : runtimes) {
+                Object aliases = runtime.get("aliases");
+                if (aliases instanceof List) {
+                    for (Object alias : (List<?>) aliases) {
+                        if (alias instanceof String) {
+                            index.putIfAbsent(((String) alias).toLowerCase(), runtime);
+                        }
+                    }
+                }
+            }
+
+            this.byLanguage = Collections.unmodifiableMap(index);
+            this.languages = Collections.unmodifiableList(new ArrayList<>(names));
+        }
+    }
+}
@@ -7,12 +7,18 @@ import com.algoarena.dto.compiler.ExecutionResponse;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.*;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class PistonService {
@@ -20,125 +26,152 @@ public class PistonService {
     @Autowired
     private AppConfig appConfig;
 
-    private final RestTemplate restTemplate;
+    @Autowired
+    private WebClient pistonWebClient;
+
+    @Autowired
+    private PistonRuntimeCatalog runtimeCatalog;
+
+    @Autowired
+    private PistonExecutionGuard executionGuard;
+
+    @Autowired
+    private PistonEndpointSelector endpointSelector;
+
     private final ObjectMapper objectMapper;
 
     public PistonService() {
-        this.restTemplate = new RestTemplate();
         this.objectMapper = new ObjectMapper();
     }
 
-    // Execute code using Piston API
+    // Execute code using Piston API (blocking - prefer executeCodeAsync on request threads)
     public ExecutionResponse executeCode(ExecutionRequest request) {
-        try {
-            String pistonUrl = appConfig.getPiston().getApiUrl() + "/execute";
-
-            // Prepare request body for Piston API
-            Map<String, Object> pistonRequest = new HashMap<>();
-            pistonRequest.put("language", request.getLanguage());
-            pistonRequest.put("version", request.getVersion());
-
-            // Prepare files array
-            List<Map<String, String>> files = new ArrayList<>();
-            Map<String, String> mainFile = new HashMap<>();
-            mainFile.put("content", request.getCode());
-            files.add(mainFile);
-
-            // Add additional files if provided
-            if (request.getFiles() != null) {
-                for (ExecutionRequest.FileContent file : request.getFiles()) {
-                    Map<String, String> additionalFile = new HashMap<>();
-                    additionalFile.put("name", file.getName());
-                    additionalFile.put("content", file.getContent());
-                    files.add(additionalFile);
-                }
-            }
+        return executeCodeAsync(request).block();
+    }
 
-            pistonRequest.put("files", files);
+    // Execute code without blocking the caller, using the configured app.piston.timeout
+    public Mono<ExecutionResponse> executeCodeAsync(ExecutionRequest request) {
+        return executeCodeAsync(request, Duration.ofMillis(appConfig.getPiston().getTimeout()));
+    }
 
-            // Add stdin if provided
-            if (request.getStdin() != null && !request.getStdin().isEmpty()) {
-                pistonRequest.put("stdin", request.getStdin());
-            }
+    // Execute code without blocking the caller, with a per-call timeout.
+    // Admission goes through PistonExecutionGuard, which fails fast with ExecutionServiceBusyException;
+    // the target node is picked by PistonEndpointSelector.
+    public Mono<ExecutionResponse> executeCodeAsync(ExecutionRequest request, Duration timeout) {
+        return Mono.defer(() -> {
+            PistonExecutionGuard.Permit permit = executionGuard.acquire();
+            PistonEndpointSelector.Lease lease = endpointSelector.acquire();
+            String pistonUrl = lease.getUrl() + "/execute";
+
+            return Mono.fromCallable(() -> buildPistonRequest(request))
+                    .flatMap(pistonRequest -> pistonWebClient.post()
+                            .uri(pistonUrl)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(pistonRequest)
+                            .httpRequest(httpRequest -> {
+                                HttpClientRequest reactorRequest = httpRequest.getNativeRequest();
+                                reactorRequest.responseTimeout(timeout);
+                            })
+                            .retrieve()
+                            .bodyToMono(String.class))
+                    .timeout(timeout)
+                    .doOnSuccess(body -> {
+                        permit.success();
+                        lease.success();
+                    })
+                    .doOnError(e -> {
+                        permit.failure(e);
+                        lease.failure(e);
+                    })
+                    .doOnCancel(() -> {
+                        permit.ignore();
+                        lease.release();
+                    })
+                    .map(this::parseExecutionResponse)
+                    .onErrorMap(e -> translateExecutionError(e, timeout));
+        });
+    }
+
+    // CompletableFuture variant for callers that are not reactive
+    public CompletableFuture<ExecutionResponse> executeCodeFuture(ExecutionRequest request) {
+        return executeCodeAsync(request).toFuture();
+    }
 
-            // Add args if provided
-            if (request.getArgs() != null && !request.getArgs().isEmpty()) {
-                pistonRequest.put("args", request.getArgs());
+    // Prepare request body for Piston API
+    private Map<String, Object> buildPistonRequest(ExecutionRequest request) {
+        Map<String, Object> pistonRequest = new HashMap<>();
+        pistonRequest.put("language", request.getLanguage());
+        pistonRequest.put("version", request.getVersion());
+
+        // Prepare files array
+        List<Map<String, String>> files = new ArrayList<>();
+        Map<String, String> mainFile = new HashMap<>();
+        mainFile.put("content", request.getCode());
+        files.add(mainFile);
+
+        // Add additional files if provided
+        if (request.getFiles() != null) {
+            for (ExecutionRequest.FileContent file : request.getFiles()) {
+                Map<String, String> additionalFile = new HashMap<>();
+                additionalFile.put("name", file.getName());
+                additionalFile.put("content", file.getContent());
+                files.add(additionalFile);
             }
+        }
 
-            // Set headers
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
+        pistonRequest.put("files", files);
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(pistonRequest, headers);
+        // Add stdin if provided
+        if (request.getStdin() != null && !request.getStdin().isEmpty()) {
+            pistonRequest.put("stdin", request.getStdin());
+        }
 
-            // Make the API call
-            ResponseEntity<String> response = restTemplate.postForEntity(pistonUrl, entity, String.class);
+        // Add args if provided
+        if (request.getArgs() != null && !request.getArgs().isEmpty()) {
+            pistonRequest.put("args", request.getArgs());
+        }
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                return parseExecutionResponse(response.getBody());
-            } else {
-                throw new RuntimeException("Piston API returned status: " + response.getStatusCode());
-            }
+        if (request.getRunTimeout() != null) {
+            pistonRequest.put("run_timeout", request.getRunTimeout());
+        }
 
-        } catch (ResourceAccessException e) {
-            throw new RuntimeException("Failed to connect to Piston API: " + e.getMessage());
-        } catch (Exception e) {
-            throw new RuntimeException("Code execution failed: " + e.getMessage());
+        return pistonRequest;
+    }
+
+    private Throwable translateExecutionError(Throwable e, Duration timeout) {
+        if (e instanceof TimeoutException) {
+            return new RuntimeException("Piston API did not respond within " + timeout.toMillis() + " ms");
+        }
+        if (e instanceof WebClientResponseException responseException) {
+            return new RuntimeException("Piston API returned status: " + responseException.getStatusCode());
         }
+        if (e instanceof WebClientRequestException) {
+            return new RuntimeException("Failed to connect to Piston API: " + e.getMessage());
+        }
+        return new RuntimeException("Code execution failed: " + e.getMessage());
     }
 
     // Get available runtimes from Piston API
     public List<Map<String, Object>> getRuntimes() {
-        try {
-            String runtimesUrl = appConfig.getPiston().getApiUrl() + "/runtimes";
-
-            ResponseEntity<String> response = restTemplate.getForEntity(runtimesUrl, String.class);
-
-            if (response.getStatusCode() == HttpStatus.OK) {
-                TypeReference<List<Map<String, Object>>> typeRef = new TypeReference<List<Map<String, Object>>>() {
-                };
-                return objectMapper.readValue(response.getBody(), typeRef);
-            } else {
-                throw new RuntimeException("Failed to fetch runtimes from Piston API");
-            }
-
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to get runtimes: " + e.getMessage());
-        }
+        return runtimeCatalog.getRuntimes();
     }
 
-    // Get supported languages (extracted from runtimes)
+    // Get supported languages (from the cached runtime catalog)
     public List<String> getSupportedLanguages() {
-        try {
-            List<Map<String, Object>> runtimes = getRuntimes();
-            Set<String> languages = new HashSet<>();
-
-            for (Map<String, Object> runtime : runtimes) {
-                String language = (String) runtime.get("language");
-                if (language != null) {
-                    languages.add(language);
-                }
-            }
-
-            return new ArrayList<>(languages);
-        } catch (Exception e) {
-            // Fallback to common languages if API fails
-            return Arrays.asList(
-                    "javascript", "python", "java", "cpp", "c", "csharp",
-                    "go", "rust", "kotlin", "typescript", "php", "ruby");
+        List<String> languages = runtimeCatalog.getSupportedLanguages();
+        if (!languages.isEmpty()) {
+            return languages;
         }
+
+        // Fallback to common languages if the catalog could not be loaded
+        return Arrays.asList(
+                "javascript", "python", "java", "cpp", "c", "csharp",
+                "go", "rust", "kotlin", "typescript", "php", "ruby");
     }
 
-    // Check if Piston API is healthy
+    // Piston is considered healthy while the last catalog refresh succeeded
     public boolean isHealthy() {
-        try {
-            String runtimesUrl = appConfig.getPiston().getApiUrl() + "/runtimes";
-            ResponseEntity<String> response = restTemplate.getForEntity(runtimesUrl, String.class);
-            return response.getStatusCode() == HttpStatus.OK;
-        } catch (Exception e) {
-            return false;
-        }
+        return runtimeCatalog.isHealthy();
     }
 
     // FIXED: Parse Piston API response to our ExecutionResponse DTO
@@ -219,65 +252,48 @@ public class PistonService {
 
     // Get language version for a specific language
     public String getLanguageVersion(String language) {
-        try {
-            List<Map<String, Object>> runtimes = getRuntimes();
-
-            for (Map<String, Object> runtime : runtimes) {
-                if (language.equals(runtime.get("language"))) {
-                    return (String) runtime.get("version");
-                }
-            }
-
-            // Fallback versions for common languages
-            Map<String, String> fallbackVersions = Map.of(
-                    "javascript", "18.15.0",
-                    "python", "3.10.0",
-                    "java", "15.0.2",
-                    "cpp", "10.2.0",
-                    "c", "10.2.0");
+        Map<String, Object> runtime = runtimeCatalog.findRuntime(language);
+        if (runtime != null && runtime.get("version") != null) {
+            return (String) runtime.get("version");
+        }
 
-            return fallbackVersions.getOrDefault(language, "latest");
+        // Fallback versions for common languages
+        Map<String, String> fallbackVersions = Map.of(
+                "javascript", "18.15.0",
+                "python", "3.10.0",
+                "java", "15.0.2",
+                "cpp", "10.2.0",
+                "c", "10.2.0");
 
-        } catch (Exception e) {
-            return "latest"; // Fallback
-        }
+        return fallbackVersions.getOrDefault(language, "latest");
     }
 
     // Get runtime info for a specific language
     public Map<String, Object> getLanguageInfo(String language) {
-        try {
-            List<Map<String, Object>> runtimes = getRuntimes();
-
-            return runtimes.stream()
-                    .filter(runtime -> language.equals(runtime.get("language")))
-                    .findFirst()
-                    .orElse(new HashMap<>());
-
-        } catch (Exception e) {
-            return new HashMap<>();
-        }
+        Map<String, Object> runtime = runtimeCatalog.findRuntime(language);
+        return runtime != null ? runtime : new HashMap<>();
     }
 
-    // Test connection to Piston API
+    // Report the runtime catalog state (no extra round-trip to Piston)
     public Map<String, Object> testConnection() {
         Map<String, Object> result = new HashMap<>();
 
-        try {
-            long startTime = System.currentTimeMillis();
-            List<Map<String, Object>> runtimes = getRuntimes();
-            long endTime = System.currentTimeMillis();
-
-            result.put("status", "success");
-            result.put("responseTime", endTime - startTime);
-            result.put("runtimesCount", runtimes.size());
-            result.put("apiUrl", appConfig.getPiston().getApiUrl());
-
-        } catch (Exception e) {
+        if (runtimeCatalog.isLoaded()) {
+            result.put("status", runtimeCatalog.isHealthy() ? "success" : "stale");
+            result.put("responseTime", runtimeCatalog.getLastFetchMillis());
+            result.put("runtimesCount", runtimeCatalog.getRuntimes().size());
+            result.put("catalogLoadedAt", runtimeCatalog.getLoadedAt().toString());
+        } else {
             result.put("status", "failed");
-            result.put("error", e.getMessage());
-            result.put("apiUrl", appConfig.getPiston().getApiUrl());
         }
 
+        if (runtimeCatalog.getLastError() != null) {
+            result.put("error", runtimeCatalog.getLastError());
+        }
+        result.put("apiUrl", appConfig.getPiston().getApiUrl());
+        result.put("endpoints", endpointSelector.getStatus());
+        result.put("executionGuard", executionGuard.getStatus());
+
         return result;
     }
-}
\ No newline at end of file
+}
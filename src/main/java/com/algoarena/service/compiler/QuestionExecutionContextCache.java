@@ -0,0 +1,92 @@
+// src/main/java/com/algoarena/service/compiler/QuestionExecutionContextCache.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.model.Question;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * What run and submit mode need from a question, cached per question id.
+ * Only id, version, run/submit templates, submitFullRun and testcases are loaded (Mongo field projection);
+ * statement, images, hints and starter code are never read on the execution path. The returned Question is
+ * shared between requests and must not be modified.
+ *
+ * QuestionService evicts the entry on update and delete; the TTL bounds staleness for edits made on
+ * another instance. The version travels with the entry, so the template, harness and verdict caches
+ * downstream stay keyed by id + version.
+ */
+@Component
+public class QuestionExecutionContextCache {
+
+    private static final String[] FIELDS = {
+            "version", "runTemplate", "submitTemplate", "submitFullRun", "testcases" };
+
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig.ExecutionContextCache config;
+    private final Cache<String, Question> contexts;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public QuestionExecutionContextCache(MongoTemplate mongoTemplate, AppConfig appConfig,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.config = appConfig.getExecutionContextCache();
+        this.contexts = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(Duration.ofMillis(config.getTtl()))
+                .build();
+
+        this.hits = Counter.builder("question.execution.context.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("question.execution.context.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Execution projection of the question; throws when it does not exist
+     */
+    public Question get(String questionId) {
+        if (!config.isEnabled()) {
+            misses.increment();
+            return load(questionId);
+        }
+
+        boolean[] loaded = new boolean[1];
+        Question question = contexts.get(questionId, id -> {
+            loaded[0] = true;
+            return find(id);
+        });
+        (loaded[0] ? misses : hits).increment();
+
+        if (question == null) {
+            throw new RuntimeException("Question not found with id: " + questionId);
+        }
+        return question;
+    }
+
+    public void evict(String questionId) {
+        contexts.invalidate(questionId);
+    }
+
+    private Question load(String questionId) {
+        Question question = find(questionId);
+        if (question == null) {
+            throw new RuntimeException("Question not found with id: " + questionId);
+        }
+        return question;
+    }
+
+    private Question find(String questionId) {
+        Query query = new Query(Criteria.where("_id").is(questionId));
+        query.fields().include(FIELDS);
+        return mongoTemplate.findOne(query, Question.class);
+    }
+}
@@ -0,0 +1,58 @@
+// src/main/java/com/algoarena/service/compiler/local/CompiledJavaProgram.java
+package com.algoarena.service.compiler.local;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of an in-memory javac run: class files by binary name plus the class to launch,
+ * or the compiler diagnostics when compilation failed
+ */
+public final class CompiledJavaProgram {
+
+    private final String mainClass;
+    private final List<String> mainArguments;
+    private final Map<String, byte[]> classes;
+    private final String compileError;
+    private final boolean harnessReused;
+
+    private CompiledJavaProgram(String mainClass, List<String> mainArguments, Map<String, byte[]> classes,
+            String compileError, boolean harnessReused) {
+        this.mainClass = mainClass;
+        this.mainArguments = mainArguments;
+        this.classes = classes;
+        this.compileError = compileError;
+        this.harnessReused = harnessReused;
+    }
+
+    static CompiledJavaProgram success(String mainClass, Map<String, byte[]> classes, boolean harnessReused) {
+        return new CompiledJavaProgram(mainClass, List.of(), Collections.unmodifiableMap(classes), null,
+                harnessReused);
+    }
+
+    static CompiledJavaProgram failure(String compileError) {
+        return new CompiledJavaProgram(null, List.of(), Collections.emptyMap(), compileError, false);
+    }
+
+    /**
+     * Same program, started through launcherClass with the real main class as its only argument
+     */
+    CompiledJavaProgram launchedThrough(String launcherClass, Map<String, byte[]> launcherClasses) {
+        Map<String, byte[]> combined = new LinkedHashMap<>(classes);
+        combined.putAll(launcherClasses);
+        return new CompiledJavaProgram(launcherClass, List.of(mainClass), Collections.unmodifiableMap(combined),
+                null, harnessReused);
+    }
+
+    public boolean isCompiled() {
+        return compileError == null;
+    }
+
+    public String getMainClass() { return mainClass; }
+    public List<String> getMainArguments() { return mainArguments; }
+    public Map<String, byte[]> getClasses() { return classes; }
+    public String getCompileError() { return compileError; }
+    public boolean isHarnessReused() { return harnessReused; }
+}
@@ -0,0 +1,434 @@
+// src/main/java/com/algoarena/service/compiler/local/JavaHarnessCompiler.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles Java submissions in memory with javax.tools, reusing the admin harness.
+ * The submit template is split at the user code placeholder into a harness unit (driver, parsers,
+ * comparators) and a user unit (the template's imports + the user's classes). The first submission
+ * for a harness key compiles both; the harness classes are kept, and later submissions only compile
+ * the user unit against them.
+ *
+ * Because the cached harness was linked against an earlier Solution, a user class whose signatures do
+ * not match would only fail at run time (NoSuchMethodError / NoClassDefFoundError). Programs built on a
+ * reused harness are therefore started through a small launcher that exits with LINKAGE_ERROR_EXIT_CODE
+ * when a LinkageError escapes the harness's main; LocalJavaExecutor then recompiles everything to get
+ * the same compile error javac (and Piston) would report.
+ *
+ * javac runs on app.local-java.compile-threads threads with a bounded queue, never on the caller's thread;
+ * the caller waits at most app.local-execution.compile-timeout. A full queue fails fast with
+ * ExecutionServiceBusyException.
+ */
+@Component
+public class JavaHarnessCompiler {
+
+    private static final Pattern PUBLIC_CLASS = Pattern.compile(
+            "public\\s+(?:final\\s+|abstract\\s+)*class\\s+([A-Za-z_$][A-Za-z0-9_$]*)");
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([A-Za-z0-9_.$]+)\\s*;", Pattern.MULTILINE);
+
+    private static final List<String> OPTIONS = List.of("-proc:none", "-Xlint:none", "-encoding", "UTF-8");
+
+    static final String LAUNCHER_CLASS = "AlgoArenaHarnessLauncher";
+    static final int LINKAGE_ERROR_EXIT_CODE = 97;
+
+    private static final String LAUNCHER_SOURCE = """
+            public final class AlgoArenaHarnessLauncher {
+                public static void main(String[] args) throws Throwable {
+                    java.lang.reflect.Method main = Class.forName(args[0]).getMethod("main", String[].class);
+                    try {
+                        main.invoke(null, (Object) new String[0]);
+                    } catch (java.lang.reflect.InvocationTargetException e) {
+                        if (e.getCause() instanceof LinkageError) {
+                            System.out.flush();
+                            System.err.println(e.getCause());
+                            System.exit(%d);
+                        }
+                        throw e.getCause();
+                    }
+                }
+            }
+            """.formatted(LINKAGE_ERROR_EXIT_CODE);
+
+    private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    private final Cache<String, Map<String, byte[]>> harnesses;
+    private final ThreadPoolExecutor compileExecutor;
+    private final long compileTimeout;
+    private volatile Map<String, byte[]> launcher;
+
+    public JavaHarnessCompiler(AppConfig appConfig) {
+        this.harnesses = Caffeine.newBuilder()
+                .maximumSize(appConfig.getLocalJava().getHarnessCacheSize())
+                .build();
+        int threads = Math.max(1, appConfig.getLocalJava().getCompileThreads());
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.compileExecutor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, appConfig.getLocalJava().getCompileQueueSize())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "javac-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.compileTimeout = appConfig.getLocalExecution().getCompileTimeout();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compileExecutor.shutdownNow();
+    }
+
+    /**
+     * False when running on a JRE without javac
+     */
+    public boolean isAvailable() {
+        return compiler != null;
+    }
+
+    /**
+     * Compile a complete program as one unit, without caching
+     */
+    public CompiledJavaProgram compile(String source) {
+        return bounded(() -> compileWhole(source));
+    }
+
+    /**
+     * Compile source (the rendered template, still containing marker where the user code goes).
+     * A null harnessKey, or a placeholder that is not at the top level of the file, compiles everything
+     * as one unit without caching.
+     */
+    public CompiledJavaProgram compile(String harnessKey, String source, String marker, String userCode) {
+        return bounded(() -> compileWithHarness(harnessKey, source, marker, userCode));
+    }
+
+    /**
+     * Run task on the compile threads and wait for it. javac cannot be stopped midway, so a compile that
+     * runs over the timeout keeps its thread until it ends; the fixed thread count and queue stop such
+     * compiles from piling up.
+     */
+    private CompiledJavaProgram bounded(Callable<CompiledJavaProgram> task) {
+        Future<CompiledJavaProgram> future;
+        try {
+            future = compileExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ExecutionServiceBusyException("Java compiler is busy. Please try again shortly.");
+        }
+        try {
+            return future.get(compileTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            return CompiledJavaProgram.failure("Compilation did not finish within " + compileTimeout + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Compilation interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Compilation failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    private CompiledJavaProgram compileWhole(String source) {
+        return compileUnits(List.of(new SourceUnit(fileNameFor(source, "Main"), source)),
+                Map.of(), null, null, mainClassOf(source), false);
+    }
+
+    private CompiledJavaProgram compileWithHarness(String harnessKey, String source, String marker,
+            String userCode) {
+        int markerIndex = source.indexOf(marker);
+        if (markerIndex < 0 || !isTopLevel(source, markerIndex)) {
+            return compileWhole(markerIndex < 0 ? source : source.replace(marker, userCode));
+        }
+
+        String before = source.substring(0, markerIndex);
+        String after = source.substring(markerIndex + marker.length());
+
+        // Keep line numbers of the harness stable; the user unit gets the template's package + imports
+        String harnessSource = before + after;
+        String userSource = headerOf(before) + userCode;
+
+        SourceUnit harnessUnit = new SourceUnit(fileNameFor(harnessSource, "Main"), harnessSource);
+        SourceUnit userUnit = new SourceUnit(fileNameFor(userCode, "UserSolution"), userSource);
+        String mainClass = mainClassOf(harnessSource);
+
+        Map<String, byte[]> harness = harnessKey != null ? harnesses.getIfPresent(harnessKey) : null;
+        if (harness != null) {
+            CompiledJavaProgram program = compileUnits(List.of(userUnit), harness, null, null, mainClass, true);
+            return program.isCompiled() ? program.launchedThrough(LAUNCHER_CLASS, launcherClasses()) : program;
+        }
+
+        return compileUnits(List.of(harnessUnit, userUnit), Map.of(), harnessUnit, harnessKey, mainClass, false);
+    }
+
+    /**
+     * Launcher class files, compiled on first use
+     */
+    private Map<String, byte[]> launcherClasses() {
+        Map<String, byte[]> classes = launcher;
+        if (classes == null) {
+            CompiledJavaProgram compiled = compileUnits(
+                    List.of(new SourceUnit(LAUNCHER_CLASS + ".java", LAUNCHER_SOURCE)),
+                    Map.of(), null, null, LAUNCHER_CLASS, false);
+            if (!compiled.isCompiled()) {
+                throw new IllegalStateException("Harness launcher does not compile: " + compiled.getCompileError());
+            }
+            classes = compiled.getClasses();
+            launcher = classes;
+        }
+        return classes;
+    }
+
+    public void evict(String harnessKeyPrefix) {
+        harnesses.asMap().keySet().removeIf(key -> key.startsWith(harnessKeyPrefix));
+    }
+
+    private CompiledJavaProgram compileUnits(List<SourceUnit> units, Map<String, byte[]> classpath,
+            SourceUnit harnessUnit, String harnessKey, String mainClass, boolean harnessReused) {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, Locale.ROOT,
+                StandardCharsets.UTF_8);
+
+        try (MemoryFileManager fileManager = new MemoryFileManager(standard, classpath)) {
+            // Submissions only see the JDK and the harness, never the application's own class path
+            standard.setLocation(StandardLocation.CLASS_PATH, List.of());
+
+            Boolean ok = compiler.getTask(null, fileManager, diagnostics, OPTIONS, null, units).call();
+            if (!Boolean.TRUE.equals(ok)) {
+                return CompiledJavaProgram.failure(format(diagnostics));
+            }
+
+            Map<String, byte[]> classes = new LinkedHashMap<>(classpath);
+            Map<String, byte[]> harnessClasses = new HashMap<>();
+            for (ClassOutput output : fileManager.outputs) {
+                classes.put(output.binaryName, output.bytes());
+                if (harnessUnit != null && output.sibling == harnessUnit) {
+                    harnessClasses.put(output.binaryName, output.bytes());
+                }
+            }
+
+            if (harnessKey != null) {
+                harnesses.put(harnessKey, harnessClasses);
+            }
+            return CompiledJavaProgram.success(mainClass, classes, harnessReused);
+        } catch (IOException e) {
+            throw new RuntimeException("In-memory compilation failed: " + e.getMessage(), e);
+        }
+    }
+
+    private String format(DiagnosticCollector<JavaFileObject> diagnostics) {
+        StringBuilder out = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+                continue;
+            }
+            String file = diagnostic.getSource() != null ? diagnostic.getSource().getName().substring(1) : "";
+            out.append(file).append(':').append(diagnostic.getLineNumber())
+                    .append(": error: ").append(diagnostic.getMessage(Locale.ROOT)).append('\n');
+        }
+        return out.length() > 0 ? out.toString() : "compilation failed";
+    }
+
+    private static String fileNameFor(String source, String fallback) {
+        Matcher matcher = PUBLIC_CLASS.matcher(source);
+        return (matcher.find() ? matcher.group(1) : fallback) + ".java";
+    }
+
+    private static String mainClassOf(String source) {
+        Matcher publicClass = PUBLIC_CLASS.matcher(source);
+        String simpleName = publicClass.find() ? publicClass.group(1) : "Main";
+        Matcher packageName = PACKAGE.matcher(source);
+        return packageName.find() ? packageName.group(1) + "." + simpleName : simpleName;
+    }
+
+    /**
+     * package and import lines of the part of the template above the placeholder
+     */
+    private static String headerOf(String before) {
+        StringBuilder header = new StringBuilder();
+        for (String line : before.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("package ") || trimmed.startsWith("import ")) {
+                header.append(trimmed).append('\n');
+            }
+        }
+        return header.toString();
+    }
+
+    /**
+     * True when index is outside every brace block (comments and string/char literals skipped)
+     */
+    private static boolean isTopLevel(String source, int index) {
+        int depth = 0;
+        int i = 0;
+        while (i < index) {
+            char c = source.charAt(i);
+            if (c == '/' && i + 1 < index && source.charAt(i + 1) == '/') {
+                while (i < index && source.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (c == '/' && i + 1 < index && source.charAt(i + 1) == '*') {
+                int end = source.indexOf("*/", i + 2);
+                i = end < 0 ? index : end + 2;
+            } else if (c == '"' || c == '\'') {
+                i++;
+                while (i < index && source.charAt(i) != c) {
+                    i += source.charAt(i) == '\\' ? 2 : 1;
+                }
+                i++;
+            } else {
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+                i++;
+            }
+        }
+        return depth == 0;
+    }
+
+    private static final class SourceUnit extends SimpleJavaFileObject {
+        private final String source;
+
+        private SourceUnit(String fileName, String source) {
+            super(URI.create("string:///" + fileName), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+
+    private static final class ClassOutput extends SimpleJavaFileObject {
+        private final String binaryName;
+        private final FileObject sibling;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private ClassOutput(String binaryName, FileObject sibling) {
+            super(URI.create("mem:///" + binaryName.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.binaryName = binaryName;
+            this.sibling = sibling;
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return buffer;
+        }
+
+        private byte[] bytes() {
+            return buffer.toByteArray();
+        }
+    }
+
+    private static final class ClassInput extends SimpleJavaFileObject {
+        private final String binaryName;
+        private final byte[] bytes;
+
+        private ClassInput(String binaryName, byte[] bytes) {
+            super(URI.create("mem:///" + binaryName.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+            this.binaryName = binaryName;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(bytes);
+        }
+    }
+
+    /**
+     * Writes class files to memory and serves the cached harness classes on the class path
+     */
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> classpath;
+        private final List<ClassOutput> outputs = new ArrayList<>();
+
+        private MemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classpath) {
+            super(fileManager);
+            this.classpath = classpath;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+                FileObject sibling) {
+            ClassOutput output = new ClassOutput(className, sibling);
+            outputs.add(output);
+            return output;
+        }
+
+        @Override
+        public Iterable<JavaFileObject> list(Location location, String packageName, Set<JavaFileObject.Kind> kinds,
+                boolean recurse) throws IOException {
+            Iterable<JavaFileObject> standard = super.list(location, packageName, kinds, recurse);
+            if (location != StandardLocation.CLASS_PATH || classpath.isEmpty()
+                    || !kinds.contains(JavaFileObject.Kind.CLASS)) {
+                return standard;
+            }
+
+            List<JavaFileObject> combined = new ArrayList<>();
+            for (Map.Entry<String, byte[]> entry : classpath.entrySet()) {
+                String name = entry.getKey();
+                int lastDot = name.lastIndexOf('.');
+                String classPackage = lastDot < 0 ? "" : name.substring(0, lastDot);
+                if (classPackage.equals(packageName)
+                        || (recurse && classPackage.startsWith(packageName.isEmpty() ? "" : packageName + "."))) {
+                    combined.add(new ClassInput(name, entry.getValue()));
+                }
+            }
+            standard.forEach(combined::add);
+            return combined;
+        }
+
+        @Override
+        public String inferBinaryName(Location location, JavaFileObject file) {
+            if (file instanceof ClassInput) {
+                return ((ClassInput) file).binaryName;
+            }
+            return super.inferBinaryName(location, file);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+// src/main/java/com/algoarena/service/compiler/local/JavaRunWorker.java
+package com.algoarena.service.compiler.local;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Main class of the pre-started worker JVMs used by JavaWorkerPool. JDK-only on purpose: the pool copies
+ * this class file (and its nested classes) out of the application and launches it with a plain class path.
+ *
+ * The protocol runs over the Unix domain socket at the path given as the only argument (the worker's jail
+ * has no network), never over fd 0/1, so a program writing to new FileOutputStream(FileDescriptor.out) cannot
+ * forge responses. The channel is only held in local variables, out of reach of the program's class loader.
+ * DataInput/DataOutput:
+ * - worker reads TOKEN_BYTES from stdin, connects, and sends the token followed by MAGIC once it is ready
+ * - request: MAGIC, class count, (binary name, length, bytes)*, main class, timeout ms, max output bytes,
+ *   max heap used percent
+ * - response: MAGIC, exit code, timed out, healthy, wall ms, stdout bytes, stderr bytes
+ *
+ * Each program is loaded in its own class loader (parent: platform loader) with System.out/err captured, and
+ * its main runs on a fresh thread. A worker that timed out exits after answering; "healthy" = false asks the
+ * pool to recycle it (out of memory, any thread started during the run still alive, or heap still high after
+ * a GC).
+ */
+public final class JavaRunWorker {
+
+    static final int MAGIC = 0x4A525731;
+    static final int TOKEN_BYTES = 16;
+
+    private static final Object responseLock = new Object();
+
+    private static volatile Run currentRun;
+
+    private JavaRunWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        byte[] token = new byte[TOKEN_BYTES];
+        new DataInputStream(new FileInputStream(FileDescriptor.in)).readFully(token);
+
+        // Reads and writes never overlap (request, run, response), so the channel streams do not block each other
+        SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(args[0]));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+
+        // Programs only ever see empty stdin and captured stdout/stderr, never the protocol streams
+        System.setIn(new ByteArrayInputStream(new byte[0]));
+
+        // System.exit() from a program still answers the pending request before the JVM goes away
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Run run = currentRun;
+            if (run != null) {
+                respond(out, run, 0, false, false);
+            }
+        }));
+
+        out.write(token);
+        out.writeInt(MAGIC);
+        out.flush();
+
+        while (true) {
+            int magic;
+            try {
+                magic = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            if (magic != MAGIC) {
+                return;
+            }
+
+            int classCount = in.readInt();
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < classCount; i++) {
+                String name = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                classes.put(name, bytes);
+            }
+            String mainClass = in.readUTF();
+            long timeoutMillis = in.readLong();
+            int maxOutputBytes = in.readInt();
+            int maxHeapUsedPercent = in.readInt();
+
+            if (!execute(out, classes, mainClass, timeoutMillis, maxOutputBytes, maxHeapUsedPercent)) {
+                // The program's thread cannot be stopped safely - give the worker up
+                Runtime.getRuntime().halt(137);
+            }
+        }
+    }
+
+    /**
+     * Run one program and answer; false when it timed out and the worker must exit
+     */
+    private static boolean execute(DataOutputStream out, Map<String, byte[]> classes, String mainClass,
+            long timeoutMillis, int maxOutputBytes, int maxHeapUsedPercent) {
+        Set<Thread> threadsBefore = Thread.getAllStackTraces().keySet();
+        Run run = new Run(maxOutputBytes);
+        System.setOut(run.stdoutStream);
+        System.setErr(run.stderrStream);
+        currentRun = run;
+
+        ClassLoader loader = new SubmissionClassLoader(classes);
+        ThreadGroup group = new ThreadGroup("submission");
+        Throwable[] failure = new Throwable[1];
+
+        Thread main = new Thread(group, () -> {
+            try {
+                Method entry = Class.forName(mainClass, true, loader).getMethod("main", String[].class);
+                entry.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                failure[0] = e.getCause();
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        }, "main", 64L * 1024 * 1024);
+        main.setContextClassLoader(loader);
+
+        main.start();
+        try {
+            main.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (main.isAlive()) {
+            respond(out, run, 137, true, false);
+            return false;
+        }
+
+        int code = 0;
+        boolean healthy = true;
+        if (failure[0] != null) {
+            code = 1;
+            run.stderrStream.print("Exception in thread \"main\" ");
+            failure[0].printStackTrace(run.stderrStream);
+            healthy = !(failure[0] instanceof OutOfMemoryError);
+        }
+
+        // Leak signals: threads the program left behind (in any thread group), or heap that a GC cannot bring
+        // back down
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (!threadsBefore.contains(thread) && thread.isAlive()) {
+                healthy = false;
+            }
+        }
+        if (healthy) {
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            healthy = used * 100 <= runtime.maxMemory() * maxHeapUsedPercent;
+        }
+
+        respond(out, run, code, false, healthy);
+        return true;
+    }
+
+    private static void respond(DataOutputStream out, Run run, int code, boolean timedOut, boolean healthy) {
+        synchronized (responseLock) {
+            if (currentRun != run) {
+                return;
+            }
+            currentRun = null;
+            run.stdoutStream.flush();
+            run.stderrStream.flush();
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(code);
+                out.writeBoolean(timedOut);
+                out.writeBoolean(healthy);
+                out.writeLong((System.nanoTime() - run.startNanos) / 1_000_000);
+                run.stdout.writeTo(out);
+                run.stderr.writeTo(out);
+                out.flush();
+            } catch (IOException e) {
+                // Pool is gone - nothing left to answer
+                Runtime.getRuntime().halt(1);
+            }
+        }
+    }
+
+    private static final class Run {
+        private final long startNanos = System.nanoTime();
+        private final CappedBuffer stdout;
+        private final CappedBuffer stderr;
+        private final PrintStream stdoutStream;
+        private final PrintStream stderrStream;
+
+        private Run(int maxOutputBytes) {
+            this.stdout = new CappedBuffer(maxOutputBytes);
+            this.stderr = new CappedBuffer(maxOutputBytes);
+            this.stdoutStream = new PrintStream(stdout, true, StandardCharsets.UTF_8);
+            this.stderrStream = new PrintStream(stderr, true, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Keeps at most max bytes and silently drops the rest
+     */
+    private static final class CappedBuffer extends OutputStream {
+        private final int max;
+        private byte[] bytes = new byte[8192];
+        private int length;
+
+        private CappedBuffer(int max) {
+            this.max = max;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            int room = Math.min(len, max - length);
+            if (room <= 0) {
+                return;
+            }
+            if (length + room > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.min(max, Math.max(bytes.length * 2, length + room)));
+            }
+            System.arraycopy(b, off, bytes, length, room);
+            length += room;
+        }
+
+        private synchronized void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(length);
+            out.write(bytes, 0, length);
+        }
+    }
+
+    /**
+     * Throwaway loader for one program; only the JDK is visible above it
+     */
+    private static final class SubmissionClassLoader extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        private SubmissionClassLoader(Map<String, byte[]> classes) {
+            super("submission", ClassLoader.getPlatformClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            byte[] bytes = classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,452 @@
+// src/main/java/com/algoarena/service/compiler/local/JavaWorkerPool.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channel;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of pre-started worker JVMs for Java run mode (app.java-worker-pool.*).
+ * The program is compiled in memory in this JVM (javac stays warm here, on JavaHarnessCompiler's bounded compile
+ * threads), then its class files are sent to an idle JavaRunWorker, which loads them in a throwaway class loader
+ * and sends back stdout/stderr. That skips JVM startup and javac process startup on every run; the output is
+ * the same text RunOutputParser expects.
+ *
+ * Workers are replaced after max-runs-per-worker runs, after a timeout, or when they report a leak signal
+ * (including any thread still alive after the run). A worker only ever runs code of one user: a worker last
+ * used by someone else is replaced instead of handed over, so state a program leaves in the JVM (finalizers,
+ * cleaners, JDK-global settings) never sees another user's run. Workers are started through LocalProcessRunner,
+ * so they run in nsjail like every other local program (startup fails without it), with the class directory
+ * mounted read-only. The protocol runs over a Unix domain socket per worker (removed once the worker connected)
+ * with a one-time token, not over the worker's stdin/stdout.
+ *
+ * CPU: per run, the worker exits after run-timeout if main is still running, and a watchdog kills it when it
+ * does not answer within run-timeout + 5 s. Busy threads left behind mark the worker unhealthy, so it is
+ * killed right after the run. As a backstop, each worker JVM gets an RLIMIT_CPU of
+ * cpu-seconds * max-runs-per-worker (plus startup) for its whole lifetime.
+ *
+ * execute() never waits for a worker: it returns null right away when no idle worker can take the run (or the
+ * compile threads are full), and the caller uses the execution backend, with its own admission, instead.
+ */
+@Component
+public class JavaWorkerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(JavaWorkerPool.class);
+
+    private static final String WORKER_CLASS = JavaRunWorker.class.getName();
+    private static final List<String> WORKER_CLASS_FILES = List.of(
+            "JavaRunWorker", "JavaRunWorker$Run", "JavaRunWorker$CappedBuffer", "JavaRunWorker$SubmissionClassLoader");
+
+    // Grace on top of the run timeout before a silent worker is killed from this side
+    private static final long WATCHDOG_GRACE_MS = 5000;
+    private static final int HANDSHAKE_TIMEOUT_MS = 30000;
+    private static final long STARTUP_CPU_SECONDS = 30;
+
+    private final JavaHarnessCompiler harnessCompiler;
+    private final LocalProcessRunner processRunner;
+    private final AppConfig.JavaWorkerPool config;
+    private final BlockingQueue<Worker> idle = new LinkedBlockingQueue<>();
+    private final ExecutorService spawner;
+    private final ScheduledExecutorService watchdogs;
+    private final AtomicInteger workerCounter = new AtomicInteger();
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile Path classDir;
+    private volatile boolean running;
+
+    public JavaWorkerPool(JavaHarnessCompiler harnessCompiler, LocalProcessRunner processRunner,
+            AppConfig appConfig) {
+        this.harnessCompiler = harnessCompiler;
+        this.processRunner = processRunner;
+        this.config = appConfig.getJavaWorkerPool();
+        this.spawner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "java-worker-spawner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.watchdogs = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "java-worker-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (!harnessCompiler.isAvailable()) {
+            logger.warn("app.java-worker-pool.enabled is set but no system Java compiler is available (JRE?) - pool disabled");
+            return;
+        }
+        processRunner.requireIsolation("app.java-worker-pool.enabled");
+
+        try {
+            classDir = processRunner.createWorkDir("algoarena-worker-");
+            // Readable by the jail user, writable only by this service: every worker loads its classes from here
+            Files.setPosixFilePermissions(classDir, PosixFilePermissions.fromString("rwxr-xr-x"));
+            Path packageDir = classDir.resolve(JavaRunWorker.class.getPackageName().replace('.', '/'));
+            Files.createDirectories(packageDir);
+            for (String name : WORKER_CLASS_FILES) {
+                try (InputStream classFile = JavaRunWorker.class.getResourceAsStream(name + ".class")) {
+                    if (classFile == null) {
+                        throw new IOException("class file not found: " + name);
+                    }
+                    Files.copy(classFile, packageDir.resolve(name + ".class"));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Could not prepare Java worker classes - pool disabled: {}", e.getMessage());
+            return;
+        }
+
+        running = true;
+        for (int i = 0; i < config.getSize(); i++) {
+            spawner.execute(this::spawn);
+        }
+        logger.info("Java worker pool starting {} workers", config.getSize());
+    }
+
+    public boolean supports(String language) {
+        return running && "java".equalsIgnoreCase(language);
+    }
+
+    /**
+     * Compile source here and run it on a pooled worker reserved for userId; null when no worker is idle, the
+     * compile threads are busy, or the worker failed underneath the run
+     */
+    public ExecutionResponse execute(String source, String userId) {
+        if (idle.isEmpty()) {
+            return null;
+        }
+        CompiledJavaProgram program;
+        try {
+            program = harnessCompiler.compile(source);
+        } catch (ExecutionServiceBusyException e) {
+            return null;
+        }
+        ExecutionResponse response = LocalJavaExecutor.compileResponse(program);
+        if (!program.isCompiled()) {
+            return response;
+        }
+
+        Worker worker = acquire(userId);
+        if (worker == null) {
+            return null;
+        }
+        worker.owner = userId;
+
+        AppConfig.LocalExecution limits = processRunner.getConfig();
+        ScheduledFuture<?> watchdog = watchdogs.schedule(() -> destroyTree(worker.process),
+                limits.getRunTimeout() + WATCHDOG_GRACE_MS, TimeUnit.MILLISECONDS);
+        try {
+            worker.send(program, limits.getRunTimeout(), limits.getMaxOutputChars(), config.getMaxHeapUsedPercent());
+            WorkerResult result = worker.receive();
+            watchdog.cancel(false);
+
+            response.setRun(result.run);
+            release(worker, result.reusable);
+            return response;
+
+        } catch (IOException e) {
+            watchdog.cancel(false);
+            logger.warn("Java worker {} failed during a run, falling back: {}", worker.id, e.getMessage());
+            release(worker, false);
+            return null;
+        }
+    }
+
+    /**
+     * An idle worker that is fresh or last ran code of userId, without waiting; null when there is none.
+     * Workers last used by another user are never handed over: one of them is retired instead, so a fresh
+     * worker is on its way for the next run.
+     */
+    private Worker acquire(String userId) {
+        for (Worker candidate : idle) {
+            if (candidate.isAvailableTo(userId) && idle.remove(candidate)) {
+                return candidate;
+            }
+        }
+        Worker other = idle.poll();
+        if (other != null) {
+            retire(other);
+        }
+        return null;
+    }
+
+    private void release(Worker worker, boolean reusable) {
+        worker.runs++;
+        if (reusable && running && worker.runs < config.getMaxRunsPerWorker() && worker.process.isAlive()) {
+            idle.offer(worker);
+            return;
+        }
+        retire(worker);
+    }
+
+    private void retire(Worker worker) {
+        worker.close();
+        if (running) {
+            spawner.execute(this::spawn);
+        }
+    }
+
+    private void spawn() {
+        if (!running) {
+            return;
+        }
+        AppConfig.LocalExecution limits = processRunner.getConfig();
+        int id = workerCounter.incrementAndGet();
+        Path socketPath = classDir.resolve("worker-" + id + ".sock");
+        List<String> command = new ArrayList<>();
+        command.add(limits.getJavaCommand());
+        command.add("-Xmx" + limits.getMaxHeapMb() + "m");
+        command.add("-XX:+UseSerialGC");
+        command.add("-XX:TieredStopAtLevel=1");
+        command.add("-cp");
+        command.add(classDir.toString());
+        command.add(WORKER_CLASS);
+        command.add(socketPath.toString());
+
+        byte[] token = new byte[JavaRunWorker.TOKEN_BYTES];
+        random.nextBytes(token);
+        long cpuBudget = (long) limits.getCpuSeconds() * config.getMaxRunsPerWorker() + STARTUP_CPU_SECONDS;
+
+        Process process = null;
+        ServerSocketChannel server = null;
+        SocketChannel channel = null;
+        try {
+            server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            // The jail user may differ from ours (privileged nsjail); the token keeps anyone else out
+            Files.setPosixFilePermissions(socketPath, PosixFilePermissions.fromString("rw-rw-rw-"));
+
+            process = processRunner.start(command, classDir, cpuBudget);
+            try (OutputStream stdin = process.getOutputStream()) {
+                stdin.write(token);
+            }
+            channel = accept(server, token);
+            idle.offer(new Worker(id, process, channel));
+        } catch (IOException e) {
+            if (process != null) {
+                destroyTree(process);
+            }
+            closeQuietly(channel);
+            if (!running) {
+                return;
+            }
+            logger.warn("Could not start a Java worker, retrying in 5 s: {}", e.getMessage());
+            watchdogs.schedule(() -> spawner.execute(this::spawn), 5, TimeUnit.SECONDS);
+        } finally {
+            // Connected channels outlive the listening socket and its file
+            closeQuietly(server);
+            try {
+                Files.deleteIfExists(socketPath);
+            } catch (IOException e) {
+                logger.debug("Could not remove {}: {}", socketPath, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Next connection on server that presents token followed by MAGIC; other connections are dropped.
+     * Channels have no accept/read timeout, so a handshake still going after HANDSHAKE_TIMEOUT_MS is ended by
+     * closing the channels underneath it.
+     */
+    private SocketChannel accept(ServerSocketChannel server, byte[] token) throws IOException {
+        AtomicReference<SocketChannel> connecting = new AtomicReference<>();
+        ScheduledFuture<?> timeout = watchdogs.schedule(() -> {
+            closeQuietly(server);
+            closeQuietly(connecting.get());
+        }, HANDSHAKE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        try {
+            while (true) {
+                SocketChannel channel = server.accept();
+                connecting.set(channel);
+                try {
+                    DataInputStream in = new DataInputStream(Channels.newInputStream(channel));
+                    byte[] presented = new byte[token.length];
+                    in.readFully(presented);
+                    if (MessageDigest.isEqual(token, presented) && in.readInt() == JavaRunWorker.MAGIC) {
+                        return channel;
+                    }
+                } catch (IOException e) {
+                    // Not our worker, or the handshake timed out (the next accept fails then)
+                }
+                closeQuietly(channel);
+            }
+        } catch (ClosedChannelException e) {
+            throw new SocketTimeoutException("worker did not connect");
+        } finally {
+            timeout.cancel(false);
+        }
+    }
+
+    private static void closeQuietly(Channel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Already closed
+            }
+        }
+    }
+
+    /**
+     * SIGKILL a worker and anything it started (without nsjail, a program's child processes are not in a jail
+     * that ends with the worker)
+     */
+    private static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        spawner.shutdownNow();
+        watchdogs.shutdownNow();
+        Worker worker;
+        while ((worker = idle.poll()) != null) {
+            worker.close();
+        }
+        processRunner.deleteQuietly(classDir);
+    }
+
+    private static final class Worker {
+        private final int id;
+        private final Process process;
+        private final SocketChannel channel;
+        private final DataOutputStream out;
+        private final DataInputStream in;
+        private int runs;
+        private volatile String owner;
+
+        private Worker(int id, Process process, SocketChannel channel) {
+            this.id = id;
+            this.process = process;
+            this.channel = channel;
+            this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+
+            // Raw stdout/stderr of the worker JVM (diagnostics, or a program writing to the file descriptors
+            // directly) is never parsed, but must not fill the pipes
+            drain(process.getInputStream(), "java-worker-" + id + "-stdout");
+            drain(process.getErrorStream(), "java-worker-" + id + "-stderr");
+        }
+
+        private static void drain(InputStream stream, String name) {
+            Thread drain = new Thread(() -> {
+                try (stream) {
+                    stream.transferTo(OutputStream.nullOutputStream());
+                } catch (IOException e) {
+                    // Worker exited
+                }
+            }, name);
+            drain.setDaemon(true);
+            drain.start();
+        }
+
+        private boolean isAvailableTo(String userId) {
+            return owner == null || Objects.equals(owner, userId);
+        }
+
+        private void close() {
+            destroyTree(process);
+            closeQuietly(channel);
+        }
+
+        private void send(CompiledJavaProgram program, long timeoutMillis, int maxOutputBytes,
+                int maxHeapUsedPercent) throws IOException {
+            out.writeInt(JavaRunWorker.MAGIC);
+            out.writeInt(program.getClasses().size());
+            for (Map.Entry<String, byte[]> entry : program.getClasses().entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.writeUTF(program.getMainClass());
+            out.writeLong(timeoutMillis);
+            out.writeInt(maxOutputBytes);
+            out.writeInt(maxHeapUsedPercent);
+            out.flush();
+        }
+
+        private WorkerResult receive() throws IOException {
+            if (in.readInt() != JavaRunWorker.MAGIC) {
+                throw new IOException("protocol out of sync");
+            }
+            int code = in.readInt();
+            boolean timedOut = in.readBoolean();
+            boolean healthy = in.readBoolean();
+            long wallMillis = in.readLong();
+            String stdout = readText();
+            String stderr = readText();
+
+            ExecutionResponse.RunResult run = new ExecutionResponse.RunResult();
+            run.setCode(code);
+            run.setSignal(timedOut ? "SIGKILL" : null);
+            run.setWallTime(wallMillis);
+            run.setStdout(stdout);
+            run.setStderr(stderr);
+            run.setOutput(stdout + stderr);
+            return new WorkerResult(run, healthy && !timedOut);
+        }
+
+        private String readText() throws IOException {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final class WorkerResult {
+        private final ExecutionResponse.RunResult run;
+        private final boolean reusable;
+
+        private WorkerResult(ExecutionResponse.RunResult run, boolean reusable) {
+            this.run = run;
+            this.reusable = reusable;
+        }
+    }
+}
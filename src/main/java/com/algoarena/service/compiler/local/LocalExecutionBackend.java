@@ -0,0 +1,232 @@
+// src/main/java/com/algoarena/service/compiler/local/LocalExecutionBackend.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.algoarena.service.compiler.ExecutionBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs programs as processes on this host (app.execution.backend=local), for small deployments without a
+ * Piston server and for running executions in integration tests. Programs are isolated by LocalProcessRunner
+ * (nsjail); startup fails when that is not available unless app.local-execution.isolation=none.
+ * Java compiles in memory (LocalJavaExecutor); Python and JavaScript run on the configured interpreters;
+ * C++ is compiled with the configured compiler first. Files go to a per-execution directory under
+ * app.local-execution.work-dir, which should be a tmpfs mount in production.
+ * Executions take one of the LocalExecutionSlots shared with the local Java submit path, so at most
+ * app.local-execution.max-concurrent programs run at once; further requests fail fast with
+ * ExecutionServiceBusyException, like Piston's admission guard.
+ */
+@Component
+@ConditionalOnProperty(name = "app.execution.backend", havingValue = "local")
+public class LocalExecutionBackend implements ExecutionBackend {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalExecutionBackend.class);
+
+    private static final String VERSION = "local";
+
+    private final LocalProcessRunner processRunner;
+    private final LocalJavaExecutor javaExecutor;
+    private final LocalExecutionSlots slots;
+    private final AppConfig.LocalExecution config;
+
+    public LocalExecutionBackend(LocalProcessRunner processRunner, LocalJavaExecutor javaExecutor,
+            LocalExecutionSlots slots, AppConfig appConfig) {
+        this.processRunner = processRunner;
+        this.javaExecutor = javaExecutor;
+        this.slots = slots;
+        this.config = appConfig.getLocalExecution();
+        processRunner.requireIsolation("app.execution.backend=local");
+        logger.info("Executing code locally (max {} concurrent)", slots.getMaxConcurrent());
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public Mono<ExecutionResponse> execute(ExecutionRequest request) {
+        return execute(request, Duration.ofMillis(config.getCompileTimeout() + runTimeout(request)));
+    }
+
+    @Override
+    public Mono<ExecutionResponse> execute(ExecutionRequest request, Duration timeout) {
+        return Mono.defer(() -> {
+            try {
+                slots.acquire();
+            } catch (ExecutionServiceBusyException e) {
+                return Mono.error(e);
+            }
+            // The slot is freed by whoever gets here first: the run once its processes are reaped, or a
+            // cancel/timeout that came before the run started. A timeout during the run interrupts it, and
+            // the run frees the slot after killing and reaping its process
+            AtomicBoolean claimed = new AtomicBoolean();
+            return Mono.fromCallable(() -> {
+                        if (!claimed.compareAndSet(false, true)) {
+                            return null;
+                        }
+                        try {
+                            return run(request);
+                        } catch (RuntimeException e) {
+                            if (Thread.currentThread().isInterrupted()) {
+                                return null; // cancelled - nobody is waiting for the result
+                            }
+                            throw e;
+                        } finally {
+                            slots.release();
+                        }
+                    })
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .timeout(timeout)
+                    .doFinally(signal -> {
+                        if (claimed.compareAndSet(false, true)) {
+                            slots.release();
+                        }
+                    })
+                    .onErrorMap(TimeoutException.class, e -> new RuntimeException(
+                            "Local execution did not finish within " + timeout.toMillis() + " ms"));
+        });
+    }
+
+    private ExecutionResponse run(ExecutionRequest request) {
+        String language = normalize(request.getLanguage());
+        switch (language) {
+            case "java":
+                return javaExecutor.execute(request.getCode(), request.getStdin());
+            case "python":
+                return interpret(request, language, config.getPythonCommand(), "main.py");
+            case "javascript":
+                return interpret(request, language, config.getNodeCommand(), "main.js");
+            case "cpp":
+                return compileAndRun(request);
+            default:
+                throw new IllegalArgumentException("Unsupported language for local execution: " + request.getLanguage());
+        }
+    }
+
+    private ExecutionResponse interpret(ExecutionRequest request, String language, String interpreter,
+            String mainFile) {
+        Path dir = null;
+        try {
+            dir = prepare(request, mainFile);
+            List<String> command = new ArrayList<>();
+            command.add(interpreter);
+            command.add(mainFile);
+            addArgs(command, request);
+
+            ExecutionResponse response = response(language);
+            response.setRun(processRunner.run(command, dir, request.getStdin(), runTimeout(request), true));
+            return response;
+        } catch (IOException e) {
+            throw new RuntimeException("Local execution failed: " + e.getMessage(), e);
+        } finally {
+            processRunner.deleteQuietly(dir);
+        }
+    }
+
+    private ExecutionResponse compileAndRun(ExecutionRequest request) {
+        Path dir = null;
+        try {
+            dir = prepare(request, "main.cpp");
+            List<String> compileCommand = List.of(config.getCppCompiler(), "-O2", "-std=c++17", "-o", "main", "main.cpp");
+            ExecutionResponse.RunResult compiled = processRunner.run(compileCommand, dir, null,
+                    config.getCompileTimeout(), false);
+
+            ExecutionResponse response = response("cpp");
+            ExecutionResponse.CompileResult compile = new ExecutionResponse.CompileResult();
+            compile.setCode(compiled.getCode());
+            compile.setStdout(compiled.getStdout());
+            compile.setStderr(compiled.getStderr());
+            compile.setOutput(compiled.getOutput());
+            response.setCompile(compile);
+            if (compiled.getCode() != 0) {
+                return response;
+            }
+
+            List<String> command = new ArrayList<>();
+            command.add(dir.resolve("main").toString());
+            addArgs(command, request);
+            response.setRun(processRunner.run(command, dir, request.getStdin(), runTimeout(request), true));
+            return response;
+        } catch (IOException e) {
+            throw new RuntimeException("Local execution failed: " + e.getMessage(), e);
+        } finally {
+            processRunner.deleteQuietly(dir);
+        }
+    }
+
+    /**
+     * Work directory with the main file plus any named extra files (the way Piston lays them out)
+     */
+    private Path prepare(ExecutionRequest request, String mainFile) throws IOException {
+        Path dir = processRunner.createWorkDir("algoarena-run-");
+        Files.write(dir.resolve(mainFile), request.getCode().getBytes(StandardCharsets.UTF_8));
+
+        if (request.getFiles() != null) {
+            for (ExecutionRequest.FileContent file : request.getFiles()) {
+                Path target = dir.resolve(file.getName()).normalize();
+                if (!target.startsWith(dir)) {
+                    throw new IllegalArgumentException("Invalid file name: " + file.getName());
+                }
+                Files.createDirectories(target.getParent());
+                Files.write(target, file.getContent().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return dir;
+    }
+
+    private void addArgs(List<String> command, ExecutionRequest request) {
+        if (request.getArgs() != null) {
+            command.addAll(request.getArgs());
+        }
+    }
+
+    /**
+     * The request's run timeout, never above app.local-execution.run-timeout
+     */
+    private long runTimeout(ExecutionRequest request) {
+        Integer requested = request.getRunTimeout();
+        return requested != null && requested > 0 ? Math.min(requested, config.getRunTimeout()) : config.getRunTimeout();
+    }
+
+    private ExecutionResponse response(String language) {
+        ExecutionResponse response = new ExecutionResponse();
+        response.setLanguage(language);
+        response.setVersion(VERSION);
+        return response;
+    }
+
+    private String normalize(String language) {
+        switch (language == null ? "" : language.toLowerCase()) {
+            case "python3":
+            case "py":
+                return "python";
+            case "js":
+            case "node":
+                return "javascript";
+            case "c++":
+            case "g++":
+                return "cpp";
+            default:
+                return language == null ? "" : language.toLowerCase();
+        }
+    }
+}
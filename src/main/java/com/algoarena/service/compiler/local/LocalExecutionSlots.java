@@ -0,0 +1,46 @@
+// src/main/java/com/algoarena/service/compiler/local/LocalExecutionSlots.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * The app.local-execution.max-concurrent slots shared by everything that runs submitted code on this host
+ * (LocalExecutionBackend and the local Java submit path). Acquiring never waits: when every slot is taken the
+ * caller fails fast with ExecutionServiceBusyException, like Piston's admission guard.
+ */
+@Component
+public class LocalExecutionSlots {
+
+    private final Semaphore slots;
+    private final int maxConcurrent;
+
+    public LocalExecutionSlots(AppConfig appConfig) {
+        this.maxConcurrent = Math.max(1, appConfig.getLocalExecution().getMaxConcurrent());
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Take a slot, or throw ExecutionServiceBusyException. Every successful call needs one release().
+     */
+    public void acquire() {
+        if (!slots.tryAcquire()) {
+            throw new ExecutionServiceBusyException();
+        }
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getAvailable() {
+        return slots.availablePermits();
+    }
+}
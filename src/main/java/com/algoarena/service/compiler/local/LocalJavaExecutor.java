@@ -0,0 +1,157 @@
+// src/main/java/com/algoarena/service/compiler/local/LocalJavaExecutor.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs Java programs on this host instead of Piston.
+ * Compilation goes through JavaHarnessCompiler, so with app.local-java.enabled only the user's classes are
+ * compiled per submission; the program then runs in a child JVM through LocalProcessRunner. The result is
+ * returned as an ExecutionResponse shaped like Piston's, so the normal parsers and verdict logic apply.
+ * A program on a reused harness that dies with a LinkageError is recompiled as a whole, so a signature
+ * mismatch is reported as the same COMPILE_ERROR as without app.local-java.enabled.
+ * A submit holds one of the LocalExecutionSlots shared with LocalExecutionBackend for its compile and run, so
+ * both paths together stay within app.local-execution.max-concurrent; when none is free it fails fast with
+ * ExecutionServiceBusyException. The child JVM runs isolated like every other local program.
+ */
+@Service
+public class LocalJavaExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalJavaExecutor.class);
+
+    private final JavaHarnessCompiler harnessCompiler;
+    private final LocalProcessRunner processRunner;
+    private final LocalExecutionSlots slots;
+    private final AppConfig.LocalJava config;
+
+    public LocalJavaExecutor(JavaHarnessCompiler harnessCompiler, LocalProcessRunner processRunner,
+            LocalExecutionSlots slots, AppConfig appConfig) {
+        this.harnessCompiler = harnessCompiler;
+        this.processRunner = processRunner;
+        this.slots = slots;
+        this.config = appConfig.getLocalJava();
+
+        if (config.isEnabled() && !harnessCompiler.isAvailable()) {
+            logger.warn("app.local-java.enabled is set but no system Java compiler is available (JRE?) - using Piston");
+        } else if (config.isEnabled()) {
+            processRunner.requireIsolation("app.local-java.enabled");
+        }
+    }
+
+    /**
+     * True when Java submits should use the compile-once harness path (app.local-java.enabled)
+     */
+    public boolean supports(String language) {
+        return config.isEnabled() && harnessCompiler.isAvailable() && "java".equalsIgnoreCase(language);
+    }
+
+    /**
+     * Compile (reusing the harness cached under harnessKey) and run; ExecutionServiceBusyException when no
+     * local execution slot is free
+     */
+    public ExecutionResponse execute(String harnessKey, String source, String marker, String userCode) {
+        slots.acquire();
+        try {
+            CompiledJavaProgram program = harnessCompiler.compile(harnessKey, source, marker, userCode);
+            ExecutionResponse response = toResponse(program, null);
+            if (program.isHarnessReused() && isLinkageError(response.getRun())) {
+                logger.debug("LinkageError on reused harness {}, recompiling without it", harnessKey);
+                return toResponse(harnessCompiler.compile(null, source, marker, userCode), null);
+            }
+            return response;
+        } finally {
+            slots.release();
+        }
+    }
+
+    /**
+     * Compile a complete program and run it with stdin (used by LocalExecutionBackend, which already holds
+     * the slot)
+     */
+    public ExecutionResponse execute(String source, String stdin) {
+        if (!harnessCompiler.isAvailable()) {
+            return toResponse(CompiledJavaProgram.failure("No Java compiler available on this host (JRE only)"), null);
+        }
+        return toResponse(harnessCompiler.compile(source), stdin);
+    }
+
+    private static boolean isLinkageError(ExecutionResponse.RunResult run) {
+        return run != null && run.getSignal() == null
+                && run.getCode() == JavaHarnessCompiler.LINKAGE_ERROR_EXIT_CODE;
+    }
+
+    private ExecutionResponse toResponse(CompiledJavaProgram program, String stdin) {
+        ExecutionResponse response = compileResponse(program);
+        if (program.isCompiled()) {
+            response.setRun(run(program, stdin));
+        }
+        return response;
+    }
+
+    /**
+     * Piston-shaped response carrying only the compile stage of program
+     */
+    static ExecutionResponse compileResponse(CompiledJavaProgram program) {
+        ExecutionResponse response = new ExecutionResponse();
+        response.setLanguage("java");
+        response.setVersion(String.valueOf(Runtime.version().feature()));
+
+        ExecutionResponse.CompileResult compile = new ExecutionResponse.CompileResult();
+        if (program.isCompiled()) {
+            compile.setCode(0);
+            compile.setStdout("");
+            compile.setStderr("");
+        } else {
+            compile.setCode(1);
+            compile.setStderr(program.getCompileError());
+            compile.setOutput(program.getCompileError());
+        }
+        response.setCompile(compile);
+        return response;
+    }
+
+    private ExecutionResponse.RunResult run(CompiledJavaProgram program, String stdin) {
+        AppConfig.LocalExecution limits = processRunner.getConfig();
+        Path dir = null;
+        try {
+            dir = processRunner.createWorkDir("algoarena-java-");
+            writeClasses(dir, program.getClasses());
+
+            List<String> command = new ArrayList<>();
+            command.add(limits.getJavaCommand());
+            command.add("-Xmx" + limits.getMaxHeapMb() + "m");
+            command.add("-Xss64m");
+            command.add("-XX:+UseSerialGC");
+            command.add("-XX:TieredStopAtLevel=1");
+            command.add("-cp");
+            command.add(dir.toString());
+            command.add(program.getMainClass());
+            command.addAll(program.getMainArguments());
+
+            return processRunner.run(command, dir, stdin, limits.getRunTimeout(), false);
+        } catch (IOException e) {
+            throw new RuntimeException("Local execution failed: " + e.getMessage(), e);
+        } finally {
+            processRunner.deleteQuietly(dir);
+        }
+    }
+
+    private void writeClasses(Path dir, Map<String, byte[]> classes) throws IOException {
+        for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+            Path file = dir.resolve(entry.getKey().replace('.', '/') + ".class");
+            Files.createDirectories(file.getParent());
+            Files.write(file, entry.getValue());
+        }
+    }
+}
@@ -0,0 +1,393 @@
+// src/main/java/com/algoarena/service/compiler/local/LocalProcessRunner.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Spawns submission processes on this host (app.local-execution.*).
+ * Every process gets its own work directory, an empty environment apart from PATH and HOME, capped
+ * stdout/stderr and a wall-clock timeout after which it is killed and reaped.
+ *
+ * With isolation=nsjail (the default) each process runs in nsjail: new network, PID, IPC, UTS and mount
+ * namespaces (no network at all, only readonly-mounts plus its own work directory visible), jail-uid/jail-gid,
+ * rlimits for CPU seconds, file size and - except for JVMs and compilers, which reserve far more address space
+ * than they use - virtual memory, and cgroup memory and pids limits. Features that run code locally call
+ * requireIsolation() at startup, which fails when nsjail is missing.
+ * isolation=none only applies the rlimits with ulimit through /bin/sh, in the service's own uid with full
+ * network and filesystem access; it is meant for development machines.
+ */
+@Component
+public class LocalProcessRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalProcessRunner.class);
+
+    private static final String SHELL = "/bin/sh";
+    private static final String NSJAIL = "nsjail";
+    private static final String NONE = "none";
+
+    private final AppConfig.LocalExecution config;
+    private final String isolation;
+    private final String nsjailPath;
+    private final boolean rlimitsAvailable;
+    private final AtomicBoolean unisolatedWarned = new AtomicBoolean();
+
+    public LocalProcessRunner(AppConfig appConfig) {
+        this.config = appConfig.getLocalExecution();
+        this.isolation = config.getIsolation() == null ? NSJAIL : config.getIsolation().trim().toLowerCase();
+        this.nsjailPath = findExecutable(config.getNsjailCommand());
+        this.rlimitsAvailable = Files.isExecutable(Paths.get(SHELL));
+    }
+
+    public AppConfig.LocalExecution getConfig() {
+        return config;
+    }
+
+    /**
+     * Throws IllegalStateException (failing startup of the caller) unless programs will run isolated:
+     * isolation=nsjail with nsjail installed, or isolation=none set explicitly for development
+     */
+    public void requireIsolation(String feature) {
+        switch (isolation) {
+            case NSJAIL:
+                if (nsjailPath == null) {
+                    throw new IllegalStateException(feature + " runs submitted code on this host and needs nsjail ("
+                            + config.getNsjailCommand() + " not found). Install it, or set "
+                            + "app.local-execution.isolation=none on a development machine.");
+                }
+                return;
+            case NONE:
+                if (unisolatedWarned.compareAndSet(false, true)) {
+                    logger.warn("app.local-execution.isolation=none: submitted code runs unisolated as this "
+                            + "service's user, with network and filesystem access. Development only.");
+                    if (!rlimitsAvailable) {
+                        logger.warn("{} not found - local executions also run without CPU/memory/file limits", SHELL);
+                    }
+                }
+                return;
+            default:
+                throw new IllegalStateException("Unknown app.local-execution.isolation: " + config.getIsolation()
+                        + " (expected nsjail or none)");
+        }
+    }
+
+    /**
+     * New empty directory under app.local-execution.work-dir (java.io.tmpdir when blank)
+     */
+    public Path createWorkDir(String prefix) throws IOException {
+        String configured = config.getWorkDir();
+        Path parent = configured == null || configured.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"))
+                : Paths.get(configured);
+        Path dir = Files.createTempDirectory(parent, prefix);
+        if (isIsolated()) {
+            // jail-uid is a different user than ours when nsjail runs privileged
+            Files.setPosixFilePermissions(dir, PosixFilePermissions.fromString("rwxrwxrwx"));
+        }
+        return dir;
+    }
+
+    public void deleteQuietly(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            logger.warn("Could not clean up {}: {}", dir, e.getMessage());
+        }
+    }
+
+    /**
+     * Run command in dir and wait for it. limitMemory=false skips the address space limit and uses
+     * max-jvm-memory-mb as the cgroup limit (use it for JVMs and compilers).
+     * A process still running after timeoutMillis is killed and reported as SIGKILL / exit code 137; this method
+     * only returns once the process is gone.
+     */
+    public ExecutionResponse.RunResult run(List<String> command, Path dir, String stdin, long timeoutMillis,
+            boolean limitMemory) {
+        ProcessBuilder builder = processBuilder(wrap(command, dir, config.getCpuSeconds(), limitMemory, true), dir);
+
+        Process process = null;
+        try {
+            long startNanos = System.nanoTime();
+            process = builder.start();
+
+            CappedReader stdout = new CappedReader(process.getInputStream(), config.getMaxOutputChars());
+            CappedReader stderr = new CappedReader(process.getErrorStream(), config.getMaxOutputChars());
+            stdout.start();
+            stderr.start();
+
+            try (OutputStream input = process.getOutputStream()) {
+                if (stdin != null && !stdin.isEmpty()) {
+                    input.write(stdin.getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (IOException e) {
+                // Program exited without reading its input
+            }
+
+            ExecutionResponse.RunResult result = new ExecutionResponse.RunResult();
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                kill(process);
+                result.setSignal("SIGKILL");
+                result.setCode(137);
+            } else {
+                result.setCode(process.exitValue());
+                // nsjail and the shell report a signal death as 128 + signal (e.g. 137 after RLIMIT_CPU's SIGKILL)
+                if (result.getCode() > 128) {
+                    result.setSignal(signalName(result.getCode() - 128));
+                }
+            }
+            result.setWallTime((System.nanoTime() - startNanos) / 1_000_000);
+
+            stdout.join(1000);
+            stderr.join(1000);
+            result.setStdout(stdout.text());
+            result.setStderr(stderr.text());
+            result.setOutput(stdout.text() + stderr.text());
+            return result;
+
+        } catch (IOException e) {
+            if (process != null) {
+                kill(process);
+            }
+            throw new RuntimeException("Local execution failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            if (process != null) {
+                kill(process);
+            }
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Local execution interrupted", e);
+        }
+    }
+
+    /**
+     * SIGKILL process and everything it started, and wait until it has exited even when interrupted
+     * (a caller's execution slot must not be freed while the program still runs)
+     */
+    static void kill(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                process.waitFor();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Start a long-lived process (a pooled worker JVM) with the same isolation and limits as a JVM in run(),
+     * except that dir is mounted read-only: it is shared by every process started from it.
+     * CPU time adds up over the process lifetime, so cpuSeconds is a budget for all of its tasks together;
+     * callers still enforce per-task timeouts themselves
+     */
+    public Process start(List<String> command, Path dir, long cpuSeconds) throws IOException {
+        return processBuilder(wrap(command, dir, cpuSeconds, false, false), dir).start();
+    }
+
+    private boolean isIsolated() {
+        return NSJAIL.equals(isolation) && nsjailPath != null;
+    }
+
+    private List<String> wrap(List<String> command, Path dir, long cpuSeconds, boolean limitMemory,
+            boolean writableDir) {
+        return isIsolated()
+                ? jailed(command, dir, cpuSeconds, limitMemory, writableDir)
+                : withLimits(command, cpuSeconds, limitMemory);
+    }
+
+    /**
+     * command inside a fresh nsjail (mode once: the jail ends with the program). Without --chroot nsjail
+     * starts from an empty tmpfs root, so only the mounts listed here exist
+     */
+    private List<String> jailed(List<String> command, Path dir, long cpuSeconds, boolean limitMemory,
+            boolean writableDir) {
+        long memoryMb = limitMemory ? config.getMaxMemoryMb() : config.getMaxJvmMemoryMb();
+        List<String> jailed = new ArrayList<>();
+        jailed.add(nsjailPath);
+        jailed.addAll(List.of("--mode", "o", "--really_quiet", "--hostname", "jail", "--time_limit", "0"));
+        jailed.addAll(List.of("--user", String.valueOf(config.getJailUid()),
+                "--group", String.valueOf(config.getJailGid())));
+        for (String mount : readonlyMounts()) {
+            jailed.addAll(List.of("--bindmount_ro", mount));
+        }
+        jailed.addAll(List.of(writableDir ? "--bindmount" : "--bindmount_ro", dir.toString()));
+        jailed.addAll(List.of("--cwd", dir.toString(), "--tmpfsmount", "/tmp"));
+        jailed.addAll(List.of("--env", "PATH=" + path(), "--env", "HOME=" + dir));
+
+        jailed.addAll(List.of("--rlimit_cpu", cpuSeconds > 0 ? String.valueOf(cpuSeconds) : "hard"));
+        jailed.addAll(List.of("--rlimit_fsize", String.valueOf(Math.max(1, config.getMaxFileKb() / 1024))));
+        jailed.addAll(List.of("--rlimit_as", limitMemory ? String.valueOf(config.getMaxMemoryMb()) : "hard"));
+        jailed.addAll(List.of("--rlimit_nofile", "256"));
+        jailed.addAll(List.of("--cgroup_mem_max", String.valueOf(memoryMb * 1024 * 1024)));
+        jailed.addAll(List.of("--cgroup_pids_max", String.valueOf(config.getMaxProcesses())));
+        if (config.isCgroupV2()) {
+            jailed.add("--use_cgroupv2");
+        }
+
+        jailed.add("--");
+        // nsjail does not search PATH; the resolved file is visible inside through readonlyMounts
+        String executable = findExecutable(command.get(0));
+        jailed.add(executable != null ? executable : command.get(0));
+        jailed.addAll(command.subList(1, command.size()));
+        return jailed;
+    }
+
+    private List<String> readonlyMounts() {
+        List<String> mounts = new ArrayList<>();
+        for (String mount : config.getReadonlyMounts()) {
+            if (Files.exists(Paths.get(mount))) {
+                mounts.add(mount);
+            }
+        }
+        // The JDK this service runs on (javaCommand usually resolves into it)
+        Path javaHome = Paths.get(System.getProperty("java.home"));
+        if (mounts.stream().noneMatch(mount -> javaHome.startsWith(mount))) {
+            mounts.add(javaHome.toString());
+        }
+        return mounts;
+    }
+
+    private static String path() {
+        String path = System.getenv("PATH");
+        return path != null ? path : "/usr/bin:/bin";
+    }
+
+    /**
+     * Absolute real path of an executable given by name (searched on PATH) or path; null when not found
+     */
+    private static String findExecutable(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        List<Path> candidates = new ArrayList<>();
+        if (name.contains("/")) {
+            candidates.add(Paths.get(name));
+        } else {
+            for (String entry : path().split(":")) {
+                if (!entry.isEmpty()) {
+                    candidates.add(Paths.get(entry, name));
+                }
+            }
+        }
+        for (Path candidate : candidates) {
+            if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                try {
+                    return candidate.toRealPath().toString();
+                } catch (IOException e) {
+                    return candidate.toAbsolutePath().toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private ProcessBuilder processBuilder(List<String> command, Path dir) {
+        ProcessBuilder builder = new ProcessBuilder(command).directory(dir.toFile());
+        // The submission gets no secrets from our environment
+        builder.environment().clear();
+        builder.environment().put("PATH", path());
+        builder.environment().put("HOME", dir.toString());
+        return builder;
+    }
+
+    private List<String> withLimits(List<String> command, long cpuSeconds, boolean limitMemory) {
+        if (!rlimitsAvailable) {
+            return command;
+        }
+        StringBuilder script = new StringBuilder();
+        if (cpuSeconds > 0) {
+            script.append("ulimit -t ").append(cpuSeconds).append("; ");
+        }
+        // dash counts ulimit -f in 512-byte blocks
+        script.append("ulimit -f ").append(config.getMaxFileKb() * 2L).append("; ");
+        if (limitMemory) {
+            script.append("ulimit -v ").append(config.getMaxMemoryMb() * 1024L).append("; ");
+        }
+        script.append("exec \"$0\" \"$@\"");
+
+        List<String> wrapped = new ArrayList<>(command.size() + 3);
+        wrapped.add(SHELL);
+        wrapped.add("-c");
+        wrapped.add(script.toString());
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    private static String signalName(int signal) {
+        switch (signal) {
+            case 6: return "SIGABRT";
+            case 9: return "SIGKILL";
+            case 11: return "SIGSEGV";
+            case 24: return "SIGXCPU";
+            case 25: return "SIGXFSZ";
+            default: return null;
+        }
+    }
+
+    /**
+     * Drains a process stream on its own thread, keeping at most maxChars
+     */
+    static final class CappedReader extends Thread {
+        private final InputStream stream;
+        private final int maxChars;
+        private final StringBuilder text = new StringBuilder();
+
+        CappedReader(InputStream stream, int maxChars) {
+            this.stream = stream;
+            this.maxChars = maxChars;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            char[] buffer = new char[8192];
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    synchronized (text) {
+                        int room = maxChars - text.length();
+                        if (room > 0) {
+                            text.append(buffer, 0, Math.min(room, read));
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                // Process was killed - keep what was read
+            }
+        }
+
+        String text() {
+            synchronized (text) {
+                return text.toString();
+            }
+        }
+    }
+}
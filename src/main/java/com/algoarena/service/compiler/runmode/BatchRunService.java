@@ -0,0 +1,405 @@
+// src/main/java/com/algoarena/service/compiler/runmode/BatchRunService.java
+package com.algoarena.service.compiler.runmode;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import com.algoarena.dto.compiler.runmode.BatchRunRequest;
+import com.algoarena.dto.compiler.runmode.BatchRunResponse;
+import com.algoarena.dto.compiler.runmode.RunCodeResponse;
+import com.algoarena.dto.compiler.runmode.RunTestCaseInput;
+import com.algoarena.model.Question;
+import com.algoarena.repository.QuestionRepository;
+import com.algoarena.service.compiler.ExecutionBackend;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admin batch run: executes many (question, language, code) tuples in one request.
+ * Python and JavaScript items are packed into multi-file Piston calls driven by a small launcher
+ * that runs each file as a child process; everything else (and any bundled item whose output
+ * could not be recovered) is fanned out as single calls with bounded concurrency.
+ */
+@Service
+public class BatchRunService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchRunService.class);
+
+    // Extra Piston run budget for the launcher itself on top of the per-item budget
+    private static final int DRIVER_OVERHEAD_MS = 1000;
+
+    @Autowired
+    private RunModeService runModeService;
+
+    @Autowired
+    private QuestionRepository questionRepository;
+
+    @Autowired
+    private ExecutionBackend executionBackend;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    public CompletableFuture<BatchRunResponse> executeBatch(BatchRunRequest request) {
+        AppConfig.BatchRun config = appConfig.getBatchRun();
+        List<BatchRunRequest.Item> items = request.getItems();
+
+        if (items.size() > config.getMaxItems()) {
+            throw new IllegalArgumentException("Batch exceeds maximum of " + config.getMaxItems() + " items");
+        }
+
+        long startNanos = System.nanoTime();
+
+        // 1. Load every referenced question in one query
+        Set<String> questionIds = new HashSet<>();
+        for (BatchRunRequest.Item item : items) {
+            questionIds.add(item.getQuestionId());
+        }
+        Map<String, Question> questions = new HashMap<>();
+        questionRepository.findAllById(questionIds).forEach(q -> questions.put(q.getId(), q));
+
+        // 2. Generate complete code per item; failures here are reported without touching Piston
+        BatchRunResponse.ItemResult[] results = new BatchRunResponse.ItemResult[items.size()];
+        List<PreparedItem> prepared = new ArrayList<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            BatchRunRequest.Item item = items.get(i);
+            try {
+                prepared.add(prepare(i, item, questions.get(item.getQuestionId())));
+            } catch (Exception e) {
+                results[i] = failed(i, item.getQuestionId(), item.getLanguage(), e.getMessage());
+            }
+        }
+
+        // 3. Bundle what can be bundled, run everything with bounded concurrency
+        List<List<PreparedItem>> units = planUnits(prepared, bundleSize(config));
+        AtomicInteger pistonCalls = new AtomicInteger();
+
+        logger.info("Batch run: {} items, {} prepared, {} Piston units", items.size(), prepared.size(), units.size());
+
+        return Flux.fromIterable(units)
+                .flatMap(unit -> unit.size() > 1
+                        ? runBundle(unit, pistonCalls, config)
+                        : runSingle(unit.get(0), pistonCalls).flux(),
+                        config.getParallelism())
+                .doOnNext(result -> results[result.getIndex()] = result)
+                .then(Mono.fromCallable(() -> buildReport(results, pistonCalls.get(), startNanos)))
+                .toFuture();
+    }
+
+    private PreparedItem prepare(int index, BatchRunRequest.Item item, Question question) {
+        if (question == null) {
+            throw new RuntimeException("Question not found with id: " + item.getQuestionId());
+        }
+
+        List<RunTestCaseInput> testCases = item.getTestCases() != null && !item.getTestCases().isEmpty()
+                ? item.getTestCases()
+                : storedTestCases(question);
+
+        if (testCases.isEmpty()) {
+            throw new RuntimeException("No test cases found for this question");
+        }
+
+        String completeCode = runModeService.generateCompleteCode(
+                question, item.getLanguage(), item.getCode(), testCases);
+
+        return new PreparedItem(index, item, runModeService.mapLanguageToPiston(item.getLanguage()),
+                completeCode, testCases.size());
+    }
+
+    private List<RunTestCaseInput> storedTestCases(Question question) {
+        List<RunTestCaseInput> testCases = new ArrayList<>();
+        if (question.getTestcases() != null) {
+            for (Question.Testcase testcase : question.getTestcases()) {
+                List<Object> inputs = testcase.getInput() != null
+                        ? new ArrayList<>(testcase.getInput().values())
+                        : new ArrayList<>();
+                testCases.add(new RunTestCaseInput(inputs));
+            }
+        }
+        return testCases;
+    }
+
+    /**
+     * Python/JavaScript items are grouped per language into bundles of at most bundleSize;
+     * every other item is its own unit
+     */
+    private List<List<PreparedItem>> planUnits(List<PreparedItem> prepared, int bundleSize) {
+        List<List<PreparedItem>> units = new ArrayList<>();
+        Map<String, List<PreparedItem>> openBundles = new LinkedHashMap<>();
+
+        for (PreparedItem item : prepared) {
+            if (!isBundleable(item.pistonLanguage) || bundleSize < 2) {
+                units.add(Collections.singletonList(item));
+                continue;
+            }
+
+            List<PreparedItem> bundle = openBundles.computeIfAbsent(item.pistonLanguage, k -> new ArrayList<>());
+            bundle.add(item);
+            if (bundle.size() == bundleSize) {
+                units.add(bundle);
+                openBundles.remove(item.pistonLanguage);
+            }
+        }
+
+        units.addAll(openBundles.values());
+        return units;
+    }
+
+    /**
+     * Items per bundle: bundle-size, cut so the whole bundle's run_timeout stays within what Piston accepts
+     * (it rejects a larger run_timeout, which would turn every bundle into single calls)
+     */
+    private int bundleSize(AppConfig.BatchRun config) {
+        int fitting = (config.getPistonMaxRunTimeout() - DRIVER_OVERHEAD_MS) / Math.max(1, config.getItemRunTimeout());
+        return Math.min(config.getBundleSize(), fitting);
+    }
+
+    private boolean isBundleable(String pistonLanguage) {
+        return "python".equals(pistonLanguage) || "javascript".equals(pistonLanguage);
+    }
+
+    private Mono<BatchRunResponse.ItemResult> runSingle(PreparedItem item, AtomicInteger pistonCalls) {
+        ExecutionRequest executionRequest = new ExecutionRequest(item.pistonLanguage, "*", item.code);
+        pistonCalls.incrementAndGet();
+
+        return executionBackend.execute(executionRequest)
+                .map(response -> completed(item, runModeService.buildRunCodeResponse(response, item.testCaseCount), false))
+                .onErrorResume(e -> Mono.just(
+                        failed(item.index, item.item.getQuestionId(), item.item.getLanguage(), e.getMessage())));
+    }
+
+    private Flux<BatchRunResponse.ItemResult> runBundle(
+            List<PreparedItem> bundle, AtomicInteger pistonCalls, AppConfig.BatchRun config) {
+
+        String language = bundle.get(0).pistonLanguage;
+        String token = UUID.randomUUID().toString().replace("-", "");
+        int runTimeout = Math.min(config.getItemRunTimeout() * bundle.size() + DRIVER_OVERHEAD_MS,
+                config.getPistonMaxRunTimeout());
+
+        ExecutionRequest executionRequest = new ExecutionRequest(language, "*",
+                buildDriver(language, token, bundle.size(), config.getItemRunTimeout()));
+        List<ExecutionRequest.FileContent> files = new ArrayList<>();
+        for (int i = 0; i < bundle.size(); i++) {
+            files.add(new ExecutionRequest.FileContent(itemFileName(language, i), bundle.get(i).code));
+        }
+        executionRequest.setFiles(files);
+        executionRequest.setRunTimeout(runTimeout);
+
+        Duration timeout = Duration.ofMillis((long) appConfig.getPiston().getTimeout() + runTimeout);
+        pistonCalls.incrementAndGet();
+
+        return executionBackend.execute(executionRequest, timeout)
+                .map(response -> splitBundleOutput(response, token, bundle.size()))
+                .onErrorResume(e -> {
+                    logger.warn("Batch bundle of {} {} items failed, running them individually: {}",
+                            bundle.size(), language, e.getMessage());
+                    return Mono.just(Collections.<Integer, ExecutionResponse>emptyMap());
+                })
+                .flatMapMany(split -> {
+                    List<BatchRunResponse.ItemResult> done = new ArrayList<>();
+                    List<PreparedItem> retry = new ArrayList<>();
+
+                    for (int i = 0; i < bundle.size(); i++) {
+                        ExecutionResponse itemResponse = split.get(i);
+                        if (itemResponse == null) {
+                            retry.add(bundle.get(i));
+                            continue;
+                        }
+                        try {
+                            done.add(completed(bundle.get(i),
+                                    runModeService.buildRunCodeResponse(itemResponse, bundle.get(i).testCaseCount), true));
+                        } catch (Exception e) {
+                            retry.add(bundle.get(i));
+                        }
+                    }
+
+                    if (!retry.isEmpty() && !split.isEmpty()) {
+                        logger.warn("Batch bundle: {} of {} {} items incomplete, re-running individually",
+                                retry.size(), bundle.size(), language);
+                    }
+
+                    return Flux.fromIterable(done)
+                            .concatWith(Flux.fromIterable(retry)
+                                    .flatMap(item -> runSingle(item, pistonCalls), config.getParallelism()));
+                });
+    }
+
+    /**
+     * Split the launcher's stdout back into one response per item.
+     * Items whose delimiters are missing (e.g. Piston killed the launcher) or that used up the in-bundle
+     * budget are left out and re-run.
+     */
+    private Map<Integer, ExecutionResponse> splitBundleOutput(ExecutionResponse response, String token, int count) {
+        Map<Integer, ExecutionResponse> split = new HashMap<>();
+        String stdout = response.getRun() != null && response.getRun().getStdout() != null
+                ? response.getRun().getStdout()
+                : "";
+
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            String startMarker = "__BATCH_" + token + "_START_" + i + "__\n";
+            String stderrMarker = "\n__BATCH_" + token + "_STDERR_" + i + "__\n";
+            String endMarker = "\n__BATCH_" + token + "_END_" + i + "_";
+
+            int start = stdout.indexOf(startMarker, from);
+            if (start == -1) continue;
+            int stderrStart = stdout.indexOf(stderrMarker, start);
+            if (stderrStart == -1) continue;
+            int end = stdout.indexOf(endMarker, stderrStart);
+            if (end == -1) continue;
+            int codeStart = end + endMarker.length();
+            int codeEnd = stdout.indexOf("__", codeStart);
+            if (codeEnd == -1) continue;
+
+            String exitCode = stdout.substring(codeStart, codeEnd);
+            from = codeEnd;
+            if ("TIMEOUT".equals(exitCode)) {
+                // Only the short in-bundle budget ran out; the single re-run gets the normal run_timeout
+                continue;
+            }
+
+            ExecutionResponse.RunResult run = new ExecutionResponse.RunResult();
+            run.setStdout(stdout.substring(start + startMarker.length(), stderrStart));
+            run.setStderr(stdout.substring(stderrStart + stderrMarker.length(), end));
+            try {
+                run.setCode(Integer.parseInt(exitCode));
+            } catch (NumberFormatException e) {
+                run.setCode(-1);
+            }
+            run.setOutput(run.getStdout() + run.getStderr());
+
+            ExecutionResponse itemResponse = new ExecutionResponse();
+            itemResponse.setLanguage(response.getLanguage());
+            itemResponse.setVersion(response.getVersion());
+            itemResponse.setRun(run);
+            split.put(i, itemResponse);
+        }
+
+        return split;
+    }
+
+    private String itemFileName(String language, int i) {
+        return "python".equals(language) ? "item_" + i + ".py" : "item_" + i + ".js";
+    }
+
+    /**
+     * Launcher that runs item_0..item_{count-1} sequentially as child processes and prints
+     * each one's stdout, stderr and exit code between token-tagged delimiters
+     */
+    private String buildDriver(String language, String token, int count, int itemTimeoutMs) {
+        String[] lines;
+        if ("python".equals(language)) {
+            lines = new String[] {
+                    "import subprocess, sys",
+                    "TAG = '__BATCH_{{TOKEN}}_'",
+                    "for i in range({{COUNT}}):",
+                    "    try:",
+                    "        r = subprocess.run([sys.executable, 'item_%d.py' % i], capture_output=True, text=True, timeout={{TIMEOUT_SECONDS}})",
+                    "        out, err, code = r.stdout, r.stderr, str(r.returncode)",
+                    "    except subprocess.TimeoutExpired as e:",
+                    "        out = e.stdout.decode(errors='replace') if isinstance(e.stdout, bytes) else (e.stdout or '')",
+                    "        err, code = '', 'TIMEOUT'",
+                    "    sys.stdout.write(TAG + 'START_%d__\\n' % i + out + '\\n' + TAG + 'STDERR_%d__\\n' % i + err",
+                    "                     + '\\n' + TAG + 'END_%d_' % i + code + '__\\n')",
+                    "    sys.stdout.flush()"
+            };
+        } else {
+            lines = new String[] {
+                    "const { spawnSync } = require('child_process');",
+                    "const TAG = '__BATCH_{{TOKEN}}_';",
+                    "for (let i = 0; i < {{COUNT}}; i++) {",
+                    "  const r = spawnSync(process.execPath, ['item_' + i + '.js'],",
+                    "      { encoding: 'utf8', timeout: {{TIMEOUT_MS}}, maxBuffer: 16 * 1024 * 1024 });",
+                    "  const timedOut = r.error && r.error.code === 'ETIMEDOUT';",
+                    "  const code = timedOut ? 'TIMEOUT' : String(r.status);",
+                    "  process.stdout.write(TAG + 'START_' + i + '__\\n' + (r.stdout || '') + '\\n'",
+                    "      + TAG + 'STDERR_' + i + '__\\n' + (timedOut ? '' : (r.stderr || ''))",
+                    "      + '\\n' + TAG + 'END_' + i + '_' + code + '__\\n');",
+                    "}"
+            };
+        }
+
+        return String.join("\n", lines)
+                .replace("{{TOKEN}}", token)
+                .replace("{{COUNT}}", String.valueOf(count))
+                .replace("{{TIMEOUT_SECONDS}}", String.valueOf(itemTimeoutMs / 1000.0))
+                .replace("{{TIMEOUT_MS}}", String.valueOf(itemTimeoutMs));
+    }
+
+    private BatchRunResponse.ItemResult completed(PreparedItem item, RunCodeResponse result, boolean bundled) {
+        BatchRunResponse.ItemResult itemResult = new BatchRunResponse.ItemResult(
+                item.index, item.item.getQuestionId(), item.item.getLanguage());
+        itemResult.setVerdict(result.getVerdict());
+        itemResult.setBundled(bundled);
+        itemResult.setResult(result);
+        return itemResult;
+    }
+
+    private BatchRunResponse.ItemResult failed(int index, String questionId, String language, String error) {
+        BatchRunResponse.ItemResult itemResult = new BatchRunResponse.ItemResult(index, questionId, language);
+        itemResult.setVerdict("ERROR");
+        itemResult.setError(error);
+        return itemResult;
+    }
+
+    private BatchRunResponse buildReport(BatchRunResponse.ItemResult[] results, int pistonCalls, long startNanos) {
+        BatchRunResponse report = new BatchRunResponse();
+        int accepted = 0, rejected = 0, errors = 0, bundled = 0;
+
+        for (BatchRunResponse.ItemResult result : results) {
+            if (result == null) continue;
+            report.getResults().add(result);
+            if ("ERROR".equals(result.getVerdict())) errors++;
+            else if ("ACCEPTED".equals(result.getVerdict())) accepted++;
+            else rejected++;
+            if (result.isBundled()) bundled++;
+        }
+
+        report.setTotalItems(results.length);
+        report.setAccepted(accepted);
+        report.setRejected(rejected);
+        report.setErrors(errors);
+        report.setPistonCalls(pistonCalls);
+        report.setBundledItems(bundled);
+        report.setDurationMs(Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+
+        logger.info("Batch run finished: {} items, {} accepted, {} rejected, {} errors, {} Piston calls in {} ms",
+                results.length, accepted, rejected, errors, pistonCalls, report.getDurationMs());
+
+        return report;
+    }
+
+    private static final class PreparedItem {
+        private final int index;
+        private final BatchRunRequest.Item item;
+        private final String pistonLanguage;
+        private final String code;
+        private final int testCaseCount;
+
+        private PreparedItem(int index, BatchRunRequest.Item item, String pistonLanguage, String code, int testCaseCount) {
+            this.index = index;
+            this.item = item;
+            this.pistonLanguage = pistonLanguage;
+            this.code = code;
+            this.testCaseCount = testCaseCount;
+        }
+    }
+}
@@ -7,8 +7,16 @@ import com.algoarena.dto.compiler.runmode.RunCodeRequest;
 import com.algoarena.dto.compiler.runmode.RunCodeResponse;
 import com.algoarena.dto.compiler.runmode.RunTestCaseResult;
 import com.algoarena.model.Question;
-import com.algoarena.repository.QuestionRepository;
-import com.algoarena.service.compiler.PistonService;
+import com.algoarena.model.User;
+import com.algoarena.service.compiler.ExecutionBackend;
+import com.algoarena.service.compiler.ExecutionMetrics;
+import com.algoarena.service.compiler.ExecutionProgressListener;
+import com.algoarena.service.compiler.ExecutionTrace;
+import com.algoarena.service.compiler.ExecutionTraceService;
+import com.algoarena.service.compiler.QuestionExecutionContextCache;
+import com.algoarena.service.compiler.local.JavaWorkerPool;
+import com.algoarena.service.compiler.template.CompiledTemplate;
+import com.algoarena.service.compiler.template.CompiledTemplateCache;
 // import org.slf4j.Logger;
 // import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +24,6 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @Service
 public class RunModeService {
@@ -24,7 +31,7 @@ public class RunModeService {
     // private static final Logger logger = LoggerFactory.getLogger(RunModeService.class);
 
     @Autowired
-    private QuestionRepository questionRepository;
+    private QuestionExecutionContextCache questionExecutionContextCache;
 
     @Autowired
     private JavaTemplateGenerator javaTemplateGenerator;
@@ -39,50 +46,92 @@ public class RunModeService {
     private JavaScriptTemplateGenerator javaScriptTemplateGenerator;
 
     @Autowired
-    private PistonService pistonService;
+    private ExecutionBackend executionBackend;
+
+    @Autowired
+    private JavaWorkerPool javaWorkerPool;
 
     @Autowired
     private RunOutputParser runOutputParser;
 
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @Autowired
+    private ExecutionTraceService executionTraceService;
+
     /**
      * Execute user code in run mode using template-based approach
      */
-    public RunCodeResponse executeRunMode(String questionId, RunCodeRequest request) {
+    public RunCodeResponse executeRunMode(String questionId, RunCodeRequest request, User user) {
+        return executeRunMode(questionId, request, user, ExecutionProgressListener.NONE);
+    }
+
+    /**
+     * Same as executeRunMode, reporting phases and per-testcase results to listener as they happen
+     */
+    public RunCodeResponse executeRunMode(String questionId, RunCodeRequest request, User user,
+            ExecutionProgressListener listener) {
+        long requestStart = System.nanoTime();
+        ExecutionTrace trace = executionTraceService.start(ExecutionMetrics.RUN, questionId, request.getLanguage());
+        try {
+            RunCodeResponse response = runAndParse(questionId, request, user, listener, trace);
+            executionMetrics.recordRequest(ExecutionMetrics.RUN, request.getLanguage(), response.getVerdict(),
+                    requestStart);
+            executionTraceService.finish(trace, response.getVerdict());
+            return response;
+        } catch (RuntimeException e) {
+            executionMetrics.recordRequest(ExecutionMetrics.RUN, request.getLanguage(), "ERROR", requestStart);
+            if (trace != null) {
+                trace.add("error", e.toString());
+                executionTraceService.finish(trace, "ERROR");
+            }
+            throw e;
+        }
+    }
+
+    private RunCodeResponse runAndParse(String questionId, RunCodeRequest request, User user,
+            ExecutionProgressListener listener, ExecutionTrace trace) {
+        String language = request.getLanguage();
 
         // logger.info("========== RUN MODE EXECUTION START ==========");
         // logger.info("Question ID: {}", questionId);
         // logger.info("Language: {}", request.getLanguage());
         // logger.info("Test cases count: {}", request.getTestCases().size());
 
-        // 1. Fetch question from DB
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new RuntimeException("Question not found with id: " + questionId));
-
-        // 2. Get run template for the language
-        Map<String, String> runTemplates = question.getRunTemplate();
-        if (runTemplates == null || !runTemplates.containsKey(request.getLanguage())) {
-            throw new RuntimeException("Template not available for language: " + request.getLanguage());
-        }
-
-        String adminTemplate = runTemplates.get(request.getLanguage());
+        // 1. Templates + testcases of the question (cached projection)
+        long stageStart = System.nanoTime();
+        Question question = questionExecutionContextCache.get(questionId);
+        executionMetrics.recordStage(ExecutionMetrics.RUN, ExecutionMetrics.QUESTION_FETCH, language, stageStart);
 
-        // logger.info("Admin template length: {} characters", adminTemplate.length());
+        listener.onPhase("compiling");
+        stageStart = System.nanoTime();
 
-        // 3. Generate executable code from template using language-specific generator
+        // 2-3. Fill the compiled run template (parsed once per question version) with user code + test cases
         String completeCode = generateCompleteCode(
+                question,
                 request.getLanguage(),
-                adminTemplate,
                 request.getCode(),
                 request.getTestCases()
         );
+        executionMetrics.recordStage(ExecutionMetrics.RUN, ExecutionMetrics.TEMPLATE, language, stageStart);
+        if (trace != null) {
+            trace.add("generated_code", completeCode);
+        }
 
         // logger.info("========== GENERATED COMPLETE CODE START ==========");
         // logger.info("\n{}", completeCode);
         // logger.info("========== GENERATED COMPLETE CODE END ==========");
         // logger.info("Generated code length: {} characters", completeCode.length());
 
-        // 4. Execute code using Piston
-        ExecutionResponse executionResponse = executeCode(request.getLanguage(), completeCode);
+        // 4. Execute code on the configured backend (Piston by default)
+        listener.onPhase("executing");
+        stageStart = System.nanoTime();
+        ExecutionResponse executionResponse = executeCode(language, completeCode, user.getId(), trace);
+        executionMetrics.recordStage(ExecutionMetrics.RUN, ExecutionMetrics.EXECUTE, language, stageStart);
 
         // logger.info("========== PISTON EXECUTION RESPONSE ==========");
         // logger.info("Language: {}", executionResponse.getLanguage());
@@ -102,7 +151,22 @@ public class RunModeService {
         // logger.info("========== PISTON EXECUTION RESPONSE END ==========");
 
         // 5. Parse output and build response
+        listener.onPhase("parsing");
+        stageStart = System.nanoTime();
         RunCodeResponse response = buildRunCodeResponse(executionResponse, request.getTestCases().size());
+        executionMetrics.recordStage(ExecutionMetrics.RUN, ExecutionMetrics.PARSE, language, stageStart);
+        executionMetrics.recordReported(ExecutionMetrics.RUN, language, response.getVerdict(), executionResponse);
+        if (trace != null && response.getTestCaseResults() != null) {
+            for (RunTestCaseResult result : response.getTestCaseResults()) {
+                trace.add("parser", ExecutionTraceService.describeResult(result.getId(), result.getStatus(),
+                        result.getExpectedOutput(), result.getUserOutput(), result.getError()));
+            }
+        }
+        if (response.getTestCaseResults() != null) {
+            for (RunTestCaseResult result : response.getTestCaseResults()) {
+                listener.onTestCase(result);
+            }
+        }
 
         // logger.info("========== RUN MODE EXECUTION END ==========");
         // logger.info("Success: {}", response.isSuccess());
@@ -111,28 +175,41 @@ public class RunModeService {
         return response;
     }
 
+    /**
+     * Generate complete code for a question's run template (also used by BatchRunService)
+     */
+    String generateCompleteCode(
+            Question question,
+            String language,
+            String userCode,
+            List<com.algoarena.dto.compiler.runmode.RunTestCaseInput> testCases) {
+
+        CompiledTemplate template = compiledTemplateCache.getRunTemplate(question, language);
+        return generateCompleteCode(language, template, userCode, testCases);
+    }
+
     /**
      * Generate complete code using language-specific generator
      */
     private String generateCompleteCode(
             String language,
-            String adminTemplate,
+            CompiledTemplate template,
             String userCode,
             List<com.algoarena.dto.compiler.runmode.RunTestCaseInput> testCases) {
 
         switch (language.toLowerCase()) {
             case "java":
-                return javaTemplateGenerator.generateFromTemplate(adminTemplate, userCode, testCases);
+                return javaTemplateGenerator.generate(template, userCode, testCases);
             
             case "python":
-                return pythonTemplateGenerator.generateFromTemplate(adminTemplate, userCode, testCases);
+                return pythonTemplateGenerator.generate(template, userCode, testCases);
             
             case "cpp":
             case "c++":
-                return cppTemplateGenerator.generateFromTemplate(adminTemplate, userCode, testCases);
+                return cppTemplateGenerator.generate(template, userCode, testCases);
             
             case "javascript":
-                return javaScriptTemplateGenerator.generateFromTemplate(adminTemplate, userCode, testCases);
+                return javaScriptTemplateGenerator.generate(template, userCode, testCases);
             
             default:
                 throw new IllegalArgumentException("Unsupported language: " + language);
@@ -140,9 +217,21 @@ public class RunModeService {
     }
 
     /**
-     * Execute code using Piston API
+     * Execute code on the configured ExecutionBackend (Java goes to the warm worker pool first when enabled;
+     * pooled workers are never shared between users)
      */
-    private ExecutionResponse executeCode(String language, String code) {
+    private ExecutionResponse executeCode(String language, String code, String userId, ExecutionTrace trace) {
+        if (javaWorkerPool.supports(language)) {
+            ExecutionResponse pooled = javaWorkerPool.execute(code, userId);
+            if (pooled != null) {
+                if (trace != null) {
+                    trace.add("execution_request", "java worker pool");
+                    trace.add("execution_response", ExecutionTraceService.describe(pooled));
+                }
+                return pooled;
+            }
+        }
+
         ExecutionRequest executionRequest = new ExecutionRequest();
 
         String pistonLanguage = mapLanguageToPiston(language);
@@ -150,10 +239,16 @@ public class RunModeService {
         executionRequest.setVersion("*");
         executionRequest.setCode(code);
 
-        return pistonService.executeCode(executionRequest);
+        if (trace == null) {
+            return executionBackend.executeBlocking(executionRequest);
+        }
+        trace.add("execution_request", executionBackend.getName() + " " + ExecutionTraceService.describe(executionRequest));
+        ExecutionResponse response = executionBackend.executeBlocking(executionRequest);
+        trace.add("execution_response", ExecutionTraceService.describe(response));
+        return response;
     }
 
-    private String mapLanguageToPiston(String language) {
+    String mapLanguageToPiston(String language) {
         switch (language.toLowerCase()) {
             case "java": return "java";
             case "cpp": return "cpp";
@@ -166,7 +261,7 @@ public class RunModeService {
     /**
      * Build RunCodeResponse from Piston execution result
      */
-    private RunCodeResponse buildRunCodeResponse(ExecutionResponse executionResponse, int totalTestCases) {
+    RunCodeResponse buildRunCodeResponse(ExecutionResponse executionResponse, int totalTestCases) {
         RunCodeResponse response = new RunCodeResponse();
 
         // Check for compilation errors
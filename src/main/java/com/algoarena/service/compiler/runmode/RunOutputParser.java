@@ -2,6 +2,7 @@
 package com.algoarena.service.compiler.runmode;
 
 import com.algoarena.dto.compiler.runmode.RunTestCaseResult;
+import com.algoarena.service.compiler.OutputLineScanner;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -10,6 +11,15 @@ import java.util.List;
 @Service
 public class RunOutputParser {
 
+    private static final String TEST_CASE_START = "TEST_CASE_START";
+    private static final String TEST_CASE_END = "TEST_CASE_END";
+    private static final String EXPECTED_OUTPUT = "EXPECTED_OUTPUT : ";
+    private static final String USER_OUTPUT = "USER_OUTPUT : ";
+    private static final String ERROR = "ERROR : ";
+
+    // Longest expected/user output or error kept per test case
+    private static final int MAX_CAPTURED_CHARS = 10000;
+
     /**
      * Parse Piston stdout to extract test case results
      * Expected format:
@@ -17,6 +27,7 @@ public class RunOutputParser {
      * EXPECTED_OUTPUT : 1
      * USER_OUTPUT : 1
      * TEST_CASE_END
+     * Lines outside TEST_CASE_START/END are user prints and are skipped without being copied.
      */
     public List<RunTestCaseResult> parseOutput(String stdout, int totalTestCases) {
         List<RunTestCaseResult> results = new ArrayList<>();
@@ -33,52 +44,56 @@ public class RunOutputParser {
             return results;
         }
 
-        String[] lines = stdout.split("\n");
-        
+        OutputLineScanner scanner = new OutputLineScanner(stdout);
+
         RunTestCaseResult currentResult = null;
         int testCaseIndex = 1;
-        
-        for (String line : lines) {
-            line = line.trim();
-            
-            if (line.equals("TEST_CASE_START")) {
+        int expectedStart = -1, expectedEnd = -1;
+        int userStart = -1, userEnd = -1;
+
+        // Stop as soon as every test case has reported; anything after that is user noise
+        while (results.size() < totalTestCases && scanner.nextLine()) {
+            if (scanner.lineEquals(TEST_CASE_START)) {
                 currentResult = new RunTestCaseResult();
                 currentResult.setId(testCaseIndex++);
-                
-            } else if (line.startsWith("EXPECTED_OUTPUT : ")) {
-                if (currentResult != null) {
-                    String expected = line.substring("EXPECTED_OUTPUT : ".length()).trim();
-                    currentResult.setExpectedOutput(expected);
-                }
-                
-            } else if (line.startsWith("USER_OUTPUT : ")) {
-                if (currentResult != null) {
-                    String userOutput = line.substring("USER_OUTPUT : ".length()).trim();
-                    currentResult.setUserOutput(userOutput);
+                expectedStart = expectedEnd = userStart = userEnd = -1;
+
+            } else if (currentResult == null) {
+                // Outside a test case block nothing else matters
+                continue;
+
+            } else if (scanner.startsWith(EXPECTED_OUTPUT)) {
+                expectedStart = scanner.valueStart(EXPECTED_OUTPUT);
+                expectedEnd = scanner.valueEnd();
+
+            } else if (scanner.startsWith(USER_OUTPUT)) {
+                userStart = scanner.valueStart(USER_OUTPUT);
+                userEnd = scanner.valueEnd();
+
+            } else if (scanner.startsWith(ERROR)) {
+                currentResult.setError(scanner.capture(scanner.valueStart(ERROR), scanner.valueEnd(),
+                        MAX_CAPTURED_CHARS));
+                currentResult.setStatus("TLE"); // Runtime errors are TLE
+
+            } else if (scanner.lineEquals(TEST_CASE_END)) {
+                // Compare on the raw text, then keep only capped copies
+                if (expectedStart >= 0) {
+                    currentResult.setExpectedOutput(scanner.capture(expectedStart, expectedEnd, MAX_CAPTURED_CHARS));
                 }
-                
-            } else if (line.startsWith("ERROR : ")) {
-                if (currentResult != null) {
-                    String error = line.substring("ERROR : ".length()).trim();
-                    currentResult.setError(error);
-                    currentResult.setStatus("TLE"); // Runtime errors are TLE
+                if (userStart >= 0) {
+                    currentResult.setUserOutput(scanner.capture(userStart, userEnd, MAX_CAPTURED_CHARS));
                 }
-                
-            } else if (line.equals("TEST_CASE_END")) {
-                if (currentResult != null) {
-                    // Determine status if not already set
-                    if (currentResult.getStatus() == null) {
-                        if (currentResult.getExpectedOutput() != null && 
-                            currentResult.getUserOutput() != null &&
-                            currentResult.getExpectedOutput().equals(currentResult.getUserOutput())) {
-                            currentResult.setStatus("PASS");
-                        } else {
-                            currentResult.setStatus("FAIL");
-                        }
+                // Determine status if not already set
+                if (currentResult.getStatus() == null) {
+                    if (expectedStart >= 0 && userStart >= 0
+                            && scanner.regionsEqual(expectedStart, expectedEnd, userStart, userEnd)) {
+                        currentResult.setStatus("PASS");
+                    } else {
+                        currentResult.setStatus("FAIL");
                     }
-                    results.add(currentResult);
-                    currentResult = null;
                 }
+                results.add(currentResult);
+                currentResult = null;
             }
         }
         
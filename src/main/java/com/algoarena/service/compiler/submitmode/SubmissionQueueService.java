@@ -0,0 +1,256 @@
+// src/main/java/com/algoarena/service/compiler/submitmode/SubmissionQueueService.java
+package com.algoarena.service.compiler.submitmode;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.submitmode.SubmissionJobDTO;
+import com.algoarena.dto.compiler.submitmode.SubmitCodeRequest;
+import com.algoarena.dto.compiler.submitmode.SubmitCodeResponse;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.algoarena.model.User;
+import com.algoarena.service.compiler.ExecutionTraceService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Enqueue-and-poll submit mode.
+ * Submissions are accepted immediately with a job ID and drained into Piston by a bounded worker pool,
+ * so contest-style spikes queue up here instead of holding Tomcat threads.
+ */
+@Service
+public class SubmissionQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionQueueService.class);
+
+    private final SubmitModeService submitModeService;
+    private final AppConfig.SubmitQueue queueConfig;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, SubmissionJob> jobs;
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final Timer waitTimer;
+    private final Timer runTimer;
+    private final Counter rejectedCounter;
+
+    public SubmissionQueueService(SubmitModeService submitModeService, AppConfig appConfig, MeterRegistry meterRegistry) {
+        this.submitModeService = submitModeService;
+        this.queueConfig = appConfig.getSubmitQueue();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                queueConfig.getWorkers(),
+                queueConfig.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueConfig.getCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "submit-worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(queueConfig.getResultTtl()))
+                .build();
+
+        Gauge.builder("submission.queue.depth", executor, e -> e.getQueue().size())
+                .description("Submissions waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("submission.queue.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Submissions currently executing")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("submission.queue.wait")
+                .description("Time a submission spent queued before a worker picked it up")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("submission.queue.run")
+                .description("Time a worker spent executing a submission")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("submission.queue.rejected")
+                .description("Submissions rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accept a submission and return its job immediately
+     */
+    public SubmissionJobDTO enqueue(String questionId, SubmitCodeRequest request, User user) {
+        SubmissionJob job = new SubmissionJob(UUID.randomUUID().toString(), questionId, user.getId());
+        jobs.put(job.jobId, job);
+
+        try {
+            boolean traceRequested = ExecutionTraceService.isRequested();
+            executor.execute(() -> runJob(job, request, user, traceRequested));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.jobId);
+            rejectedCounter.increment();
+            logger.warn("Submit queue full ({} queued), rejecting submission for question {}",
+                    executor.getQueue().size(), questionId);
+            throw new ExecutionServiceBusyException();
+        }
+
+        return job.snapshot();
+    }
+
+    /**
+     * Current state of a job, or null if it does not exist / belongs to another user
+     */
+    public SubmissionJobDTO getJob(String jobId, String userId) {
+        SubmissionJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return null;
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * Subscribe to status updates of a job over SSE.
+     * Returns null if the job does not exist / belongs to another user.
+     */
+    public SseEmitter subscribe(String jobId, String userId) {
+        SubmissionJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(queueConfig.getSseTimeout());
+
+        // Finished job: send the final state and close, without registering (its cleanup already ran)
+        if (job.snapshot().isFinished()) {
+            publish(job, emitter);
+            return emitter;
+        }
+
+        List<SseEmitter> jobEmitters = emitters.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>());
+        jobEmitters.add(emitter);
+        emitter.onCompletion(() -> jobEmitters.remove(emitter));
+        emitter.onTimeout(() -> jobEmitters.remove(emitter));
+        emitter.onError(e -> jobEmitters.remove(emitter));
+
+        // Push current state right away
+        publish(job, emitter);
+
+        // The job may have finished between the check above and the registration
+        if (job.snapshot().isFinished()) {
+            emitters.remove(jobId);
+        }
+
+        return emitter;
+    }
+
+    private void runJob(SubmissionJob job, SubmitCodeRequest request, User user, boolean traceRequested) {
+        waitTimer.record(Duration.ofNanos(System.nanoTime() - job.queuedAtNanos));
+        job.markRunning();
+        publish(job);
+
+        long startNanos = System.nanoTime();
+        try {
+            SubmitCodeResponse response = ExecutionTraceService.withRequested(traceRequested,
+                    () -> submitModeService.executeSubmitMode(job.questionId, request, user));
+            job.markCompleted(response);
+        } catch (Exception e) {
+            logger.error("Async submission {} failed: {}", job.jobId, e.getMessage());
+            job.markFailed(e.getMessage());
+        } finally {
+            runTimer.record(Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+
+        // Re-put so the result TTL counts from completion
+        jobs.put(job.jobId, job);
+        publish(job);
+    }
+
+    private void publish(SubmissionJob job) {
+        List<SseEmitter> jobEmitters = emitters.get(job.jobId);
+        if (jobEmitters != null) {
+            for (SseEmitter emitter : jobEmitters) {
+                publish(job, emitter);
+            }
+        }
+        if (job.snapshot().isFinished()) {
+            emitters.remove(job.jobId);
+        }
+    }
+
+    private void publish(SubmissionJob job, SseEmitter emitter) {
+        SubmissionJobDTO snapshot = job.snapshot();
+        try {
+            emitter.send(SseEmitter.event().name("status").data(snapshot));
+            if (snapshot.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away - nothing else to do
+            emitter.completeWithError(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class SubmissionJob {
+        private final String jobId;
+        private final String questionId;
+        private final String userId;
+        private final long queuedAtNanos = System.nanoTime();
+        private final SubmissionJobDTO state;
+
+        private SubmissionJob(String jobId, String questionId, String userId) {
+            this.jobId = jobId;
+            this.questionId = questionId;
+            this.userId = userId;
+            this.state = new SubmissionJobDTO(jobId, questionId, "QUEUED");
+            this.state.setQueuedAt(LocalDateTime.now());
+        }
+
+        synchronized void markRunning() {
+            state.setStatus("RUNNING");
+            state.setStartedAt(LocalDateTime.now());
+        }
+
+        synchronized void markCompleted(SubmitCodeResponse response) {
+            state.setStatus("COMPLETED");
+            state.setResult(response);
+            state.setCompletedAt(LocalDateTime.now());
+        }
+
+        synchronized void markFailed(String error) {
+            state.setStatus("FAILED");
+            state.setError(error);
+            state.setCompletedAt(LocalDateTime.now());
+        }
+
+        synchronized SubmissionJobDTO snapshot() {
+            SubmissionJobDTO copy = new SubmissionJobDTO(jobId, questionId, state.getStatus());
+            copy.setResult(state.getResult());
+            copy.setError(state.getError());
+            copy.setQueuedAt(state.getQueuedAt());
+            copy.setStartedAt(state.getStartedAt());
+            copy.setCompletedAt(state.getCompletedAt());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+// src/main/java/com/algoarena/service/compiler/submitmode/SubmissionResultCache.java
+package com.algoarena.service.compiler.submitmode;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.submitmode.SubmitCodeResponse;
+import com.algoarena.model.Question;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Verdicts of earlier submissions keyed by SHA-256(normalized code) + question id + question version + language.
+ * A byte-identical resubmit (double click, retry) reuses the stored verdict and metrics instead of running
+ * Piston again, and identical submissions racing each other share a single execution.
+ * TLE verdicts are not stored since they depend on load at the time of the run.
+ */
+@Component
+public class SubmissionResultCache {
+
+    private final AppConfig.SubmitCache config;
+    private final Cache<String, SubmitCodeResponse> results;
+    private final Map<String, CompletableFuture<SubmitCodeResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public SubmissionResultCache(AppConfig appConfig, MeterRegistry meterRegistry) {
+        this.config = appConfig.getSubmitCache();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(Duration.ofMillis(config.getTtl()))
+                .build();
+
+        this.hits = Counter.builder("submission.result.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("submission.result.cache").tag("result", "miss").register(meterRegistry);
+        this.coalesced = Counter.builder("submission.result.cache").tag("result", "coalesced").register(meterRegistry);
+    }
+
+    /**
+     * Cache key for a submission, or null when the question has no version to key on
+     */
+    public String keyFor(String code, Question question, String language) {
+        if (!config.isEnabled() || question.getVersion() == null) {
+            return null;
+        }
+        return sha256(normalize(code)) + ":" + question.getId() + ":" + question.getVersion() + ":" + language;
+    }
+
+    /**
+     * Return the stored response for key, join an identical execution already in flight,
+     * or run execution and remember its result. Each caller gets its own copy (approachId cleared).
+     */
+    public SubmitCodeResponse getOrExecute(String key, Supplier<SubmitCodeResponse> execution) {
+        if (key == null) {
+            return execution.get();
+        }
+
+        SubmitCodeResponse cached = results.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return copy(cached);
+        }
+
+        CompletableFuture<SubmitCodeResponse> ours = new CompletableFuture<>();
+        CompletableFuture<SubmitCodeResponse> running = inFlight.putIfAbsent(key, ours);
+        if (running != null) {
+            coalesced.increment();
+            return copy(await(running));
+        }
+
+        try {
+            // Another execution may have finished between the lookup and registering ours
+            SubmitCodeResponse response = results.getIfPresent(key);
+            if (response == null) {
+                misses.increment();
+                response = execution.get();
+                if (isCacheable(response)) {
+                    results.put(key, copy(response));
+                }
+            }
+            ours.complete(response);
+            return copy(response);
+        } catch (RuntimeException e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, ours);
+        }
+    }
+
+    private boolean isCacheable(SubmitCodeResponse response) {
+        return response != null
+                && ("ACCEPTED".equals(response.getVerdict()) || "WRONG_ANSWER".equals(response.getVerdict()));
+    }
+
+    private SubmitCodeResponse await(CompletableFuture<SubmitCodeResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private SubmitCodeResponse copy(SubmitCodeResponse source) {
+        SubmitCodeResponse copy = new SubmitCodeResponse(source.isSuccess(), source.getVerdict(), source.getMessage());
+        copy.setPassedTestCases(source.getPassedTestCases());
+        copy.setTotalTestCases(source.getTotalTestCases());
+        copy.setMetrics(source.getMetrics());
+        copy.setFirstFailure(source.getFirstFailure());
+        return copy;
+    }
+
+    /**
+     * Line endings and trailing whitespace do not change what the code does
+     */
+    private String normalize(String code) {
+        String[] lines = code.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1);
+        StringBuilder normalized = new StringBuilder(code.length());
+        for (String line : lines) {
+            normalized.append(line.stripTrailing()).append('\n');
+        }
+        int end = normalized.length();
+        while (end > 0 && normalized.charAt(end - 1) == '\n') {
+            end--;
+        }
+        normalized.setLength(end);
+        return normalized.toString();
+    }
+
+    private String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
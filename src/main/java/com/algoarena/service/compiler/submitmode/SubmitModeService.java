@@ -10,17 +10,31 @@ import com.algoarena.dto.dsa.ApproachDetailDTO;
 import com.algoarena.model.Question;
 import com.algoarena.model.User;
 import com.algoarena.model.UserApproaches.ApproachStatus;
-import com.algoarena.repository.QuestionRepository;
-import com.algoarena.service.compiler.PistonService;
+import com.algoarena.service.compiler.ExecutionBackend;
+import com.algoarena.service.compiler.ExecutionMetrics;
+import com.algoarena.service.compiler.ExecutionProgressListener;
+import com.algoarena.service.compiler.ExecutionTrace;
+import com.algoarena.service.compiler.ExecutionTraceService;
+import com.algoarena.service.compiler.QuestionExecutionContextCache;
+import com.algoarena.service.compiler.local.LocalJavaExecutor;
+import com.algoarena.service.compiler.template.CompiledTemplate;
+import com.algoarena.service.compiler.template.CompiledTemplateCache;
+import com.algoarena.service.compiler.template.TemplateMarkers;
 import com.algoarena.service.dsa.ApproachService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class SubmitModeService {
@@ -28,7 +42,7 @@ public class SubmitModeService {
     private static final Logger logger = LoggerFactory.getLogger(SubmitModeService.class);
 
     @Autowired
-    private QuestionRepository questionRepository;
+    private QuestionExecutionContextCache questionExecutionContextCache;
 
     @Autowired
     private JavaSubmitTemplateGenerator javaSubmitTemplateGenerator;
@@ -43,7 +57,7 @@ public class SubmitModeService {
     private JavaScriptSubmitTemplateGenerator javaScriptSubmitTemplateGenerator;
 
     @Autowired
-    private PistonService pistonService;
+    private ExecutionBackend executionBackend;
 
     @Autowired
     private SubmitOutputParser submitOutputParser;
@@ -51,42 +65,82 @@ public class SubmitModeService {
     @Autowired
     private ApproachService approachService;
 
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
+    @Autowired
+    private SubmissionResultCache submissionResultCache;
+
+    @Autowired
+    private SubmitShardPlanner submitShardPlanner;
+
+    @Autowired
+    private LocalJavaExecutor localJavaExecutor;
+
+    @Autowired
+    private ExecutionMetrics executionMetrics;
+
+    @Autowired
+    private ExecutionTraceService executionTraceService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public SubmitCodeResponse executeSubmitMode(String questionId, SubmitCodeRequest request, User user) {
-        // 1. Fetch question
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new RuntimeException("Question not found with id: " + questionId));
+        return executeSubmitMode(questionId, request, user, ExecutionProgressListener.NONE);
+    }
 
-        if (question.getTestcases() == null || question.getTestcases().isEmpty()) {
-            throw new RuntimeException("No test cases found for this question");
+    /**
+     * Same as executeSubmitMode, reporting phases and per-testcase results to listener as they happen
+     */
+    public SubmitCodeResponse executeSubmitMode(String questionId, SubmitCodeRequest request, User user,
+            ExecutionProgressListener listener) {
+        long requestStart = System.nanoTime();
+        ExecutionTrace trace = executionTraceService.start(ExecutionMetrics.SUBMIT, questionId, request.getLanguage());
+        try {
+            SubmitCodeResponse response = submit(questionId, request, user, listener, trace);
+            executionMetrics.recordRequest(ExecutionMetrics.SUBMIT, request.getLanguage(), response.getVerdict(),
+                    requestStart);
+            executionTraceService.finish(trace, response.getVerdict());
+            return response;
+        } catch (RuntimeException e) {
+            executionMetrics.recordRequest(ExecutionMetrics.SUBMIT, request.getLanguage(), "ERROR", requestStart);
+            if (trace != null) {
+                trace.add("error", e.toString());
+                executionTraceService.finish(trace, "ERROR");
+            }
+            throw e;
         }
+    }
 
-        // 2. Generate complete code
-        String completeCode = generateCompleteCode(
-                request.getLanguage(),
-                request.getCode(),
-                question.getTestcases(),
-                question);
+    private SubmitCodeResponse submit(String questionId, SubmitCodeRequest request, User user,
+            ExecutionProgressListener listener, ExecutionTrace trace) {
+        // 1. Templates + testcases of the question (cached projection)
+        long fetchStart = System.nanoTime();
+        Question question = questionExecutionContextCache.get(questionId);
+        executionMetrics.recordStage(ExecutionMetrics.SUBMIT, ExecutionMetrics.QUESTION_FETCH, request.getLanguage(),
+                fetchStart);
 
-        // 3. Execute via Piston
-        ExecutionResponse executionResponse = executeCode(request.getLanguage(), completeCode);
+        if (question.getTestcases() == null || question.getTestcases().isEmpty()) {
+            throw new RuntimeException("No test cases found for this question");
+        }
 
-        // 4. Parse results
-        SubmitCodeResponse response = buildSubmitCodeResponse(
-                executionResponse,
-                question.getTestcases().size(),
-                question.getTestcases());
+        // 2-4. Generate, execute and parse - or reuse the verdict of an identical earlier submission
+        String cacheKey = submissionResultCache.keyFor(request.getCode(), question, request.getLanguage());
+        if (trace != null) {
+            trace.add("submission_cache", "key=" + cacheKey);
+        }
+        SubmitCodeResponse response = submissionResultCache.getOrExecute(
+                cacheKey,
+                () -> runSubmission(question, request, listener, trace));
 
-        // 5. Create approach
+        // 5. Create approach (queued; ApproachWriteBehindService writes it in bulk)
         try {
             String approachId = createApproach(
                     user,
                     questionId,
                     request.getCode(),
                     request.getLanguage(),
-                    response,
-                    executionResponse);
+                    response);
             response.setApproachId(approachId);
         } catch (Exception e) {
             logger.error("Failed to create approach: {}", e.getMessage(), e);
@@ -95,45 +149,144 @@ public class SubmitModeService {
         return response;
     }
 
+    private SubmitCodeResponse runSubmission(Question question, SubmitCodeRequest request,
+            ExecutionProgressListener listener, ExecutionTrace trace) {
+        String language = request.getLanguage();
+        listener.onPhase("compiling");
+        long stageStart = System.nanoTime();
+
+        // Get compiled submit template (parsed once per question version)
+        CompiledTemplate template = compiledTemplateCache.getSubmitTemplate(question, language);
+        boolean local = localJavaExecutor.supports(language);
+        int shardCount = local ? 1 : submitShardPlanner.shardCount(question, language, template.isShardable());
+
+        // (shard index, response) pairs in the order the shards finish
+        Iterable<Map.Entry<Integer, ExecutionResponse>> shardResponses;
+        if (local) {
+            // Local JVM: the harness is compiled once per question version, only the user's classes per submission
+            String marker = TemplateMarkers.BLOCK_COMMENT.getUserCode();
+            boolean failFast = !Boolean.TRUE.equals(question.getSubmitFullRun());
+            String source = generateCompleteCode(language, marker, template, question, 0, 1);
+            String harnessKey = question.getVersion() != null
+                    ? question.getId() + ":" + question.getVersion() + ":" + failFast
+                    : null;
+            executionMetrics.recordStage(ExecutionMetrics.SUBMIT, ExecutionMetrics.TEMPLATE, language, stageStart);
+            if (trace != null) {
+                trace.add("generated_code", source);
+                trace.add("execution_request", "local java harness key=" + harnessKey);
+            }
+            listener.onPhase("executing");
+            stageStart = System.nanoTime();
+            ExecutionResponse localResponse = localJavaExecutor.execute(harnessKey, source, marker, request.getCode());
+            executionMetrics.recordStage(ExecutionMetrics.SUBMIT, ExecutionMetrics.EXECUTE, language, stageStart);
+            if (trace != null) {
+                trace.add("execution_response", ExecutionTraceService.describe(localResponse));
+            }
+            shardResponses = List.of(Map.entry(0, localResponse));
+        } else if (shardCount == 1) {
+            String completeCode = generateCompleteCode(language, request.getCode(), template, question, 0, 1);
+            executionMetrics.recordStage(ExecutionMetrics.SUBMIT, ExecutionMetrics.TEMPLATE, language, stageStart);
+            if (trace != null) {
+                trace.add("generated_code", completeCode);
+            }
+            listener.onPhase("executing");
+            stageStart = System.nanoTime();
+            shardResponses = List.of(Map.entry(0, executeCode(language, completeCode, trace)));
+            executionMetrics.recordStage(ExecutionMetrics.SUBMIT, ExecutionMetrics.EXECUTE, language, stageStart);
+        } else {
+            // Large test case sets: one program per shard, run in parallel, results merged by test case id.
+            // A compile error is the same for every shard, so the first one cancels the rest (releasing their
+            // limiter permits); closing the stream cancels whatever is still running on any other early exit.
+            listener.onPhase("executing");
+            Flux<Map.Entry<Integer, ExecutionResponse>> shards = Flux.range(0, shardCount)
+                    .flatMap(shard -> executeShard(language, request.getCode(), template, question, shard, shardCount,
+                                    trace)
+                            .map(response -> Map.entry(shard, response)), shardCount)
+                    .takeUntil(entry -> compileErrorOf(entry.getValue()) != null);
+            try (Stream<Map.Entry<Integer, ExecutionResponse>> stream = shards.toStream()) {
+                return buildSubmitCodeResponse(stream::iterator, shardCount, question, language, listener, trace);
+            }
+        }
+
+        return buildSubmitCodeResponse(shardResponses, shardCount, question, language, listener, trace);
+    }
+
+    /**
+     * Generate and execute one shard; template and execute stages are recorded per shard
+     */
+    private Mono<ExecutionResponse> executeShard(String language, String userCode, CompiledTemplate template,
+            Question question, int shard, int shardCount, ExecutionTrace trace) {
+        return Mono.defer(() -> {
+            long templateStart = System.nanoTime();
+            String completeCode = generateCompleteCode(language, userCode, template, question, shard, shardCount);
+            executionMetrics.recordStage(ExecutionMetrics.SUBMIT, ExecutionMetrics.TEMPLATE, language, templateStart);
+
+            ExecutionRequest executionRequest = buildExecutionRequest(language, completeCode);
+            if (trace != null) {
+                trace.add("generated_code[shard " + shard + "]", completeCode);
+                trace.add("execution_request[shard " + shard + "]",
+                        executionBackend.getName() + " " + ExecutionTraceService.describe(executionRequest));
+            }
+
+            long executeStart = System.nanoTime();
+            return executionBackend.execute(executionRequest)
+                    .doOnSuccess(response -> {
+                        executionMetrics.recordStage(ExecutionMetrics.SUBMIT, ExecutionMetrics.EXECUTE, language,
+                                executeStart);
+                        if (trace != null) {
+                            trace.add("execution_response[shard " + shard + "]",
+                                    ExecutionTraceService.describe(response));
+                        }
+                    });
+        });
+    }
+
     private String generateCompleteCode(
             String language,
             String userCode,
-            List<Question.Testcase> testcases,
-            Question question) {
+            CompiledTemplate template,
+            Question question,
+            int shardIndex,
+            int shardCount) {
 
-        // Get submit template from question
-        Map<String, String> submitTemplates = question.getSubmitTemplate();
-        if (submitTemplates == null || !submitTemplates.containsKey(language)) {
-            throw new RuntimeException("Submit template not available for language: " + language);
-        }
-
-        String adminTemplate = submitTemplates.get(language);
+        // Stop at the first failing test case unless the question asks for a full run
+        boolean failFast = !Boolean.TRUE.equals(question.getSubmitFullRun());
 
         switch (language.toLowerCase()) {
             case "java":
-                return javaSubmitTemplateGenerator.generateFromTemplate(adminTemplate, userCode);
+                return javaSubmitTemplateGenerator.generate(template, userCode, failFast, shardIndex, shardCount);
 
             case "cpp":
-                return cppSubmitTemplateGenerator.generateFromTemplate(adminTemplate, userCode);
+                return cppSubmitTemplateGenerator.generate(template, userCode, failFast, shardIndex, shardCount);
 
             case "python":
-                return pythonSubmitTemplateGenerator.generateFromTemplate(adminTemplate, userCode);
+                return pythonSubmitTemplateGenerator.generate(template, userCode, failFast, shardIndex, shardCount);
 
             case "javascript":
-                return javaScriptSubmitTemplateGenerator.generateFromTemplate(adminTemplate, userCode);
+                return javaScriptSubmitTemplateGenerator.generate(template, userCode, failFast, shardIndex, shardCount);
 
             default:
                 throw new IllegalArgumentException("Unsupported language: " + language);
         }
     }
 
-    private ExecutionResponse executeCode(String language, String code) {
+    private ExecutionResponse executeCode(String language, String code, ExecutionTrace trace) {
+        ExecutionRequest executionRequest = buildExecutionRequest(language, code);
+        if (trace == null) {
+            return executionBackend.executeBlocking(executionRequest);
+        }
+        trace.add("execution_request", executionBackend.getName() + " " + ExecutionTraceService.describe(executionRequest));
+        ExecutionResponse response = executionBackend.executeBlocking(executionRequest);
+        trace.add("execution_response", ExecutionTraceService.describe(response));
+        return response;
+    }
+
+    private ExecutionRequest buildExecutionRequest(String language, String code) {
         ExecutionRequest executionRequest = new ExecutionRequest();
         executionRequest.setLanguage(mapLanguageToPiston(language));
         executionRequest.setVersion("*");
         executionRequest.setCode(code);
-
-        return pistonService.executeCode(executionRequest);
+        return executionRequest;
     }
 
     private String mapLanguageToPiston(String language) {
@@ -152,42 +305,71 @@ public class SubmitModeService {
     }
 
     private SubmitCodeResponse buildSubmitCodeResponse(
-            ExecutionResponse executionResponse,
-            int totalTestCases,
-            List<Question.Testcase> testcases) {
-
-        SubmitCodeResponse response = new SubmitCodeResponse();
+            Iterable<Map.Entry<Integer, ExecutionResponse>> shardResponses,
+            int shardCount,
+            Question question,
+            String language,
+            ExecutionProgressListener listener,
+            ExecutionTrace trace) {
 
-        // Check compilation errors
-        if (executionResponse.getCompile() != null &&
-                executionResponse.getCompile().getCode() != 0) {
+        List<Question.Testcase> testcases = question.getTestcases();
+        int totalTestCases = testcases.size();
 
-            String compileError = executionResponse.getCompile().getStderr() != null
-                    ? executionResponse.getCompile().getStderr()
-                    : executionResponse.getCompile().getOutput();
+        SubmitCodeResponse response = new SubmitCodeResponse();
+        List<SubmitTestCaseResult> testResults = new ArrayList<>(totalTestCases);
+        List<ExecutionResponse> executed = new ArrayList<>(shardCount);
+        long parseNanos = 0;
+        Long maxMemory = null;
+
+        for (Map.Entry<Integer, ExecutionResponse> shardResponse : shardResponses) {
+            int shard = shardResponse.getKey();
+            ExecutionResponse executionResponse = shardResponse.getValue();
+            listener.onPhase("parsing");
+
+            // Check compilation errors
+            String compileError = compileErrorOf(executionResponse);
+            if (compileError != null) {
+                return handleCompileError(compileError, totalTestCases, testcases);
+            }
 
-            return handleCompileError(compileError, totalTestCases, testcases);
-        }
+            ExecutionResponse.RunResult runResult = executionResponse.getRun();
 
-        ExecutionResponse.RunResult runResult = executionResponse.getRun();
+            String stdout = runResult != null ? runResult.getStdout() : "";
+            executed.add(executionResponse);
 
-        // Check stderr for compilation errors
-        if (runResult != null && runResult.getStderr() != null &&
-                !runResult.getStderr().isEmpty() &&
-                submitOutputParser.isCompileError(runResult.getStderr())) {
+            // Parse test results of this shard
+            long parseStart = System.nanoTime();
+            List<SubmitTestCaseResult> shardResults = submitOutputParser.parseOutput(stdout,
+                    SubmitShardPlanner.shardTestcaseIds(testcases, shard, shardCount));
+            parseNanos += System.nanoTime() - parseStart;
+            for (SubmitTestCaseResult result : shardResults) {
+                listener.onTestCase(progressOf(result));
+            }
+            testResults.addAll(shardResults);
 
-            return handleCompileError(runResult.getStderr(), totalTestCases, testcases);
+            if (runResult != null && runResult.getMemory() != null
+                    && (maxMemory == null || runResult.getMemory() > maxMemory)) {
+                maxMemory = runResult.getMemory();
+            }
         }
 
-        String stdout = runResult != null ? runResult.getStdout() : "";
+        if (shardCount > 1) {
+            // Back into question order so "first failure" means the same thing as in a single run
+            Map<Integer, Integer> positions = new HashMap<>();
+            for (int p = 0; p < totalTestCases; p++) {
+                positions.put(testcases.get(p).getId(), p);
+            }
+            testResults.sort(Comparator.comparingInt(r -> positions.getOrDefault(r.getId(), Integer.MAX_VALUE)));
+        }
 
-        // Parse test results
-        List<SubmitTestCaseResult> testResults = submitOutputParser.parseOutput(stdout, totalTestCases);
+        submitShardPlanner.record(question, language, testResults);
+        executionMetrics.recordStageNanos(ExecutionMetrics.SUBMIT, ExecutionMetrics.PARSE, language, parseNanos);
 
         // Calculate metrics
         int passedCount = (int) testResults.stream().filter(r -> "PASS".equals(r.getStatus())).count();
         int failedCount = (int) testResults.stream().filter(r -> "FAIL".equals(r.getStatus())).count();
         int tleCount = (int) testResults.stream().filter(r -> "TLE".equals(r.getStatus())).count();
+        // SKIPPED cases (after a fail-fast stop) never decide the verdict - the failure before them does
 
         // Determine verdict
         String verdict;
@@ -199,6 +381,16 @@ public class SubmitModeService {
             verdict = "ACCEPTED";
         }
 
+        for (ExecutionResponse executionResponse : executed) {
+            executionMetrics.recordReported(ExecutionMetrics.SUBMIT, language, verdict, executionResponse);
+        }
+        if (trace != null) {
+            for (SubmitTestCaseResult result : testResults) {
+                trace.add("parser", ExecutionTraceService.describeResult(result.getId(), result.getStatus(),
+                        result.getExpectedOutput(), result.getUserOutput(), result.getError()));
+            }
+        }
+
         // Build response
         response.setSuccess(verdict.equals("ACCEPTED"));
         response.setVerdict(verdict);
@@ -216,8 +408,8 @@ public class SubmitModeService {
 
         metrics.setRuntime(maxRuntime);
 
-        if (runResult != null && runResult.getMemory() != null) {
-            metrics.setMemory(runResult.getMemory() / (1024.0 * 1024.0));
+        if (maxMemory != null) {
+            metrics.setMemory(maxMemory / (1024.0 * 1024.0));
         }
 
         response.setMetrics(metrics);
@@ -225,7 +417,7 @@ public class SubmitModeService {
         // Set first failure
         if (!verdict.equals("ACCEPTED")) {
             SubmitTestCaseResult firstFail = testResults.stream()
-                    .filter(r -> !"PASS".equals(r.getStatus()))
+                    .filter(r -> "FAIL".equals(r.getStatus()) || "TLE".equals(r.getStatus()))
                     .findFirst()
                     .orElse(null);
 
@@ -244,6 +436,40 @@ public class SubmitModeService {
         return response;
     }
 
+    /**
+     * What the stream may show of a hidden test case: its outcome, not its input or outputs
+     */
+    private static Map<String, Object> progressOf(SubmitTestCaseResult result) {
+        Map<String, Object> progress = new HashMap<>();
+        progress.put("id", result.getId());
+        progress.put("status", result.getStatus());
+        progress.put("executionTime", result.getExecutionTime());
+        return progress;
+    }
+
+    /**
+     * Compiler output if the program did not compile (failed compile stage, or compile errors on stderr), else null
+     */
+    private String compileErrorOf(ExecutionResponse executionResponse) {
+        if (executionResponse.getCompile() != null &&
+                executionResponse.getCompile().getCode() != 0) {
+            if (executionResponse.getCompile().getStderr() != null) {
+                return executionResponse.getCompile().getStderr();
+            }
+            return executionResponse.getCompile().getOutput() != null
+                    ? executionResponse.getCompile().getOutput()
+                    : "";
+        }
+
+        ExecutionResponse.RunResult runResult = executionResponse.getRun();
+        if (runResult != null && runResult.getStderr() != null &&
+                !runResult.getStderr().isEmpty() &&
+                submitOutputParser.isCompileError(runResult.getStderr())) {
+            return runResult.getStderr();
+        }
+        return null;
+    }
+
     private SubmitCodeResponse handleCompileError(String errorMessage, int totalTestCases,
             List<Question.Testcase> testcases) {
         SubmitCodeResponse response = new SubmitCodeResponse();
@@ -323,8 +549,7 @@ public class SubmitModeService {
             String questionId,
             String code,
             String language,
-            SubmitCodeResponse response,
-            ExecutionResponse executionResponse) {
+            SubmitCodeResponse response) {
 
         ApproachDetailDTO approachDTO = new ApproachDetailDTO();
         approachDTO.setQuestionId(questionId);
@@ -369,7 +594,7 @@ public class SubmitModeService {
                 break;
         }
 
-        ApproachDetailDTO created = approachService.createApproach(
+        ApproachDetailDTO created = approachService.recordSubmittedApproach(
                 user.getId(),
                 questionId,
                 approachDTO,
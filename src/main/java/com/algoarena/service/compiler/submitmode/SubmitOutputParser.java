@@ -2,24 +2,55 @@
 package com.algoarena.service.compiler.submitmode;
 
 import com.algoarena.dto.compiler.submitmode.SubmitTestCaseResult;
+import com.algoarena.service.compiler.OutputLineScanner;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class SubmitOutputParser {
 
+    /**
+     * Printed by fail-fast submit templates after the first failing test case
+     */
+    public static final String EXECUTION_STOPPED = "EXECUTION_STOPPED";
+
+    private static final String TEST_CASE_START = "TEST_CASE_START";
+    private static final String TEST_CASE_END = "TEST_CASE_END";
+    private static final String TEST_CASE_ID = "TEST_CASE_ID : ";
+    private static final String EXPECTED_OUTPUT = "EXPECTED_OUTPUT : ";
+    private static final String USER_OUTPUT = "USER_OUTPUT : ";
+    private static final String EXECUTION_TIME = "EXECUTION_TIME : ";
+    private static final String ERROR = "ERROR : ";
+
+    // Longest expected/user output or error kept per test case
+    private static final int MAX_CAPTURED_CHARS = 10000;
+
     /**
      * ✅ UPDATED: Now also parses EXECUTION_TIME per testcase
      */
     public List<SubmitTestCaseResult> parseOutput(String stdout, int totalTestCases) {
+        List<Integer> expectedIds = new ArrayList<>(totalTestCases);
+        for (int i = 1; i <= totalTestCases; i++) {
+            expectedIds.add(i);
+        }
+        return parseOutput(stdout, expectedIds);
+    }
+
+    /**
+     * Parse the output of a run that was expected to report expectedIds (one shard of a sharded submit);
+     * ids with no reported result are filled in as TLE or SKIPPED
+     */
+    public List<SubmitTestCaseResult> parseOutput(String stdout, List<Integer> expectedIds) {
         List<SubmitTestCaseResult> results = new ArrayList<>();
 
         if (stdout == null || stdout.isEmpty()) {
-            for (int i = 1; i <= totalTestCases; i++) {
+            for (Integer id : expectedIds) {
                 SubmitTestCaseResult result = new SubmitTestCaseResult();
-                result.setId(i);
+                result.setId(id);
                 result.setStatus("TLE");
                 result.setError("No output received - execution may have timed out");
                 result.setExecutionTime(0L); // ✅ NEW
@@ -28,75 +59,103 @@ public class SubmitOutputParser {
             return results;
         }
 
-        String[] lines = stdout.split("\n");
-        
+        Set<Integer> expected = new HashSet<>(expectedIds);
+        Set<Integer> reported = new HashSet<>();
+        OutputLineScanner scanner = new OutputLineScanner(stdout);
+
         SubmitTestCaseResult currentResult = null;
-        
-        for (String line : lines) {
-            line = line.trim();
-            
-            if (line.equals("TEST_CASE_START")) {
+        int expectedStart = -1, expectedEnd = -1;
+        int userStart = -1, userEnd = -1;
+        boolean stopped = false;
+
+        while (scanner.nextLine()) {
+            if (scanner.lineEquals(TEST_CASE_START)) {
                 currentResult = new SubmitTestCaseResult();
-                
-            } else if (line.startsWith("TEST_CASE_ID : ")) {
-                if (currentResult != null) {
-                    int id = Integer.parseInt(line.substring("TEST_CASE_ID : ".length()).trim());
-                    currentResult.setId(id);
-                }
-                
-            } else if (line.startsWith("EXPECTED_OUTPUT : ")) {
-                if (currentResult != null) {
-                    String expected = line.substring("EXPECTED_OUTPUT : ".length()).trim();
-                    currentResult.setExpectedOutput(expected);
+                expectedStart = expectedEnd = userStart = userEnd = -1;
+
+            } else if (currentResult == null) {
+                // Outside a test case block only the markers matter; everything else is user noise
+                if (scanner.lineEquals(EXECUTION_STOPPED)) {
+                    stopped = true;
+                    break;
                 }
-                
-            } else if (line.startsWith("USER_OUTPUT : ")) {
-                if (currentResult != null) {
-                    String userOutput = line.substring("USER_OUTPUT : ".length()).trim();
-                    currentResult.setUserOutput(userOutput);
+
+            } else if (scanner.startsWith(TEST_CASE_ID)) {
+                int from = scanner.valueStart(TEST_CASE_ID);
+                long id = scanner.parseLong(from, scanner.valueEnd());
+                if (id < 0 || id > Integer.MAX_VALUE) {
+                    throw new NumberFormatException("Invalid test case id: "
+                            + scanner.capture(from, scanner.valueEnd(), 20));
                 }
-                
-            } else if (line.startsWith("EXECUTION_TIME : ")) { // ✅ NEW
-                if (currentResult != null) {
-                    try {
-                        long time = Long.parseLong(line.substring("EXECUTION_TIME : ".length()).trim());
-                        currentResult.setExecutionTime(time);
-                    } catch (NumberFormatException e) {
-                        currentResult.setExecutionTime(0L);
-                    }
+                currentResult.setId((int) id);
+
+            } else if (scanner.startsWith(EXPECTED_OUTPUT)) {
+                expectedStart = scanner.valueStart(EXPECTED_OUTPUT);
+                expectedEnd = scanner.valueEnd();
+
+            } else if (scanner.startsWith(USER_OUTPUT)) {
+                userStart = scanner.valueStart(USER_OUTPUT);
+                userEnd = scanner.valueEnd();
+
+            } else if (scanner.startsWith(EXECUTION_TIME)) { // ✅ NEW
+                long time = scanner.parseLong(scanner.valueStart(EXECUTION_TIME), scanner.valueEnd());
+                currentResult.setExecutionTime(time >= 0 ? time : 0L);
+
+            } else if (scanner.startsWith(ERROR)) {
+                currentResult.setError(scanner.capture(scanner.valueStart(ERROR), scanner.valueEnd(),
+                        MAX_CAPTURED_CHARS));
+                currentResult.setStatus("FAIL");
+                currentResult.setExecutionTime(0L); // ✅ NEW
+
+            } else if (scanner.lineEquals(TEST_CASE_END)) {
+                // Compare on the raw text, then keep only capped copies
+                if (expectedStart >= 0) {
+                    currentResult.setExpectedOutput(scanner.capture(expectedStart, expectedEnd, MAX_CAPTURED_CHARS));
                 }
-                
-            } else if (line.startsWith("ERROR : ")) {
-                if (currentResult != null) {
-                    String error = line.substring("ERROR : ".length()).trim();
-                    currentResult.setError(error);
-                    currentResult.setStatus("FAIL");
-                    currentResult.setExecutionTime(0L); // ✅ NEW
+                if (userStart >= 0) {
+                    currentResult.setUserOutput(scanner.capture(userStart, userEnd, MAX_CAPTURED_CHARS));
                 }
-                
-            } else if (line.equals("TEST_CASE_END")) {
-                if (currentResult != null) {
-                    if (currentResult.getStatus() == null) {
-                        if (currentResult.getExpectedOutput() != null && 
-                            currentResult.getUserOutput() != null &&
-                            currentResult.getExpectedOutput().equals(currentResult.getUserOutput())) {
-                            currentResult.setStatus("PASS");
-                        } else {
-                            currentResult.setStatus("FAIL");
-                        }
+                if (currentResult.getStatus() == null) {
+                    if (expectedStart >= 0 && userStart >= 0
+                            && scanner.regionsEqual(expectedStart, expectedEnd, userStart, userEnd)) {
+                        currentResult.setStatus("PASS");
+                    } else {
+                        currentResult.setStatus("FAIL");
                     }
-                    results.add(currentResult);
-                    currentResult = null;
+                }
+                int id = currentResult.getId();
+                results.add(currentResult);
+                currentResult = null;
+
+                // Everything after the last expected case is noise
+                if (expected.contains(id) && reported.add(id) && reported.size() == expected.size()) {
+                    break;
                 }
             }
         }
-        
-        // Fill missing test cases (TLE)
-        while (results.size() < totalTestCases) {
+
+        // A stop only explains the missing cases if something actually failed before it
+        if (stopped && results.stream().allMatch(r -> "PASS".equals(r.getStatus()))) {
+            stopped = false;
+        }
+
+        // Fill missing test cases: skipped after a fail-fast stop, otherwise TLE
+        for (SubmitTestCaseResult result : results) {
+            reported.add(result.getId());
+        }
+
+        for (Integer id : expectedIds) {
+            if (reported.contains(id)) {
+                continue;
+            }
             SubmitTestCaseResult result = new SubmitTestCaseResult();
-            result.setId(results.size() + 1);
-            result.setStatus("TLE");
-            result.setError("Execution timed out before this test case could run");
+            result.setId(id);
+            if (stopped) {
+                result.setStatus("SKIPPED");
+            } else {
+                result.setStatus("TLE");
+                result.setError("Execution timed out before this test case could run");
+            }
             result.setExecutionTime(0L); // ✅ NEW
             results.add(result);
         }
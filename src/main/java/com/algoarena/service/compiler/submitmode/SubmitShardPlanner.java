@@ -0,0 +1,86 @@
+// src/main/java/com/algoarena/service/compiler/submitmode/SubmitShardPlanner.java
+package com.algoarena.service.compiler.submitmode;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.submitmode.SubmitTestCaseResult;
+import com.algoarena.model.Question;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decides how many parallel Piston runs a submission is split into.
+ * Keeps an EWMA of the per-test-case runtime for each question + language, and picks enough shards
+ * that each one stays around app.submit-shard.target-shard-millis.
+ */
+@Component
+public class SubmitShardPlanner {
+
+    private final AppConfig.SubmitShard config;
+    private final Cache<String, Double> caseMillis = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterAccess(Duration.ofDays(7))
+            .build();
+
+    public SubmitShardPlanner(AppConfig appConfig) {
+        this.config = appConfig.getSubmitShard();
+    }
+
+    /**
+     * Number of shards to run; 1 unless sharding is enabled and the template supports it
+     */
+    public int shardCount(Question question, String language, boolean shardable) {
+        int totalCases = question.getTestcases().size();
+        if (!config.isEnabled() || !shardable || totalCases < 2 * config.getMinCasesPerShard()) {
+            return 1;
+        }
+
+        Double estimate = caseMillis.getIfPresent(key(question, language));
+        double perCase = estimate != null ? estimate : config.getDefaultCaseMillis();
+
+        int wanted = (int) Math.ceil(totalCases * perCase / Math.max(1, config.getTargetShardMillis()));
+        int allowed = Math.min(config.getMaxShards(), totalCases / config.getMinCasesPerShard());
+        return Math.max(1, Math.min(wanted, allowed));
+    }
+
+    /**
+     * Fold the measured per-case runtimes of a finished submission into the estimate
+     */
+    public void record(Question question, String language, List<SubmitTestCaseResult> results) {
+        long total = 0;
+        int measured = 0;
+        for (SubmitTestCaseResult result : results) {
+            if (result.getExecutionTime() != null && result.getExecutionTime() > 0) {
+                total += result.getExecutionTime();
+                measured++;
+            }
+        }
+        if (measured == 0) {
+            return;
+        }
+
+        double sample = (double) total / measured;
+        double alpha = config.getEwmaAlpha();
+        caseMillis.asMap().merge(key(question, language), sample,
+                (previous, current) -> previous + alpha * (current - previous));
+    }
+
+    /**
+     * Test case ids run by one shard: positions p with p % shardCount == shardIndex
+     */
+    public static List<Integer> shardTestcaseIds(List<Question.Testcase> testcases, int shardIndex, int shardCount) {
+        List<Integer> ids = new ArrayList<>();
+        for (int p = shardIndex; p < testcases.size(); p += shardCount) {
+            ids.add(testcases.get(p).getId());
+        }
+        return ids;
+    }
+
+    private String key(Question question, String language) {
+        return question.getId() + ":" + language.toLowerCase();
+    }
+}
@@ -0,0 +1,276 @@
+// src/main/java/com/algoarena/service/compiler/template/CompiledTemplate.java
+package com.algoarena.service.compiler.template;
+
+import com.algoarena.dto.compiler.runmode.RunTestCaseInput;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Admin template pre-parsed into literal chunks and placeholder slots.
+ * Parsing happens once per question version; filling it is a single StringBuilder pass
+ * instead of repeated String.replace calls per placeholder per test case.
+ */
+public final class CompiledTemplate {
+
+    private static final String INPUT_PREFIX = "{{INPUT_";
+    private static final String INPUT_SUFFIX = "}}";
+    private static final String FAIL_FAST_MARKER = "{{FAIL_FAST}}";
+    private static final String SHARD_INDEX_MARKER = "{{SHARD_INDEX}}";
+    private static final String SHARD_COUNT_MARKER = "{{SHARD_COUNT}}";
+    private static final int MAX_INPUT_INDEX_DIGITS = 6;
+
+    enum SlotType {
+        LITERAL,
+        USER_CODE,
+        TEST_CASES,
+        INPUT,
+        FAIL_FAST,
+        SHARD_INDEX,
+        SHARD_COUNT
+    }
+
+    static final class Segment {
+        final SlotType type;
+        final String text; // literal text, or the original placeholder text for slots
+        final int index;   // only for INPUT
+
+        Segment(SlotType type, String text, int index) {
+            this.type = type;
+            this.text = text;
+            this.index = index;
+        }
+    }
+
+    private final List<Segment> segments;
+    private final List<Segment> testCaseSegments; // null when the template has no test case block
+    private final int literalLength;
+    private final int testCaseLiteralLength;
+
+    private CompiledTemplate(List<Segment> segments, List<Segment> testCaseSegments) {
+        this.segments = Collections.unmodifiableList(segments);
+        this.testCaseSegments = testCaseSegments != null ? Collections.unmodifiableList(testCaseSegments) : null;
+        this.literalLength = literalLength(segments);
+        this.testCaseLiteralLength = testCaseSegments != null ? literalLength(testCaseSegments) : 0;
+    }
+
+    /**
+     * Run template: the block between the TEST_CASE_TEMPLATE markers is repeated once per test case
+     * with its {{INPUT_X}} placeholders filled in
+     */
+    public static CompiledTemplate compileRunTemplate(String template, TemplateMarkers markers) {
+        int startIdx = template.indexOf(markers.getTestCaseStart());
+        int endIdx = template.indexOf(markers.getTestCaseEnd());
+
+        if (startIdx == -1 || endIdx == -1 || endIdx < startIdx) {
+            throw new RuntimeException("Invalid template: missing markers "
+                    + markers.getTestCaseStart() + " or " + markers.getTestCaseEnd());
+        }
+
+        String before = template.substring(0, startIdx);
+        String block = template.substring(startIdx + markers.getTestCaseStart().length(), endIdx);
+        String after = template.substring(endIdx + markers.getTestCaseEnd().length());
+
+        List<Segment> segments = new ArrayList<>();
+        tokenize(before, markers.getUserCode(), false, false, segments);
+        segments.add(new Segment(SlotType.TEST_CASES, "", -1));
+        tokenize(after, markers.getUserCode(), false, false, segments);
+
+        List<Segment> testCaseSegments = new ArrayList<>();
+        tokenize(block, markers.getUserCode(), true, false, testCaseSegments);
+
+        return new CompiledTemplate(segments, testCaseSegments);
+    }
+
+    /**
+     * Submit template: test cases are already part of the template, only user code is inserted.
+     * An optional {{FAIL_FAST}} placeholder receives a boolean literal telling the program whether to
+     * print EXECUTION_STOPPED and exit after the first failing test case.
+     * Templates with {{SHARD_INDEX}} and {{SHARD_COUNT}} can be split across several runs: the program
+     * only runs the test cases whose zero-based position p satisfies p % SHARD_COUNT == SHARD_INDEX.
+     */
+    public static CompiledTemplate compileSubmitTemplate(String template, TemplateMarkers markers) {
+        List<Segment> segments = new ArrayList<>();
+        tokenize(template, markers.getUserCode(), false, true, segments);
+        return new CompiledTemplate(segments, null);
+    }
+
+    /**
+     * Submit render; failFastLiteral is the language's boolean literal for {{FAIL_FAST}}
+     */
+    public String render(String userCode, String failFastLiteral, int shardIndex, int shardCount) {
+        return render(userCode, Collections.emptyList(), null,
+                failFastLiteral, String.valueOf(shardIndex), String.valueOf(shardCount));
+    }
+
+    public String render(String userCode, List<RunTestCaseInput> testCases, LiteralEncoder encoder) {
+        return render(userCode, testCases, encoder, null, null, null);
+    }
+
+    /**
+     * True when the template has both shard placeholders and can be run as several shards
+     */
+    public boolean isShardable() {
+        boolean hasIndex = false;
+        boolean hasCount = false;
+        for (Segment segment : segments) {
+            hasIndex |= segment.type == SlotType.SHARD_INDEX;
+            hasCount |= segment.type == SlotType.SHARD_COUNT;
+        }
+        return hasIndex && hasCount;
+    }
+
+    private String render(String userCode, List<RunTestCaseInput> testCases, LiteralEncoder encoder,
+            String failFastLiteral, String shardIndex, String shardCount) {
+        int estimatedSize = literalLength + userCode.length()
+                + testCases.size() * (testCaseLiteralLength + 64);
+        StringBuilder out = new StringBuilder(estimatedSize);
+
+        for (Segment segment : segments) {
+            switch (segment.type) {
+                case USER_CODE:
+                    out.append(userCode);
+                    break;
+                case TEST_CASES:
+                    appendTestCases(out, userCode, testCases, encoder);
+                    break;
+                case FAIL_FAST:
+                    out.append(failFastLiteral != null ? failFastLiteral : segment.text);
+                    break;
+                case SHARD_INDEX:
+                    out.append(shardIndex != null ? shardIndex : "0");
+                    break;
+                case SHARD_COUNT:
+                    out.append(shardCount != null ? shardCount : "1");
+                    break;
+                default:
+                    out.append(segment.text);
+            }
+        }
+
+        return out.toString();
+    }
+
+    public boolean hasTestCaseBlock() {
+        return testCaseSegments != null;
+    }
+
+    private void appendTestCases(StringBuilder out, String userCode, List<RunTestCaseInput> testCases,
+            LiteralEncoder encoder) {
+        for (RunTestCaseInput testCase : testCases) {
+            List<Object> inputs = testCase.getInput() != null ? testCase.getInput() : Collections.emptyList();
+
+            for (Segment segment : testCaseSegments) {
+                switch (segment.type) {
+                    case INPUT:
+                        if (segment.index < inputs.size()) {
+                            encoder.encode(inputs.get(segment.index), out);
+                        } else {
+                            out.append(segment.text);
+                        }
+                        break;
+                    case USER_CODE:
+                        out.append(userCode);
+                        break;
+                    default:
+                        out.append(segment.text);
+                }
+            }
+
+            out.append('\n');
+        }
+    }
+
+    private static void tokenize(String text, String userCodeMarker, boolean parseInputs, boolean parseSubmitSlots,
+            List<Segment> out) {
+        int literalStart = 0;
+        int pos = 0;
+
+        while (pos < text.length()) {
+            if (text.startsWith(userCodeMarker, pos)) {
+                addLiteral(text, literalStart, pos, out);
+                out.add(new Segment(SlotType.USER_CODE, userCodeMarker, -1));
+                pos += userCodeMarker.length();
+                literalStart = pos;
+                continue;
+            }
+
+            SlotType submitSlot = parseSubmitSlots ? submitSlotAt(text, pos) : null;
+            if (submitSlot != null) {
+                String marker = submitMarker(submitSlot);
+                addLiteral(text, literalStart, pos, out);
+                out.add(new Segment(submitSlot, marker, -1));
+                pos += marker.length();
+                literalStart = pos;
+                continue;
+            }
+
+            if (parseInputs && text.startsWith(INPUT_PREFIX, pos)) {
+                int digitsStart = pos + INPUT_PREFIX.length();
+                int digitsEnd = digitsStart;
+                while (digitsEnd < text.length() && digitsEnd - digitsStart < MAX_INPUT_INDEX_DIGITS
+                        && text.charAt(digitsEnd) >= '0' && text.charAt(digitsEnd) <= '9') {
+                    digitsEnd++;
+                }
+
+                boolean canonical = digitsEnd > digitsStart
+                        && (text.charAt(digitsStart) != '0' || digitsEnd - digitsStart == 1);
+
+                if (canonical && text.startsWith(INPUT_SUFFIX, digitsEnd)) {
+                    addLiteral(text, literalStart, pos, out);
+                    int end = digitsEnd + INPUT_SUFFIX.length();
+                    out.add(new Segment(SlotType.INPUT, text.substring(pos, end),
+                            Integer.parseInt(text.substring(digitsStart, digitsEnd))));
+                    pos = end;
+                    literalStart = pos;
+                    continue;
+                }
+            }
+
+            pos++;
+        }
+
+        addLiteral(text, literalStart, text.length(), out);
+    }
+
+    private static SlotType submitSlotAt(String text, int pos) {
+        if (text.startsWith(FAIL_FAST_MARKER, pos)) {
+            return SlotType.FAIL_FAST;
+        }
+        if (text.startsWith(SHARD_INDEX_MARKER, pos)) {
+            return SlotType.SHARD_INDEX;
+        }
+        if (text.startsWith(SHARD_COUNT_MARKER, pos)) {
+            return SlotType.SHARD_COUNT;
+        }
+        return null;
+    }
+
+    private static String submitMarker(SlotType type) {
+        switch (type) {
+            case FAIL_FAST:
+                return FAIL_FAST_MARKER;
+            case SHARD_INDEX:
+                return SHARD_INDEX_MARKER;
+            default:
+                return SHARD_COUNT_MARKER;
+        }
+    }
+
+    private static void addLiteral(String text, int start, int end, List<Segment> out) {
+        if (end > start) {
+            out.add(new Segment(SlotType.LITERAL, text.substring(start, end), -1));
+        }
+    }
+
+    private static int literalLength(List<Segment> segments) {
+        int length = 0;
+        for (Segment segment : segments) {
+            if (segment.type == SlotType.LITERAL) {
+                length += segment.text.length();
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,65 @@
+// src/main/java/com/algoarena/service/compiler/template/CompiledTemplateCache.java
+package com.algoarena.service.compiler.template;
+
+import com.algoarena.model.Question;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Compiled run/submit templates keyed by question id + version + mode + language.
+ * The question version changes on every admin edit, so stale entries are never served
+ * and simply age out.
+ */
+@Component
+public class CompiledTemplateCache {
+
+    private final Cache<String, CompiledTemplate> cache = Caffeine.newBuilder()
+            .maximumSize(2000)
+            .expireAfterAccess(Duration.ofHours(6))
+            .build();
+
+    public CompiledTemplate getRunTemplate(Question question, String language) {
+        String template = templateFor(question.getRunTemplate(), language);
+        if (template == null) {
+            throw new RuntimeException("Template not available for language: " + language);
+        }
+
+        TemplateMarkers markers = TemplateMarkers.forLanguage(language);
+        return get(question, "run", language, () -> CompiledTemplate.compileRunTemplate(template, markers));
+    }
+
+    public CompiledTemplate getSubmitTemplate(Question question, String language) {
+        String template = templateFor(question.getSubmitTemplate(), language);
+        if (template == null) {
+            throw new RuntimeException("Submit template not available for language: " + language);
+        }
+
+        TemplateMarkers markers = TemplateMarkers.forLanguage(language);
+        return get(question, "submit", language, () -> CompiledTemplate.compileSubmitTemplate(template, markers));
+    }
+
+    public void evictQuestion(String questionId) {
+        String prefix = questionId + ":";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    private CompiledTemplate get(Question question, String mode, String language,
+            Supplier<CompiledTemplate> compiler) {
+        // Unversioned documents cannot be keyed safely - compile without caching
+        if (question.getId() == null || question.getVersion() == null) {
+            return compiler.get();
+        }
+
+        String key = question.getId() + ":" + question.getVersion() + ":" + mode + ":" + language;
+        return cache.get(key, k -> compiler.get());
+    }
+
+    private String templateFor(Map<String, String> templates, String language) {
+        return templates != null ? templates.get(language) : null;
+    }
+}
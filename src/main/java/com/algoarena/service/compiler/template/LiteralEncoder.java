@@ -0,0 +1,11 @@
+// src/main/java/com/algoarena/service/compiler/template/LiteralEncoder.java
+package com.algoarena.service.compiler.template;
+
+/**
+ * Writes a JSON test-case value as a source literal of the target language
+ */
+@FunctionalInterface
+public interface LiteralEncoder {
+
+    void encode(Object value, StringBuilder out);
+}
@@ -0,0 +1,209 @@
+// src/main/java/com/algoarena/service/compiler/template/LiteralWriter.java
+package com.algoarena.service.compiler.template;
+
+import java.lang.reflect.Array;
+import java.util.List;
+
+/**
+ * Streaming JSON-to-source-literal writer, one instance per target language.
+ * Values are written straight into the caller's buffer in a single recursive pass - nesting depth
+ * and element types are discovered while walking, so no intermediate strings are built per level.
+ * Primitive arrays (int[], long[], double[], boolean[], char[]) are written without boxing.
+ */
+public final class LiteralWriter implements LiteralEncoder {
+
+    /** Top-level arrays are written without braces; the admin template supplies them ({{INPUT_0}} inside {...}) */
+    public static final LiteralWriter JAVA = new LiteralWriter(
+            '{', '}', false, "null", "true", "false", "L", "f", true);
+
+    public static final LiteralWriter CPP = new LiteralWriter(
+            '{', '}', true, "nullptr", "true", "false", "L", "f", true);
+
+    public static final LiteralWriter PYTHON = new LiteralWriter(
+            '[', ']', true, "None", "True", "False", "", "", false);
+
+    public static final LiteralWriter JAVASCRIPT = new LiteralWriter(
+            '[', ']', true, "null", "true", "false", "", "", false);
+
+    private static final String SEPARATOR = ", ";
+
+    private final char open;
+    private final char close;
+    private final boolean topLevelBrackets;
+    private final String nullLiteral;
+    private final String trueLiteral;
+    private final String falseLiteral;
+    private final String longSuffix;
+    private final String floatSuffix;
+    private final boolean charLiterals; // single-character strings become 'c'
+
+    private LiteralWriter(char open, char close, boolean topLevelBrackets, String nullLiteral,
+            String trueLiteral, String falseLiteral, String longSuffix, String floatSuffix,
+            boolean charLiterals) {
+        this.open = open;
+        this.close = close;
+        this.topLevelBrackets = topLevelBrackets;
+        this.nullLiteral = nullLiteral;
+        this.trueLiteral = trueLiteral;
+        this.falseLiteral = falseLiteral;
+        this.longSuffix = longSuffix;
+        this.floatSuffix = floatSuffix;
+        this.charLiterals = charLiterals;
+    }
+
+    @Override
+    public void encode(Object value, StringBuilder out) {
+        write(value, out, true);
+    }
+
+    /**
+     * Convenience for callers that need the literal as a String
+     */
+    public String toLiteral(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(value, out, true);
+        return out.toString();
+    }
+
+    private void write(Object value, StringBuilder out, boolean topLevel) {
+        if (value == null) {
+            out.append(nullLiteral);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            out.append(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            out.append(((Long) value).longValue()).append(longSuffix);
+        } else if (value instanceof Double) {
+            out.append(((Double) value).doubleValue());
+        } else if (value instanceof Float) {
+            out.append(((Float) value).floatValue()).append(floatSuffix);
+        } else if (value instanceof Number) {
+            out.append(value);
+        } else if (value instanceof Boolean) {
+            out.append((Boolean) value ? trueLiteral : falseLiteral);
+        } else if (value instanceof String) {
+            writeString((String) value, out);
+        } else if (value instanceof Character) {
+            writeString(String.valueOf(value), out);
+        } else if (value instanceof List) {
+            writeList((List<?>) value, out, topLevel);
+        } else if (value.getClass().isArray()) {
+            writeArray(value, out, topLevel);
+        } else {
+            out.append(value);
+        }
+    }
+
+    private void writeList(List<?> list, StringBuilder out, boolean topLevel) {
+        boolean brackets = !topLevel || topLevelBrackets;
+        if (brackets) {
+            out.append(open);
+        }
+
+        int size = list.size();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                out.append(SEPARATOR);
+            }
+            write(list.get(i), out, false);
+        }
+
+        if (brackets) {
+            out.append(close);
+        }
+    }
+
+    private void writeArray(Object array, StringBuilder out, boolean topLevel) {
+        boolean brackets = !topLevel || topLevelBrackets;
+        if (brackets) {
+            out.append(open);
+        }
+
+        if (array instanceof int[]) {
+            int[] values = (int[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.append(SEPARATOR);
+                out.append(values[i]);
+            }
+        } else if (array instanceof long[]) {
+            long[] values = (long[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.append(SEPARATOR);
+                out.append(values[i]).append(longSuffix);
+            }
+        } else if (array instanceof double[]) {
+            double[] values = (double[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.append(SEPARATOR);
+                out.append(values[i]);
+            }
+        } else if (array instanceof boolean[]) {
+            boolean[] values = (boolean[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.append(SEPARATOR);
+                out.append(values[i] ? trueLiteral : falseLiteral);
+            }
+        } else if (array instanceof char[]) {
+            char[] values = (char[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.append(SEPARATOR);
+                writeChar(values[i], out);
+            }
+        } else if (array instanceof Object[]) {
+            Object[] values = (Object[]) array;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.append(SEPARATOR);
+                write(values[i], out, false);
+            }
+        } else {
+            // Remaining primitive arrays (byte[], short[], float[]) are rare enough to box
+            int length = Array.getLength(array);
+            for (int i = 0; i < length; i++) {
+                if (i > 0) out.append(SEPARATOR);
+                write(Array.get(array, i), out, false);
+            }
+        }
+
+        if (brackets) {
+            out.append(close);
+        }
+    }
+
+    private void writeString(String str, StringBuilder out) {
+        if (charLiterals && str.length() == 1) {
+            writeChar(str.charAt(0), out);
+            return;
+        }
+
+        out.append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '\\': out.append("\\\\"); break;
+                case '"': out.append("\\\""); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default: out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
+    private void writeChar(char c, StringBuilder out) {
+        if (!charLiterals) {
+            writeString(String.valueOf(c), out);
+            return;
+        }
+
+        out.append('\'');
+        switch (c) {
+            case '\\': out.append("\\\\"); break;
+            case '\'': out.append("\\'"); break;
+            case '\n': out.append("\\n"); break;
+            case '\r': out.append("\\r"); break;
+            case '\t': out.append("\\t"); break;
+            default: out.append(c);
+        }
+        out.append('\'');
+    }
+}
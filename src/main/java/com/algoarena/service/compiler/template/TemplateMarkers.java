@@ -0,0 +1,36 @@
+// src/main/java/com/algoarena/service/compiler/template/TemplateMarkers.java
+package com.algoarena.service.compiler.template;
+
+/**
+ * Marker comments an admin template uses, per comment syntax of the language
+ */
+public final class TemplateMarkers {
+
+    public static final TemplateMarkers BLOCK_COMMENT = new TemplateMarkers(
+            "/*TEST_CASE_TEMPLATE_START*/",
+            "/*TEST_CASE_TEMPLATE_END*/",
+            "/*USER_CODE_PLACEHOLDER*/");
+
+    public static final TemplateMarkers HASH_COMMENT = new TemplateMarkers(
+            "#TEST_CASE_TEMPLATE_START",
+            "#TEST_CASE_TEMPLATE_END",
+            "#USER_CODE_PLACEHOLDER");
+
+    private final String testCaseStart;
+    private final String testCaseEnd;
+    private final String userCode;
+
+    private TemplateMarkers(String testCaseStart, String testCaseEnd, String userCode) {
+        this.testCaseStart = testCaseStart;
+        this.testCaseEnd = testCaseEnd;
+        this.userCode = userCode;
+    }
+
+    public static TemplateMarkers forLanguage(String language) {
+        return "python".equalsIgnoreCase(language) ? HASH_COMMENT : BLOCK_COMMENT;
+    }
+
+    public String getTestCaseStart() { return testCaseStart; }
+    public String getTestCaseEnd() { return testCaseEnd; }
+    public String getUserCode() { return userCode; }
+}
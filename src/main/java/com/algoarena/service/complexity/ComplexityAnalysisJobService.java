@@ -0,0 +1,403 @@
+// src/main/java/com/algoarena/service/complexity/ComplexityAnalysisJobService.java
+package com.algoarena.service.complexity;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.complexity.ComplexityAnalysisRequest;
+import com.algoarena.dto.complexity.ComplexityAnalysisResponse;
+import com.algoarena.dto.complexity.ComplexityJobDTO;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.algoarena.exception.RateLimitExceededException;
+import com.algoarena.model.ComplexityAnalysisCache;
+import com.algoarena.model.UserApproaches.ApproachData;
+import com.algoarena.service.dsa.ApproachStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Job-based complexity analysis.
+ * - Results are shared through complexity_analysis_cache, keyed by SHA-256 of language + normalized code,
+ *   so identical code (the textbook solution of a classic problem) goes to Gemini once for everyone.
+ * - An identical analysis already queued or running is joined instead of started again.
+ * - Gemini is called from a small bounded pool; a 429 pauses all workers with exponential backoff.
+ * Jobs belong to one approach: the result is saved on it, and the job is polled or followed over SSE
+ * like async submissions.
+ */
+@Service
+public class ComplexityAnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComplexityAnalysisJobService.class);
+
+    private final ComplexityAnalysisService complexityAnalysisService;
+    private final ApproachStore approachStore;
+    private final MongoTemplate mongoTemplate;
+    private final AppConfig.ComplexityAnalysis config;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ComplexityJob> jobs;
+    private final Map<String, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    // code hash -> analysis queued or running
+    private final Map<String, CompletableFuture<ComplexityAnalysisResponse>> inFlight = new ConcurrentHashMap<>();
+    // Epoch millis until which no worker calls Gemini (set on 429)
+    private final AtomicLong pausedUntil = new AtomicLong();
+
+    private final Counter rateLimitedCounter;
+    private final Counter rejectedCounter;
+
+    public ComplexityAnalysisJobService(ComplexityAnalysisService complexityAnalysisService,
+            ApproachStore approachStore, MongoTemplate mongoTemplate, AppConfig appConfig,
+            MeterRegistry meterRegistry) {
+        this.complexityAnalysisService = complexityAnalysisService;
+        this.approachStore = approachStore;
+        this.mongoTemplate = mongoTemplate;
+        this.config = appConfig.getComplexityAnalysis();
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                config.getWorkers(),
+                config.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "complexity-worker-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(config.getResultTtl()))
+                .build();
+
+        Gauge.builder("complexity.analysis.queue.depth", executor, e -> e.getQueue().size())
+                .description("Distinct complexity analyses waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("complexity.analysis.in.flight", inFlight, Map::size)
+                .description("Distinct complexity analyses queued or running")
+                .register(meterRegistry);
+        this.rateLimitedCounter = Counter.builder("complexity.analysis.rate.limited")
+                .description("Gemini calls answered with 429")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("complexity.analysis.rejected")
+                .description("Analyses rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Analysis of this code: from the shared cache, by joining an identical analysis in flight, or by a new
+     * Gemini call. Throws ExecutionServiceBusyException when the queue is full.
+     */
+    public CompletableFuture<ComplexityAnalysisResponse> analyze(String code, String language) {
+        String key = cacheKey(code, language);
+
+        ComplexityAnalysisCache cached = mongoTemplate.findById(key, ComplexityAnalysisCache.class);
+        if (cached != null) {
+            countAnalysis("cache_hit");
+            return CompletableFuture.completedFuture(new ComplexityAnalysisResponse(
+                    cached.getTimeComplexity(), cached.getSpaceComplexity(), cached.getComplexityDescription()));
+        }
+
+        CompletableFuture<ComplexityAnalysisResponse> created = new CompletableFuture<>();
+        CompletableFuture<ComplexityAnalysisResponse> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            countAnalysis("coalesced");
+            return running;
+        }
+
+        try {
+            executor.execute(() -> run(key, code, language, created));
+        } catch (RejectedExecutionException e) {
+            ExecutionServiceBusyException busy = new ExecutionServiceBusyException(
+                    "Complexity analysis is busy. Please try again in a few seconds.");
+            inFlight.remove(key, created);
+            // Requests that joined in the meantime must not wait forever
+            created.completeExceptionally(busy);
+            rejectedCounter.increment();
+            logger.warn("Complexity analysis queue full ({} queued), rejecting analysis", executor.getQueue().size());
+            throw busy;
+        }
+        return created;
+    }
+
+    /**
+     * Start (or join) the analysis of one approach and return its job; the result is saved on the approach
+     * when it arrives. An approach that already has an analysis gets a completed job right away.
+     */
+    public ComplexityJobDTO submit(String userId, String questionId, ApproachData approach) {
+        String jobId = UUID.randomUUID().toString();
+
+        if (approach.getComplexityAnalysis() != null) {
+            ComplexityJob job = new ComplexityJob(jobId, userId, questionId, approach.getId(), true);
+            ApproachData.ComplexityAnalysis existing = approach.getComplexityAnalysis();
+            job.markCompleted(new ComplexityAnalysisResponse(existing.getTimeComplexity(),
+                    existing.getSpaceComplexity(), existing.getComplexityDescription()));
+            jobs.put(jobId, job);
+            return job.snapshot();
+        }
+
+        CompletableFuture<ComplexityAnalysisResponse> analysis = analyze(approach.getCodeContent(),
+                approach.getCodeLanguage());
+        ComplexityJob job = new ComplexityJob(jobId, userId, questionId, approach.getId(), analysis.isDone());
+        jobs.put(jobId, job);
+        // Runs right here when the analysis came from the cache
+        analysis.whenComplete((response, error) -> finish(job, response, error));
+        return job.snapshot();
+    }
+
+    /**
+     * Current state of a job, or null if it does not exist / belongs to another user
+     */
+    public ComplexityJobDTO getJob(String jobId, String userId) {
+        ComplexityJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return null;
+        }
+        return job.snapshot();
+    }
+
+    /**
+     * Subscribe to status updates of a job over SSE.
+     * Returns null if the job does not exist / belongs to another user.
+     */
+    public SseEmitter subscribe(String jobId, String userId) {
+        ComplexityJob job = jobs.getIfPresent(jobId);
+        if (job == null || !job.userId.equals(userId)) {
+            return null;
+        }
+
+        SseEmitter emitter = new SseEmitter(config.getSseTimeout());
+
+        // Finished job: send the final state and close, without registering (its cleanup already ran)
+        if (job.snapshot().isFinished()) {
+            publish(job, emitter);
+            return emitter;
+        }
+
+        List<SseEmitter> jobEmitters = emitters.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>());
+        jobEmitters.add(emitter);
+        emitter.onCompletion(() -> jobEmitters.remove(emitter));
+        emitter.onTimeout(() -> jobEmitters.remove(emitter));
+        emitter.onError(e -> jobEmitters.remove(emitter));
+
+        // Push current state right away
+        publish(job, emitter);
+
+        // The job may have finished between the check above and the registration
+        if (job.snapshot().isFinished()) {
+            emitters.remove(jobId);
+        }
+
+        return emitter;
+    }
+
+    public long getSyncTimeout() {
+        return config.getSyncTimeout();
+    }
+
+    private void run(String key, String code, String language, CompletableFuture<ComplexityAnalysisResponse> future) {
+        try {
+            ComplexityAnalysisResponse response = callWithBackoff(code, language);
+            try {
+                mongoTemplate.save(new ComplexityAnalysisCache(key, language, response.getTimeComplexity(),
+                        response.getSpaceComplexity(), response.getComplexityDescription()));
+            } catch (Exception e) {
+                logger.warn("Could not cache complexity analysis {}: {}", key, e.getMessage());
+            }
+            countAnalysis("analyzed");
+            future.complete(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            countAnalysis("failed");
+            future.completeExceptionally(new RuntimeException("Complexity analysis was cancelled. Please try again."));
+        } catch (Exception e) {
+            countAnalysis("failed");
+            future.completeExceptionally(e);
+        } finally {
+            // Cached (or failed) from here on, so later requests no longer join this future
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Gemini call that waits out a shared pause and, on 429, extends the pause (doubling per retry)
+     * and tries again, up to maxAttempts calls
+     */
+    private ComplexityAnalysisResponse callWithBackoff(String code, String language) throws InterruptedException {
+        long delay = config.getRetryInitialDelay();
+        for (int attempt = 1; ; attempt++) {
+            long wait = pausedUntil.get() - System.currentTimeMillis();
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+            try {
+                return complexityAnalysisService.analyzeComplexity(new ComplexityAnalysisRequest(code, language));
+            } catch (RateLimitExceededException e) {
+                rateLimitedCounter.increment();
+                if (attempt >= config.getMaxAttempts()) {
+                    throw e;
+                }
+                long resumeAt = System.currentTimeMillis() + delay;
+                pausedUntil.accumulateAndGet(resumeAt, Math::max);
+                logger.warn("Gemini rate limit hit, pausing complexity analysis for {} ms (attempt {}/{})",
+                        delay, attempt, config.getMaxAttempts());
+                delay = Math.min(delay * 2, config.getRetryMaxDelay());
+            }
+        }
+    }
+
+    private void finish(ComplexityJob job, ComplexityAnalysisResponse response, Throwable error) {
+        if (error == null) {
+            try {
+                approachStore.setFields(job.userId, job.questionId, job.approachId,
+                        Map.of("complexityAnalysis", new ApproachData.ComplexityAnalysis(
+                                response.getTimeComplexity(),
+                                response.getSpaceComplexity(),
+                                response.getComplexityDescription())));
+                job.markCompleted(response);
+            } catch (Exception e) {
+                logger.error("Could not save complexity analysis on approach {}: {}", job.approachId, e.getMessage());
+                job.markFailed("Failed to save complexity analysis. Please try again.");
+            }
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            job.markFailed(cause.getMessage());
+        }
+
+        // Re-put so the result TTL counts from completion
+        jobs.put(job.jobId, job);
+        publish(job);
+    }
+
+    private void publish(ComplexityJob job) {
+        List<SseEmitter> jobEmitters = emitters.get(job.jobId);
+        if (jobEmitters != null) {
+            for (SseEmitter emitter : jobEmitters) {
+                publish(job, emitter);
+            }
+        }
+        if (job.snapshot().isFinished()) {
+            emitters.remove(job.jobId);
+        }
+    }
+
+    private void publish(ComplexityJob job, SseEmitter emitter) {
+        ComplexityJobDTO snapshot = job.snapshot();
+        try {
+            emitter.send(SseEmitter.event().name("status").data(snapshot));
+            if (snapshot.isFinished()) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away - nothing else to do
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void countAnalysis(String result) {
+        Counter.builder("complexity.analysis")
+                .description("Complexity analysis requests by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Line endings, trailing whitespace and blank lines do not change the complexity of the code
+     */
+    private static String cacheKey(String code, String language) {
+        String[] lines = code.replace("\r\n", "\n").replace('\r', '\n').split("\n");
+        StringBuilder normalized = new StringBuilder(code.length() + 16);
+        normalized.append(language != null ? language.trim().toLowerCase() : "").append('\n');
+        for (String line : lines) {
+            String stripped = line.stripTrailing();
+            if (!stripped.isEmpty()) {
+                normalized.append(stripped).append('\n');
+            }
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class ComplexityJob {
+        private final String jobId;
+        private final String userId;
+        private final String questionId;
+        private final String approachId;
+        private final ComplexityJobDTO state;
+
+        private ComplexityJob(String jobId, String userId, String questionId, String approachId, boolean cached) {
+            this.jobId = jobId;
+            this.userId = userId;
+            this.questionId = questionId;
+            this.approachId = approachId;
+            this.state = new ComplexityJobDTO(jobId, questionId, approachId, "QUEUED");
+            this.state.setCached(cached);
+            this.state.setQueuedAt(LocalDateTime.now());
+        }
+
+        synchronized void markCompleted(ComplexityAnalysisResponse response) {
+            state.setStatus("COMPLETED");
+            state.setResult(response);
+            state.setCompletedAt(LocalDateTime.now());
+        }
+
+        synchronized void markFailed(String error) {
+            state.setStatus("FAILED");
+            state.setError(error);
+            state.setCompletedAt(LocalDateTime.now());
+        }
+
+        synchronized ComplexityJobDTO snapshot() {
+            ComplexityJobDTO copy = new ComplexityJobDTO(jobId, questionId, approachId, state.getStatus());
+            copy.setCached(state.isCached());
+            copy.setResult(state.getResult());
+            copy.setError(state.getError());
+            copy.setQueuedAt(state.getQueuedAt());
+            copy.setCompletedAt(state.getCompletedAt());
+            return copy;
+        }
+    }
+}
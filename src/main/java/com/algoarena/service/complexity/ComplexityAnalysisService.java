@@ -2,6 +2,7 @@ package com.algoarena.service.complexity;
 
 import com.algoarena.dto.complexity.ComplexityAnalysisRequest;
 import com.algoarena.dto.complexity.ComplexityAnalysisResponse;
+import com.algoarena.exception.RateLimitExceededException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -112,7 +113,8 @@ public class ComplexityAnalysisService {
         } catch (HttpClientErrorException e) {
             if (e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
                 log.error("Rate limit exceeded (429)");
-                throw new RuntimeException("Rate limit exceeded. Please try again in a minute.");
+                // Distinct type so ComplexityAnalysisJobService can back off and retry
+                throw new RateLimitExceededException("Rate limit exceeded. Please try again in a minute.");
             } else if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
                 log.error("Invalid API key (401)");
                 throw new RuntimeException("Invalid API configuration. Please contact support.");
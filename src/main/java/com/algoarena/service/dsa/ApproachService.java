@@ -3,23 +3,21 @@ package com.algoarena.service.dsa;
 
 import com.algoarena.dto.complexity.ComplexityAnalysisRequest;
 import com.algoarena.dto.complexity.ComplexityAnalysisResponse;
+import com.algoarena.dto.complexity.ComplexityJobDTO;
 import com.algoarena.dto.dsa.ApproachDetailDTO;
 import com.algoarena.dto.dsa.ApproachMetadataDTO;
 import com.algoarena.dto.dsa.ApproachUpdateDTO;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.algoarena.model.QuestionApproaches;
 import com.algoarena.model.User;
 import com.algoarena.model.UserApproaches;
 import com.algoarena.model.UserApproaches.ApproachData;
 import com.algoarena.repository.QuestionRepository;
-import com.algoarena.repository.UserApproachesRepository;
-import com.algoarena.service.complexity.ComplexityAnalysisService;
+import com.algoarena.service.complexity.ComplexityAnalysisJobService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -27,6 +25,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,10 +36,7 @@ public class ApproachService {
     private static final Logger logger = LoggerFactory.getLogger(ApproachService.class);
 
     @Autowired
-    private UserApproachesRepository userApproachesRepository;
-
-    @Autowired
-    private MongoTemplate mongoTemplate;
+    private ApproachStore approachStore;
 
     @Autowired
     private QuestionRepository questionRepository;
@@ -47,24 +45,25 @@ public class ApproachService {
     private SubmissionTrackingService submissionTrackingService;
 
     @Autowired
-    private ComplexityAnalysisService complexityAnalysisService;
+    private ComplexityAnalysisJobService complexityAnalysisJobService;
+
+    @Autowired
+    private ApproachWriteBehindService approachWriteBehindService;
 
     /**
      * Get all approaches metadata for a question (list view - no full content)
      */
     public List<ApproachMetadataDTO> getMyApproachesForQuestion(String userId, String questionId) {
-        Query query = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(query, UserApproaches.class);
+        approachWriteBehindService.flushUser(userId);
+
+        // ✅ No code bodies loaded; already sorted by updatedAt descending (newest first)
+        QuestionApproaches userApproaches = approachStore.findMetadata(userId, questionId);
 
         if (userApproaches == null) {
             return new ArrayList<>();
         }
 
-        List<ApproachData> approaches = userApproaches.getApproachesForQuestion(questionId);
-
-        // ✅ Sort by updatedAt descending (newest first)
-        return approaches.stream()
-                .sorted((a, b) -> b.getUpdatedAt().compareTo(a.getUpdatedAt()))
+        return userApproaches.getApproachList().stream()
                 .map(data -> new ApproachMetadataDTO(data, userId, userApproaches.getUserName()))
                 .collect(Collectors.toList());
     }
@@ -73,8 +72,9 @@ public class ApproachService {
      * Get single approach with full content
      */
     public ApproachDetailDTO getMyApproachDetail(String userId, String questionId, String approachId) {
-        Query query = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(query, UserApproaches.class);
+        approachWriteBehindService.flushUser(userId);
+
+        QuestionApproaches userApproaches = approachStore.find(userId, questionId);
 
         if (userApproaches == null) {
             throw new RuntimeException("User approaches not found");
@@ -92,16 +92,13 @@ public class ApproachService {
      * Get space usage for a question
      */
     public Map<String, Object> getMyQuestionUsage(String userId, String questionId) {
-        Query query = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(query, UserApproaches.class);
+        approachWriteBehindService.flushUser(userId);
 
-        int usedBytes = 0;
-        int approachCount = 0;
+        // Maintained counters only, no approaches loaded
+        QuestionApproaches counters = approachStore.findUsage(userId, questionId);
 
-        if (userApproaches != null) {
-            usedBytes = userApproaches.getTotalSizeForQuestion(questionId);
-            approachCount = userApproaches.getApproachCountForQuestion(questionId);
-        }
+        int usedBytes = usedBytes(counters);
+        int approachCount = counters != null && counters.getStoredCount() != null ? counters.getStoredCount() : 0;
 
         int remainingBytes = UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES - usedBytes;
         double usedKB = usedBytes / 1024.0;
@@ -130,6 +127,60 @@ public class ApproachService {
             throw new RuntimeException("Question not found with id: " + questionId);
         }
 
+        // Queued submissions count towards the size limit below
+        approachWriteBehindService.flushUser(userId);
+
+        ApproachData approach = toApproachData(questionId, dto);
+
+        // ✅ Size check and insert are one conditional update (no read, no race between two submits)
+        if (!approachStore.insertWithinQuota(userId, currentUser.getName(), approach)) {
+            int currentSize = usedBytes(approachStore.findUsage(userId, questionId));
+            double remainingKB = (UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES - currentSize) / 1024.0;
+            double attemptedKB = approach.getContentSize() / 1024.0;
+            throw new RuntimeException(
+                    String.format("Combined size limit exceeded! You have %.2f KB remaining for this question, " +
+                            "but this approach is %.2f KB. Total limit is 20 KB across all approaches.",
+                            remainingKB, attemptedKB));
+        }
+
+        // ⭐ Record submission for heatmap tracking (non-blocking means if it fails,
+        // approach is still created)
+        try {
+            submissionTrackingService.recordSubmission(userId);
+        } catch (Exception e) {
+            logger.error("Failed to record submission for user {}: {}", userId, e.getMessage());
+            // Don't throw - approach was created successfully
+        }
+
+        return new ApproachDetailDTO(approach, userId, currentUser.getName());
+    }
+
+    /**
+     * Approach of a submit-mode verdict: queued for ApproachWriteBehindService instead of written inline.
+     * The question was just executed, so it is not looked up again. The size limit is checked here against
+     * the stored counters plus the user's queued approaches, so the returned approach is not rejected later.
+     */
+    public ApproachDetailDTO recordSubmittedApproach(String userId, String questionId, ApproachDetailDTO dto,
+            User currentUser) {
+        ApproachData approach = toApproachData(questionId, dto);
+        int storedBytes = usedBytes(approachStore.findUsage(userId, questionId));
+        if (!approachWriteBehindService.enqueue(userId, currentUser.getName(), approach, storedBytes)) {
+            int usedBytes = storedBytes + approachWriteBehindService.reservedBytes(userId, questionId);
+            double remainingKB = Math.max(0, UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES - usedBytes) / 1024.0;
+            double attemptedKB = approach.getContentSize() / 1024.0;
+            throw new RuntimeException(
+                    String.format("Combined size limit exceeded! You have %.2f KB remaining for this question, " +
+                            "but this approach is %.2f KB. Total limit is 20 KB across all approaches.",
+                            remainingKB, attemptedKB));
+        }
+        return new ApproachDetailDTO(approach, userId, currentUser.getName());
+    }
+
+    private static int usedBytes(QuestionApproaches usage) {
+        return usage != null && usage.getUsedBytes() != null ? usage.getUsedBytes() : 0;
+    }
+
+    private ApproachData toApproachData(String questionId, ApproachDetailDTO dto) {
         ApproachData approach = new ApproachData(questionId, dto.getTextContent());
         approach.setCodeContent(dto.getCodeContent());
         approach.setCodeLanguage(dto.getCodeLanguage() != null ? dto.getCodeLanguage() : "java");
@@ -155,45 +206,7 @@ public class ApproachService {
         }
 
         approach.updateContentSize();
-
-        Query query = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(query, UserApproaches.class);
-
-        if (userApproaches != null) {
-            int currentSize = userApproaches.getTotalSizeForQuestion(questionId);
-            int newTotal = currentSize + approach.getContentSize();
-
-            if (newTotal > UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES) {
-                double remainingKB = (UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES - currentSize) / 1024.0;
-                double attemptedKB = approach.getContentSize() / 1024.0;
-                throw new RuntimeException(
-                        String.format("Combined size limit exceeded! You have %.2f KB remaining for this question, " +
-                                "but this approach is %.2f KB. Total limit is 20 KB across all approaches.",
-                                remainingKB, attemptedKB));
-            }
-        }
-
-        String approachPath = "approaches." + questionId + "." + approach.getId();
-
-        Update update = new Update()
-                .setOnInsert("userId", userId)
-                .setOnInsert("userName", currentUser.getName())
-                .set(approachPath, approach)
-                .inc("totalApproaches", 1)
-                .set("lastUpdated", LocalDateTime.now());
-
-        mongoTemplate.upsert(query, update, UserApproaches.class);
-
-        // ⭐ Record submission for heatmap tracking (non-blocking means if it fails,
-        // approach is still created)
-        try {
-            submissionTrackingService.recordSubmission(userId);
-        } catch (Exception e) {
-            logger.error("Failed to record submission for user {}: {}", userId, e.getMessage());
-            // Don't throw - approach was created successfully
-        }
-
-        return new ApproachDetailDTO(approach, userId, currentUser.getName());
+        return approach;
     }
 
     /**
@@ -201,8 +214,9 @@ public class ApproachService {
      */
     public ApproachDetailDTO updateApproach(String userId, String questionId, String approachId,
             ApproachUpdateDTO dto) {
-        Query findQuery = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(findQuery, UserApproaches.class);
+        approachWriteBehindService.flushUser(userId);
+
+        QuestionApproaches userApproaches = approachStore.find(userId, questionId);
 
         if (userApproaches == null) {
             throw new RuntimeException("User approaches not found");
@@ -213,10 +227,6 @@ public class ApproachService {
             throw new RuntimeException("Approach not found with id: " + approachId);
         }
 
-        if (!approach.getQuestionId().equals(questionId)) {
-            throw new RuntimeException("Approach does not belong to this question");
-        }
-
         int oldSize = approach.getContentSize();
 
         ApproachData tempApproach = new ApproachData();
@@ -224,10 +234,13 @@ public class ApproachService {
         tempApproach.setCodeContent(approach.getCodeContent());
         int newSize = tempApproach.calculateContentSize();
 
-        int currentTotal = userApproaches.getTotalSizeForQuestion(questionId);
-        int adjustedTotal = currentTotal - oldSize + newSize;
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("textContent", dto.getTextContent());
+        fields.put("contentSize", newSize);
 
-        if (adjustedTotal > UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES) {
+        // ✅ Quota checked by the update itself against the maintained counter
+        if (!approachStore.updateWithinQuota(userId, questionId, approachId, fields, oldSize, newSize)) {
+            int currentTotal = usedBytes(approachStore.findUsage(userId, questionId));
             double remainingKB = (UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES - (currentTotal - oldSize))
                     / 1024.0;
             throw new RuntimeException(
@@ -236,20 +249,6 @@ public class ApproachService {
                             remainingKB));
         }
 
-        Query query = new Query(Criteria.where("userId").is(userId));
-
-        String textPath = "approaches." + questionId + "." + approachId + ".textContent";
-        String sizePath = "approaches." + questionId + "." + approachId + ".contentSize";
-        String updatedPath = "approaches." + questionId + "." + approachId + ".updatedAt";
-
-        Update update = new Update()
-                .set(textPath, dto.getTextContent())
-                .set(sizePath, newSize)
-                .set(updatedPath, LocalDateTime.now())
-                .set("lastUpdated", LocalDateTime.now());
-
-        mongoTemplate.updateFirst(query, update, UserApproaches.class);
-
         approach.setTextContent(dto.getTextContent());
         approach.setContentSize(newSize);
         approach.setUpdatedAt(LocalDateTime.now());
@@ -262,9 +261,10 @@ public class ApproachService {
      * No parameters needed - fetches approach internally
      */
     public ApproachDetailDTO analyzeComplexity(String userId, String questionId, String approachId) {
+        approachWriteBehindService.flushUser(userId);
+
         // 1️⃣ Fetch approach
-        Query findQuery = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(findQuery, UserApproaches.class);
+        QuestionApproaches userApproaches = approachStore.find(userId, questionId);
 
         if (userApproaches == null) {
             throw new RuntimeException("User approaches not found");
@@ -297,12 +297,21 @@ public class ApproachService {
                 approach.getCodeContent(),
                 approach.getCodeLanguage());
 
+        // Shared cache / identical analysis in flight / bounded Gemini pool, waited for here
         ComplexityAnalysisResponse geminiResponse;
         try {
-            geminiResponse = complexityAnalysisService.analyzeComplexity(request);
-        } catch (Exception e) {
-            logger.error("❌ Gemini analysis failed: {}", e.getMessage());
-            throw new RuntimeException("AI analysis failed: " + e.getMessage());
+            geminiResponse = complexityAnalysisJobService.analyze(request.getCode(), request.getLanguage())
+                    .get(complexityAnalysisJobService.getSyncTimeout(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionServiceBusyException e) {
+            throw e;
+        } catch (ExecutionException e) {
+            logger.error("❌ Gemini analysis failed: {}", e.getCause().getMessage());
+            throw new RuntimeException("AI analysis failed: " + e.getCause().getMessage());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("AI analysis is taking longer than usual. Please try again shortly.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("AI analysis was interrupted. Please try again.");
         }
 
         // 5️⃣ Save complexity to database
@@ -311,16 +320,9 @@ public class ApproachService {
                 geminiResponse.getSpaceComplexity(),
                 geminiResponse.getComplexityDescription());
 
-        Query query = new Query(Criteria.where("userId").is(userId));
-        String complexityPath = "approaches." + questionId + "." + approachId + ".complexityAnalysis";
-        String updatedPath = "approaches." + questionId + "." + approachId + ".updatedAt";
-
-        Update update = new Update()
-                .set(complexityPath, complexity)
-                .set(updatedPath, LocalDateTime.now())
-                .set("lastUpdated", LocalDateTime.now());
-
-        mongoTemplate.updateFirst(query, update, UserApproaches.class);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("complexityAnalysis", complexity);
+        approachStore.setFields(userId, questionId, approachId, fields);
 
         approach.setComplexityAnalysis(complexity);
         approach.setUpdatedAt(LocalDateTime.now());
@@ -330,11 +332,12 @@ public class ApproachService {
     }
 
     /**
-     * ✅ Delete single approach - ATOMIC with Map-of-Maps
+     * Asynchronous variant of analyzeComplexity: returns a job to poll (or follow over SSE) right away
      */
-    public void deleteApproach(String userId, String questionId, String approachId) {
-        Query findQuery = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(findQuery, UserApproaches.class);
+    public ComplexityJobDTO startComplexityAnalysis(String userId, String questionId, String approachId) {
+        approachWriteBehindService.flushUser(userId);
+
+        QuestionApproaches userApproaches = approachStore.find(userId, questionId);
 
         if (userApproaches == null) {
             throw new RuntimeException("User approaches not found");
@@ -345,22 +348,39 @@ public class ApproachService {
             throw new RuntimeException("Approach not found with id: " + approachId);
         }
 
-        if (!approach.getQuestionId().equals(questionId)) {
-            throw new RuntimeException("Approach does not belong to this question");
+        if (approach.getStatus() != UserApproaches.ApproachStatus.ACCEPTED) {
+            throw new RuntimeException("Complexity analysis is only available for ACCEPTED approaches");
         }
 
-        Query query = new Query(Criteria.where("userId").is(userId));
-        String approachPath = "approaches." + questionId + "." + approachId;
+        if (approach.getComplexityAnalysis() == null
+                && (approach.getCodeContent() == null || approach.getCodeContent().trim().isEmpty())) {
+            throw new RuntimeException("No code found to analyze");
+        }
 
-        Update update = new Update()
-                .unset(approachPath)
-                .inc("totalApproaches", -1)
-                .set("lastUpdated", LocalDateTime.now());
+        return complexityAnalysisJobService.submit(userId, questionId, approach);
+    }
 
-        mongoTemplate.updateFirst(query, update, UserApproaches.class);
+    /**
+     * ✅ Delete single approach - ATOMIC with Map-of-Maps
+     */
+    public void deleteApproach(String userId, String questionId, String approachId) {
+        approachWriteBehindService.flushUser(userId);
+
+        QuestionApproaches userApproaches = approachStore.find(userId, questionId);
+
+        if (userApproaches == null) {
+            throw new RuntimeException("User approaches not found");
+        }
+
+        ApproachData approach = userApproaches.findApproachById(approachId);
+        if (approach == null) {
+            throw new RuntimeException("Approach not found with id: " + approachId);
+        }
+
+        approachStore.delete(userId, questionId, approachId, approach.getContentSize());
 
         // Verify deletion
-        UserApproaches afterDelete = mongoTemplate.findOne(findQuery, UserApproaches.class);
+        QuestionApproaches afterDelete = approachStore.find(userId, questionId);
         ApproachData stillExists = afterDelete != null ? afterDelete.findApproachById(approachId) : null;
 
         if (stillExists != null) {
@@ -373,44 +393,32 @@ public class ApproachService {
      * ✅ Delete all approaches for a question (Admin) - ATOMIC OPERATION
      */
     public void deleteAllApproachesForQuestion(String questionId) {
-        Query query = new Query(Criteria.where("approaches." + questionId).exists(true));
-
-        Update update = new Update()
-                .unset("approaches." + questionId)
-                .set("lastUpdated", LocalDateTime.now());
-
-        mongoTemplate.updateMulti(query, update, UserApproaches.class);
-
-        // Fix totalApproaches count for affected users
-        List<UserApproaches> affectedUsers = userApproachesRepository.findAll();
-        for (UserApproaches user : affectedUsers) {
-            int actualTotal = user.getAllApproachesFlat().size();
-            if (user.getTotalApproaches() != actualTotal) {
-                Query userQuery = new Query(Criteria.where("userId").is(user.getUserId()));
-                Update countUpdate = new Update().set("totalApproaches", actualTotal);
-                mongoTemplate.updateFirst(userQuery, countUpdate, UserApproaches.class);
-            }
-        }
+        approachWriteBehindService.flushAll();
+
+        approachStore.deleteForQuestion(questionId);
+    }
+
+    /**
+     * ✅ Delete all approaches for several questions (Admin, category delete) - one update for all of them
+     */
+    public void deleteAllApproachesForQuestions(List<String> questionIds) {
+        approachWriteBehindService.flushAll();
+
+        approachStore.deleteForQuestions(questionIds);
     }
 
     /**
      * ✅ Delete all approaches by a user for a question (Admin) - ATOMIC OPERATION
      */
     public void deleteAllApproachesByUserForQuestion(String userId, String questionId) {
-        Query query = new Query(Criteria.where("userId").is(userId));
-        UserApproaches userApproaches = mongoTemplate.findOne(query, UserApproaches.class);
+        approachWriteBehindService.flushUser(userId);
+
+        QuestionApproaches userApproaches = approachStore.find(userId, questionId);
 
         if (userApproaches == null) {
             throw new RuntimeException("User approaches not found");
         }
 
-        int approachCount = userApproaches.getApproachCountForQuestion(questionId);
-
-        Update update = new Update()
-                .unset("approaches." + questionId)
-                .inc("totalApproaches", -approachCount)
-                .set("lastUpdated", LocalDateTime.now());
-
-        mongoTemplate.updateFirst(query, update, UserApproaches.class);
+        approachStore.deleteForUser(userId, questionId);
     }
 }
\ No newline at end of file
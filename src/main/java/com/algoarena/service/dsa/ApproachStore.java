@@ -0,0 +1,751 @@
+// src/main/java/com/algoarena/service/dsa/ApproachStore.java
+package com.algoarena.service.dsa;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.model.QuestionApproaches;
+import com.algoarena.model.UserApproaches;
+import com.algoarena.model.UserApproaches.ApproachData;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ObjectOperators;
+import org.springframework.data.mongodb.core.index.CompoundIndexDefinition;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Where approaches are stored (app.approach-storage.mode), during the move from one UserApproaches document
+ * per user (user_approaches) to one QuestionApproaches document per (user, question) (question_approaches):
+ * - legacy: read and write user_approaches only
+ * - dual-write: write both, read user_approaches (run ApproachStorageMigrationService.migrate now)
+ * - dual-write-read-new: write both, read question_approaches (after verify is clean; still reversible)
+ * - per-question: question_approaches only
+ *
+ * Reads always return one question's approaches as a QuestionApproaches, whichever layout they come from;
+ * legacy reads project only approaches.<questionId> instead of loading every code body of the user.
+ */
+@Component
+public class ApproachStore {
+
+    public static final String LEGACY = "legacy";
+    public static final String DUAL_WRITE = "dual-write";
+    public static final String DUAL_WRITE_READ_NEW = "dual-write-read-new";
+    public static final String PER_QUESTION = "per-question";
+
+    private static final int QUOTA_BYTES = UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES;
+
+    // Heavy ApproachData fields the metadata listing never shows
+    private static final List<String> METADATA_EXCLUDED_FIELDS =
+            List.of("textContent", "codeContent", "wrongTestcase", "tleTestcase");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    /**
+     * spring.data.mongodb.auto-index-creation is off, so the indexes are created here. Legacy documents
+     * written before questionIds existed get it once, server-side.
+     */
+    @PostConstruct
+    public void ensureIndexes() {
+        if (writesLegacy()) {
+            mongoTemplate.indexOps(UserApproaches.class).createIndex(
+                    new Index().on("questionIds", Sort.Direction.ASC).named("questionIds"));
+            Document questionIds = new Document("$map", new Document("input", entriesOf("$approaches"))
+                    .append("in", "$$this.k"));
+            mongoTemplate.updateMulti(new Query(Criteria.where("questionIds").exists(false)),
+                    AggregationUpdate.from(List.of(context -> new Document("$set",
+                            new Document("questionIds", questionIds)))),
+                    UserApproaches.class);
+        }
+        if (!writesPerQuestion()) {
+            return;
+        }
+        mongoTemplate.indexOps(QuestionApproaches.class).createIndex(
+                new CompoundIndexDefinition(new Document("userId", 1).append("questionId", 1))
+                        .named("user_question_idx")
+                        .unique());
+        mongoTemplate.indexOps(QuestionApproaches.class).createIndex(
+                new Index().on("questionId", Sort.Direction.ASC).named("questionId"));
+    }
+
+    public String getMode() {
+        return appConfig.getApproachStorage().getMode();
+    }
+
+    public boolean readsPerQuestion() {
+        return DUAL_WRITE_READ_NEW.equals(getMode()) || PER_QUESTION.equals(getMode());
+    }
+
+    public boolean writesLegacy() {
+        return !PER_QUESTION.equals(getMode());
+    }
+
+    public boolean writesPerQuestion() {
+        return !LEGACY.equals(getMode());
+    }
+
+    /**
+     * The user's approaches for one question; null when the user has none stored
+     */
+    public QuestionApproaches find(String userId, String questionId) {
+        if (readsPerQuestion()) {
+            return mongoTemplate.findById(QuestionApproaches.idFor(userId, questionId), QuestionApproaches.class);
+        }
+
+        Query query = new Query(Criteria.where("userId").is(userId));
+        query.fields().include("userId").include("userName").include("approaches." + questionId);
+        UserApproaches legacy = mongoTemplate.findOne(query, UserApproaches.class);
+        return legacy != null ? slice(legacy, questionId) : null;
+    }
+
+    /**
+     * Metadata of the user's approaches for one question, newest updatedAt first; null when none are stored.
+     * Runs as an aggregation so Mongo drops the code/text bodies and testcase snapshots and sorts before
+     * anything crosses the wire: only approaches.<questionId> is unpacked ($objectToArray), whatever else
+     * the user has stored. The returned approaches have no textContent/codeContent.
+     */
+    public QuestionApproaches findMetadata(String userId, String questionId) {
+        Criteria match;
+        String approachesPath;
+        String collection;
+        if (readsPerQuestion()) {
+            match = Criteria.where("_id").is(QuestionApproaches.idFor(userId, questionId));
+            approachesPath = "approaches";
+            collection = mongoTemplate.getCollectionName(QuestionApproaches.class);
+        } else {
+            match = Criteria.where("userId").is(userId);
+            approachesPath = "approaches." + questionId;
+            collection = mongoTemplate.getCollectionName(UserApproaches.class);
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(match),
+                Aggregation.project("userName")
+                        .and(ObjectOperators.ObjectToArray.valueOfToArray(approachesPath)).as("approach"),
+                Aggregation.unwind("approach"),
+                excludeApproachFields(METADATA_EXCLUDED_FIELDS),
+                Aggregation.sort(Sort.Direction.DESC, "approach.v.updatedAt"));
+
+        List<Document> rows = mongoTemplate.aggregate(aggregation, collection, Document.class).getMappedResults();
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        QuestionApproaches view = new QuestionApproaches(userId, rows.get(0).getString("userName"), questionId);
+        for (Document row : rows) {
+            Document value = row.get("approach", Document.class).get("v", Document.class);
+            ApproachData approach = mongoTemplate.getConverter().read(ApproachData.class, value);
+            view.getApproaches().put(approach.getId(), approach);
+        }
+        return view;
+    }
+
+    /**
+     * Approaches of several users for several questions, keyed by QuestionApproaches.idFor (used by the
+     * write-behind flush)
+     */
+    public Map<String, QuestionApproaches> findAll(Set<String> userIds, Set<String> questionIds) {
+        Map<String, QuestionApproaches> found = new HashMap<>();
+
+        if (readsPerQuestion()) {
+            Query query = new Query(Criteria.where("userId").in(userIds).and("questionId").in(questionIds));
+            for (QuestionApproaches doc : mongoTemplate.find(query, QuestionApproaches.class)) {
+                found.put(doc.getId(), doc);
+            }
+            return found;
+        }
+
+        Query query = new Query(Criteria.where("userId").in(userIds));
+        query.fields().include("userId").include("userName");
+        for (String questionId : questionIds) {
+            query.fields().include("approaches." + questionId);
+        }
+        for (UserApproaches legacy : mongoTemplate.find(query, UserApproaches.class)) {
+            for (String questionId : legacy.getApproaches().keySet()) {
+                found.put(QuestionApproaches.idFor(legacy.getUserId(), questionId), slice(legacy, questionId));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * All of the user's approaches, one view per question with approaches, from the layout being read
+     */
+    public List<QuestionApproaches> findForUser(String userId) {
+        if (readsPerQuestion()) {
+            return mongoTemplate.find(new Query(Criteria.where("userId").is(userId)), QuestionApproaches.class);
+        }
+
+        List<QuestionApproaches> views = new ArrayList<>();
+        UserApproaches legacy = mongoTemplate.findOne(new Query(Criteria.where("userId").is(userId)),
+                UserApproaches.class);
+        if (legacy != null) {
+            for (String questionId : legacy.getApproaches().keySet()) {
+                views.add(slice(legacy, questionId));
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Usage counters of one question (usedBytes/storedCount set, no approaches); null when the user has no
+     * document. Counters missing on documents written before they existed are recomputed first; a question
+     * the user has nothing stored for is zero without that extra round-trip.
+     */
+    public QuestionApproaches findUsage(String userId, String questionId) {
+        boolean perQuestion = readsPerQuestion();
+        QuestionApproaches usage = readUsage(perQuestion, userId, questionId);
+        if (usage != null && usage.getUsedBytes() == null) {
+            recount(perQuestion, userId, questionId);
+            usage = readUsage(perQuestion, userId, questionId);
+        }
+        return usage;
+    }
+
+    /**
+     * Insert one approach if the question's combined size stays within MAX_COMBINED_SIZE_PER_QUESTION_BYTES.
+     * The check is the filter of the update that also $inc's the usedBytes counter, so two concurrent
+     * creates cannot both pass it and nothing is read first. False when the quota is exceeded.
+     */
+    public boolean insertWithinQuota(String userId, String userName, ApproachData approach) {
+        int size = approach.getContentSize();
+        if (size > QUOTA_BYTES) {
+            return false;
+        }
+        String questionId = approach.getQuestionId();
+        boolean perQuestion = readsPerQuestion();
+        LocalDateTime now = LocalDateTime.now();
+
+        Query guard = quotaGuard(perQuestion, userId, questionId, QUOTA_BYTES - size);
+        if (!applyGuarded(perQuestion, userId, userName, questionId, guard,
+                insertUpdate(perQuestion, userId, userName, approach, now, true))) {
+            return false;
+        }
+
+        // The layout not being read mirrors the decision
+        if (writesBoth()) {
+            applyCounted(!perQuestion, questionId, baseQuery(!perQuestion, userId, questionId),
+                    insertUpdate(!perQuestion, userId, userName, approach, now, true),
+                    insertUpdate(!perQuestion, userId, userName, approach, now, false), true);
+        }
+        return true;
+    }
+
+    /**
+     * Insert approaches that are not stored yet, as one ordered bulk write per layout: counters of every
+     * touched document are recomputed first, then each insert is guarded by "approach does not exist" (so
+     * replaying a partly applied batch is harmless). As in insertWithinQuota, only the layout being read
+     * checks the quota; the other layout then gets exactly the approaches it accepted.
+     * Returns the ids of the entries' approaches that are stored in the layout being read.
+     */
+    public Set<String> insertAll(List<ApproachWriteBehindService.PendingApproach> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean perQuestion = readsPerQuestion();
+
+        insertAll(perQuestion, entries, now, true);
+        Set<String> stored = storedApproachIds(perQuestion, entries);
+
+        if (writesBoth()) {
+            List<ApproachWriteBehindService.PendingApproach> accepted = new ArrayList<>();
+            for (ApproachWriteBehindService.PendingApproach entry : entries) {
+                if (stored.contains(entry.getApproach().getId())) {
+                    accepted.add(entry);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                insertAll(!perQuestion, accepted, now, false);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * Which of the entries' approaches exist in one layout (only the approaches' questionId is loaded)
+     */
+    private Set<String> storedApproachIds(boolean perQuestion,
+            List<ApproachWriteBehindService.PendingApproach> entries) {
+        Set<String> documents = new HashSet<>();
+        Query query = new Query();
+        for (ApproachWriteBehindService.PendingApproach entry : entries) {
+            ApproachData approach = entry.getApproach();
+            documents.add(perQuestion
+                    ? QuestionApproaches.idFor(entry.getUserId(), approach.getQuestionId())
+                    : entry.getUserId());
+            query.fields().include(approachPath(perQuestion, approach.getQuestionId(), approach.getId())
+                    + ".questionId");
+        }
+        query.addCriteria(Criteria.where(perQuestion ? "_id" : "userId").in(documents));
+
+        Set<String> stored = new HashSet<>();
+        if (perQuestion) {
+            for (QuestionApproaches doc : mongoTemplate.find(query, QuestionApproaches.class)) {
+                stored.addAll(doc.getApproaches().keySet());
+            }
+        } else {
+            for (UserApproaches legacy : mongoTemplate.find(query, UserApproaches.class)) {
+                legacy.getApproaches().values().forEach(approaches -> stored.addAll(approaches.keySet()));
+            }
+        }
+        return stored;
+    }
+
+    private void insertAll(boolean perQuestion, List<ApproachWriteBehindService.PendingApproach> entries,
+            LocalDateTime now, boolean enforceQuota) {
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, entity(perQuestion));
+        Set<String> documents = new HashSet<>();
+
+        for (ApproachWriteBehindService.PendingApproach entry : entries) {
+            String questionId = entry.getApproach().getQuestionId();
+            String document = perQuestion ? QuestionApproaches.idFor(entry.getUserId(), questionId) : entry.getUserId();
+            if (documents.add(document)) {
+                Query base = baseQuery(perQuestion, entry.getUserId(), questionId);
+                ops.upsert(base, baseUpdate(perQuestion, entry.getUserId(), entry.getUserName(), questionId));
+                ops.updateOne(base, recountUpdate(perQuestion));
+            }
+        }
+
+        for (ApproachWriteBehindService.PendingApproach entry : entries) {
+            ApproachData approach = entry.getApproach();
+            String questionId = approach.getQuestionId();
+            Query guard = (enforceQuota
+                    ? quotaGuard(perQuestion, entry.getUserId(), questionId, QUOTA_BYTES - approach.getContentSize())
+                    : baseQuery(perQuestion, entry.getUserId(), questionId))
+                    .addCriteria(Criteria.where(approachPath(perQuestion, questionId, approach.getId())).exists(false));
+            ops.updateOne(guard, insertUpdate(perQuestion, entry.getUserId(), entry.getUserName(), approach, now, true));
+        }
+
+        ops.execute();
+    }
+
+    /**
+     * Set fields of one approach (field name -> value, relative to the approach); updatedAt is set too
+     */
+    public void setFields(String userId, String questionId, String approachId, Map<String, Object> fields) {
+        LocalDateTime now = LocalDateTime.now();
+
+        // Guarded: an approach missing from a layout must not turn into a partial object there
+        if (writesLegacy()) {
+            mongoTemplate.updateFirst(existingApproach(false, userId, questionId, approachId),
+                    fieldsUpdate(false, questionId, approachId, fields, now, null), UserApproaches.class);
+        }
+        if (writesPerQuestion()) {
+            mongoTemplate.updateFirst(existingApproach(true, userId, questionId, approachId),
+                    fieldsUpdate(true, questionId, approachId, fields, now, null), QuestionApproaches.class);
+        }
+    }
+
+    /**
+     * Set fields of one approach whose contentSize changes from oldSize to newSize (fields should include
+     * contentSize), if the question's combined size stays within the quota. Checked and counted in the same
+     * conditional update, like insertWithinQuota. False when the quota is exceeded or the approach changed
+     * size in the meantime.
+     */
+    public boolean updateWithinQuota(String userId, String questionId, String approachId, Map<String, Object> fields,
+            int oldSize, int newSize) {
+        int delta = newSize - oldSize;
+        boolean perQuestion = readsPerQuestion();
+        LocalDateTime now = LocalDateTime.now();
+
+        Query guard = quotaGuard(perQuestion, userId, questionId, QUOTA_BYTES - delta)
+                .addCriteria(Criteria.where(approachPath(perQuestion, questionId, approachId) + ".contentSize")
+                        .is(oldSize));
+        if (!applyGuarded(perQuestion, userId, null, questionId, guard,
+                fieldsUpdate(perQuestion, questionId, approachId, fields, now, delta))) {
+            return false;
+        }
+
+        if (writesBoth()) {
+            applyCounted(!perQuestion, questionId, existingApproach(!perQuestion, userId, questionId, approachId),
+                    fieldsUpdate(!perQuestion, questionId, approachId, fields, now, delta),
+                    fieldsUpdate(!perQuestion, questionId, approachId, fields, now, null), false);
+        }
+        return true;
+    }
+
+    public void delete(String userId, String questionId, String approachId, int contentSize) {
+        LocalDateTime now = LocalDateTime.now();
+
+        if (writesLegacy()) {
+            applyCounted(false, questionId, existingApproach(false, userId, questionId, approachId),
+                    deleteUpdate(false, questionId, approachId, now, contentSize),
+                    deleteUpdate(false, questionId, approachId, now, null), false);
+        }
+        if (writesPerQuestion()) {
+            applyCounted(true, questionId, existingApproach(true, userId, questionId, approachId),
+                    deleteUpdate(true, questionId, approachId, now, contentSize),
+                    deleteUpdate(true, questionId, approachId, now, null), false);
+        }
+    }
+
+    /**
+     * Delete all of one user's approaches for a question
+     */
+    public void deleteForUser(String userId, String questionId) {
+        if (writesLegacy()) {
+            Query query = new Query(Criteria.where("userId").is(userId));
+            query.fields().include("userId").include("approaches." + questionId);
+            UserApproaches legacy = mongoTemplate.findOne(query, UserApproaches.class);
+            if (legacy != null) {
+                Update update = new Update()
+                        .unset("approaches." + questionId)
+                        .unset("usage." + questionId)
+                        .pull("questionIds", questionId)
+                        .inc("totalApproaches", -legacy.getApproachCountForQuestion(questionId))
+                        .set("lastUpdated", LocalDateTime.now());
+                mongoTemplate.updateFirst(new Query(Criteria.where("userId").is(userId)), update,
+                        UserApproaches.class);
+            }
+        }
+        if (writesPerQuestion()) {
+            mongoTemplate.remove(byId(userId, questionId), QuestionApproaches.class);
+        }
+    }
+
+    /**
+     * Delete every user's approaches for a question (question deleted by an admin)
+     */
+    public void deleteForQuestion(String questionId) {
+        deleteForQuestions(List.of(questionId));
+    }
+
+    /**
+     * Delete every user's approaches for several questions (category deleted by an admin), one round-trip
+     * per layout. Legacy documents are found through the indexed questionIds array and fixed up server-side
+     * in the same pipeline update: the questions are $unset and usage/totalApproaches recomputed from what
+     * is left, so no user document is loaded.
+     */
+    public void deleteForQuestions(Collection<String> questionIds) {
+        if (questionIds.isEmpty()) {
+            return;
+        }
+
+        if (writesLegacy()) {
+            List<String> paths = new ArrayList<>();
+            for (String questionId : questionIds) {
+                paths.add("approaches." + questionId);
+            }
+            Document remaining = new Document("$setDifference",
+                    List.of("$questionIds", new ArrayList<>(questionIds)));
+
+            List<AggregationOperation> pipeline = new ArrayList<>();
+            pipeline.add(context -> new Document("$unset", paths));
+            pipeline.add(context -> new Document("$set", new Document("questionIds", remaining)));
+            pipeline.addAll(recountStages(false));
+            pipeline.add(context -> new Document("$set", new Document("lastUpdated", "$$NOW")));
+
+            mongoTemplate.updateMulti(new Query(Criteria.where("questionIds").in(questionIds)),
+                    AggregationUpdate.from(pipeline), UserApproaches.class);
+        }
+        if (writesPerQuestion()) {
+            mongoTemplate.remove(new Query(Criteria.where("questionId").in(questionIds)), QuestionApproaches.class);
+        }
+    }
+
+    /**
+     * Recompute the counters of every question_approaches document (after the storage migration copied
+     * approaches in without counting them); one server-side update, no documents are read
+     */
+    public long recountPerQuestionDocuments() {
+        return mongoTemplate.updateMulti(new Query(), recountUpdate(true), QuestionApproaches.class)
+                .getModifiedCount();
+    }
+
+    /**
+     * Total number of approaches across all users (admin overview)
+     */
+    public long countApproaches() {
+        Aggregation aggregation;
+        Class<?> collection;
+        if (readsPerQuestion()) {
+            aggregation = Aggregation.newAggregation(
+                    Aggregation.project()
+                            .and(ArrayOperators.Size.lengthOfArray(
+                                    ObjectOperators.ObjectToArray.valueOfToArray("approaches")))
+                            .as("count"),
+                    Aggregation.group().sum("count").as("total"));
+            collection = QuestionApproaches.class;
+        } else {
+            aggregation = Aggregation.newAggregation(
+                    Aggregation.group().sum("totalApproaches").as("total"));
+            collection = UserApproaches.class;
+        }
+
+        Document result = mongoTemplate.aggregate(aggregation, collection, Document.class).getUniqueMappedResult();
+        if (result == null || result.get("total") == null) {
+            return 0;
+        }
+        return ((Number) result.get("total")).longValue();
+    }
+
+    /**
+     * $project stage dropping fields of the unwound approach ({k, v} pair from $objectToArray)
+     */
+    private static AggregationOperation excludeApproachFields(List<String> fields) {
+        Document exclusions = new Document();
+        for (String field : fields) {
+            exclusions.append("approach.v." + field, 0);
+        }
+        return context -> new Document("$project", exclusions);
+    }
+
+    private QuestionApproaches readUsage(boolean perQuestion, String userId, String questionId) {
+        if (perQuestion) {
+            Query query = byId(userId, questionId);
+            query.fields().include("userId").include("userName").include("questionId")
+                    .include("usedBytes").include("storedCount").include("lastUpdated");
+            return mongoTemplate.findOne(query, QuestionApproaches.class);
+        }
+
+        Query query = new Query(Criteria.where("userId").is(userId));
+        query.fields().include("userId").include("userName").include("usage." + questionId).include("lastUpdated")
+                .include("questionIds");
+        UserApproaches legacy = mongoTemplate.findOne(query, UserApproaches.class);
+        if (legacy == null) {
+            return null;
+        }
+        QuestionApproaches view = slice(legacy, questionId);
+        if (view.getUsedBytes() == null && legacy.getQuestionIds() != null
+                && !legacy.getQuestionIds().contains(questionId)) {
+            // Nothing stored for the question yet (first submit): the counters are zero, there is nothing to recount
+            view.setUsedBytes(0);
+            view.setStoredCount(0);
+        }
+        return view;
+    }
+
+    /**
+     * Conditional write that must not lose its filter. No match means the quota is reached or the counters
+     * are missing (document not created yet, or written before the counters existed), so the counters are
+     * made exact and the write is tried once more. userName is only needed (non-null) for inserts.
+     */
+    private boolean applyGuarded(boolean perQuestion, String userId, String userName, String questionId,
+            Query guard, Update update) {
+        Class<?> entity = entity(perQuestion);
+        if (mongoTemplate.updateFirst(guard, update, entity).getMatchedCount() > 0) {
+            return true;
+        }
+        if (userName != null) {
+            mongoTemplate.upsert(baseQuery(perQuestion, userId, questionId),
+                    baseUpdate(perQuestion, userId, userName, questionId), entity);
+        }
+        recount(perQuestion, userId, questionId);
+        return mongoTemplate.updateFirst(guard, update, entity).getMatchedCount() > 0;
+    }
+
+    /**
+     * Unguarded write that keeps the counters right: $inc only where they exist. Without them the write goes
+     * through uncounted, and the next guarded write recomputes them.
+     */
+    private void applyCounted(boolean perQuestion, String questionId, Query query, Update counted,
+            Update uncounted, boolean upsert) {
+        Class<?> entity = entity(perQuestion);
+        Query withCounters = Query.of(query).addCriteria(Criteria.where(bytesPath(perQuestion, questionId)).exists(true));
+        if (mongoTemplate.updateFirst(withCounters, counted, entity).getMatchedCount() > 0) {
+            return;
+        }
+        if (upsert) {
+            mongoTemplate.upsert(query, uncounted, entity);
+        } else {
+            mongoTemplate.updateFirst(query, uncounted, entity);
+        }
+    }
+
+    private void recount(boolean perQuestion, String userId, String questionId) {
+        Query query = perQuestion
+                ? byId(userId, questionId)
+                : new Query(Criteria.where("userId").is(userId).and("approaches." + questionId).exists(true));
+        mongoTemplate.updateFirst(query, recountUpdate(perQuestion), entity(perQuestion));
+    }
+
+    /**
+     * Pipeline update recomputing the counters from the stored approaches. Legacy documents get the whole
+     * usage map (every question of the user) and totalApproaches rebuilt.
+     */
+    private static AggregationUpdate recountUpdate(boolean perQuestion) {
+        return AggregationUpdate.from(recountStages(perQuestion));
+    }
+
+    private static List<AggregationOperation> recountStages(boolean perQuestion) {
+        if (perQuestion) {
+            Document counters = usageOf("$approaches");
+            return List.of(context -> new Document("$set", counters));
+        }
+
+        Document perQuestionUsage = new Document("$map", new Document("input", entriesOf("$approaches"))
+                .append("as", "q")
+                .append("in", new Document("k", "$$q.k").append("v", usageOf("$$q.v"))));
+        Document usage = new Document("$arrayToObject", perQuestionUsage);
+        Document total = new Document("$sum", new Document("$map",
+                new Document("input", new Document("$objectToArray", "$usage"))
+                        .append("in", "$$this.v.storedCount")));
+        return List.of(
+                context -> new Document("$set", new Document("usage", usage)),
+                context -> new Document("$set", new Document("totalApproaches", total)));
+    }
+
+    /**
+     * {usedBytes, storedCount} expressions over an approachId -> approach map
+     */
+    private static Document usageOf(String approaches) {
+        Document entries = entriesOf(approaches);
+        Document bytes = new Document("$reduce", new Document("input", entries)
+                .append("initialValue", 0)
+                .append("in", new Document("$add", List.of("$$value",
+                        new Document("$ifNull", List.of("$$this.v.contentSize", 0))))));
+        return new Document("usedBytes", bytes).append("storedCount", new Document("$size", entries));
+    }
+
+    private static Document entriesOf(String map) {
+        return new Document("$objectToArray", new Document("$ifNull", List.of(map, new Document())));
+    }
+
+    /**
+     * Filter matching the document only while the question's usedBytes is at most maxUsedBytes. A legacy
+     * document without the question at all matches too (its counter starts at zero).
+     */
+    private static Query quotaGuard(boolean perQuestion, String userId, String questionId, int maxUsedBytes) {
+        if (perQuestion) {
+            return byId(userId, questionId).addCriteria(Criteria.where("usedBytes").lte(maxUsedBytes));
+        }
+        return new Query(Criteria.where("userId").is(userId).orOperator(
+                Criteria.where(bytesPath(false, questionId)).lte(maxUsedBytes),
+                Criteria.where("approaches." + questionId).exists(false)));
+    }
+
+    private static Query baseQuery(boolean perQuestion, String userId, String questionId) {
+        return perQuestion ? byId(userId, questionId) : new Query(Criteria.where("userId").is(userId));
+    }
+
+    private static Update baseUpdate(boolean perQuestion, String userId, String userName, String questionId) {
+        Update update = new Update()
+                .setOnInsert("userId", userId)
+                .setOnInsert("userName", userName);
+        if (perQuestion) {
+            update.setOnInsert("questionId", questionId)
+                    .setOnInsert("usedBytes", 0)
+                    .setOnInsert("storedCount", 0);
+        } else {
+            update.setOnInsert("totalApproaches", 0);
+        }
+        return update;
+    }
+
+    private static Query existingApproach(boolean perQuestion, String userId, String questionId, String approachId) {
+        return baseQuery(perQuestion, userId, questionId)
+                .addCriteria(Criteria.where(approachPath(perQuestion, questionId, approachId)).exists(true));
+    }
+
+    private static Update insertUpdate(boolean perQuestion, String userId, String userName, ApproachData approach,
+            LocalDateTime now, boolean counted) {
+        String questionId = approach.getQuestionId();
+        Update update = new Update()
+                .setOnInsert("userId", userId)
+                .setOnInsert("userName", userName)
+                .set(approachPath(perQuestion, questionId, approach.getId()), approach)
+                .set("lastUpdated", now);
+        if (perQuestion) {
+            update.setOnInsert("questionId", questionId);
+        } else {
+            update.inc("totalApproaches", 1).addToSet("questionIds", questionId);
+        }
+        if (counted) {
+            update.inc(bytesPath(perQuestion, questionId), approach.getContentSize())
+                    .inc(countPath(perQuestion, questionId), 1);
+        }
+        return update;
+    }
+
+    private static Update fieldsUpdate(boolean perQuestion, String questionId, String approachId,
+            Map<String, Object> fields, LocalDateTime now, Integer sizeDelta) {
+        String path = approachPath(perQuestion, questionId, approachId);
+        Update update = new Update().set(path + ".updatedAt", now).set("lastUpdated", now);
+        fields.forEach((field, value) -> update.set(path + "." + field, value));
+        if (sizeDelta != null) {
+            update.inc(bytesPath(perQuestion, questionId), sizeDelta);
+        }
+        return update;
+    }
+
+    private static Update deleteUpdate(boolean perQuestion, String questionId, String approachId, LocalDateTime now,
+            Integer contentSize) {
+        Update update = new Update()
+                .unset(approachPath(perQuestion, questionId, approachId))
+                .set("lastUpdated", now);
+        if (!perQuestion) {
+            update.inc("totalApproaches", -1);
+        }
+        if (contentSize != null) {
+            update.inc(bytesPath(perQuestion, questionId), -contentSize)
+                    .inc(countPath(perQuestion, questionId), -1);
+        }
+        return update;
+    }
+
+    private boolean writesBoth() {
+        return writesLegacy() && writesPerQuestion();
+    }
+
+    private static Class<?> entity(boolean perQuestion) {
+        return perQuestion ? QuestionApproaches.class : UserApproaches.class;
+    }
+
+    private static String approachPath(boolean perQuestion, String questionId, String approachId) {
+        return perQuestion ? "approaches." + approachId : legacyPath(questionId, approachId);
+    }
+
+    private static String bytesPath(boolean perQuestion, String questionId) {
+        return perQuestion ? "usedBytes" : "usage." + questionId + ".usedBytes";
+    }
+
+    private static String countPath(boolean perQuestion, String questionId) {
+        return perQuestion ? "storedCount" : "usage." + questionId + ".storedCount";
+    }
+
+    static String legacyPath(String questionId, String approachId) {
+        return "approaches." + questionId + "." + approachId;
+    }
+
+    private static Query byId(String userId, String questionId) {
+        return new Query(Criteria.where("_id").is(QuestionApproaches.idFor(userId, questionId)));
+    }
+
+    /**
+     * One question's slice of a legacy document
+     */
+    static QuestionApproaches slice(UserApproaches legacy, String questionId) {
+        QuestionApproaches view = new QuestionApproaches(legacy.getUserId(), legacy.getUserName(), questionId);
+        Map<String, ApproachData> approaches = legacy.getApproaches().get(questionId);
+        if (approaches != null) {
+            view.getApproaches().putAll(approaches);
+        }
+        UserApproaches.QuestionUsage usage = legacy.getUsage().get(questionId);
+        if (usage != null) {
+            view.setUsedBytes(usage.getUsedBytes());
+            view.setStoredCount(usage.getStoredCount());
+        }
+        view.setLastUpdated(legacy.getLastUpdated());
+        return view;
+    }
+}
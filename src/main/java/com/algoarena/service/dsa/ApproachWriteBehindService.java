@@ -0,0 +1,585 @@
+// src/main/java/com/algoarena/service/dsa/ApproachWriteBehindService.java
+package com.algoarena.service.dsa;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.model.QuestionApproaches;
+import com.algoarena.model.SubmissionTracking;
+import com.algoarena.model.UserApproaches;
+import com.algoarena.model.UserApproaches.ApproachData;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Write-behind persistence of the approaches created by submit mode (app.approach-write-behind.*).
+ * Submit only queues the approach; a scheduled flush writes everything queued with ordered bulk writes
+ * (ApproachStore.insertAll, then submission_tracking) instead of 4-5 round trips per submission on the
+ * request thread.
+ *
+ * - Quota: enqueue() only accepts an approach that fits the 20 KB per-question limit together with the stored
+ *   bytes (usedBytes counter, read by the caller) and everything the user still has queued for the question,
+ *   so an acknowledged approach is not dropped later. Only a write racing it from elsewhere (inline
+ *   createApproach on another instance) can still fill the question first; the flush then skips it (logged,
+ *   counted as rejected).
+ * - Durability: every queued approach is appended to the spool file (JSON lines) before enqueue() returns
+ *   (one that cannot be appended is written to Mongo synchronously instead); after each flush the file is
+ *   rewritten to what is still pending, and it is loaded again on startup.
+ *   Each instance needs its own spool file.
+ * - Read-your-writes: ApproachService and SubmissionTrackingService call flushUser() before reading or
+ *   changing a user's approaches. The queue is per instance, so this holds for requests served by the same
+ *   instance; other instances see a queued approach after the next flush (flush-interval).
+ * - Retry: a failed flush puts the batch back and backs off exponentially. Approach inserts are guarded by
+ *   "approach does not exist", so retrying a partly applied batch does not duplicate approaches or
+ *   totalApproaches, and heatmap submissions are only counted for approaches the flush actually stored.
+ */
+@Service
+public class ApproachWriteBehindService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApproachWriteBehindService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ApproachStore approachStore;
+    private final ObjectMapper objectMapper;
+    private final AppConfig.ApproachWriteBehind config;
+
+    // userId -> queued approaches, oldest user first; pending and inFlight are guarded by pending
+    private final Map<String, List<PendingApproach>> pending = new LinkedHashMap<>();
+    private int pendingCount;
+    private final Set<String> inFlight = new HashSet<>();
+
+    // Queued bytes per QuestionApproaches.idFor(user, question), from enqueue until written or rejected
+    private final Map<String, Integer> reservedBytes = new HashMap<>();
+
+    // One batch in flight at a time, so flushUser() can wait for a background flush holding its entries
+    private final Object flushLock = new Object();
+    // Appends and rewrites of the spool file; taken before "pending"
+    private final Object spoolLock = new Object();
+    private long retryDelay;
+    private long nextAttemptAt;
+
+    private final Counter written;
+    private final Counter rejected;
+    private final Counter dropped;
+    private final Counter failedFlushes;
+    private final Counter spoolFailures;
+    private final MeterRegistry meterRegistry;
+
+    public ApproachWriteBehindService(MongoTemplate mongoTemplate, ApproachStore approachStore,
+            ObjectMapper objectMapper, AppConfig appConfig, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.approachStore = approachStore;
+        this.objectMapper = objectMapper;
+        this.config = appConfig.getApproachWriteBehind();
+
+        this.written = Counter.builder("approach.write.behind").tag("result", "written").register(meterRegistry);
+        this.rejected = Counter.builder("approach.write.behind").tag("result", "rejected").register(meterRegistry);
+        this.dropped = Counter.builder("approach.write.behind").tag("result", "dropped").register(meterRegistry);
+        this.failedFlushes = Counter.builder("approach.write.behind.flush.failures").register(meterRegistry);
+        this.spoolFailures = Counter.builder("approach.write.behind.spool.failures").register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * The pending gauge reads this service, so it is registered once the service is fully constructed
+     */
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("approach.write.behind.pending", this, ApproachWriteBehindService::pendingCount)
+                .description("Approaches waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadSpool() {
+        Path spool = spoolPath();
+        if (!Files.exists(spool)) {
+            return;
+        }
+        try {
+            List<PendingApproach> spooled = new ArrayList<>();
+            String content = Files.readString(spool, StandardCharsets.UTF_8).trim();
+            if (content.startsWith("[")) {
+                // Spool written by a version that only spooled on failure (one JSON array)
+                spooled.addAll(objectMapper.readValue(content, new TypeReference<List<PendingApproach>>() {
+                }));
+            } else {
+                for (String line : content.split("\n")) {
+                    if (!line.isBlank()) {
+                        spooled.add(objectMapper.readValue(line, PendingApproach.class));
+                    }
+                }
+            }
+            requeue(spooled);
+            synchronized (pending) {
+                spooled.forEach(entry -> reserve(entry, entry.getApproach().getContentSize()));
+            }
+            logger.info("Loaded {} spooled approach writes from {}", spooled.size(), spool);
+        } catch (IOException e) {
+            logger.error("Could not read approach spool {}: {}", spool, e.getMessage());
+        }
+    }
+
+    /**
+     * Queue a submitted approach (written directly when write-behind is disabled, or when it cannot be
+     * spooled). storedBytes is the question's usedBytes counter; false when the approach does not fit next
+     * to it and the user's queued approaches. Throws when the queue is full, or when the approach could
+     * neither be spooled nor written, so an approach is never acknowledged without being durable.
+     */
+    public boolean enqueue(String userId, String userName, ApproachData approach, int storedBytes) {
+        PendingApproach entry = new PendingApproach(userId, userName, approach, LocalDate.now(ZoneOffset.UTC));
+        int size = approach.getContentSize();
+        if (!config.isEnabled()) {
+            if (storedBytes + size > UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES) {
+                return false;
+            }
+            synchronized (flushLock) {
+                write(List.of(entry));
+            }
+            return true;
+        }
+
+        // Spooled before it is queued (both under spoolLock, so no rewrite runs in between)
+        synchronized (spoolLock) {
+            synchronized (pending) {
+                if (pendingCount >= config.getMaxPending()) {
+                    dropped.increment();
+                    logger.error("Approach write-behind queue full ({}), not accepting approach {} of user {}",
+                            pendingCount, approach.getId(), userId);
+                    throw new RuntimeException("Too many approaches waiting to be saved. Please try again later.");
+                }
+                String key = QuestionApproaches.idFor(userId, approach.getQuestionId());
+                if (storedBytes + reservedBytes.getOrDefault(key, 0) + size
+                        > UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES) {
+                    return false;
+                }
+            }
+            if (appendSpool(entry)) {
+                synchronized (pending) {
+                    reserve(entry, size);
+                    pending.computeIfAbsent(userId, k -> new ArrayList<>()).add(entry);
+                    pendingCount++;
+                }
+                return true;
+            }
+        }
+
+        // Not durable in the spool: write it now instead (a Mongo failure here reaches the caller).
+        // Outside spoolLock, which a flush takes while holding flushLock.
+        synchronized (flushLock) {
+            write(List.of(entry));
+        }
+        return true;
+    }
+
+    /**
+     * Bytes of approaches the user has queued for the question and not written yet
+     */
+    public int reservedBytes(String userId, String questionId) {
+        synchronized (pending) {
+            return reservedBytes.getOrDefault(QuestionApproaches.idFor(userId, questionId), 0);
+        }
+    }
+
+    /**
+     * Write the user's queued approaches now (read-your-writes); waits for a flush already writing them.
+     * A failure leaves them queued for the background retry.
+     */
+    public void flushUser(String userId) {
+        synchronized (pending) {
+            if (!pending.containsKey(userId) && !inFlight.contains(userId)) {
+                return;
+            }
+        }
+        synchronized (flushLock) {
+            List<PendingApproach> batch;
+            synchronized (pending) {
+                batch = pending.remove(userId);
+                if (batch == null) {
+                    return;
+                }
+                pendingCount -= batch.size();
+                inFlight.add(userId);
+            }
+            writeOrRequeue(batch);
+        }
+    }
+
+    /**
+     * Write everything queued (used before admin operations spanning all users)
+     */
+    public void flushAll() {
+        synchronized (flushLock) {
+            List<PendingApproach> batch;
+            while (!(batch = takeBatch(Integer.MAX_VALUE)).isEmpty()) {
+                if (!writeOrRequeue(batch)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.approach-write-behind.flush-interval:500}")
+    public void flush() {
+        synchronized (flushLock) {
+            if (System.currentTimeMillis() < nextAttemptAt) {
+                return;
+            }
+            List<PendingApproach> batch = takeBatch(config.getMaxBatchSize());
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (writeOrRequeue(batch)) {
+                retryDelay = 0;
+                nextAttemptAt = 0;
+            } else {
+                retryDelay = retryDelay == 0
+                        ? config.getRetryInitialDelay()
+                        : Math.min(retryDelay * 2, config.getRetryMaxDelay());
+                nextAttemptAt = System.currentTimeMillis() + retryDelay;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (flushLock) {
+            List<PendingApproach> batch = takeBatch(Integer.MAX_VALUE);
+            if (!batch.isEmpty() && !writeOrRequeue(batch)) {
+                logger.warn("Mongo unavailable at shutdown, {} approach writes left in {}", pendingCount(),
+                        spoolPath());
+            }
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (pending) {
+            return pendingCount;
+        }
+    }
+
+    private boolean writeOrRequeue(List<PendingApproach> batch) {
+        try {
+            write(batch);
+            synchronized (pending) {
+                batch.forEach(entry -> reserve(entry, -entry.getApproach().getContentSize()));
+            }
+            return true;
+        } catch (DataAccessException e) {
+            failedFlushes.increment();
+            logger.warn("Approach write-behind flush of {} entries failed, will retry: {}", batch.size(),
+                    e.getMessage());
+            requeue(batch);
+            return false;
+        } finally {
+            synchronized (pending) {
+                inFlight.clear();
+            }
+            rewriteSpool();
+        }
+    }
+
+    /**
+     * Adjust the queued bytes of the entry's question; caller holds "pending"
+     */
+    private void reserve(PendingApproach entry, int delta) {
+        String key = QuestionApproaches.idFor(entry.getUserId(), entry.getApproach().getQuestionId());
+        reservedBytes.compute(key, (k, current) -> {
+            int bytes = (current != null ? current : 0) + delta;
+            return bytes > 0 ? bytes : null;
+        });
+    }
+
+    /**
+     * Whole users, oldest first, until at least max entries are taken
+     */
+    private List<PendingApproach> takeBatch(int max) {
+        List<PendingApproach> batch = new ArrayList<>();
+        synchronized (pending) {
+            Iterator<List<PendingApproach>> users = pending.values().iterator();
+            while (users.hasNext() && batch.size() < max) {
+                List<PendingApproach> entries = users.next();
+                batch.addAll(entries);
+                inFlight.add(entries.get(0).getUserId());
+                users.remove();
+            }
+            pendingCount -= batch.size();
+        }
+        return batch;
+    }
+
+    /**
+     * Put a failed batch back in front of anything the same users queued since
+     */
+    private void requeue(List<PendingApproach> batch) {
+        Map<String, List<PendingApproach>> byUser = new LinkedHashMap<>();
+        for (PendingApproach entry : batch) {
+            byUser.computeIfAbsent(entry.getUserId(), k -> new ArrayList<>()).add(entry);
+        }
+        synchronized (pending) {
+            for (Map.Entry<String, List<PendingApproach>> user : byUser.entrySet()) {
+                List<PendingApproach> newer = pending.remove(user.getKey());
+                List<PendingApproach> merged = user.getValue();
+                if (newer != null) {
+                    merged.addAll(newer);
+                    pendingCount -= newer.size();
+                }
+                pending.put(user.getKey(), merged);
+                pendingCount += merged.size();
+            }
+        }
+    }
+
+    private void write(List<PendingApproach> batch) {
+        Set<String> userIds = new LinkedHashSet<>();
+        Set<String> questionIds = new LinkedHashSet<>();
+        for (PendingApproach entry : batch) {
+            userIds.add(entry.getUserId());
+            questionIds.add(entry.getApproach().getQuestionId());
+        }
+
+        // Current approaches of the affected users, only for the questions in this batch
+        Map<String, QuestionApproaches> existing = approachStore.findAll(userIds, questionIds);
+
+        List<PendingApproach> accepted = new ArrayList<>();
+        Set<String> alreadyWrittenIds = new HashSet<>();
+        Map<String, Integer> usedBytes = new HashMap<>();
+        Map<String, Map<LocalDate, Integer>> submissions = new LinkedHashMap<>();
+        int newApproaches = 0;
+        int rejectedCount = 0;
+
+        for (PendingApproach entry : batch) {
+            String userId = entry.getUserId();
+            ApproachData approach = entry.getApproach();
+            String questionId = approach.getQuestionId();
+            String key = QuestionApproaches.idFor(userId, questionId);
+            QuestionApproaches doc = existing.get(key);
+
+            // Written by an earlier, partly applied attempt: still sent (the insert is guarded, and the
+            // other layout may be missing it) but not counted against the size limit again
+            boolean alreadyWritten = doc != null && doc.findApproachById(approach.getId()) != null;
+            if (alreadyWritten) {
+                alreadyWrittenIds.add(approach.getId());
+            } else {
+                int used = usedBytes.computeIfAbsent(key, k -> doc != null ? doc.getTotalSize() : 0);
+                if (used + approach.getContentSize() > UserApproaches.MAX_COMBINED_SIZE_PER_QUESTION_BYTES) {
+                    rejectedCount++;
+                    logger.info("Approach {} of user {} not saved: combined size limit for question {} exceeded",
+                            approach.getId(), userId, questionId);
+                    continue;
+                }
+                usedBytes.put(key, used + approach.getContentSize());
+            }
+            accepted.add(entry);
+        }
+
+        // The store re-checks the quota on its counters per insert, so a concurrent createApproach that
+        // filled the question in the meantime still wins (that approach is then skipped, not overfilled)
+        Set<String> stored = accepted.isEmpty() ? Set.of() : approachStore.insertAll(accepted);
+
+        for (PendingApproach entry : accepted) {
+            String approachId = entry.getApproach().getId();
+            if (!stored.contains(approachId)) {
+                rejectedCount++;
+                logger.info("Approach {} of user {} not saved: question {} was filled concurrently",
+                        approachId, entry.getUserId(), entry.getApproach().getQuestionId());
+                continue;
+            }
+            if (!alreadyWrittenIds.contains(approachId)) {
+                entry.setInserted(true);
+                newApproaches++;
+            }
+            // Counted once: entries stored by an earlier attempt whose heatmap write failed still carry
+            // inserted=true, while a replay of an already written entry (crash before the spool rewrite) does not
+            if (entry.isInserted()) {
+                submissions.computeIfAbsent(entry.getUserId(), k -> new LinkedHashMap<>())
+                        .merge(entry.getSubmittedOn(), 1, Integer::sum);
+            }
+        }
+
+        if (!submissions.isEmpty()) {
+            recordSubmissions(submissions);
+        }
+
+        written.increment(newApproaches);
+        rejected.increment(rejectedCount);
+    }
+
+    /**
+     * Heatmap counts, same document shape as SubmissionTrackingService.recordSubmission (oldest day first)
+     */
+    private void recordSubmissions(Map<String, Map<LocalDate, Integer>> submissions) {
+        BulkOperations trackingOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED,
+                SubmissionTracking.class);
+
+        for (Map.Entry<String, Map<LocalDate, Integer>> user : submissions.entrySet()) {
+            String userId = user.getKey();
+            trackingOps.upsert(new Query(Criteria.where("userId").is(userId)),
+                    new Update().setOnInsert("submissionHistory", new ArrayList<>()));
+
+            for (Map.Entry<LocalDate, Integer> day : user.getValue().entrySet()) {
+                trackingOps.updateOne(
+                        new Query(Criteria.where("userId").is(userId).and("submissionHistory.date").ne(day.getKey())),
+                        new Update().push("submissionHistory", new SubmissionTracking.DailySubmission(day.getKey(), 0)));
+                trackingOps.updateOne(
+                        new Query(Criteria.where("userId").is(userId)
+                                .and("submissionHistory").elemMatch(Criteria.where("date").is(day.getKey()))),
+                        new Update().inc("submissionHistory.$.count", day.getValue()));
+            }
+        }
+        trackingOps.execute();
+    }
+
+    private Path spoolPath() {
+        String file = config.getSpoolFile();
+        if (file == null || file.isBlank()) {
+            return Paths.get(System.getProperty("java.io.tmpdir"), "algoarena-approach-spool.json");
+        }
+        return Paths.get(file);
+    }
+
+    /**
+     * Append one approach to the spool; false when it could not be written. Caller holds spoolLock.
+     */
+    private boolean appendSpool(PendingApproach entry) {
+        Path spool = spoolPath();
+        try (BufferedWriter writer = Files.newBufferedWriter(spool, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(entry));
+            writer.write('\n');
+            return true;
+        } catch (IOException e) {
+            spoolFailures.increment();
+            logger.error("Could not spool approach {} of user {} to {}, writing it synchronously: {}",
+                    entry.getApproach().getId(), entry.getUserId(), spool, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Replace the spool with what is still pending (deleted when nothing is)
+     */
+    private void rewriteSpool() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        synchronized (spoolLock) {
+            List<PendingApproach> snapshot = new ArrayList<>();
+            synchronized (pending) {
+                pending.values().forEach(snapshot::addAll);
+            }
+            Path spool = spoolPath();
+            try {
+                if (snapshot.isEmpty()) {
+                    Files.deleteIfExists(spool);
+                    return;
+                }
+                Path temp = spool.resolveSibling(spool.getFileName() + ".tmp");
+                try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    for (PendingApproach entry : snapshot) {
+                        writer.write(objectMapper.writeValueAsString(entry));
+                        writer.write('\n');
+                    }
+                }
+                Files.move(temp, spool, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                logger.error("Could not rewrite approach spool {} ({} pending): {}", spool, snapshot.size(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * One queued approach (also the spool file format)
+     */
+    public static class PendingApproach {
+        private String userId;
+        private String userName;
+        private ApproachData approach;
+        private LocalDate submittedOn;
+        private boolean inserted; // stored by an earlier flush attempt whose heatmap write did not complete
+
+        public PendingApproach() {
+        }
+
+        public PendingApproach(String userId, String userName, ApproachData approach, LocalDate submittedOn) {
+            this.userId = userId;
+            this.userName = userName;
+            this.approach = approach;
+            this.submittedOn = submittedOn;
+        }
+
+        public String getUserId() {
+            return userId;
+        }
+
+        public void setUserId(String userId) {
+            this.userId = userId;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public ApproachData getApproach() {
+            return approach;
+        }
+
+        public void setApproach(ApproachData approach) {
+            this.approach = approach;
+        }
+
+        public LocalDate getSubmittedOn() {
+            return submittedOn;
+        }
+
+        public void setSubmittedOn(LocalDate submittedOn) {
+            this.submittedOn = submittedOn;
+        }
+
+        public boolean isInserted() {
+            return inserted;
+        }
+
+        public void setInserted(boolean inserted) {
+            this.inserted = inserted;
+        }
+    }
+}
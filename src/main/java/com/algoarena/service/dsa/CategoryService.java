@@ -10,6 +10,9 @@ import com.algoarena.model.User;
 import com.algoarena.repository.CategoryRepository;
 import com.algoarena.repository.QuestionRepository;
 import com.algoarena.repository.SolutionRepository;
+import com.algoarena.service.compiler.QuestionExecutionContextCache;
+import com.algoarena.service.compiler.local.JavaHarnessCompiler;
+import com.algoarena.service.compiler.template.CompiledTemplateCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
@@ -38,6 +41,15 @@ public class CategoryService {
     @Autowired
     private ApproachService approachService;
 
+    @Autowired
+    private QuestionExecutionContextCache questionExecutionContextCache;
+
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
+    @Autowired
+    private JavaHarnessCompiler javaHarnessCompiler;
+
     /**
      * GET /api/categories
      * Returns Map<String, CategoryDTO> with category name as key
@@ -200,18 +212,24 @@ public class CategoryService {
                 .toList();
 
         if (!questionIds.isEmpty()) {
-            // Delete solutions for all questions
-            for (String questionId : questionIds) {
-                solutionRepository.deleteByQuestionId(questionId);
-                approachService.deleteAllApproachesForQuestion(questionId);
-            }
+            // Delete solutions and approaches for all questions (one round-trip each, not one per question)
+            solutionRepository.deleteByQuestionIdIn(questionIds);
+            approachService.deleteAllApproachesForQuestions(questionIds);
 
             // Remove questions from user progress
             // int removedFromUsers = userProgressService.removeQuestionsFromAllUsers(questionIds);
             // System.out.println("✓ Removed " + removedFromUsers + " question entries from users' progress");
 
             // Delete all questions
-            questionRepository.deleteAll(questions);
+            questionRepository.deleteAllById(questionIds);
+
+            // Drop execution contexts, compiled templates and harnesses, as QuestionService.deleteQuestion does,
+            // so deleted questions stop being runnable/submittable right away
+            for (String questionId : questionIds) {
+                questionExecutionContextCache.evict(questionId);
+                compiledTemplateCache.evictQuestion(questionId);
+                javaHarnessCompiler.evict(questionId + ":");
+            }
         }
 
         // Delete category
@@ -18,6 +18,9 @@ import com.algoarena.model.User;
 import com.algoarena.repository.QuestionRepository;
 import com.algoarena.repository.CategoryRepository;
 import com.algoarena.repository.SolutionRepository;
+import com.algoarena.service.compiler.QuestionExecutionContextCache;
+import com.algoarena.service.compiler.local.JavaHarnessCompiler;
+import com.algoarena.service.compiler.template.CompiledTemplateCache;
 import com.algoarena.service.file.CloudinaryService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -59,6 +62,15 @@ public class QuestionService {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private CompiledTemplateCache compiledTemplateCache;
+
+    @Autowired
+    private JavaHarnessCompiler javaHarnessCompiler;
+
+    @Autowired
+    private QuestionExecutionContextCache questionExecutionContextCache;
+
     @CacheEvict(value = { "globalCategories", "adminQuestionsSummary", "questionsMetadata" }, allEntries = true)
     @Transactional
     public QuestionDTO createQuestion(QuestionDTO questionDTO, User currentUser) {
@@ -79,6 +91,7 @@ public class QuestionService {
         question.setUserStarterCode(questionDTO.getUserStarterCode());
         question.setSubmitTemplate(questionDTO.getSubmitTemplate());
         question.setRunTemplate(questionDTO.getRunTemplate());
+        question.setSubmitFullRun(questionDTO.getSubmitFullRun());
 
         // ✅ NEW FIELDS
         question.setTopicTag(questionDTO.getTopicTag());
@@ -159,6 +172,7 @@ public class QuestionService {
         question.setUserStarterCode(questionDTO.getUserStarterCode());
         question.setSubmitTemplate(questionDTO.getSubmitTemplate());
         question.setRunTemplate(questionDTO.getRunTemplate());
+        question.setSubmitFullRun(questionDTO.getSubmitFullRun());
 
         // ✅ NEW FIELDS
         question.setTopicTag(questionDTO.getTopicTag());
@@ -198,6 +212,7 @@ public class QuestionService {
         question.setUpdatedAt(LocalDateTime.now());
 
         Question updatedQuestion = questionRepository.save(question);
+        questionExecutionContextCache.evict(id);
 
         return QuestionDTO.fromEntity(updatedQuestion);
     }
@@ -239,6 +254,12 @@ public class QuestionService {
 
         // STEP 5: Delete question from database
         questionRepository.deleteById(id);
+
+        // STEP 6: Drop the execution context, compiled templates and harnesses
+        // (for updates the version in the template/harness keys is enough)
+        questionExecutionContextCache.evict(id);
+        compiledTemplateCache.evictQuestion(id);
+        javaHarnessCompiler.evict(id + ":");
     }
 
     private String extractPublicIdFromUrl(String imageUrl) {
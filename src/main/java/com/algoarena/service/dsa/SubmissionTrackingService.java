@@ -24,6 +24,9 @@ public class SubmissionTrackingService {
     @Autowired
     private SubmissionTrackingRepository submissionTrackingRepository;
 
+    @Autowired
+    private ApproachWriteBehindService approachWriteBehindService;
+
     /**
      * ✅ Thread-safe submission tracking using MongoDB atomic operations
      * Stores submissions in OLD→NEW order (oldest at index 0, newest at end)
@@ -59,6 +62,9 @@ public class SubmissionTrackingService {
      * Get complete submission history for a user
      */
     public SubmissionHistoryDTO getUserSubmissionHistory(String userId) {
+        // Submissions still queued in the write-behind count for today
+        approachWriteBehindService.flushUser(userId);
+
         SubmissionTracking tracking = submissionTrackingRepository.findByUserId(userId)
                 .orElse(null);
         
@@ -0,0 +1,286 @@
+// src/main/java/com/algoarena/service/migration/ApproachStorageMigrationService.java
+package com.algoarena.service.migration;
+
+import com.algoarena.model.QuestionApproaches;
+import com.algoarena.model.UserApproaches;
+import com.algoarena.model.UserApproaches.ApproachData;
+import com.algoarena.service.dsa.ApproachStore;
+import com.mongodb.bulk.BulkWriteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Online move of approaches from user_approaches (one document per user) to question_approaches
+ * (one document per user + question). Order of operations:
+ * 1. deploy with app.approach-storage.mode=dual-write (new writes go to both layouts)
+ * 2. POST migrate (copies everything older; safe to re-run)
+ * 3. GET verify until it reports no mismatches
+ * 4. switch to dual-write-read-new, then per-question once nothing needs rolling back
+ */
+@Service
+public class ApproachStorageMigrationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApproachStorageMigrationService.class);
+
+    private static final int MAX_REPORTED_ISSUES = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ApproachStore approachStore;
+
+    /**
+     * ✅ Copy every user's approaches into per-question documents.
+     * Approaches already in question_approaches (dual-written or copied by an earlier run) are left as they
+     * are, so the copy never overwrites a newer edit. Users are streamed one document at a time.
+     */
+    public Map<String, Object> migrate() {
+        Map<String, Object> result = new HashMap<>();
+
+        if (!approachStore.writesPerQuestion()) {
+            result.put("success", false);
+            result.put("error", "app.approach-storage.mode is '" + approachStore.getMode()
+                    + "'; switch to dual-write first so approaches written during the copy reach both layouts");
+            return result;
+        }
+
+        int totalUsers = 0;
+        int failedUsers = 0;
+        int questionDocuments = 0;
+        long copiedApproaches = 0;
+        List<String> errors = new ArrayList<>();
+
+        logger.info("Starting approach storage migration (user_approaches -> question_approaches)");
+
+        try (Stream<UserApproaches> users = mongoTemplate.stream(new Query(), UserApproaches.class)) {
+            Iterator<UserApproaches> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserApproaches user = iterator.next();
+                totalUsers++;
+                try {
+                    BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED,
+                            QuestionApproaches.class);
+                    int operations = 0;
+
+                    for (Map.Entry<String, Map<String, ApproachData>> question : user.getApproaches().entrySet()) {
+                        if (question.getValue() == null || question.getValue().isEmpty()) {
+                            continue;
+                        }
+                        String questionId = question.getKey();
+                        Query byId = new Query(Criteria.where("_id")
+                                .is(QuestionApproaches.idFor(user.getUserId(), questionId)));
+
+                        ops.upsert(byId, new Update()
+                                .setOnInsert("userId", user.getUserId())
+                                .setOnInsert("userName", user.getUserName())
+                                .setOnInsert("questionId", questionId)
+                                .setOnInsert("lastUpdated", user.getLastUpdated()));
+                        operations++;
+                        questionDocuments++;
+
+                        for (ApproachData approach : question.getValue().values()) {
+                            String path = "approaches." + approach.getId();
+                            ops.updateOne(Query.of(byId).addCriteria(Criteria.where(path).exists(false)),
+                                    new Update().set(path, approach));
+                            operations++;
+                        }
+                    }
+
+                    if (operations > 0) {
+                        BulkWriteResult written = ops.execute();
+                        copiedApproaches += written.getModifiedCount();
+                    }
+                } catch (Exception e) {
+                    failedUsers++;
+                    String error = String.format("Failed to migrate user %s: %s", user.getUserId(), e.getMessage());
+                    logger.error(error);
+                    if (errors.size() < MAX_REPORTED_ISSUES) {
+                        errors.add(error);
+                    }
+                }
+            }
+
+            // Copied approaches bypass the usedBytes/storedCount counters, so rebuild them
+            long recountedDocuments = approachStore.recountPerQuestionDocuments();
+
+            result.put("success", true);
+            result.put("mode", approachStore.getMode());
+            result.put("totalUsers", totalUsers);
+            result.put("failedUsers", failedUsers);
+            result.put("recountedDocuments", recountedDocuments);
+            result.put("questionDocuments", questionDocuments);
+            result.put("copiedApproaches", copiedApproaches);
+            result.put("errors", errors);
+            result.put("message", String.format(
+                    "Migration completed: %d approaches copied into %d question documents for %d users (%d failed)",
+                    copiedApproaches, questionDocuments, totalUsers, failedUsers));
+
+            logger.info("Approach storage migration: {} users, {} question documents, {} approaches copied, {} failed",
+                    totalUsers, questionDocuments, copiedApproaches, failedUsers);
+
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("error", "Migration failed: " + e.getMessage());
+            logger.error("Approach storage migration failed: {}", e.getMessage(), e);
+        }
+
+        return result;
+    }
+
+    /**
+     * ✅ Compare both layouts: same approach ids per (user, question), same content size per approach,
+     * and no per-question documents for users without legacy approaches
+     */
+    public Map<String, Object> verifyMigration() {
+        Map<String, Object> result = new HashMap<>();
+        List<String> issues = new ArrayList<>();
+
+        int totalUsers = 0;
+        int checkedQuestions = 0;
+        int mismatchedQuestions = 0;
+        long legacyApproaches = 0;
+        Set<String> legacyUsers = new HashSet<>();
+
+        try (Stream<UserApproaches> users = mongoTemplate.stream(new Query(), UserApproaches.class)) {
+            Iterator<UserApproaches> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                UserApproaches user = iterator.next();
+                totalUsers++;
+                legacyUsers.add(user.getUserId());
+
+                Map<String, QuestionApproaches> migrated = new HashMap<>();
+                for (QuestionApproaches doc : mongoTemplate.find(
+                        new Query(Criteria.where("userId").is(user.getUserId())), QuestionApproaches.class)) {
+                    migrated.put(doc.getQuestionId(), doc);
+                }
+
+                Set<String> questionIds = new HashSet<>(migrated.keySet());
+                questionIds.addAll(user.getApproaches().keySet());
+
+                for (String questionId : questionIds) {
+                    Map<String, ApproachData> expected = user.getApproaches().getOrDefault(questionId, Map.of());
+                    QuestionApproaches doc = migrated.get(questionId);
+                    Map<String, ApproachData> actual = doc != null ? doc.getApproaches() : Map.of();
+                    if (expected.isEmpty() && actual.isEmpty()) {
+                        continue;
+                    }
+                    checkedQuestions++;
+                    legacyApproaches += expected.size();
+
+                    String issue = compare(expected, actual);
+                    if (issue != null) {
+                        mismatchedQuestions++;
+                        if (issues.size() < MAX_REPORTED_ISSUES) {
+                            issues.add(String.format("User %s, question %s: %s", user.getUserId(), questionId, issue));
+                        }
+                    }
+                }
+            }
+
+            List<String> migratedUsers = mongoTemplate.findDistinct(new Query(), "userId",
+                    QuestionApproaches.class, String.class);
+            int orphanUsers = 0;
+            for (String userId : migratedUsers) {
+                if (!legacyUsers.contains(userId)) {
+                    orphanUsers++;
+                    if (issues.size() < MAX_REPORTED_ISSUES) {
+                        issues.add(String.format("User %s has question_approaches but no user_approaches document",
+                                userId));
+                    }
+                }
+            }
+
+            boolean complete = mismatchedQuestions == 0 && orphanUsers == 0;
+            result.put("success", true);
+            result.put("mode", approachStore.getMode());
+            result.put("totalUsers", totalUsers);
+            result.put("checkedQuestions", checkedQuestions);
+            result.put("legacyApproaches", legacyApproaches);
+            result.put("mismatchedQuestions", mismatchedQuestions);
+            result.put("orphanUsers", orphanUsers);
+            result.put("issues", issues);
+            result.put("migrationComplete", complete);
+            result.put("message", complete
+                    ? "✅ Migration verified: both layouts hold the same approaches"
+                    : String.format("⚠️ %d (user, question) pairs differ, %d users only in question_approaches",
+                            mismatchedQuestions, orphanUsers));
+
+            logger.info("Approach storage verification: {} users, {} questions checked, {} mismatched, {} orphan users",
+                    totalUsers, checkedQuestions, mismatchedQuestions, orphanUsers);
+
+        } catch (Exception e) {
+            result.put("success", false);
+            result.put("error", "Verification failed: " + e.getMessage());
+            logger.error("Approach storage verification failed: {}", e.getMessage(), e);
+        }
+
+        return result;
+    }
+
+    /**
+     * ✅ Document counts of both layouts and the active mode
+     */
+    public Map<String, Object> getMigrationStats() {
+        Map<String, Object> stats = new HashMap<>();
+
+        try {
+            stats.put("success", true);
+            stats.put("mode", approachStore.getMode());
+            stats.put("readsPerQuestion", approachStore.readsPerQuestion());
+            stats.put("writesLegacy", approachStore.writesLegacy());
+            stats.put("writesPerQuestion", approachStore.writesPerQuestion());
+            stats.put("userApproachesDocuments", mongoTemplate.count(new Query(), UserApproaches.class));
+            stats.put("questionApproachesDocuments", mongoTemplate.count(new Query(), QuestionApproaches.class));
+        } catch (Exception e) {
+            stats.put("success", false);
+            stats.put("error", "Failed to get stats: " + e.getMessage());
+        }
+
+        return stats;
+    }
+
+    /**
+     * Description of the difference between the two copies of one question's approaches, or null
+     */
+    private String compare(Map<String, ApproachData> expected, Map<String, ApproachData> actual) {
+        List<String> missing = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, ApproachData> entry : expected.entrySet()) {
+            ApproachData copy = actual.get(entry.getKey());
+            if (copy == null) {
+                missing.add(entry.getKey());
+            } else if (copy.getContentSize() != entry.getValue().getContentSize()
+                    || copy.getStatus() != entry.getValue().getStatus()) {
+                changed.add(entry.getKey());
+            }
+        }
+        List<String> extra = new ArrayList<>();
+        for (String approachId : actual.keySet()) {
+            if (!expected.containsKey(approachId)) {
+                extra.add(approachId);
+            }
+        }
+
+        if (missing.isEmpty() && changed.isEmpty() && extra.isEmpty()) {
+            return null;
+        }
+        return String.format("missing %s, different %s, extra %s", missing, changed, extra);
+    }
+}
@@ -0,0 +1,219 @@
+// src/test/java/com/algoarena/service/compiler/PistonEndpointSelectorTest.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.support.StubHttpServer;
+import com.algoarena.support.StubHttpServer.Reply;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Node selection and passive ejection, driven through PistonService against loopback Piston stubs.
+ */
+class PistonEndpointSelectorTest {
+
+    private static final String OK = "{\"language\":\"python\",\"version\":\"3.10.0\","
+            + "\"run\":{\"stdout\":\"ok\",\"stderr\":\"\",\"code\":0,\"signal\":null,\"output\":\"ok\"}}";
+
+    private final List<StubHttpServer> servers = new ArrayList<>();
+    private PistonEndpointSelector selector;
+
+    @AfterEach
+    void stopServers() {
+        servers.forEach(StubHttpServer::close);
+    }
+
+    @Test
+    void spreadsConcurrentRequestsAcrossNodes() throws Exception {
+        StubHttpServer a = node(Reply.json(200, OK).after(150));
+        StubHttpServer b = node(Reply.json(200, OK).after(150));
+        PistonService piston = pistonService(3, 30_000, a, b);
+
+        runConcurrently(piston, 16);
+
+        assertEquals(16, a.hits("/execute") + b.hits("/execute"));
+        assertTrue(a.hits("/execute") >= 4, "node a got " + a.hits("/execute"));
+        assertTrue(b.hits("/execute") >= 4, "node b got " + b.hits("/execute"));
+    }
+
+    @Test
+    void slowNodeReceivesFewerRequests() throws Exception {
+        StubHttpServer fast = node(Reply.json(200, OK).after(20));
+        StubHttpServer slow = node(Reply.json(200, OK).after(1_000));
+        PistonService piston = pistonService(3, 30_000, fast, slow);
+
+        // Calls spaced out: each one finds the fast node done with the previous call while the slow node's
+        // requests pile up, so the node with fewer outstanding requests is nearly always the fast one
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            futures.add(piston.executeCodeFuture(request()));
+            Thread.sleep(100);
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+        assertTrue(fast.hits("/execute") > 2 * slow.hits("/execute"),
+                "fast " + fast.hits("/execute") + " vs slow " + slow.hits("/execute"));
+    }
+
+    @Test
+    void ejectsFailingNodeAfterThreshold() {
+        StubHttpServer healthy = node(Reply.json(200, OK));
+        StubHttpServer failing = node(Reply.json(500, "{\"message\":\"boom\"}"));
+        PistonService piston = pistonService(3, 30_000, healthy, failing);
+
+        int failures = 0;
+        for (int i = 0; i < 40; i++) {
+            try {
+                piston.executeCode(request());
+            } catch (RuntimeException e) {
+                failures++;
+            }
+        }
+
+        assertEquals(3, failing.hits("/execute"));
+        assertEquals(3, failures);
+        Map<String, Object> status = statusOf(failing);
+        assertEquals(false, status.get("healthy"));
+        assertEquals(3, status.get("consecutiveFailures"));
+        assertEquals(true, statusOf(healthy).get("healthy"));
+    }
+
+    @Test
+    void ejectedNodeReturnsAfterEjectDuration() throws Exception {
+        StubHttpServer healthy = node(Reply.json(200, OK));
+        AtomicBoolean broken = new AtomicBoolean(true);
+        StubHttpServer flaky = StubHttpServer.start()
+                .on("/execute", body -> broken.get() ? Reply.json(503, "{}") : Reply.json(200, OK));
+        servers.add(flaky);
+        PistonService piston = pistonService(2, 200, healthy, flaky);
+
+        for (int i = 0; i < 40 && flaky.hits("/execute") < 2; i++) {
+            try {
+                piston.executeCode(request());
+            } catch (RuntimeException expected) {
+                // 503 from the flaky node
+            }
+        }
+        assertEquals(false, statusOf(flaky).get("healthy"));
+
+        broken.set(false);
+        Thread.sleep(300);
+        assertEquals(true, statusOf(flaky).get("healthy"));
+        for (int i = 0; i < 40 && flaky.hits("/execute") == 2; i++) {
+            piston.executeCode(request());
+        }
+
+        assertTrue(flaky.hits("/execute") > 2);
+        assertEquals(0, statusOf(flaky).get("consecutiveFailures"));
+    }
+
+    @Test
+    void failsOpenWhenEveryNodeIsEjected() {
+        StubHttpServer a = node(Reply.json(500, "{}"));
+        StubHttpServer b = node(Reply.json(502, "{}"));
+        PistonService piston = pistonService(1, 30_000, a, b);
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(RuntimeException.class, () -> piston.executeCode(request()));
+        }
+
+        // Both are ejected, yet every call still reached a node instead of being refused locally
+        assertEquals(false, statusOf(a).get("healthy"));
+        assertEquals(false, statusOf(b).get("healthy"));
+        assertEquals(6, a.hits("/execute") + b.hits("/execute"));
+    }
+
+    @Test
+    void metersAreTaggedByPositionNotUrl() {
+        AppConfig appConfig = new AppConfig();
+        appConfig.getPiston().setApiUrls(List.of("http://piston-a.internal:2000", "http://piston-b.internal:2000"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        selector = new PistonEndpointSelector(appConfig, registry);
+
+        selector.acquire().success();
+
+        for (Meter meter : registry.getMeters()) {
+            String node = meter.getId().getTag("node");
+            assertTrue(node == null || node.equals("0") || node.equals("1"), meter.getId().toString());
+        }
+        assertEquals(2, registry.find("piston.node.outstanding").gauges().size());
+        assertEquals(1, selector.getStatus().get(1).get("node"));
+        assertEquals("http://piston-b.internal:2000", selector.getStatus().get(1).get("url"));
+    }
+
+    private StubHttpServer node(Reply reply) {
+        try {
+            StubHttpServer server = StubHttpServer.start().on("/execute", body -> reply);
+            servers.add(server);
+            return server;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private PistonService pistonService(int failureThreshold, long ejectMillis, StubHttpServer... nodes) {
+        AppConfig appConfig = new AppConfig();
+        List<String> urls = new ArrayList<>();
+        for (StubHttpServer node : nodes) {
+            urls.add(node.url());
+        }
+        appConfig.getPiston().setApiUrls(urls);
+        appConfig.getPiston().setTimeout(5_000);
+        appConfig.getPiston().setNodeFailureThreshold(failureThreshold);
+        appConfig.getPiston().setNodeEjectDuration(ejectMillis);
+        // Keep the AIMD limit and breaker out of the way: these tests are about node choice
+        appConfig.getPistonGuard().setInitialLimit(100);
+        appConfig.getPistonGuard().setMaxLimit(100);
+        appConfig.getPistonGuard().setFailureThreshold(1_000);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        selector = new PistonEndpointSelector(appConfig, registry);
+        PistonExecutionGuard guard = new PistonExecutionGuard(appConfig, registry);
+        guard.registerGauges();
+
+        PistonService piston = new PistonService();
+        ReflectionTestUtils.setField(piston, "appConfig", appConfig);
+        ReflectionTestUtils.setField(piston, "pistonWebClient", WebClient.create());
+        ReflectionTestUtils.setField(piston, "executionGuard", guard);
+        ReflectionTestUtils.setField(piston, "endpointSelector", selector);
+        return piston;
+    }
+
+    private Map<String, Object> statusOf(StubHttpServer node) {
+        return selector.getStatus().stream()
+                .filter(entry -> node.url().equals(entry.get("url")))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void runConcurrently(PistonService piston, int calls) throws Exception {
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (int i = 0; i < calls; i++) {
+            futures.add(piston.executeCodeFuture(request()));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+    }
+
+    private static ExecutionRequest request() {
+        ExecutionRequest request = new ExecutionRequest();
+        request.setLanguage("python");
+        request.setVersion("3.10.0");
+        request.setCode("print('ok')");
+        return request;
+    }
+}
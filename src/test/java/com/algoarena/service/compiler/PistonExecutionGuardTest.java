@@ -0,0 +1,165 @@
+// src/test/java/com/algoarena/service/compiler/PistonExecutionGuardTest.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import com.algoarena.support.StubHttpServer;
+import com.algoarena.support.StubHttpServer.Reply;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Adaptive limit and circuit breaker of PistonExecutionGuard, driven through PistonService against a
+ * loopback Piston stub.
+ */
+class PistonExecutionGuardTest {
+
+    private static final String OK = "{\"language\":\"python\",\"version\":\"3.10.0\","
+            + "\"run\":{\"stdout\":\"ok\",\"stderr\":\"\",\"code\":0,\"signal\":null,\"output\":\"ok\"}}";
+
+    private final AppConfig appConfig = new AppConfig();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private StubHttpServer piston;
+    private PistonExecutionGuard guard;
+
+    @AfterEach
+    void stop() {
+        if (piston != null) {
+            piston.close();
+        }
+    }
+
+    @Test
+    void rejectsOnceTheLimitIsInFlight() throws Exception {
+        appConfig.getPistonGuard().setInitialLimit(2);
+        PistonService service = pistonService(body -> Reply.json(200, OK).after(400));
+
+        CompletableFuture<?> first = service.executeCodeFuture(request());
+        CompletableFuture<?> second = service.executeCodeFuture(request());
+
+        assertEquals(2, guard.getInFlight());
+        assertEquals(2.0, registry.get("piston.limiter.inflight").gauge().value());
+        assertThrows(ExecutionServiceBusyException.class, () -> service.executeCode(request()));
+        assertEquals(1.0, registry.get("piston.limiter.rejected").tag("reason", "limit").counter().count());
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        assertEquals(0, guard.getInFlight());
+        service.executeCode(request());
+        assertEquals(3, piston.hits("/execute"));
+    }
+
+    @Test
+    void slowResponsesShrinkTheLimitOncePerWindow() throws Exception {
+        appConfig.getPistonGuard().setInitialLimit(10);
+        appConfig.getPistonGuard().setLatencyThreshold(100);
+        appConfig.getPistonGuard().setBackoffRatio(0.5);
+        PistonService service = pistonService(body -> Reply.json(200, OK).after(200));
+
+        CompletableFuture<?> a = service.executeCodeFuture(request());
+        CompletableFuture<?> b = service.executeCodeFuture(request());
+        CompletableFuture<?> c = service.executeCodeFuture(request());
+        CompletableFuture.allOf(a, b, c).get(5, TimeUnit.SECONDS);
+
+        // Three slow calls finishing together are one congestion event
+        assertEquals(5.0, guard.getLimit());
+        assertEquals(5.0, registry.get("piston.limiter.limit").gauge().value());
+    }
+
+    @Test
+    void opensAfterConsecutiveOverloadFailuresAndClosesAfterProbes() throws Exception {
+        appConfig.getPistonGuard().setFailureThreshold(3);
+        appConfig.getPistonGuard().setOpenDuration(300);
+        appConfig.getPistonGuard().setHalfOpenProbes(2);
+        AtomicInteger calls = new AtomicInteger();
+        PistonService service = pistonService(
+                body -> calls.incrementAndGet() <= 3 ? Reply.json(503, "{}") : Reply.json(200, OK));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(RuntimeException.class, () -> service.executeCode(request()));
+        }
+        assertEquals(PistonExecutionGuard.CircuitState.OPEN, guard.getState());
+        assertThrows(ExecutionServiceBusyException.class, () -> service.executeCode(request()));
+        assertEquals(3, piston.hits("/execute"));
+        assertEquals(1.0, registry.get("piston.circuit.state").gauge().value());
+
+        Thread.sleep(350);
+        service.executeCode(request());
+        assertEquals(PistonExecutionGuard.CircuitState.HALF_OPEN, guard.getState());
+        service.executeCode(request());
+        assertEquals(PistonExecutionGuard.CircuitState.CLOSED, guard.getState());
+        assertEquals(5, piston.hits("/execute"));
+    }
+
+    @Test
+    void failedProbeReopensTheCircuit() throws Exception {
+        appConfig.getPistonGuard().setFailureThreshold(1);
+        appConfig.getPistonGuard().setOpenDuration(200);
+        PistonService service = pistonService(body -> Reply.json(500, "{}"));
+
+        assertThrows(RuntimeException.class, () -> service.executeCode(request()));
+        assertEquals(PistonExecutionGuard.CircuitState.OPEN, guard.getState());
+
+        Thread.sleep(250);
+        assertThrows(RuntimeException.class, () -> service.executeCode(request()));
+        assertEquals(PistonExecutionGuard.CircuitState.OPEN, guard.getState());
+        assertThrows(ExecutionServiceBusyException.class, () -> service.executeCode(request()));
+        assertEquals(2, piston.hits("/execute"));
+    }
+
+    @Test
+    void clientErrorsDoNotCountAsOverload() {
+        appConfig.getPistonGuard().setFailureThreshold(2);
+        PistonService service = pistonService(body -> Reply.json(400, "{\"message\":\"bad language\"}"));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RuntimeException.class, () -> service.executeCode(request()));
+        }
+
+        assertEquals(PistonExecutionGuard.CircuitState.CLOSED, guard.getState());
+        assertEquals(0, guard.getStatus().get("consecutiveFailures"));
+        assertTrue(guard.getLimit() >= 20);
+        assertEquals(5, piston.hits("/execute"));
+    }
+
+    private PistonService pistonService(StubHttpServer.Handler handler) {
+        try {
+            piston = StubHttpServer.start().on("/execute", handler);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        appConfig.getPiston().setApiUrls(List.of(piston.url()));
+        appConfig.getPiston().setTimeout(5_000);
+
+        guard = new PistonExecutionGuard(appConfig, registry);
+        guard.registerGauges();
+
+        PistonService service = new PistonService();
+        ReflectionTestUtils.setField(service, "appConfig", appConfig);
+        ReflectionTestUtils.setField(service, "pistonWebClient", WebClient.create());
+        ReflectionTestUtils.setField(service, "executionGuard", guard);
+        ReflectionTestUtils.setField(service, "endpointSelector", new PistonEndpointSelector(appConfig, registry));
+        return service;
+    }
+
+    private static ExecutionRequest request() {
+        ExecutionRequest request = new ExecutionRequest();
+        request.setLanguage("python");
+        request.setVersion("3.10.0");
+        request.setCode("print('ok')");
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+// src/test/java/com/algoarena/service/compiler/PistonRuntimeCatalogTest.java
+package com.algoarena.service.compiler;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.support.StubHttpServer;
+import com.algoarena.support.StubHttpServer.Reply;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PistonRuntimeCatalog against a loopback /runtimes stub: lookups never wait for the fetch, concurrent
+ * refreshes share one call, and a failed refresh keeps the last good copy.
+ */
+class PistonRuntimeCatalogTest {
+
+    private static final String RUNTIMES = "["
+            + "{\"language\":\"python\",\"version\":\"3.10.0\",\"aliases\":[\"py\",\"python3\"]},"
+            + "{\"language\":\"javascript\",\"version\":\"18.15.0\",\"aliases\":[\"node-javascript\",\"js\"]},"
+            + "{\"language\":\"c++\",\"version\":\"10.2.0\",\"aliases\":[\"cpp\",\"g++\"]}]";
+
+    private StubHttpServer piston;
+
+    @AfterEach
+    void stop() {
+        if (piston != null) {
+            piston.close();
+        }
+    }
+
+    @Test
+    void lookupsDoNotWaitForASlowFetch() throws Exception {
+        PistonRuntimeCatalog catalog = catalog(body -> Reply.json(200, RUNTIMES).after(500));
+
+        long started = System.nanoTime();
+        assertNull(catalog.findRuntime("python"));
+        assertTrue(catalog.getSupportedLanguages().isEmpty());
+        RuntimeException loading = assertThrows(RuntimeException.class, catalog::getRuntimes);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertTrue(elapsedMillis < 250, "lookups took " + elapsedMillis + " ms");
+        assertTrue(loading.getMessage().contains("still loading"), loading.getMessage());
+
+        // The first lookup started one background load; the later ones did not start more
+        assertTrue(catalog.refresh().get(5, TimeUnit.SECONDS));
+        assertEquals(1, piston.hits("/runtimes"));
+        assertEquals("javascript", catalog.findRuntime("js").get("language"));
+        assertEquals("c++", catalog.findRuntime("CPP").get("language"));
+        assertEquals(List.of("c++", "javascript", "python"), catalog.getSupportedLanguages());
+    }
+
+    @Test
+    void concurrentRefreshesShareOneFetch() throws Exception {
+        PistonRuntimeCatalog catalog = catalog(body -> Reply.json(200, RUNTIMES).after(200));
+
+        CompletableFuture<Boolean> first = catalog.refresh();
+        for (int i = 0; i < 5; i++) {
+            assertSame(first, catalog.refresh());
+        }
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertEquals(1, piston.hits("/runtimes"));
+        assertTrue(catalog.isHealthy());
+
+        // Once it finished, the next refresh fetches again
+        assertTrue(catalog.refresh().get(5, TimeUnit.SECONDS));
+        assertEquals(2, piston.hits("/runtimes"));
+    }
+
+    @Test
+    void failedRefreshKeepsTheLastGoodCopy() throws Exception {
+        AtomicBoolean down = new AtomicBoolean();
+        PistonRuntimeCatalog catalog = catalog(
+                body -> down.get() ? Reply.json(502, "{}") : Reply.json(200, RUNTIMES));
+
+        assertTrue(catalog.refresh().get(5, TimeUnit.SECONDS));
+        down.set(true);
+
+        assertFalse(catalog.refresh().get(5, TimeUnit.SECONDS));
+        assertTrue(catalog.isLoaded());
+        assertFalse(catalog.isHealthy());
+        assertNotNull(catalog.getLastError());
+        assertEquals("3.10.0", catalog.findRuntime("py").get("version"));
+        assertEquals(3, catalog.getRuntimes().size());
+    }
+
+    @Test
+    void invalidBodyCompletesWithFalse() throws Exception {
+        PistonRuntimeCatalog catalog = catalog(body -> Reply.json(200, "<html>gateway</html>"));
+
+        assertFalse(catalog.refresh().get(5, TimeUnit.SECONDS));
+        assertFalse(catalog.isLoaded());
+        assertTrue(catalog.getLastError().startsWith("Invalid /runtimes response"), catalog.getLastError());
+    }
+
+    private PistonRuntimeCatalog catalog(StubHttpServer.Handler handler) {
+        try {
+            piston = StubHttpServer.start()
+                    .on("/runtimes", handler)
+                    .on("/warmup", body -> Reply.json(200, "{}"));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        AppConfig appConfig = new AppConfig();
+        appConfig.getPiston().setApiUrls(List.of(piston.url()));
+        appConfig.getPiston().setTimeout(5_000);
+
+        // Pay reactor-netty's one-time startup here, not inside the timed lookups
+        WebClient webClient = WebClient.create();
+        webClient.get().uri(piston.url() + "/warmup").retrieve().toBodilessEntity().block();
+
+        PistonRuntimeCatalog catalog = new PistonRuntimeCatalog();
+        ReflectionTestUtils.setField(catalog, "appConfig", appConfig);
+        ReflectionTestUtils.setField(catalog, "pistonWebClient", webClient);
+        ReflectionTestUtils.setField(catalog, "endpointSelector",
+                new PistonEndpointSelector(appConfig, new SimpleMeterRegistry()));
+        return catalog;
+    }
+}
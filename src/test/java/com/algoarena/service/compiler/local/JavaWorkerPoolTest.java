@@ -0,0 +1,135 @@
+// src/test/java/com/algoarena/service/compiler/local/JavaWorkerPoolTest.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JavaWorkerPool with real worker JVMs of this test's JDK (isolation=none): the Unix socket protocol, runs that
+ * never wait for a worker, and workers that are never handed to another user.
+ */
+class JavaWorkerPoolTest {
+
+    private static final String HELLO = """
+            public class Main {
+                public static void main(String[] args) {
+                    System.out.println("hello from " + Main.class.getClassLoader().getClass().getSimpleName());
+                }
+            }
+            """;
+    private static final String SLOW = """
+            public class Main {
+                public static void main(String[] args) throws Exception {
+                    Thread.sleep(1500);
+                    System.out.println("done");
+                }
+            }
+            """;
+
+    private final AppConfig appConfig = new AppConfig();
+    private JavaWorkerPool pool;
+
+    @AfterEach
+    void stop() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void runsProgramsOnAPooledWorker() throws Exception {
+        start(1);
+
+        ExecutionResponse response = pool.execute(HELLO, "u1");
+
+        assertNotNull(response);
+        assertEquals(0, response.getRun().getCode());
+        assertEquals("hello from SubmissionClassLoader\n", response.getRun().getStdout());
+        // Same user: the worker goes back to the pool and takes the next run
+        awaitIdleWorkers(1);
+        assertNotNull(pool.execute(HELLO, "u1"));
+    }
+
+    @Test
+    void doesNotWaitWhenEveryWorkerIsBusy() throws Exception {
+        start(1);
+        CompletableFuture<ExecutionResponse> slow = CompletableFuture.supplyAsync(() -> pool.execute(SLOW, "u1"));
+        awaitIdleWorkers(0);
+
+        long started = System.nanoTime();
+        assertNull(pool.execute(HELLO, "u1"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertTrue(elapsedMillis < 500, "waited " + elapsedMillis + " ms");
+        assertEquals("done\n", slow.get(10, TimeUnit.SECONDS).getRun().getStdout());
+    }
+
+    @Test
+    void workerOfAnotherUserIsReplacedNotHandedOver() throws Exception {
+        start(1);
+        assertNotNull(pool.execute(HELLO, "u1"));
+        awaitIdleWorkers(1);
+
+        // u1's worker is retired for u2, who falls back to the execution backend this time
+        assertNull(pool.execute(HELLO, "u2"));
+        awaitIdleWorkers(1);
+        assertNotNull(pool.execute(HELLO, "u2"));
+    }
+
+    @Test
+    void compileErrorsAreAnsweredWithoutAWorkerRun() throws Exception {
+        start(1);
+
+        ExecutionResponse response = pool.execute("public class Main { void broken( }", "u1");
+
+        assertEquals(1, response.getCompile().getCode());
+        assertNull(response.getRun());
+        assertEquals(1, idleWorkers().size());
+    }
+
+    @Test
+    void refusesToStartWithoutIsolation() {
+        appConfig.getJavaWorkerPool().setEnabled(true);
+        appConfig.getLocalExecution().setNsjailCommand("/nonexistent/nsjail");
+        pool = new JavaWorkerPool(new JavaHarnessCompiler(appConfig), new LocalProcessRunner(appConfig), appConfig);
+
+        assertThrows(IllegalStateException.class, pool::start);
+    }
+
+    private void start(int size) throws Exception {
+        appConfig.getJavaWorkerPool().setEnabled(true);
+        appConfig.getJavaWorkerPool().setSize(size);
+        appConfig.getLocalExecution().setIsolation("none");
+        appConfig.getLocalExecution().setJavaCommand(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        pool = new JavaWorkerPool(new JavaHarnessCompiler(appConfig), new LocalProcessRunner(appConfig), appConfig);
+        pool.start();
+        awaitIdleWorkers(size);
+    }
+
+    private void awaitIdleWorkers(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (idleWorkers().size() != count) {
+            assertTrue(System.nanoTime() < deadline, idleWorkers().size() + " idle workers, expected " + count);
+            Thread.sleep(10);
+        }
+    }
+
+    private Collection<?> idleWorkers() {
+        return (Collection<?>) ReflectionTestUtils.getField(pool, "idle");
+    }
+}
@@ -0,0 +1,82 @@
+// src/test/java/com/algoarena/service/compiler/local/LocalExecutionBackendTest.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionRequest;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Admission, timeouts and the isolation check of LocalExecutionBackend. Programs are shell scripts run
+ * through the "python" interpreter setting, with isolation=none, so the test needs nothing but /bin/sh.
+ */
+class LocalExecutionBackendTest {
+
+    private final AppConfig appConfig = new AppConfig();
+
+    @Test
+    void refusesToStartWithoutIsolation() {
+        appConfig.getLocalExecution().setIsolation("nsjail");
+        appConfig.getLocalExecution().setNsjailCommand("/nonexistent/nsjail");
+
+        LocalProcessRunner runner = new LocalProcessRunner(appConfig);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new LocalExecutionBackend(runner, null, new LocalExecutionSlots(appConfig), appConfig));
+        assertTrue(error.getMessage().contains("needs nsjail"), error.getMessage());
+    }
+
+    @Test
+    void timedOutProgramIsKilledBeforeItsSlotIsReused() throws Exception {
+        appConfig.getLocalExecution().setMaxConcurrent(1);
+        LocalExecutionBackend backend = backend();
+
+        assertThrows(RuntimeException.class,
+                () -> backend.execute(script("sleep 30"), Duration.ofMillis(200)).block());
+
+        // Killed when the caller gave up, not left running with its slot freed
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (ProcessHandle.current().descendants().anyMatch(ProcessHandle::isAlive)) {
+            assertTrue(System.nanoTime() < deadline, "timed-out program still running");
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertEquals("hi\n", backend.execute(script("echo hi"), Duration.ofSeconds(5)).block().getRun().getStdout());
+    }
+
+    @Test
+    void requestedRunTimeoutIsCappedByTheConfiguredOne() {
+        appConfig.getLocalExecution().setRunTimeout(300);
+        LocalExecutionBackend backend = backend();
+        ExecutionRequest request = script("sleep 5");
+        request.setRunTimeout(60_000);
+
+        ExecutionResponse.RunResult run = backend.execute(request).block().getRun();
+
+        assertEquals("SIGKILL", run.getSignal());
+        assertTrue(run.getWallTime() < 2_000, "ran for " + run.getWallTime() + " ms");
+    }
+
+    private LocalExecutionBackend backend() {
+        appConfig.getLocalExecution().setIsolation("none");
+        appConfig.getLocalExecution().setPythonCommand("/bin/sh");
+        LocalProcessRunner runner = new LocalProcessRunner(appConfig);
+        LocalExecutionSlots slots = new LocalExecutionSlots(appConfig);
+        return new LocalExecutionBackend(runner,
+                new LocalJavaExecutor(new JavaHarnessCompiler(appConfig), runner, slots, appConfig), slots, appConfig);
+    }
+
+    private static ExecutionRequest script(String code) {
+        ExecutionRequest request = new ExecutionRequest();
+        request.setLanguage("python");
+        request.setCode(code);
+        return request;
+    }
+}
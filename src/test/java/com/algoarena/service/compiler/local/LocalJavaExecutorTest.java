@@ -0,0 +1,88 @@
+// src/test/java/com/algoarena/service/compiler/local/LocalJavaExecutorTest.java
+package com.algoarena.service.compiler.local;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.compiler.ExecutionResponse;
+import com.algoarena.exception.ExecutionServiceBusyException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The local Java submit path: shared admission with LocalExecutionBackend and the bounded compile.
+ * Runs the child JVM of this test's JDK with isolation=none.
+ */
+class LocalJavaExecutorTest {
+
+    private static final String MARKER = "/*USER_CODE_PLACEHOLDER*/";
+    private static final String TEMPLATE = """
+            public class Main {
+                public static void main(String[] args) {
+                    System.out.println(new Solution().answer());
+                }
+            }
+            /*USER_CODE_PLACEHOLDER*/
+            """;
+    private static final String USER_CODE = "class Solution { int answer() { return 42; } }";
+
+    private final AppConfig appConfig = new AppConfig();
+
+    @Test
+    void compilesAndRunsWithinASlot() {
+        LocalExecutionSlots slots = slots();
+        LocalJavaExecutor executor = executor(slots);
+
+        ExecutionResponse response = executor.execute("q1:1", TEMPLATE, MARKER, USER_CODE);
+
+        assertEquals(0, response.getCompile().getCode());
+        assertEquals("42\n", response.getRun().getStdout());
+        assertEquals(slots.getMaxConcurrent(), slots.getAvailable());
+    }
+
+    @Test
+    void failsFastWhenTheBackendHoldsEverySlot() {
+        appConfig.getLocalExecution().setMaxConcurrent(1);
+        LocalExecutionSlots slots = slots();
+        LocalJavaExecutor executor = executor(slots);
+        slots.acquire();
+
+        assertThrows(ExecutionServiceBusyException.class,
+                () -> executor.execute("q1:1", TEMPLATE, MARKER, USER_CODE));
+
+        slots.release();
+        assertEquals(1, slots.getAvailable());
+    }
+
+    @Test
+    void compileOverTheTimeoutIsReportedInsteadOfWaitedFor() {
+        appConfig.getLocalExecution().setCompileTimeout(1);
+        LocalExecutionSlots slots = slots();
+        LocalJavaExecutor executor = executor(slots);
+
+        ExecutionResponse response = executor.execute("q1:1", TEMPLATE, MARKER, USER_CODE);
+
+        assertEquals(1, response.getCompile().getCode());
+        assertTrue(response.getCompile().getStderr().contains("did not finish within 1 ms"),
+                response.getCompile().getStderr());
+        assertNull(response.getRun());
+        assertEquals(slots.getMaxConcurrent(), slots.getAvailable());
+    }
+
+    private LocalExecutionSlots slots() {
+        return new LocalExecutionSlots(appConfig);
+    }
+
+    private LocalJavaExecutor executor(LocalExecutionSlots slots) {
+        appConfig.getLocalJava().setEnabled(true);
+        appConfig.getLocalExecution().setIsolation("none");
+        appConfig.getLocalExecution().setJavaCommand(
+                Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        return new LocalJavaExecutor(new JavaHarnessCompiler(appConfig), new LocalProcessRunner(appConfig), slots,
+                appConfig);
+    }
+}
@@ -0,0 +1,155 @@
+// src/test/java/com/algoarena/service/compiler/runmode/RunOutputParserTest.java
+package com.algoarena.service.compiler.runmode;
+
+import com.algoarena.dto.compiler.runmode.RunTestCaseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verdicts of the index-based RunOutputParser against the split("\n") parser it replaced (kept below as
+ * legacyParse), plus the early exit and the capture cap.
+ */
+class RunOutputParserTest {
+
+    private final RunOutputParser parser = new RunOutputParser();
+
+    @Test
+    void matchesLegacyParserOnTemplateOutput() {
+        String stdout = block("[[1, 2], [3]]", "[[1, 2], [3]]") + block("true", "false") + block("", "");
+
+        assertParity(stdout, 3);
+        List<RunTestCaseResult> results = parser.parseOutput(stdout, 3);
+        assertEquals("PASS", results.get(0).getStatus());
+        assertEquals("FAIL", results.get(1).getStatus());
+    }
+
+    @Test
+    void matchesLegacyParserWithCrlfPaddingAndNoise() {
+        String stdout = "printing from solve()\r\n"
+                + " TEST_CASE_START \r\n"
+                + "EXPECTED_OUTPUT :    hello   \r\n"
+                + "USER_OUTPUT : hello\r\n"
+                + "TEST_CASE_END\r\n"
+                + "\r\n  more debug\r\n"
+                + "TEST_CASE_START\r\n"
+                + "EXPECTED_OUTPUT : 1\r\n"
+                + "ERROR : IndexError: list index out of range\r\n"
+                + "TEST_CASE_END\r\n";
+
+        assertParity(stdout, 2);
+        List<RunTestCaseResult> results = parser.parseOutput(stdout, 2);
+        assertEquals("PASS", results.get(0).getStatus());
+        assertEquals("TLE", results.get(1).getStatus());
+        assertEquals("IndexError: list index out of range", results.get(1).getError());
+    }
+
+    @Test
+    void matchesLegacyParserWhenOutputIsMissingOrCutOff() {
+        assertParity(null, 2);
+        assertParity("", 1);
+        assertParity(block("1", "1") + "TEST_CASE_START\nEXPECTED_OUTPUT : 2\n", 3);
+        assertParity("TEST_CASE_START\nUSER_OUTPUT : 2\nTEST_CASE_END\n", 1);
+    }
+
+    @Test
+    void ignoresBlocksAfterTheLastTestCase() {
+        String stdout = block("1", "1") + block("2", "2") + block("x", "y");
+
+        List<RunTestCaseResult> results = parser.parseOutput(stdout, 2);
+
+        assertEquals(2, results.size());
+        assertEquals("PASS", results.get(1).getStatus());
+        // The legacy parser appended a third, failing result
+        assertEquals(3, legacyParse(stdout, 2).size());
+    }
+
+    @Test
+    void capsCapturedOutputButComparesTheFullText() {
+        String huge = "ab".repeat(8_000);
+
+        List<RunTestCaseResult> results = parser.parseOutput(block(huge, huge) + block(huge, huge + "c"), 2);
+
+        assertEquals("PASS", results.get(0).getStatus());
+        assertEquals("FAIL", results.get(1).getStatus());
+        assertEquals(10_003, results.get(0).getExpectedOutput().length());
+        assertTrue(results.get(1).getUserOutput().endsWith("..."));
+    }
+
+    private void assertParity(String stdout, int totalTestCases) {
+        List<RunTestCaseResult> expected = legacyParse(stdout, totalTestCases);
+        List<RunTestCaseResult> actual = parser.parseOutput(stdout, totalTestCases);
+
+        assertEquals(expected.size(), actual.size(), "result count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(describe(expected.get(i)), describe(actual.get(i)), "test case " + (i + 1));
+        }
+    }
+
+    private static String describe(RunTestCaseResult result) {
+        return result.getId() + "|" + result.getStatus() + "|" + result.getExpectedOutput() + "|"
+                + result.getUserOutput() + "|" + result.getError();
+    }
+
+    private static String block(String expected, String user) {
+        return "TEST_CASE_START\nEXPECTED_OUTPUT : " + expected + "\nUSER_OUTPUT : " + user + "\nTEST_CASE_END\n";
+    }
+
+    /**
+     * RunOutputParser.parseOutput as it was before the index-based scanner
+     */
+    private static List<RunTestCaseResult> legacyParse(String stdout, int totalTestCases) {
+        List<RunTestCaseResult> results = new ArrayList<>();
+
+        if (stdout == null || stdout.isEmpty()) {
+            for (int i = 1; i <= totalTestCases; i++) {
+                RunTestCaseResult result = new RunTestCaseResult();
+                result.setId(i);
+                result.setStatus("TLE");
+                result.setError("No output received - execution may have timed out");
+                results.add(result);
+            }
+            return results;
+        }
+
+        RunTestCaseResult currentResult = null;
+        int testCaseIndex = 1;
+        for (String line : stdout.split("\n")) {
+            line = line.trim();
+            if (line.equals("TEST_CASE_START")) {
+                currentResult = new RunTestCaseResult();
+                currentResult.setId(testCaseIndex++);
+            } else if (currentResult == null) {
+                continue;
+            } else if (line.startsWith("EXPECTED_OUTPUT : ")) {
+                currentResult.setExpectedOutput(line.substring("EXPECTED_OUTPUT : ".length()).trim());
+            } else if (line.startsWith("USER_OUTPUT : ")) {
+                currentResult.setUserOutput(line.substring("USER_OUTPUT : ".length()).trim());
+            } else if (line.startsWith("ERROR : ")) {
+                currentResult.setError(line.substring("ERROR : ".length()).trim());
+                currentResult.setStatus("TLE");
+            } else if (line.equals("TEST_CASE_END")) {
+                if (currentResult.getStatus() == null) {
+                    boolean same = currentResult.getExpectedOutput() != null && currentResult.getUserOutput() != null
+                            && currentResult.getExpectedOutput().equals(currentResult.getUserOutput());
+                    currentResult.setStatus(same ? "PASS" : "FAIL");
+                }
+                results.add(currentResult);
+                currentResult = null;
+            }
+        }
+
+        while (results.size() < totalTestCases) {
+            RunTestCaseResult result = new RunTestCaseResult();
+            result.setId(results.size() + 1);
+            result.setStatus("TLE");
+            result.setError("Execution timed out before this test case could run");
+            results.add(result);
+        }
+        return results;
+    }
+}
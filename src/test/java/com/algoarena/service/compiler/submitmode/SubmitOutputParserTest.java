@@ -0,0 +1,250 @@
+// src/test/java/com/algoarena/service/compiler/submitmode/SubmitOutputParserTest.java
+package com.algoarena.service.compiler.submitmode;
+
+import com.algoarena.dto.compiler.submitmode.SubmitTestCaseResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verdicts of the index-based SubmitOutputParser against the split("\n") parser it replaced (kept below as
+ * legacyParse), plus the behaviour added with it: fail-fast stops, early exit and the capture cap.
+ */
+class SubmitOutputParserTest {
+
+    private final SubmitOutputParser parser = new SubmitOutputParser();
+
+    @Test
+    void matchesLegacyParserOnTemplateOutput() {
+        String stdout = block(1, "[1, 2]", "[1, 2]", 3)
+                + block(2, "5", "6", 1)
+                + block(3, "\"abc\"", "\"abc\"", 0);
+
+        assertParity(stdout, 3);
+        List<SubmitTestCaseResult> results = parser.parseOutput(stdout, 3);
+        assertEquals("PASS", results.get(0).getStatus());
+        assertEquals("FAIL", results.get(1).getStatus());
+        assertEquals(3L, (long) results.get(0).getExecutionTime());
+    }
+
+    @Test
+    void matchesLegacyParserWithCrlfAndPadding() {
+        String stdout = "  TEST_CASE_START  \r\n"
+                + "TEST_CASE_ID : 1\r\n"
+                + "\tEXPECTED_OUTPUT :   42  \r\n"
+                + "USER_OUTPUT : 42\r\n"
+                + "EXECUTION_TIME : 7 \r\n"
+                + "TEST_CASE_END\r\n"
+                + "TEST_CASE_START\r\n"
+                + "TEST_CASE_ID : 2\r\n"
+                + "EXPECTED_OUTPUT : a b\r\n"
+                + "USER_OUTPUT : a  b\r\n"
+                + "TEST_CASE_END\r\n";
+
+        assertParity(stdout, 2);
+        List<SubmitTestCaseResult> results = parser.parseOutput(stdout, 2);
+        assertEquals("PASS", results.get(0).getStatus());
+        assertEquals("42", results.get(0).getExpectedOutput());
+        assertEquals("FAIL", results.get(1).getStatus());
+    }
+
+    @Test
+    void matchesLegacyParserWithUserNoiseErrorsAndBadTimes() {
+        String stdout = "debug: starting\n"
+                + "USER_OUTPUT : not inside a block\n"
+                + block(1, "1", "1", 2)
+                + "x = 5\n\n   \n"
+                + "TEST_CASE_START\n"
+                + "TEST_CASE_ID : 2\n"
+                + "EXPECTED_OUTPUT : 3\n"
+                + "ERROR : java.lang.ArithmeticException: / by zero\n"
+                + "TEST_CASE_END\n"
+                + "TEST_CASE_START\n"
+                + "TEST_CASE_ID : 3\n"
+                + "EXPECTED_OUTPUT : 3\n"
+                + "USER_OUTPUT : 3\n"
+                + "EXECUTION_TIME : fast\n"
+                + "TEST_CASE_END";
+
+        assertParity(stdout, 3);
+        List<SubmitTestCaseResult> results = parser.parseOutput(stdout, 3);
+        assertEquals("FAIL", results.get(1).getStatus());
+        assertEquals("java.lang.ArithmeticException: / by zero", results.get(1).getError());
+        assertEquals(0L, (long) results.get(2).getExecutionTime());
+    }
+
+    @Test
+    void matchesLegacyParserWhenOutputIsMissingOrCutOff() {
+        assertParity(null, 2);
+        assertParity("", 2);
+        assertParity(block(1, "1", "1", 1) + "TEST_CASE_START\nTEST_CASE_ID : 2\nEXPECTED_OUTPUT : 9\n", 3);
+
+        List<SubmitTestCaseResult> results = parser.parseOutput(block(1, "1", "1", 1), 3);
+        assertEquals("TLE", results.get(1).getStatus());
+        assertEquals("TLE", results.get(2).getStatus());
+    }
+
+    @Test
+    void executionStoppedMarksRemainingCasesSkipped() {
+        String stdout = block(1, "1", "1", 1)
+                + block(2, "2", "3", 1)
+                + SubmitOutputParser.EXECUTION_STOPPED + "\r\n";
+
+        List<SubmitTestCaseResult> results = parser.parseOutput(stdout, 4);
+
+        assertEquals(4, results.size());
+        assertEquals("FAIL", results.get(1).getStatus());
+        assertEquals("SKIPPED", results.get(2).getStatus());
+        assertEquals("SKIPPED", results.get(3).getStatus());
+        assertNull(results.get(3).getError());
+        // The legacy parser reported the skipped cases as TLE
+        assertEquals("TLE", legacyParse(stdout, 4).get(2).getStatus());
+    }
+
+    @Test
+    void executionStoppedWithoutAFailureStillMeansTle() {
+        String stdout = block(1, "1", "1", 1) + SubmitOutputParser.EXECUTION_STOPPED + "\n";
+
+        List<SubmitTestCaseResult> results = parser.parseOutput(stdout, 2);
+
+        assertEquals("TLE", results.get(1).getStatus());
+    }
+
+    @Test
+    void stopsOnceEveryExpectedIdReported() {
+        String stdout = block(3, "1", "1", 1)
+                + block(4, "2", "2", 1)
+                + block(9, "x", "y", 1); // printed by user code after the harness finished
+
+        List<SubmitTestCaseResult> results = parser.parseOutput(stdout, List.of(3, 4));
+
+        assertEquals(2, results.size());
+        assertEquals(3, results.get(0).getId());
+        assertEquals(4, results.get(1).getId());
+    }
+
+    @Test
+    void shardFillsOnlyItsOwnMissingIds() {
+        List<SubmitTestCaseResult> results = parser.parseOutput(block(5, "1", "1", 1), List.of(5, 6, 7));
+
+        assertEquals(3, results.size());
+        assertEquals(6, results.get(1).getId());
+        assertEquals("TLE", results.get(1).getStatus());
+        assertEquals(7, results.get(2).getId());
+    }
+
+    @Test
+    void capsCapturedOutputButComparesTheFullText() {
+        String huge = "7".repeat(25_000);
+        String differentTail = "7".repeat(24_999) + "8";
+
+        List<SubmitTestCaseResult> passing = parser.parseOutput(block(1, huge, huge, 1), 1);
+        List<SubmitTestCaseResult> failing = parser.parseOutput(block(1, huge, differentTail, 1), 1);
+
+        assertEquals("PASS", passing.get(0).getStatus());
+        assertEquals(10_003, passing.get(0).getUserOutput().length());
+        assertTrue(passing.get(0).getUserOutput().endsWith("..."));
+        // Same capped prefix, different verdict: the comparison is not done on the captures
+        assertEquals("FAIL", failing.get(0).getStatus());
+        assertEquals(passing.get(0).getUserOutput(), failing.get(0).getUserOutput());
+    }
+
+    @Test
+    void rejectsMalformedTestCaseIds() {
+        assertThrows(NumberFormatException.class,
+                () -> parser.parseOutput("TEST_CASE_START\nTEST_CASE_ID : one\n", 1));
+    }
+
+    private void assertParity(String stdout, int totalTestCases) {
+        List<SubmitTestCaseResult> expected = legacyParse(stdout, totalTestCases);
+        List<SubmitTestCaseResult> actual = parser.parseOutput(stdout, totalTestCases);
+
+        assertEquals(expected.size(), actual.size(), "result count");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(describe(expected.get(i)), describe(actual.get(i)), "test case " + (i + 1));
+        }
+    }
+
+    private static String describe(SubmitTestCaseResult result) {
+        return result.getId() + "|" + result.getStatus() + "|" + result.getExpectedOutput() + "|"
+                + result.getUserOutput() + "|" + result.getError() + "|" + result.getExecutionTime();
+    }
+
+    private static String block(int id, String expected, String user, long time) {
+        return "TEST_CASE_START\n"
+                + "TEST_CASE_ID : " + id + "\n"
+                + "EXPECTED_OUTPUT : " + expected + "\n"
+                + "USER_OUTPUT : " + user + "\n"
+                + "EXECUTION_TIME : " + time + "\n"
+                + "TEST_CASE_END\n";
+    }
+
+    /**
+     * SubmitOutputParser.parseOutput as it was before the index-based scanner
+     */
+    private static List<SubmitTestCaseResult> legacyParse(String stdout, int totalTestCases) {
+        List<SubmitTestCaseResult> results = new ArrayList<>();
+
+        if (stdout == null || stdout.isEmpty()) {
+            for (int i = 1; i <= totalTestCases; i++) {
+                SubmitTestCaseResult result = new SubmitTestCaseResult();
+                result.setId(i);
+                result.setStatus("TLE");
+                result.setError("No output received - execution may have timed out");
+                result.setExecutionTime(0L);
+                results.add(result);
+            }
+            return results;
+        }
+
+        SubmitTestCaseResult currentResult = null;
+        for (String line : stdout.split("\n")) {
+            line = line.trim();
+            if (line.equals("TEST_CASE_START")) {
+                currentResult = new SubmitTestCaseResult();
+            } else if (currentResult == null) {
+                continue;
+            } else if (line.startsWith("TEST_CASE_ID : ")) {
+                currentResult.setId(Integer.parseInt(line.substring("TEST_CASE_ID : ".length()).trim()));
+            } else if (line.startsWith("EXPECTED_OUTPUT : ")) {
+                currentResult.setExpectedOutput(line.substring("EXPECTED_OUTPUT : ".length()).trim());
+            } else if (line.startsWith("USER_OUTPUT : ")) {
+                currentResult.setUserOutput(line.substring("USER_OUTPUT : ".length()).trim());
+            } else if (line.startsWith("EXECUTION_TIME : ")) {
+                try {
+                    currentResult.setExecutionTime(Long.parseLong(line.substring("EXECUTION_TIME : ".length()).trim()));
+                } catch (NumberFormatException e) {
+                    currentResult.setExecutionTime(0L);
+                }
+            } else if (line.startsWith("ERROR : ")) {
+                currentResult.setError(line.substring("ERROR : ".length()).trim());
+                currentResult.setStatus("FAIL");
+                currentResult.setExecutionTime(0L);
+            } else if (line.equals("TEST_CASE_END")) {
+                if (currentResult.getStatus() == null) {
+                    boolean same = currentResult.getExpectedOutput() != null && currentResult.getUserOutput() != null
+                            && currentResult.getExpectedOutput().equals(currentResult.getUserOutput());
+                    currentResult.setStatus(same ? "PASS" : "FAIL");
+                }
+                results.add(currentResult);
+                currentResult = null;
+            }
+        }
+
+        while (results.size() < totalTestCases) {
+            SubmitTestCaseResult result = new SubmitTestCaseResult();
+            result.setId(results.size() + 1);
+            result.setStatus("TLE");
+            result.setError("Execution timed out before this test case could run");
+            result.setExecutionTime(0L);
+            results.add(result);
+        }
+        return results;
+    }
+}
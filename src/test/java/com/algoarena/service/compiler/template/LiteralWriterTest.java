@@ -0,0 +1,286 @@
+// src/test/java/com/algoarena/service/compiler/template/LiteralWriterTest.java
+package com.algoarena.service.compiler.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parity of LiteralWriter with the convertTo*Literal converters it replaced (kept below as
+ * LegacyLiterals, copied from the generators before the change), plus the intended differences.
+ */
+class LiteralWriterTest {
+
+    private static final List<Object> INPUTS = Arrays.asList(
+            null,
+            0,
+            -42,
+            7L,
+            2.5,
+            1.5f,
+            true,
+            false,
+            "",
+            "a",
+            "hello",
+            "say \"hi\"\tback\\now\r\n",
+            List.of(),
+            List.of(1, 2, 3),
+            List.of(1L, 2L),
+            List.of(1.25, -3.0),
+            List.of(true, false),
+            List.of("x", "yz", ""),
+            Arrays.asList(1, null, 3),
+            List.of(List.of(1, 2), List.of(3, 4)),
+            List.of(List.of(), List.of(5)),
+            List.of(List.of("ab", "c"), List.of("d")),
+            List.of(List.of(List.of(1, 2), List.of(3, 4)), List.of(List.of(5, 6), List.of(7, 8))),
+            List.of(List.of(List.of(List.of(1)), List.of(List.of(2, 3)))));
+
+    @Test
+    void javaMatchesLegacyConverter() {
+        assertParity(LiteralWriter.JAVA, LegacyLiterals::java);
+    }
+
+    @Test
+    void cppMatchesLegacyConverter() {
+        assertParity(LiteralWriter.CPP, LegacyLiterals::cpp);
+    }
+
+    @Test
+    void pythonMatchesLegacyConverter() {
+        assertParity(LiteralWriter.PYTHON, LegacyLiterals::python);
+    }
+
+    @Test
+    void javaScriptMatchesLegacyConverter() {
+        assertParity(LiteralWriter.JAVASCRIPT, LegacyLiterals::javaScript);
+    }
+
+    @Test
+    void largeGridMatchesLegacyConverter() {
+        List<Object> grid = new ArrayList<>();
+        for (int row = 0; row < 300; row++) {
+            List<Object> cells = new ArrayList<>();
+            for (int col = 0; col < 300; col++) {
+                cells.add(row * 300 + col);
+            }
+            grid.add(cells);
+        }
+
+        assertEquals(LegacyLiterals.java(grid), LiteralWriter.JAVA.toLiteral(grid));
+        assertEquals(LegacyLiterals.cpp(grid), LiteralWriter.CPP.toLiteral(grid));
+        assertEquals(LegacyLiterals.python(grid), LiteralWriter.PYTHON.toLiteral(grid));
+        assertEquals(LegacyLiterals.javaScript(grid), LiteralWriter.JAVASCRIPT.toLiteral(grid));
+    }
+
+    @Test
+    void primitiveArraysMatchBoxedLists() {
+        int[] ints = new int[100_000];
+        List<Object> boxed = new ArrayList<>(ints.length);
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i - 50_000;
+            boxed.add(ints[i]);
+        }
+
+        for (LiteralWriter writer : List.of(LiteralWriter.JAVA, LiteralWriter.CPP, LiteralWriter.PYTHON,
+                LiteralWriter.JAVASCRIPT)) {
+            assertEquals(writer.toLiteral(boxed), writer.toLiteral(ints));
+        }
+        assertEquals("{1L, 2L}", LiteralWriter.CPP.toLiteral(new long[] { 1, 2 }));
+        assertEquals("[True, False]", LiteralWriter.PYTHON.toLiteral(new boolean[] { true, false }));
+        assertEquals("{'a', '\\n'}", LiteralWriter.CPP.toLiteral(new char[] { 'a', '\n' }));
+        assertEquals("[\"a\", \"\\n\"]", LiteralWriter.JAVASCRIPT.toLiteral(new char[] { 'a', '\n' }));
+        assertEquals("{{1, 2}, {3}}", LiteralWriter.CPP.toLiteral(new int[][] { { 1, 2 }, { 3 } }));
+    }
+
+    @Test
+    void javaCharEscapesKeepTheirBackslash() {
+        // The legacy Java converter dropped the backslash: '\n' came out as 'n', '\\' as a bare '\'
+        assertEquals("'n'", LegacyLiterals.java("\n"));
+        assertEquals("'\\n'", LiteralWriter.JAVA.toLiteral("\n"));
+        assertEquals("'\\t'", LiteralWriter.JAVA.toLiteral("\t"));
+        assertEquals("'\\\\'", LiteralWriter.JAVA.toLiteral("\\"));
+        assertEquals("'\\''", LiteralWriter.JAVA.toLiteral("'"));
+        assertEquals("'\\n', 'x'", LiteralWriter.JAVA.toLiteral(List.of("\n", "x")));
+    }
+
+    @Test
+    void mixedListsAreWrittenElementByElement() {
+        // The legacy converters only looked at the first element: lists nested after a scalar fell back to
+        // List.toString()
+        List<Object> mixed = List.of(1, List.of("a", 2L));
+        assertEquals("1, [a, 2]", LegacyLiterals.java(mixed));
+        assertEquals("1, {'a', 2L}", LiteralWriter.JAVA.toLiteral(mixed));
+        assertEquals("[1, [\"a\", 2]]", LiteralWriter.PYTHON.toLiteral(mixed));
+    }
+
+    @Test
+    void encodeAppendsToTheSharedBuffer() {
+        StringBuilder out = new StringBuilder("int[] a = {");
+        LiteralWriter.JAVA.encode(List.of(1, 2), out);
+        out.append("};");
+        assertEquals("int[] a = {1, 2};", out.toString());
+    }
+
+    private static void assertParity(LiteralWriter writer, Function<Object, String> legacy) {
+        for (Object input : INPUTS) {
+            assertEquals(legacy.apply(input), writer.toLiteral(input), "input " + input);
+        }
+    }
+
+    /**
+     * The per-language converters as they were before LiteralWriter
+     */
+    private static final class LegacyLiterals {
+
+        static String java(Object value) {
+            if (value == null) return "null";
+            if (value instanceof Long) return value + "L";
+            if (value instanceof Float) return value + "f";
+            if (value instanceof Number || value instanceof Boolean) return String.valueOf(value);
+            if (value instanceof String) return javaString((String) value);
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                if (list.isEmpty()) return "";
+                int depth = depth(list);
+                if (depth == 1) {
+                    return join(list, LegacyLiterals::javaItem);
+                } else if (depth == 2) {
+                    return list.stream()
+                            .map(inner -> "{" + join((List<?>) inner, LegacyLiterals::javaItem) + "}")
+                            .collect(Collectors.joining(", "));
+                }
+                return list.stream().map(LegacyLiterals::java).map(s -> "{" + s + "}")
+                        .collect(Collectors.joining(", "));
+            }
+            return String.valueOf(value);
+        }
+
+        static String cpp(Object value) {
+            if (value == null) return "nullptr";
+            if (value instanceof Long) return value + "L";
+            if (value instanceof Float) return value + "f";
+            if (value instanceof Number || value instanceof Boolean) return String.valueOf(value);
+            if (value instanceof String) return cppString((String) value);
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                if (list.isEmpty()) return "{}";
+                int depth = depth(list);
+                if (depth == 1) {
+                    return "{" + join(list, LegacyLiterals::cppItem) + "}";
+                } else if (depth == 2) {
+                    return "{" + list.stream()
+                            .map(inner -> "{" + join((List<?>) inner, LegacyLiterals::cppItem) + "}")
+                            .collect(Collectors.joining(", ")) + "}";
+                }
+                return "{" + list.stream().map(LegacyLiterals::cpp).collect(Collectors.joining(", ")) + "}";
+            }
+            return String.valueOf(value);
+        }
+
+        static String python(Object value) {
+            return bracketed(value, "None", "True", "False", LegacyLiterals::python);
+        }
+
+        static String javaScript(Object value) {
+            return bracketed(value, "null", "true", "false", LegacyLiterals::javaScript);
+        }
+
+        private static String bracketed(Object value, String nullLiteral, String trueLiteral, String falseLiteral,
+                Function<Object, String> self) {
+            if (value == null) return nullLiteral;
+            if (value instanceof Number) return String.valueOf(value);
+            if (value instanceof Boolean) return (Boolean) value ? trueLiteral : falseLiteral;
+            if (value instanceof String) return "\"" + escapeString((String) value) + "\"";
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                if (list.isEmpty()) return "[]";
+                Function<Object, String> item = element -> {
+                    if (element == null) return nullLiteral;
+                    if (element instanceof Boolean) return (Boolean) element ? trueLiteral : falseLiteral;
+                    if (element instanceof String) return "\"" + escapeString((String) element) + "\"";
+                    return String.valueOf(element);
+                };
+                int depth = depth(list);
+                if (depth == 1) {
+                    return "[" + join(list, item) + "]";
+                } else if (depth == 2) {
+                    return "[" + list.stream().map(inner -> "[" + join((List<?>) inner, item) + "]")
+                            .collect(Collectors.joining(", ")) + "]";
+                }
+                return "[" + list.stream().map(self).collect(Collectors.joining(", ")) + "]";
+            }
+            return String.valueOf(value);
+        }
+
+        private static String javaItem(Object item) {
+            if (item == null) return "null";
+            if (item instanceof String) return javaString((String) item);
+            if (item instanceof Long) return item + "L";
+            if (item instanceof Float) return item + "f";
+            return String.valueOf(item);
+        }
+
+        private static String cppItem(Object item) {
+            if (item == null) return "nullptr";
+            if (item instanceof String) return cppString((String) item);
+            if (item instanceof Long) return item + "L";
+            if (item instanceof Float) return item + "f";
+            return String.valueOf(item);
+        }
+
+        private static String javaString(String str) {
+            if (str.length() == 1) {
+                char c = str.charAt(0);
+                char escaped = switch (c) {
+                    case '\n' -> 'n';
+                    case '\r' -> 'r';
+                    case '\t' -> 't';
+                    default -> c;
+                };
+                return "'" + escaped + "'";
+            }
+            return "\"" + escapeString(str) + "\"";
+        }
+
+        private static String cppString(String str) {
+            if (str.length() == 1) {
+                String escaped = switch (str.charAt(0)) {
+                    case '\\' -> "\\\\";
+                    case '\'' -> "\\'";
+                    case '\n' -> "\\n";
+                    case '\r' -> "\\r";
+                    case '\t' -> "\\t";
+                    default -> str;
+                };
+                return "'" + escaped + "'";
+            }
+            return "\"" + escapeString(str) + "\"";
+        }
+
+        private static String escapeString(String str) {
+            return str.replace("\\", "\\\\")
+                    .replace("\"", "\\\"")
+                    .replace("\n", "\\n")
+                    .replace("\r", "\\r")
+                    .replace("\t", "\\t");
+        }
+
+        private static int depth(List<?> list) {
+            if (list.isEmpty()) return 1;
+            Object first = list.get(0);
+            return first instanceof List ? 1 + depth((List<?>) first) : 1;
+        }
+
+        private static String join(List<?> list, Function<Object, String> item) {
+            return list.stream().map(item).collect(Collectors.joining(", "));
+        }
+    }
+}
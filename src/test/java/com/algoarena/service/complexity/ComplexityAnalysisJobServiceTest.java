@@ -0,0 +1,216 @@
+// src/test/java/com/algoarena/service/complexity/ComplexityAnalysisJobServiceTest.java
+package com.algoarena.service.complexity;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.dto.complexity.ComplexityAnalysisResponse;
+import com.algoarena.exception.RateLimitExceededException;
+import com.algoarena.model.ComplexityAnalysisCache;
+import com.algoarena.support.StubHttpServer;
+import com.algoarena.support.StubHttpServer.Reply;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coalescing, the shared cache and 429 backoff of ComplexityAnalysisJobService, with Gemini replaced by a
+ * loopback stub and MongoTemplate by an in-memory cache collection.
+ */
+class ComplexityAnalysisJobServiceTest {
+
+    private static final String GEMINI_OK = "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":"
+            + "\"{\\\"timeComplexity\\\":\\\"O(n)\\\",\\\"spaceComplexity\\\":\\\"O(1)\\\","
+            + "\\\"complexityDescription\\\":\\\"n is the array length\\\"}\"}]}}]}";
+    private static final String GEMINI_429 = "{\"error\":{\"code\":429,\"status\":\"RESOURCE_EXHAUSTED\"}}";
+
+    private final InMemoryCacheTemplate mongoTemplate = new InMemoryCacheTemplate();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AppConfig appConfig = new AppConfig();
+    private StubHttpServer gemini;
+    private ComplexityAnalysisJobService jobService;
+
+    @BeforeEach
+    void configure() {
+        appConfig.getComplexityAnalysis().setWorkers(2);
+        appConfig.getComplexityAnalysis().setMaxAttempts(3);
+        appConfig.getComplexityAnalysis().setRetryInitialDelay(150);
+        appConfig.getComplexityAnalysis().setRetryMaxDelay(1_000);
+    }
+
+    @AfterEach
+    void stop() {
+        if (jobService != null) {
+            jobService.shutdown();
+        }
+        if (gemini != null) {
+            gemini.close();
+        }
+    }
+
+    @Test
+    void identicalCodeInFlightIsSentToGeminiOnce() throws Exception {
+        start(body -> Reply.json(200, GEMINI_OK).after(300));
+
+        List<CompletableFuture<ComplexityAnalysisResponse>> futures = new ArrayList<>();
+        futures.add(jobService.analyze("int f(int[] a) {\n  return a.length;\n}", "java"));
+        // Same code up to line endings, trailing whitespace and blank lines
+        futures.add(jobService.analyze("int f(int[] a) {\r\n  return a.length;   \r\n\r\n}\r\n", "java"));
+        futures.add(jobService.analyze("int f(int[] a) {\n  return a.length;\n}", " JAVA "));
+        futures.add(jobService.analyze("int f(int[] a) {\n  return a.length;\n}", "java"));
+
+        for (CompletableFuture<ComplexityAnalysisResponse> future : futures) {
+            assertEquals("O(n)", future.get(5, TimeUnit.SECONDS).getTimeComplexity());
+            assertSame(futures.get(0), future);
+        }
+        assertEquals(1, gemini.hits("/gemini"));
+        assertEquals(3.0, registry.counter("complexity.analysis", "result", "coalesced").count());
+        assertEquals(1.0, registry.counter("complexity.analysis", "result", "analyzed").count());
+        assertEquals(1, mongoTemplate.saves.get());
+    }
+
+    @Test
+    void differentCodeIsAnalyzedSeparately() throws Exception {
+        start(body -> Reply.json(200, GEMINI_OK));
+
+        jobService.analyze("return 1;", "java").get(5, TimeUnit.SECONDS);
+        jobService.analyze("return 2;", "java").get(5, TimeUnit.SECONDS);
+        jobService.analyze("return 1;", "python").get(5, TimeUnit.SECONDS);
+
+        assertEquals(3, gemini.hits("/gemini"));
+    }
+
+    @Test
+    void cachedAnalysisDoesNotCallGemini() throws Exception {
+        start(body -> Reply.json(200, GEMINI_OK));
+        jobService.analyze("return 1;", "java").get(5, TimeUnit.SECONDS);
+        ComplexityAnalysisCache cached = mongoTemplate.documents.values().iterator().next();
+        cached.setTimeComplexity("O(log n)");
+
+        // Same code, new request: answered from complexity_analysis_cache
+        ComplexityAnalysisResponse response = jobService.analyze("return 1;\n", "java").get(5, TimeUnit.SECONDS);
+
+        assertEquals("O(log n)", response.getTimeComplexity());
+        assertEquals(1, gemini.hits("/gemini"));
+        assertEquals(1.0, registry.counter("complexity.analysis", "result", "cache_hit").count());
+        assertEquals(1, mongoTemplate.saves.get());
+    }
+
+    @Test
+    void retriesRateLimitedCallsWithDoublingBackoff() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        start(body -> calls.incrementAndGet() <= 2 ? Reply.json(429, GEMINI_429) : Reply.json(200, GEMINI_OK));
+
+        long started = System.nanoTime();
+        ComplexityAnalysisResponse response = jobService.analyze("return 1;", "java").get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals("O(1)", response.getSpaceComplexity());
+        assertEquals(3, gemini.hits("/gemini"));
+        // 150 ms after the first 429, 300 ms after the second
+        assertTrue(elapsedMillis >= 450, "finished after " + elapsedMillis + " ms");
+        assertEquals(2.0, registry.counter("complexity.analysis.rate.limited").count());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        start(body -> Reply.json(429, GEMINI_429));
+
+        CompletableFuture<ComplexityAnalysisResponse> future = jobService.analyze("return 1;", "java");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof RateLimitExceededException, String.valueOf(error.getCause()));
+        assertEquals(3, gemini.hits("/gemini"));
+        assertEquals(1.0, registry.counter("complexity.analysis", "result", "failed").count());
+        assertEquals(0, mongoTemplate.saves.get());
+    }
+
+    @Test
+    void rateLimitPausesEveryWorker() throws Exception {
+        List<Long> callTimes = new ArrayList<>();
+        start(body -> {
+            synchronized (callTimes) {
+                callTimes.add(System.nanoTime());
+                return callTimes.size() == 1 ? Reply.json(429, GEMINI_429) : Reply.json(200, GEMINI_OK);
+            }
+        });
+
+        CompletableFuture<ComplexityAnalysisResponse> first = jobService.analyze("return 1;", "java");
+        while (registry.counter("complexity.analysis.rate.limited").count() < 1) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(20); // the pause is set right after the counter
+        // The second worker is idle, but must wait out the pause set by the first worker's 429
+        CompletableFuture<ComplexityAnalysisResponse> second = jobService.analyze("return 2;", "java");
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        synchronized (callTimes) {
+            assertEquals(3, callTimes.size());
+            for (int i = 1; i < callTimes.size(); i++) {
+                long afterLimitMillis = TimeUnit.NANOSECONDS.toMillis(callTimes.get(i) - callTimes.get(0));
+                assertTrue(afterLimitMillis >= 140, "call " + i + " went out " + afterLimitMillis + " ms after the 429");
+            }
+        }
+    }
+
+    private void start(StubHttpServer.Handler handler) {
+        try {
+            gemini = StubHttpServer.start().on("/gemini", handler);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        ComplexityAnalysisService complexityAnalysisService = new ComplexityAnalysisService();
+        ReflectionTestUtils.setField(complexityAnalysisService, "apiKey", "test-key");
+        ReflectionTestUtils.setField(complexityAnalysisService, "apiUrl", gemini.url() + "/gemini");
+        ReflectionTestUtils.setField(complexityAnalysisService, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(complexityAnalysisService, "objectMapper", new ObjectMapper());
+
+        jobService = new ComplexityAnalysisJobService(complexityAnalysisService, null,
+                mongoTemplate, appConfig, registry);
+    }
+
+    /**
+     * complexity_analysis_cache kept in a map; the client points nowhere and is never used
+     */
+    private static final class InMemoryCacheTemplate extends MongoTemplate {
+        private final Map<Object, ComplexityAnalysisCache> documents = new ConcurrentHashMap<>();
+        private final AtomicInteger saves = new AtomicInteger();
+
+        private InMemoryCacheTemplate() {
+            super(MongoClients.create("mongodb://127.0.0.1:1"), "test");
+        }
+
+        @Override
+        public <T> T findById(Object id, Class<T> entityClass) {
+            return entityClass.cast(documents.get(id));
+        }
+
+        @Override
+        public <T> T save(T objectToSave) {
+            ComplexityAnalysisCache entry = (ComplexityAnalysisCache) objectToSave;
+            documents.put(entry.getId(), entry);
+            saves.incrementAndGet();
+            return objectToSave;
+        }
+    }
+}
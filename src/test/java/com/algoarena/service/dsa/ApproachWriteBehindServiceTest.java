@@ -0,0 +1,173 @@
+// src/test/java/com/algoarena/service/dsa/ApproachWriteBehindServiceTest.java
+package com.algoarena.service.dsa;
+
+import com.algoarena.config.AppConfig;
+import com.algoarena.model.QuestionApproaches;
+import com.algoarena.model.UserApproaches.ApproachData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Spooling, flushing and the synchronous fallback of ApproachWriteBehindService, with ApproachStore and
+ * the submission_tracking bulk write replaced by in-memory fakes.
+ */
+class ApproachWriteBehindServiceTest {
+
+    private final Path dir = createTempDirectory();
+    private final RecordingStore store = new RecordingStore();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AppConfig appConfig = new AppConfig();
+
+    @AfterEach
+    void deleteTempDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void spoolsBeforeAcknowledgingAndFlushesLater() throws Exception {
+        Path spool = dir.resolve("spool.jsonl");
+        ApproachWriteBehindService service = service(spool);
+
+        assertTrue(service.enqueue("u1", "User One", approach("q1"), 0));
+
+        assertEquals(1, service.pendingCount());
+        assertEquals(1, Files.readAllLines(spool).size());
+        assertTrue(store.inserted.isEmpty());
+
+        service.flush();
+
+        assertEquals(1, store.inserted.size());
+        assertEquals(0, service.pendingCount());
+        assertFalse(Files.exists(spool));
+    }
+
+    @Test
+    void approachThatCannotBeSpooledIsWrittenBeforeAcknowledging() {
+        // A directory cannot be opened for append
+        ApproachWriteBehindService service = service(dir);
+
+        assertTrue(service.enqueue("u1", "User One", approach("q1"), 0));
+
+        assertEquals(1, store.inserted.size());
+        assertEquals(0, service.pendingCount());
+        assertEquals(0, service.reservedBytes("u1", "q1"));
+        assertEquals(1.0, registry.counter("approach.write.behind.spool.failures").count());
+    }
+
+    @Test
+    void failedSynchronousWriteReachesTheCaller() {
+        store.failing = true;
+        ApproachWriteBehindService service = service(dir);
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> service.enqueue("u1", "User One", approach("q1"), 0));
+
+        assertEquals(0, service.pendingCount());
+        assertEquals(0, service.reservedBytes("u1", "q1"));
+    }
+
+    @Test
+    void queuedBytesCountAgainstTheQuota() {
+        ApproachWriteBehindService service = service(dir.resolve("spool.jsonl"));
+        ApproachData first = approach("q1");
+        int size = first.getContentSize();
+
+        assertTrue(service.enqueue("u1", "User One", first, 20 * 1024 - 2 * size));
+        assertTrue(service.enqueue("u1", "User One", approach("q1"), 20 * 1024 - 2 * size));
+        assertFalse(service.enqueue("u1", "User One", approach("q1"), 20 * 1024 - 2 * size));
+        // Another question of the same user is not affected
+        assertTrue(service.enqueue("u1", "User One", approach("q2"), 0));
+
+        assertEquals(2 * size, service.reservedBytes("u1", "q1"));
+        assertEquals(3, service.pendingCount());
+    }
+
+    private ApproachWriteBehindService service(Path spool) {
+        appConfig.getApproachWriteBehind().setEnabled(true);
+        appConfig.getApproachWriteBehind().setSpoolFile(spool.toString());
+        ApproachWriteBehindService service = new ApproachWriteBehindService(new NoOpBulkTemplate(), store,
+                new ObjectMapper().findAndRegisterModules(), appConfig, registry);
+        service.registerGauges();
+        return service;
+    }
+
+    private static ApproachData approach(String questionId) {
+        ApproachData approach = new ApproachData(questionId, "two pointers");
+        approach.setCodeContent("class Solution { int solve(int[] a) { return a.length; } }");
+        return approach;
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("approach-spool");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Nothing stored yet; every insert succeeds (or fails when failing is set)
+     */
+    private static final class RecordingStore extends ApproachStore {
+        private final List<ApproachWriteBehindService.PendingApproach> inserted = new CopyOnWriteArrayList<>();
+        private volatile boolean failing;
+
+        @Override
+        public Map<String, QuestionApproaches> findAll(Set<String> userIds, Set<String> questionIds) {
+            return new HashMap<>();
+        }
+
+        @Override
+        public Set<String> insertAll(List<ApproachWriteBehindService.PendingApproach> entries) {
+            if (failing) {
+                throw new DataAccessResourceFailureException("Mongo unavailable");
+            }
+            inserted.addAll(entries);
+            Set<String> ids = new HashSet<>();
+            entries.forEach(entry -> ids.add(entry.getApproach().getId()));
+            return ids;
+        }
+    }
+
+    /**
+     * Accepts the submission_tracking bulk write and does nothing; the client points nowhere and is never used
+     */
+    private static final class NoOpBulkTemplate extends MongoTemplate {
+        private NoOpBulkTemplate() {
+            super(MongoClients.create("mongodb://127.0.0.1:1"), "test");
+        }
+
+        @Override
+        public BulkOperations bulkOps(BulkOperations.BulkMode mode, Class<?> entityClass) {
+            return (BulkOperations) Proxy.newProxyInstance(BulkOperations.class.getClassLoader(),
+                    new Class<?>[] { BulkOperations.class },
+                    (proxy, method, args) -> method.getReturnType().isInstance(proxy) ? proxy : null);
+        }
+    }
+}
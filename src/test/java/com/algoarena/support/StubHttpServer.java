@@ -0,0 +1,120 @@
+// src/test/java/com/algoarena/support/StubHttpServer.java
+package com.algoarena.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loopback HTTP server for tests that talk to Piston or Gemini: one handler per path, every request
+ * body recorded, replies optionally delayed (each request is served on its own thread).
+ */
+public final class StubHttpServer implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface Handler {
+        Reply handle(String requestBody) throws Exception;
+    }
+
+    public static final class Reply {
+        private final int status;
+        private final String body;
+        private final long delayMillis;
+
+        private Reply(int status, String body, long delayMillis) {
+            this.status = status;
+            this.body = body;
+            this.delayMillis = delayMillis;
+        }
+
+        public static Reply json(int status, String body) {
+            return new Reply(status, body, 0);
+        }
+
+        public Reply after(long delayMillis) {
+            return new Reply(status, body, delayMillis);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+
+    private StubHttpServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static StubHttpServer start() throws IOException {
+        return new StubHttpServer();
+    }
+
+    public StubHttpServer on(String path, Handler handler) {
+        hits.put(path, new AtomicInteger());
+        server.createContext(path, exchange -> serve(exchange, path, handler));
+        return this;
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int hits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    public List<String> requestBodies() {
+        return requestBodies;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void serve(HttpExchange exchange, String path, Handler handler) throws IOException {
+        try (exchange) {
+            String requestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            hits.get(path).incrementAndGet();
+            requestBodies.add(requestBody);
+
+            Reply reply;
+            try {
+                reply = handler.handle(requestBody);
+                if (reply.delayMillis > 0) {
+                    Thread.sleep(reply.delayMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                reply = Reply.json(500, "{\"message\":\"" + e.getMessage() + "\"}");
+            }
+
+            byte[] bytes = reply.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(reply.status, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        }
+    }
+}